@@ -1,5 +1,8 @@
 package com.langleague.app.config;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +16,48 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final SystemOverview systemOverview = new SystemOverview();
+
+    private final Captcha captcha = new Captcha();
+
+    private final LoginThrottle loginThrottle = new LoginThrottle();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
+    private final Cache cache = new Cache();
+
+    private final SqlAccounting sqlAccounting = new SqlAccounting();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public SystemOverview getSystemOverview() {
+        return systemOverview;
+    }
+
+    public Captcha getCaptcha() {
+        return captcha;
+    }
+
+    public LoginThrottle getLoginThrottle() {
+        return loginThrottle;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public SqlAccounting getSqlAccounting() {
+        return sqlAccounting;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +72,476 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class SystemOverview {
+
+        /**
+         * Delay between two computations of the admin system overview snapshot.
+         */
+        private Duration refreshInterval = Duration.ofSeconds(30);
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+    }
+
+    public static class Captcha {
+
+        /**
+         * Number of pre-rendered captchas the background worker keeps ready.
+         */
+        private int poolSize = 200;
+
+        /**
+         * Time a user has to answer a captcha.
+         */
+        private Duration ttl = Duration.ofMinutes(3);
+
+        /**
+         * Issue signed, self-contained captcha ids instead of keeping answers in memory,
+         * so that any node can verify them.
+         */
+        private boolean stateless = false;
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public boolean isStateless() {
+            return stateless;
+        }
+
+        public void setStateless(boolean stateless) {
+            this.stateless = stateless;
+        }
+    }
+
+    public static class LoginThrottle {
+
+        /**
+         * Password checks running at once, {@code 0} for one per core.
+         */
+        private int threads = 0;
+
+        /**
+         * Login attempts allowed to wait for a password check slot.
+         */
+        private int queueCapacity = 200;
+
+        /**
+         * Longest time a login attempt waits before its password check starts.
+         */
+        private Duration queueTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Attempts allowed in a burst for one login.
+         */
+        private int loginBurst = 5;
+
+        /**
+         * Sustained attempts per minute for one login.
+         */
+        private int loginPerMinute = 5;
+
+        /**
+         * Attempts allowed in a burst from one address. A whole class may share one address.
+         */
+        private int ipBurst = 100;
+
+        /**
+         * Sustained attempts per minute from one address.
+         */
+        private int ipPerMinute = 300;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getQueueTimeout() {
+            return queueTimeout;
+        }
+
+        public void setQueueTimeout(Duration queueTimeout) {
+            this.queueTimeout = queueTimeout;
+        }
+
+        public int getLoginBurst() {
+            return loginBurst;
+        }
+
+        public void setLoginBurst(int loginBurst) {
+            this.loginBurst = loginBurst;
+        }
+
+        public int getLoginPerMinute() {
+            return loginPerMinute;
+        }
+
+        public void setLoginPerMinute(int loginPerMinute) {
+            this.loginPerMinute = loginPerMinute;
+        }
+
+        public int getIpBurst() {
+            return ipBurst;
+        }
+
+        public void setIpBurst(int ipBurst) {
+            this.ipBurst = ipBurst;
+        }
+
+        public int getIpPerMinute() {
+            return ipPerMinute;
+        }
+
+        public void setIpPerMinute(int ipPerMinute) {
+            this.ipPerMinute = ipPerMinute;
+        }
+    }
+
+    public static class MailOutbox {
+
+        /**
+         * Messages sent over one SMTP connection.
+         */
+        private int batchSize = 50;
+
+        /**
+         * Delay between two polls of the outbox, for retries and messages missed by the wake-up after commit.
+         */
+        private Duration pollInterval = Duration.ofSeconds(10);
+
+        /**
+         * Attempts before a message is given up on.
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Delay before the first retry, doubled on each further attempt.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        /**
+         * Longest delay between two attempts.
+         */
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Sizing of the cache regions, keyed by cache name, with entity and collection regions relative to the
+         * domain package, such as {@code Vocabulary} or {@code Exercise.options}. Regions not listed here use
+         * {@code jhipster.cache.ehcache}.
+         */
+        private Map<String, Region> regions = new LinkedHashMap<>();
+
+        private final WarmUp warmUp = new WarmUp();
+
+        private final Invalidation invalidation = new Invalidation();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public void setRegions(Map<String, Region> regions) {
+            this.regions = regions;
+        }
+
+        public WarmUp getWarmUp() {
+            return warmUp;
+        }
+
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+
+        public static class Region {
+
+            /**
+             * Entries kept on heap, defaults to {@code jhipster.cache.ehcache.max-entries}.
+             */
+            private Long heapEntries;
+
+            /**
+             * Size in megabytes of an off-heap tier behind the heap, none if not set.
+             */
+            private Long offHeapMb;
+
+            /**
+             * Time entries live, defaults to {@code jhipster.cache.ehcache.time-to-live-seconds}.
+             */
+            private Duration timeToLive;
+
+            public Long getHeapEntries() {
+                return heapEntries;
+            }
+
+            public void setHeapEntries(Long heapEntries) {
+                this.heapEntries = heapEntries;
+            }
+
+            public Long getOffHeapMb() {
+                return offHeapMb;
+            }
+
+            public void setOffHeapMb(Long offHeapMb) {
+                this.offHeapMb = offHeapMb;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+        }
+
+        public static class WarmUp {
+
+            /**
+             * Load the content of the most enrolled books and the most recently active users at startup.
+             */
+            private boolean enabled = true;
+
+            /**
+             * Most enrolled books whose units, vocabularies, grammars and exercises are loaded.
+             */
+            private int books = 20;
+
+            /**
+             * Most recently active users loaded into the {@code usersByLogin} cache.
+             */
+            private int users = 500;
+
+            /**
+             * How far back a user counts as recently active.
+             */
+            private Duration activeWithin = Duration.ofDays(7);
+
+            /**
+             * Threads loading books and users.
+             */
+            private int threads = 4;
+
+            /**
+             * Longest time the warm-up keeps the application out of the readiness probe.
+             */
+            private Duration timeout = Duration.ofMinutes(2);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getBooks() {
+                return books;
+            }
+
+            public void setBooks(int books) {
+                this.books = books;
+            }
+
+            public int getUsers() {
+                return users;
+            }
+
+            public void setUsers(int users) {
+                this.users = users;
+            }
+
+            public Duration getActiveWithin() {
+                return activeWithin;
+            }
+
+            public void setActiveWithin(Duration activeWithin) {
+                this.activeWithin = activeWithin;
+            }
+
+            public int getThreads() {
+                return threads;
+            }
+
+            public void setThreads(int threads) {
+                this.threads = threads;
+            }
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+        }
+
+        public static class Invalidation {
+
+            /**
+             * Share the evictions of this node with the other nodes, through the {@code cache_invalidation} table.
+             */
+            private boolean enabled = true;
+
+            /**
+             * Delay between two exchanges with the other nodes, which bounds how long they serve stale entries.
+             */
+            private Duration pollInterval = Duration.ofSeconds(1);
+
+            /**
+             * Evictions of the other nodes read per exchange.
+             */
+            private int batchSize = 500;
+
+            /**
+             * How long evictions stay in the table, for nodes that were paused or slow to poll.
+             */
+            private Duration retention = Duration.ofHours(1);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getPollInterval() {
+                return pollInterval;
+            }
+
+            public void setPollInterval(Duration pollInterval) {
+                this.pollInterval = pollInterval;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public Duration getRetention() {
+                return retention;
+            }
+
+            public void setRetention(Duration retention) {
+                this.retention = retention;
+            }
+        }
+    }
+
+    public static class SqlAccounting {
+
+        /**
+         * Count the SQL statements, rows and database time of each HTTP request, per endpoint.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Report the counts of a request in its {@code X-Sql-*} response headers, meant for development.
+         */
+        private boolean header = false;
+
+        /**
+         * Times one statement may run in a request before it is reported as a likely N+1 query.
+         */
+        private int repeatThreshold = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isHeader() {
+            return header;
+        }
+
+        public void setHeader(boolean header) {
+            this.header = header;
+        }
+
+        public int getRepeatThreshold() {
+            return repeatThreshold;
+        }
+
+        public void setRepeatThreshold(int repeatThreshold) {
+            this.repeatThreshold = repeatThreshold;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
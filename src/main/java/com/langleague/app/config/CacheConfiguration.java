@@ -1,9 +1,14 @@
 package com.langleague.app.config;
 
 import java.time.Duration;
+import java.util.Map;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
 import org.ehcache.jsr107.Eh107Configuration;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
@@ -15,26 +20,30 @@ import org.springframework.context.annotation.*;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.cache.PrefixedKeyGenerator;
 
+/**
+ * Caches and second-level cache regions.
+ * <p>
+ * Each region is sized from {@code application.cache.regions}, falling back to {@code jhipster.cache.ehcache}.
+ * A region may have an off-heap tier, holding serialized entries outside of the garbage collected heap, for large
+ * and mostly read content. Statistics are enabled on every region, so that Spring Boot publishes their hits,
+ * misses and evictions as {@code cache.*} meters tagged with the cache name.
+ */
 @Configuration
 @EnableCaching
 public class CacheConfiguration {
 
+    private static final Logger LOG = LoggerFactory.getLogger(CacheConfiguration.class);
+
+    private static final String DOMAIN_PREFIX = com.langleague.app.domain.User.class.getPackageName() + ".";
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
-
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
-
-        jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
-            CacheConfigurationBuilder.newCacheConfigurationBuilder(
-                Object.class,
-                Object.class,
-                ResourcePoolsBuilder.heap(ehcache.getMaxEntries())
-            )
-                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                .build()
-        );
+    private final JHipsterProperties.Cache.Ehcache defaults;
+    private final Map<String, ApplicationProperties.Cache.Region> regions;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.defaults = jHipsterProperties.getCache().getEhcache();
+        this.regions = applicationProperties.getCache().getRegions();
     }
 
     @Bean
@@ -70,16 +79,64 @@ public class CacheConfiguration {
             createCache(cm, com.langleague.app.domain.ExerciseOption.class.getName());
             createCache(cm, com.langleague.app.domain.Progress.class.getName());
             // jhipster-needle-ehcache-add-entry
+            warnAboutUnknownRegions(cm);
         };
     }
 
+    private void warnAboutUnknownRegions(javax.cache.CacheManager cm) {
+        for (String regionName : regions.keySet()) {
+            if (cm.getCache(regionName) == null && cm.getCache(DOMAIN_PREFIX + regionName) == null) {
+                LOG.warn("Ignoring the configuration of unknown cache region {}", regionName);
+            }
+        }
+    }
+
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, regionConfiguration(cacheName));
+        }
+        cm.enableStatistics(cacheName, true);
+    }
+
+    javax.cache.configuration.Configuration<Object, Object> regionConfiguration(String cacheName) {
+        ApplicationProperties.Cache.Region region = regions.get(regionName(cacheName));
+        long heapEntries = defaults.getMaxEntries();
+        Duration timeToLive = Duration.ofSeconds(defaults.getTimeToLiveSeconds());
+        long offHeapMb = 0;
+        if (region != null) {
+            heapEntries = region.getHeapEntries() != null ? region.getHeapEntries() : heapEntries;
+            timeToLive = region.getTimeToLive() != null ? region.getTimeToLive() : timeToLive;
+            offHeapMb = region.getOffHeapMb() != null ? region.getOffHeapMb() : 0;
+        }
+
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.heap(heapEntries);
+        if (offHeapMb > 0) {
+            resourcePools = resourcePools.offheap(offHeapMb, MemoryUnit.MB);
         }
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder.newCacheConfigurationBuilder(
+            Object.class,
+            Object.class,
+            resourcePools
+        ).withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive));
+        if (offHeapMb > 0) {
+            // Entries leave the heap as bytes; second-level cache entries and keys are serializable
+            ClassLoader classLoader = CacheConfiguration.class.getClassLoader();
+            builder = builder
+                .withKeySerializer(new PlainJavaSerializer<>(classLoader))
+                .withValueSerializer(new PlainJavaSerializer<>(classLoader));
+        }
+        LOG.debug("Cache {}: {} heap entries, {} MB off-heap, time to live {}", cacheName, heapEntries, offHeapMb, timeToLive);
+        return Eh107Configuration.fromEhcacheCacheConfiguration(builder.build());
+    }
+
+    /**
+     * Name of a cache in {@code application.cache.regions}, relative to the domain package for entity regions.
+     */
+    static String regionName(String cacheName) {
+        return cacheName.startsWith(DOMAIN_PREFIX) ? cacheName.substring(DOMAIN_PREFIX.length()) : cacheName;
     }
 
     @Autowired(required = false)
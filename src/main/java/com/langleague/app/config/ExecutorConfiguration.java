@@ -0,0 +1,79 @@
+package com.langleague.app.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Thread pools of the services working in the background, initialized and shut down with the application context.
+ * <p>
+ * Each pool is only injected where its name is given as qualifier: as it is no default candidate, it never stands in
+ * for the application task executor. Any {@code TaskScheduler} bean makes Spring Boot back off from its own, so the
+ * scheduler running {@code @Scheduled} methods is declared here too, under the name Spring looks it up by.
+ */
+@Configuration
+public class ExecutorConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutorConfiguration.class);
+
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(name = "noteAutosaveScheduler", defaultCandidate = false)
+    public ThreadPoolTaskScheduler noteAutosaveScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("note-autosave-");
+        return scheduler;
+    }
+
+    @Bean(name = "imageDerivativeExecutor", defaultCandidate = false)
+    public ThreadPoolTaskExecutor imageDerivativeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("image-derivative-");
+        // Dropping a job only means the original keeps being served
+        executor.setRejectedExecutionHandler((task, pool) -> LOG.warn("Image derivative queue full, skipping job"));
+        return executor;
+    }
+
+    @Bean(name = "systemOverviewExecutor", defaultCandidate = false)
+    public ThreadPoolTaskExecutor systemOverviewExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // One thread per query of a refresh
+        executor.setCorePoolSize(5);
+        executor.setMaxPoolSize(5);
+        executor.setThreadNamePrefix("system-overview-");
+        return executor;
+    }
+
+    @Bean(name = "captchaRefillExecutor", defaultCandidate = false)
+    public ThreadPoolTaskExecutor captchaRefillExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("captcha-refill-");
+        // Rendering ahead must not compete with request threads
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setDaemon(true);
+        return executor;
+    }
+
+    @Bean(name = "cacheWarmUpExecutor", defaultCandidate = false)
+    public ThreadPoolTaskExecutor cacheWarmUpExecutor(ApplicationProperties applicationProperties) {
+        int threads = applicationProperties.getCache().getWarmUp().getThreads();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("cache-warm-up-");
+        return executor;
+    }
+}
@@ -0,0 +1,58 @@
+package com.langleague.app.config;
+
+import com.langleague.app.management.SqlMeteringDataSource;
+import com.langleague.app.management.SqlStatementInspector;
+import com.langleague.app.management.SqlStatementMetersService;
+import com.langleague.app.web.filter.SqlStatementAccountingFilter;
+import javax.sql.DataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Accounting of the SQL statements of each HTTP request, per endpoint.
+ * <p>
+ * The data source counts executed statements, rows and time, Hibernate reports the statements it prepares to spot
+ * N+1 queries, and a filter scopes the counts to a request and records them in Micrometer.
+ */
+@Configuration
+public class SqlAccountingConfiguration {
+
+    private static final String ENABLED_PROPERTY = "application.sql-accounting.enabled";
+
+    @Bean
+    public static BeanPostProcessor sqlMeteringDataSourcePostProcessor(Environment env) {
+        boolean enabled = env.getProperty(ENABLED_PROPERTY, Boolean.class, true);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource && !(bean instanceof SqlMeteringDataSource)) {
+                    return new SqlMeteringDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspectorCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementAccountingFilter> sqlStatementAccountingFilter(
+        SqlStatementMetersService sqlStatementMetersService,
+        ApplicationProperties applicationProperties
+    ) {
+        ApplicationProperties.SqlAccounting properties = applicationProperties.getSqlAccounting();
+        FilterRegistrationBean<SqlStatementAccountingFilter> registration = new FilterRegistrationBean<>(
+            new SqlStatementAccountingFilter(sqlStatementMetersService, properties.isHeader())
+        );
+        registration.setEnabled(properties.isEnabled());
+        return registration;
+    }
+}
@@ -1,9 +1,24 @@
 package com.langleague.app.config;
 
+import com.langleague.app.service.ImageDerivativeService;
+import com.langleague.app.service.ImageDerivativeService.ImageVariant;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
 
 @Configuration
 public class StaticResourcesWebConfiguration implements WebMvcConfigurer {
@@ -12,6 +27,83 @@ public class StaticResourcesWebConfiguration implements WebMvcConfigurer {
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         String uploadPath = Paths.get("storage/uploads").toAbsolutePath().toUri().toString();
 
-        registry.addResourceHandler("/content/uploads/**").addResourceLocations(uploadPath);
+        // Uploads are named after their content and never change, so they can be cached forever.
+        // No resolver caching though: the resolved file depends on the size parameter, not only on the path
+        registry
+            .addResourceHandler("/content/uploads/**")
+            .addResourceLocations(uploadPath)
+            .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+            .setEtagGenerator(StaticResourcesWebConfiguration::uploadEtag)
+            .resourceChain(false)
+            .addResolver(new ImageVariantResourceResolver());
+    }
+
+    /**
+     * Strong ETag of an upload: its file name, which is its SHA-256 digest, prefixed by the variant size for variants.
+     */
+    static String uploadEtag(Resource resource) {
+        try {
+            Path path = resource.getFile().toPath();
+            Path parent = path.getParent();
+            if (parent != null && parent.getParent() != null && "variants".equals(String.valueOf(parent.getParent().getFileName()))) {
+                return parent.getFileName() + "-" + path.getFileName();
+            }
+            return path.getFileName().toString();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Serves the generated variant of an upload when a {@code size} parameter is given, the original otherwise.
+     */
+    static class ImageVariantResourceResolver implements ResourceResolver {
+
+        @Override
+        public Resource resolveResource(
+            HttpServletRequest request,
+            String requestPath,
+            List<? extends Resource> locations,
+            ResourceResolverChain chain
+        ) {
+            Resource original = chain.resolveResource(request, requestPath, locations);
+            if (original == null || request == null || !original.isFile()) {
+                return original;
+            }
+            Optional<ImageVariant> variant = ImageVariant.fromParam(request.getParameter(ImageDerivativeService.SIZE_PARAMETER));
+            if (variant.isEmpty()) {
+                return original;
+            }
+            try {
+                Path originalPath = original.getFile().toPath();
+                return ImageDerivativeService.findVariant(originalPath, variant.orElseThrow())
+                    .<Resource>map(FileSystemResource::new)
+                    .orElseGet(() -> new PendingVariantResource(originalPath));
+            } catch (IOException e) {
+                return original;
+            }
+        }
+
+        @Override
+        public String resolveUrlPath(String resourcePath, List<? extends Resource> locations, ResourceResolverChain chain) {
+            return chain.resolveUrlPath(resourcePath, locations);
+        }
+    }
+
+    /**
+     * The original served in place of a variant that is not generated yet: it must be revalidated, not cached as immutable.
+     */
+    static class PendingVariantResource extends FileSystemResource implements HttpResource {
+
+        PendingVariantResource(Path original) {
+            super(original);
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setCacheControl(CacheControl.noCache());
+            return headers;
+        }
     }
 }
@@ -38,6 +38,10 @@ public class Note implements Serializable {
     @Column(name = "updated_at")
     private Instant updatedAt;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne(optional = false)
     @NotNull
     @JsonIgnoreProperties(value = { "user", "books", "enrollments", "progresses", "notes" }, allowSetters = true)
@@ -100,6 +104,19 @@ public class Note implements Serializable {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Note version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public UserProfile getUserProfile() {
         return this.userProfile;
     }
@@ -157,6 +174,8 @@ public class Note implements Serializable {
             ", updatedAt='" +
             getUpdatedAt() +
             "'" +
+            ", version=" +
+            getVersion() +
             "}"
         );
     }
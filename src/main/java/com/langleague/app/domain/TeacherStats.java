@@ -0,0 +1,119 @@
+package com.langleague.app.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * The dashboard counters of a teacher.
+ * <p>
+ * Rows are only written by native counter updates, in the transaction of the change they count,
+ * so the entity is read-only and not cached.
+ */
+@Entity
+@Immutable
+@Table(name = "teacher_stats")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class TeacherStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "teacher_profile_id")
+    private Long teacherProfileId;
+
+    @Column(name = "book_count", nullable = false)
+    private long bookCount;
+
+    @Column(name = "enrollment_count", nullable = false)
+    private long enrollmentCount;
+
+    @Column(name = "student_count", nullable = false)
+    private long studentCount;
+
+    @Column(name = "completed_unit_count", nullable = false)
+    private long completedUnitCount;
+
+    @Column(name = "score_sum", nullable = false)
+    private long scoreSum;
+
+    @Column(name = "scored_progress_count", nullable = false)
+    private long scoredProgressCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public Long getTeacherProfileId() {
+        return this.teacherProfileId;
+    }
+
+    public long getBookCount() {
+        return this.bookCount;
+    }
+
+    public long getEnrollmentCount() {
+        return this.enrollmentCount;
+    }
+
+    public long getStudentCount() {
+        return this.studentCount;
+    }
+
+    public long getCompletedUnitCount() {
+        return this.completedUnitCount;
+    }
+
+    public long getScoreSum() {
+        return this.scoreSum;
+    }
+
+    public long getScoredProgressCount() {
+        return this.scoredProgressCount;
+    }
+
+    public Instant getUpdatedAt() {
+        return this.updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TeacherStats)) {
+            return false;
+        }
+        return getTeacherProfileId() != null && getTeacherProfileId().equals(((TeacherStats) o).getTeacherProfileId());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "TeacherStats{" +
+            "teacherProfileId=" +
+            getTeacherProfileId() +
+            ", bookCount=" +
+            getBookCount() +
+            ", enrollmentCount=" +
+            getEnrollmentCount() +
+            ", studentCount=" +
+            getStudentCount() +
+            ", completedUnitCount=" +
+            getCompletedUnitCount() +
+            ", scoreSum=" +
+            getScoreSum() +
+            ", scoredProgressCount=" +
+            getScoredProgressCount() +
+            ", updatedAt='" +
+            getUpdatedAt() +
+            "'" +
+            "}"
+        );
+    }
+}
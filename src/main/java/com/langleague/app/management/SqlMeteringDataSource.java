@@ -0,0 +1,108 @@
+package com.langleague.app.management;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source counting, in {@link SqlStatementStatistics}, the statements executed during a request, the rows they
+ * read and the time they took, whether they come from Hibernate or a {@code JdbcTemplate}.
+ * <p>
+ * Connections and statements are proxied; result sets only while a request is counted, as every row read goes
+ * through them.
+ */
+public class SqlMeteringDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    public SqlMeteringDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return meter(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return meter(super.getConnection(username, password));
+    }
+
+    /**
+     * Close the pool behind, as the container only knows of this data source.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static Connection meter(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                return proxy(method.getReturnType(), statement, SqlMeteringDataSource::invokeStatement);
+            }
+            return result;
+        });
+    }
+
+    private static Object invokeStatement(Object statement, Method method, Object[] args) throws Throwable {
+        SqlStatementStatistics statistics = SqlStatementStatistics.current();
+        if (statistics == null) {
+            return invoke(statement, method, args);
+        }
+        Object result;
+        if (method.getName().startsWith("execute")) {
+            long started = System.nanoTime();
+            try {
+                result = invoke(statement, method, args);
+            } finally {
+                statistics.recordExecution(System.nanoTime() - started);
+            }
+        } else {
+            result = invoke(statement, method, args);
+        }
+        if (result instanceof ResultSet resultSet && !"getGeneratedKeys".equals(method.getName())) {
+            return proxy(ResultSet.class, resultSet, (target, resultSetMethod, resultSetArgs) -> {
+                Object next = invoke(target, resultSetMethod, resultSetArgs);
+                if (Boolean.TRUE.equals(next) && "next".equals(resultSetMethod.getName())) {
+                    statistics.recordRow();
+                }
+                return next;
+            });
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) ->
+            switch (method.getName()) {
+                // Identity, as drivers and Hibernate keep statements and result sets in hash maps
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> handler.invoke(target, method, args);
+            };
+        return type.cast(Proxy.newProxyInstance(SqlMeteringDataSource.class.getClassLoader(), new Class<?>[] { type }, invocationHandler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.langleague.app.management;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records the statements Hibernate prepares during a request, in {@link SqlStatementStatistics}.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementStatistics statistics = SqlStatementStatistics.current();
+        if (statistics != null) {
+            statistics.recordPrepared(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,78 @@
+package com.langleague.app.management;
+
+import com.langleague.app.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SqlStatementMetersService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SqlStatementMetersService.class);
+
+    public static final String STATEMENTS_METER_NAME = "sql.request.statements";
+    public static final String ROWS_METER_NAME = "sql.request.rows";
+    public static final String TIME_METER_NAME = "sql.request.time";
+    public static final String REPEATED_METER_NAME = "sql.request.repeated";
+    public static final String HANDLER_DIMENSION = "handler";
+
+    private final MeterRegistry registry;
+
+    private final int repeatThreshold;
+
+    public SqlStatementMetersService(MeterRegistry registry, ApplicationProperties applicationProperties) {
+        this.registry = registry;
+        this.repeatThreshold = applicationProperties.getSqlAccounting().getRepeatThreshold();
+    }
+
+    /**
+     * Record the statements of a served request against its handler, and report a statement repeated past the
+     * threshold as a likely N+1 query. Requests no handler method served are not recorded.
+     */
+    public void record(SqlStatementStatistics statistics) {
+        String handler = statistics.getHandler();
+        if (handler == null) {
+            return;
+        }
+        DistributionSummary.builder(STATEMENTS_METER_NAME)
+            .baseUnit("statements")
+            .description("SQL statements executed per request")
+            .tag(HANDLER_DIMENSION, handler)
+            .register(registry)
+            .record(statistics.getStatements());
+        DistributionSummary.builder(ROWS_METER_NAME)
+            .baseUnit("rows")
+            .description("Rows read from the database per request")
+            .tag(HANDLER_DIMENSION, handler)
+            .register(registry)
+            .record(statistics.getRows());
+        Timer.builder(TIME_METER_NAME)
+            .description("Time spent executing SQL statements per request")
+            .tag(HANDLER_DIMENSION, handler)
+            .register(registry)
+            .record(statistics.getNanos(), TimeUnit.NANOSECONDS);
+
+        Map.Entry<String, Integer> mostRepeated = statistics.getMostRepeatedStatement();
+        if (mostRepeated != null && mostRepeated.getValue() >= repeatThreshold) {
+            LOG.warn(
+                "Likely N+1 query in {} ({}): {} times {}",
+                handler,
+                statistics.getRequest(),
+                mostRepeated.getValue(),
+                mostRepeated.getKey()
+            );
+            Counter.builder(REPEATED_METER_NAME)
+                .baseUnit("requests")
+                .description("Requests preparing one statement more times than the repeat threshold")
+                .tag(HANDLER_DIMENSION, handler)
+                .register(registry)
+                .increment();
+        }
+    }
+}
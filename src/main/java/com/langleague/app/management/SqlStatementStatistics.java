@@ -0,0 +1,130 @@
+package com.langleague.app.management;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * SQL statements run by the HTTP request being served on the current thread.
+ * <p>
+ * Bound to the thread by {@code SqlStatementAccountingFilter} for the length of a request. {@link SqlMeteringDataSource}
+ * counts the executed statements, the rows read and the time spent in the database, and {@link SqlStatementInspector}
+ * how often each statement generated by Hibernate was prepared, which exposes N+1 queries.
+ */
+public final class SqlStatementStatistics {
+
+    private static final ThreadLocal<SqlStatementStatistics> CURRENT = new ThreadLocal<>();
+
+    private static final ThreadLocal<Consumer<SqlStatementStatistics>> OBSERVER = new ThreadLocal<>();
+
+    // Enough to catch repeats, without holding on to every statement of a runaway request
+    private static final int MAX_DISTINCT_STATEMENTS = 1000;
+
+    private final String request;
+
+    private String handler;
+
+    private int statements;
+
+    private long rows;
+
+    private long nanos;
+
+    private final Map<String, Integer> preparedStatements = new HashMap<>();
+
+    private SqlStatementStatistics(String request) {
+        this.request = request;
+    }
+
+    /**
+     * Start counting the statements of a request on the current thread.
+     *
+     * @param request the request, such as {@code GET /api/units}, for logs.
+     * @return the statistics of the request.
+     */
+    public static SqlStatementStatistics begin(String request) {
+        SqlStatementStatistics statistics = new SqlStatementStatistics(request);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * The statistics of the request served on the current thread, {@code null} outside of a request.
+     */
+    public static SqlStatementStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stop counting, once the request is served.
+     *
+     * @param handler the name of the handler which served the request, {@code null} if none did.
+     */
+    public void end(String handler) {
+        CURRENT.remove();
+        this.handler = handler;
+        Consumer<SqlStatementStatistics> observer = OBSERVER.get();
+        if (observer != null) {
+            observer.accept(this);
+        }
+    }
+
+    /**
+     * Hand the statistics of every request later served on the current thread to an observer, for tests.
+     */
+    public static void observe(Consumer<SqlStatementStatistics> observer) {
+        OBSERVER.set(observer);
+    }
+
+    public static void stopObserving() {
+        OBSERVER.remove();
+    }
+
+    void recordExecution(long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    void recordPrepared(String sql) {
+        if (preparedStatements.size() < MAX_DISTINCT_STATEMENTS || preparedStatements.containsKey(sql)) {
+            preparedStatements.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * The Hibernate statement prepared the most times in the request, {@code null} if there was none.
+     */
+    public Map.Entry<String, Integer> getMostRepeatedStatement() {
+        Map.Entry<String, Integer> mostRepeated = null;
+        for (Map.Entry<String, Integer> entry : preparedStatements.entrySet()) {
+            if (mostRepeated == null || entry.getValue() > mostRepeated.getValue()) {
+                mostRepeated = entry;
+            }
+        }
+        return mostRepeated;
+    }
+
+    public String getRequest() {
+        return request;
+    }
+
+    public String getHandler() {
+        return handler;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+}
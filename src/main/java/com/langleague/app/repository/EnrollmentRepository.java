@@ -5,6 +5,7 @@ import com.langleague.app.service.dto.StudentDTO;
 import com.langleague.app.service.dto.TeacherDashboardDTO;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 
@@ -47,4 +48,7 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
         "GROUP BY u.id, u.login, u.firstName, u.lastName, u.email, u.imageUrl, b.title"
     )
     List<StudentDTO> findStudentsByTeacher(String teacherLogin);
+
+    @Query("SELECT e.book.id FROM Enrollment e GROUP BY e.book.id ORDER BY COUNT(e) DESC, e.book.id")
+    List<Long> findMostEnrolledBookIds(Pageable pageable);
 }
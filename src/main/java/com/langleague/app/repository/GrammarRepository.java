@@ -1,8 +1,14 @@
 package com.langleague.app.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 import com.langleague.app.domain.Grammar;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -14,4 +20,24 @@ public interface GrammarRepository extends JpaRepository<Grammar, Long> {
     List<Grammar> findAllByUnitId(Long unitId);
 
     List<Grammar> findAllByUnitIdOrderByOrderIndexAsc(Long unitId);
+
+    /**
+     * Stream the grammars of a unit, row by row, with their unit, its book and the teacher profile of the book
+     * fetched: MySQL rejects any further statement on the connection while the stream is open.
+     * The returned stream must be consumed inside a transaction and closed.
+     *
+     * @param unitId the unit ID
+     * @return stream of grammars ordered by order index
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HINT_FETCH_SIZE, value = StreamingQueryHints.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+        }
+    )
+    @Query(
+        "SELECT g FROM Grammar g JOIN FETCH g.unit u JOIN FETCH u.book b JOIN FETCH b.teacherProfile " +
+        "WHERE u.id = :unitId ORDER BY g.orderIndex ASC"
+    )
+    Stream<Grammar> streamAllByUnitId(@Param("unitId") Long unitId);
 }
@@ -1,11 +1,14 @@
 package com.langleague.app.repository;
 
 import com.langleague.app.domain.Note;
+import java.time.Instant;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Spring Data JPA repository for the Note entity.
@@ -28,4 +31,85 @@ public interface NoteRepository extends JpaRepository<Note, Long> {
      * @return true if a note exists, false otherwise.
      */
     boolean existsByUserProfileIdAndUnitId(Long userProfileId, Long unitId);
+
+    /**
+     * Get the ids of the units of a book for which a user has a note.
+     * Answered from the {@code (user_profile_id, unit_id)} unique index, joined to the units by primary key.
+     *
+     * @param userProfileId the user profile ID.
+     * @param bookId the book ID.
+     * @return the unit ids, in ascending order.
+     */
+    @Query("SELECT n.unit.id FROM Note n WHERE n.userProfile.id = :userProfileId AND n.unit.book.id = :bookId ORDER BY n.unit.id")
+    List<Long> findUnitIdsByUserProfileIdAndBookId(@Param("userProfileId") Long userProfileId, @Param("bookId") Long bookId);
+
+    /**
+     * Full-text search over the notes of a user, newest first, using keyset pagination on the note id.
+     * Rows are {@code [id, unitId, unitTitle, content, createdAt, updatedAt]}.
+     *
+     * @param userProfileId the user profile ID.
+     * @param query the MySQL boolean mode full-text query.
+     * @param beforeId only notes with a smaller id are returned.
+     * @param limit the maximum number of rows.
+     * @return the matching rows.
+     */
+    @Query(
+        value = "SELECT n.id, n.unit_id, u.title, n.content, n.created_at, n.updated_at " +
+        "FROM note n JOIN unit u ON u.id = n.unit_id " +
+        "WHERE n.user_profile_id = :userProfileId " +
+        "AND MATCH(n.content) AGAINST(:query IN BOOLEAN MODE) " +
+        "AND n.id < :beforeId " +
+        "ORDER BY n.id DESC " +
+        "LIMIT :limit",
+        nativeQuery = true
+    )
+    List<Object[]> searchByUserProfileId(
+        @Param("userProfileId") Long userProfileId,
+        @Param("query") String query,
+        @Param("beforeId") Long beforeId,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Get the id and version of the note of a user for a unit, without loading its content.
+     *
+     * @param userProfileId the user profile ID.
+     * @param unitId the unit ID.
+     * @return {@code [id, version]} rows, at most one.
+     */
+    @Query("SELECT n.id, n.version FROM Note n WHERE n.userProfile.id = :userProfileId AND n.unit.id = :unitId")
+    List<Object[]> findIdAndVersionByUserProfileIdAndUnitId(@Param("userProfileId") Long userProfileId, @Param("unitId") Long unitId);
+
+    /**
+     * Replace the content of a note if its version is still the expected one, bumping the version.
+     *
+     * @param id the note ID.
+     * @param content the new content.
+     * @param updatedAt the update time.
+     * @param version the expected current version.
+     * @return {@code 1} if the note was updated, {@code 0} if its version changed in the meantime.
+     */
+    @Transactional
+    @Modifying
+    @Query(
+        "UPDATE Note n SET n.content = :content, n.updatedAt = :updatedAt, n.version = n.version + 1 " +
+        "WHERE n.id = :id AND n.version = :version"
+    )
+    int updateContentIfVersion(
+        @Param("id") Long id,
+        @Param("content") String content,
+        @Param("updatedAt") Instant updatedAt,
+        @Param("version") Long version
+    );
+
+    /**
+     * Bump the version of a note, so that every client holding an older version gets a conflict.
+     *
+     * @param id the note ID.
+     * @return the number of updated notes.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Note n SET n.version = n.version + 1 WHERE n.id = :id")
+    int incrementVersion(@Param("id") Long id);
 }
@@ -1,9 +1,17 @@
 package com.langleague.app.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 import com.langleague.app.domain.Progress;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -22,6 +30,26 @@ public interface ProgressRepository extends JpaRepository<Progress, Long> {
 
     List<Progress> findByUserProfileId(Long userProfileId);
 
+    /**
+     * Stream the progresses of a user profile, row by row. Every eager association of the graph (user profile,
+     * unit, book and its teacher profile) is fetched, as MySQL rejects any further statement on the connection
+     * while the stream is open.
+     *
+     * @param userProfileId the user profile ID
+     * @return stream of progresses
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HINT_FETCH_SIZE, value = StreamingQueryHints.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+        }
+    )
+    @Query(
+        "SELECT p FROM Progress p JOIN FETCH p.userProfile JOIN FETCH p.unit u JOIN FETCH u.book b JOIN FETCH b.teacherProfile " +
+        "WHERE p.userProfile.id = :userProfileId"
+    )
+    Stream<Progress> streamByUserProfileId(@Param("userProfileId") Long userProfileId);
+
     List<Progress> findByUnitId(Long unitId);
 
     Optional<Progress> findByUserProfileIdAndUnitId(Long userProfileId, Long unitId);
@@ -37,4 +65,13 @@ public interface ProgressRepository extends JpaRepository<Progress, Long> {
     List<Progress> findByCurrentUserOrderByLastAccessedAtDesc();
 
     long countByIsCompletedTrue();
+
+    /**
+     * Logins of the users who accessed a unit since a date, most recent first.
+     */
+    @Query(
+        "SELECT p.userProfile.user.login FROM Progress p WHERE p.lastAccessedAt >= ?1 " +
+        "GROUP BY p.userProfile.user.login ORDER BY MAX(p.lastAccessedAt) DESC"
+    )
+    List<String> findRecentlyActiveLogins(Instant since, Pageable pageable);
 }
@@ -0,0 +1,16 @@
+package com.langleague.app.repository;
+
+/**
+ * Query hint values shared by the repository methods returning a {@link java.util.stream.Stream}.
+ * <p>
+ * MySQL Connector/J only streams a result set row by row when the JDBC fetch size is
+ * {@link Integer#MIN_VALUE}; any other value makes the driver buffer the whole result in memory.
+ * While such a stream is open no other statement may run on the same connection, so streamed
+ * queries must fetch every association their mapping needs.
+ */
+public final class StreamingQueryHints {
+
+    public static final String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    private StreamingQueryHints() {}
+}
@@ -0,0 +1,161 @@
+package com.langleague.app.repository;
+
+import com.langleague.app.domain.TeacherStats;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the TeacherStats entity, and the per-book counters of the {@code teacher_book_stats} table.
+ * <p>
+ * Counters are changed with MySQL upserts adding a delta, so that concurrent changes never overwrite each other.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface TeacherStatsRepository extends JpaRepository<TeacherStats, Long> {
+    /**
+     * Add deltas to the counters of a teacher, creating the row if needed.
+     *
+     * @return the number of affected rows.
+     */
+    @Modifying
+    @Query(
+        value = "INSERT INTO teacher_stats (teacher_profile_id, book_count, enrollment_count, student_count, " +
+        "completed_unit_count, score_sum, scored_progress_count, updated_at) " +
+        "VALUES (:teacherProfileId, :books, :enrollments, :students, :completedUnits, :scoreSum, :scoredProgresses, :now) AS delta " +
+        "ON DUPLICATE KEY UPDATE " +
+        "book_count = teacher_stats.book_count + delta.book_count, " +
+        "enrollment_count = teacher_stats.enrollment_count + delta.enrollment_count, " +
+        "student_count = teacher_stats.student_count + delta.student_count, " +
+        "completed_unit_count = teacher_stats.completed_unit_count + delta.completed_unit_count, " +
+        "score_sum = teacher_stats.score_sum + delta.score_sum, " +
+        "scored_progress_count = teacher_stats.scored_progress_count + delta.scored_progress_count, " +
+        "updated_at = delta.updated_at",
+        nativeQuery = true
+    )
+    int addToTeacherStats(
+        @Param("teacherProfileId") Long teacherProfileId,
+        @Param("books") long books,
+        @Param("enrollments") long enrollments,
+        @Param("students") long students,
+        @Param("completedUnits") long completedUnits,
+        @Param("scoreSum") long scoreSum,
+        @Param("scoredProgresses") long scoredProgresses,
+        @Param("now") Instant now
+    );
+
+    /**
+     * Add a delta to the enrollment counter of a book, creating the row if needed.
+     *
+     * @return the number of affected rows.
+     */
+    @Modifying
+    @Query(
+        value = "INSERT INTO teacher_book_stats (book_id, teacher_profile_id, enrollment_count) " +
+        "VALUES (:bookId, :teacherProfileId, :enrollments) AS delta " +
+        "ON DUPLICATE KEY UPDATE enrollment_count = teacher_book_stats.enrollment_count + delta.enrollment_count",
+        nativeQuery = true
+    )
+    int addToBookStats(
+        @Param("bookId") Long bookId,
+        @Param("teacherProfileId") Long teacherProfileId,
+        @Param("enrollments") long enrollments
+    );
+
+    /**
+     * Get the enrollment counters of the books of a teacher.
+     *
+     * @param teacherProfileId the teacher profile ID.
+     * @return {@code [title, enrollmentCount]} rows, by book id.
+     */
+    @Query(
+        value = "SELECT b.title, s.enrollment_count FROM teacher_book_stats s JOIN book b ON b.id = s.book_id " +
+        "WHERE s.teacher_profile_id = :teacherProfileId ORDER BY s.book_id",
+        nativeQuery = true
+    )
+    List<Object[]> findBookStatsByTeacherProfileId(@Param("teacherProfileId") Long teacherProfileId);
+
+    @Query("SELECT b.teacherProfile.id FROM Book b WHERE b.id = :bookId")
+    Optional<Long> findTeacherProfileIdByBookId(@Param("bookId") Long bookId);
+
+    @Query("SELECT u.book.teacherProfile.id FROM Unit u WHERE u.id = :unitId")
+    Optional<Long> findTeacherProfileIdByUnitId(@Param("unitId") Long unitId);
+
+    /**
+     * Count the enrollments of a student in the books of a teacher, other than the given one.
+     */
+    @Query(
+        "SELECT COUNT(e) FROM Enrollment e " +
+        "WHERE e.userProfile.id = :studentProfileId AND e.book.teacherProfile.id = :teacherProfileId AND e.id <> :enrollmentId"
+    )
+    long countOtherEnrollmentsOfStudentWithTeacher(
+        @Param("studentProfileId") Long studentProfileId,
+        @Param("teacherProfileId") Long teacherProfileId,
+        @Param("enrollmentId") Long enrollmentId
+    );
+
+    /**
+     * Recompute the per-book counters from the enrollments, for one teacher or, with {@code null}, for all of them.
+     */
+    @Modifying
+    @Query(
+        value = "INSERT INTO teacher_book_stats (book_id, teacher_profile_id, enrollment_count) " +
+        "SELECT * FROM (" +
+        "SELECT b.id AS book_id, b.teacher_profile_id AS teacher_profile_id, COUNT(e.id) AS enrollment_count " +
+        "FROM book b LEFT JOIN enrollment e ON e.book_id = b.id " +
+        "WHERE b.teacher_profile_id IS NOT NULL AND (:teacherProfileId IS NULL OR b.teacher_profile_id = :teacherProfileId) " +
+        "GROUP BY b.id, b.teacher_profile_id" +
+        ") AS computed " +
+        "ON DUPLICATE KEY UPDATE teacher_profile_id = computed.teacher_profile_id, enrollment_count = computed.enrollment_count",
+        nativeQuery = true
+    )
+    int reconcileBookStats(@Param("teacherProfileId") Long teacherProfileId);
+
+    /**
+     * Recompute the counters of the teachers owning books, for one teacher or, with {@code null}, for all of them.
+     */
+    @Modifying
+    @Query(
+        value = "INSERT INTO teacher_stats (teacher_profile_id, book_count, enrollment_count, student_count, " +
+        "completed_unit_count, score_sum, scored_progress_count, updated_at) " +
+        "SELECT * FROM (" +
+        "SELECT bk.teacher_profile_id AS teacher_profile_id, bk.book_count AS book_count, " +
+        "COALESCE(en.enrollment_count, 0) AS enrollment_count, COALESCE(en.student_count, 0) AS student_count, " +
+        "COALESCE(pr.completed_unit_count, 0) AS completed_unit_count, COALESCE(pr.score_sum, 0) AS score_sum, " +
+        "COALESCE(pr.scored_progress_count, 0) AS scored_progress_count, :now AS updated_at " +
+        "FROM (SELECT teacher_profile_id, COUNT(*) AS book_count FROM book " +
+        "WHERE teacher_profile_id IS NOT NULL AND (:teacherProfileId IS NULL OR teacher_profile_id = :teacherProfileId) " +
+        "GROUP BY teacher_profile_id) bk " +
+        "LEFT JOIN (SELECT b.teacher_profile_id, COUNT(*) AS enrollment_count, COUNT(DISTINCT e.user_profile_id) AS student_count " +
+        "FROM enrollment e JOIN book b ON b.id = e.book_id " +
+        "WHERE :teacherProfileId IS NULL OR b.teacher_profile_id = :teacherProfileId GROUP BY b.teacher_profile_id) en " +
+        "ON en.teacher_profile_id = bk.teacher_profile_id " +
+        "LEFT JOIN (SELECT b.teacher_profile_id, SUM(CASE WHEN p.is_completed THEN 1 ELSE 0 END) AS completed_unit_count, " +
+        "SUM(p.score) AS score_sum, COUNT(p.score) AS scored_progress_count " +
+        "FROM progress p JOIN unit u ON u.id = p.unit_id JOIN book b ON b.id = u.book_id " +
+        "WHERE :teacherProfileId IS NULL OR b.teacher_profile_id = :teacherProfileId GROUP BY b.teacher_profile_id) pr " +
+        "ON pr.teacher_profile_id = bk.teacher_profile_id" +
+        ") AS computed " +
+        "ON DUPLICATE KEY UPDATE book_count = computed.book_count, enrollment_count = computed.enrollment_count, " +
+        "student_count = computed.student_count, completed_unit_count = computed.completed_unit_count, " +
+        "score_sum = computed.score_sum, scored_progress_count = computed.scored_progress_count, updated_at = computed.updated_at",
+        nativeQuery = true
+    )
+    int reconcileTeacherStats(@Param("teacherProfileId") Long teacherProfileId, @Param("now") Instant now);
+
+    /**
+     * Zero the counters of teachers who no longer own any book, for one teacher or, with {@code null}, for all of them.
+     */
+    @Modifying
+    @Query(
+        value = "UPDATE teacher_stats s SET book_count = 0, enrollment_count = 0, student_count = 0, completed_unit_count = 0, " +
+        "score_sum = 0, scored_progress_count = 0, updated_at = :now " +
+        "WHERE (:teacherProfileId IS NULL OR s.teacher_profile_id = :teacherProfileId) " +
+        "AND NOT EXISTS (SELECT 1 FROM book b WHERE b.teacher_profile_id = s.teacher_profile_id)",
+        nativeQuery = true
+    )
+    int resetTeacherStatsWithoutBooks(@Param("teacherProfileId") Long teacherProfileId, @Param("now") Instant now);
+}
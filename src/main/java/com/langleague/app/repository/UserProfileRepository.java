@@ -42,4 +42,7 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, Long>
         "select userProfile from UserProfile userProfile left join fetch userProfile.user where userProfile.user.login = ?#{authentication.name}"
     )
     Optional<UserProfile> findOneByUserIsCurrentUser();
+
+    @Query("select userProfile.id from UserProfile userProfile where userProfile.user.login = :login")
+    Optional<Long> findIdByUserLogin(@Param("login") String login);
 }
@@ -2,6 +2,7 @@ package com.langleague.app.repository;
 
 import com.langleague.app.domain.User;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.cache.annotation.Cacheable;
@@ -36,6 +37,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
 
+    @EntityGraph(attributePaths = "authorities")
+    List<User> findAllWithAuthoritiesByIdIn(Collection<Long> ids);
+
     @Query(
         "SELECT DISTINCT u FROM User u LEFT JOIN u.authorities a WHERE " +
         "(:login IS NULL OR " +
@@ -44,12 +48,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
         "lower(u.firstName) LIKE lower(concat('%', :login,'%')) OR " +
         "lower(u.lastName) LIKE lower(concat('%', :login,'%'))) AND " +
         "(:role IS NULL OR a.name = :role) AND " +
-        "(:activated IS NULL OR u.activated = :activated)"
+        "(:activated IS NULL OR u.activated = :activated) AND " +
+        "(:afterId IS NULL OR u.id > :afterId)"
     )
     Page<User> findAllWithFilters(
         @Param("login") String login,
         @Param("role") String role,
         @Param("activated") Boolean activated,
+        @Param("afterId") Long afterId,
         Pageable pageable
     );
 }
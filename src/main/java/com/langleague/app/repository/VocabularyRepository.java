@@ -1,8 +1,13 @@
 package com.langleague.app.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 import com.langleague.app.domain.Vocabulary;
 import com.langleague.app.service.dto.GameVocabularyDTO;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -48,4 +53,50 @@ public interface VocabularyRepository extends JpaRepository<Vocabulary, Long> {
         "ORDER BY v.unit.id ASC, v.orderIndex ASC"
     )
     List<GameVocabularyDTO> findGameVocabulariesByUnitIds(@Param("unitIds") List<Long> unitIds);
+
+    /**
+     * Stream lightweight game vocabulary DTOs for a list of units, row by row.
+     * The returned stream must be consumed inside a transaction and closed.
+     *
+     * @param unitIds the list of unit IDs
+     * @return stream of GameVocabularyDTO
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HINT_FETCH_SIZE, value = StreamingQueryHints.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+        }
+    )
+    @Query(
+        "SELECT new com.langleague.app.service.dto.GameVocabularyDTO(" +
+        "v.id, v.word, v.meaning, v.phonetic, v.example, v.imageUrl) " +
+        "FROM Vocabulary v " +
+        "WHERE v.unit.id IN :unitIds " +
+        "ORDER BY v.unit.id ASC, v.orderIndex ASC"
+    )
+    Stream<GameVocabularyDTO> streamGameVocabulariesByUnitIds(@Param("unitIds") List<Long> unitIds);
+
+    /**
+     * Fetch the raw word pool of a book as {@code [id, unitId, word, meaning]} rows.
+     * Used to build the cached distractor pool for multiple-choice games.
+     *
+     * @param bookId the book ID
+     * @return list of rows ordered by unit and vocabulary order
+     */
+    @Query(
+        "SELECT v.id, v.unit.id, v.word, v.meaning " +
+        "FROM Vocabulary v " +
+        "WHERE v.unit.book.id = :bookId " +
+        "ORDER BY v.unit.orderIndex ASC, v.orderIndex ASC"
+    )
+    List<Object[]> findWordPoolRowsByBookId(@Param("bookId") Long bookId);
+
+    /**
+     * Find the highest order index used in a unit.
+     *
+     * @param unitId the unit ID
+     * @return the highest order index, or {@code -1} if the unit has no vocabulary
+     */
+    @Query("SELECT COALESCE(MAX(v.orderIndex), -1) FROM Vocabulary v WHERE v.unit.id = :unitId")
+    int findMaxOrderIndexByUnitId(@Param("unitId") Long unitId);
 }
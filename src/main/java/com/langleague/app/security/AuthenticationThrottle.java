@@ -0,0 +1,124 @@
+package com.langleague.app.security;
+
+import com.langleague.app.config.ApplicationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Protects the server from login storms.
+ * <p>
+ * Password checks are CPU bound, so at most one per core runs at once, behind a first-come first-served queue of
+ * {@code application.login-throttle.queue-capacity} attempts. An attempt not started within {@code queue-timeout}
+ * is given up. The check runs on the request thread, in its security context and transactions. Before that,
+ * attempts are rate limited by login and by client IP, with token buckets. Every refusal is a
+ * {@link LoginThrottledException}.
+ */
+@Component
+public class AuthenticationThrottle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AuthenticationThrottle.class);
+
+    public static final String QUEUE_DEPTH_GAUGE = "authentication.queue.depth";
+
+    public static final String QUEUE_WAIT_TIMER = "authentication.queue.wait";
+
+    public static final String REJECTED_COUNTER = "authentication.rejected";
+
+    private static final int MAX_TRACKED_KEYS = 20_000;
+
+    private final TokenBuckets loginBuckets;
+
+    private final TokenBuckets ipBuckets;
+
+    private final Semaphore permits;
+
+    private final int queueCapacity;
+
+    private final long queueTimeoutNanos;
+
+    private final Timer queueWait;
+
+    private final MeterRegistry meterRegistry;
+
+    public AuthenticationThrottle(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        ApplicationProperties.LoginThrottle properties = applicationProperties.getLoginThrottle();
+        loginBuckets = new TokenBuckets(properties.getLoginBurst(), properties.getLoginPerMinute(), MAX_TRACKED_KEYS);
+        ipBuckets = new TokenBuckets(properties.getIpBurst(), properties.getIpPerMinute(), MAX_TRACKED_KEYS);
+        queueCapacity = properties.getQueueCapacity();
+        queueTimeoutNanos = properties.getQueueTimeout().toNanos();
+
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        permits = new Semaphore(threads, true);
+
+        Gauge.builder(QUEUE_DEPTH_GAUGE, permits, Semaphore::getQueueLength)
+            .description("Login attempts waiting for a password check")
+            .register(meterRegistry);
+        queueWait = Timer.builder(QUEUE_WAIT_TIMER)
+            .description("Time login attempts wait before their password check starts")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Take a token from the buckets of a login and of a client address.
+     *
+     * @throws LoginThrottledException if either bucket is empty.
+     */
+    public void checkRate(String login, String clientIp) {
+        long now = System.nanoTime();
+        long wait = ipBuckets.tryAcquire(clientIp == null ? "" : clientIp, now);
+        if (wait > 0) {
+            throw reject("ip", "Too many login attempts from this address", wait);
+        }
+        wait = loginBuckets.tryAcquire(login.toLowerCase(Locale.ROOT), now);
+        if (wait > 0) {
+            throw reject("login", "Too many login attempts for this account", wait);
+        }
+    }
+
+    /**
+     * Run a password check on the calling thread once one of the password check slots is free.
+     *
+     * @throws LoginThrottledException if the queue is full or no slot was free in time.
+     */
+    public <T> T authenticate(Supplier<T> check) {
+        // Approximate, a few attempts over capacity may queue at once
+        if (permits.getQueueLength() >= queueCapacity) {
+            throw reject("queue-full", "Too many login attempts in progress", TimeUnit.SECONDS.toNanos(1));
+        }
+        long submitted = System.nanoTime();
+        try {
+            // Unlike tryAcquire(), honours the fairness of the queue
+            if (!permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw reject("timeout", "Login attempt timed out", TimeUnit.SECONDS.toNanos(1));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while authenticating", e);
+        }
+        queueWait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+        try {
+            return check.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    int queueDepth() {
+        return permits.getQueueLength();
+    }
+
+    private LoginThrottledException reject(String reason, String message, long waitNanos) {
+        meterRegistry.counter(REJECTED_COUNTER, "reason", reason).increment();
+        LOG.debug("Login attempt rejected: {}", reason);
+        return new LoginThrottledException(message, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+    }
+}
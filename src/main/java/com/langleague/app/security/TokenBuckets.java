@@ -0,0 +1,91 @@
+package com.langleague.app.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token buckets by key, for rate limiting.
+ * <p>
+ * Keys are spread over lock stripes, each a small LRU map, so that unrelated keys rarely contend and
+ * memory stays bounded whatever the number of keys: the least recently used buckets are dropped first,
+ * which at worst grants a forgotten key a full bucket again.
+ */
+final class TokenBuckets {
+
+    private static final int STRIPES = 32;
+
+    private final double capacity;
+
+    private final double tokensPerNano;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * @param capacity the burst size.
+     * @param perMinute the sustained rate.
+     * @param maxKeys the number of keys to remember.
+     */
+    TokenBuckets(int capacity, int perMinute, int maxKeys) {
+        if (capacity < 1 || perMinute < 1) {
+            throw new IllegalArgumentException("Token buckets need a positive capacity and rate");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = perMinute / 60e9;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(Math.max(1, maxKeys / STRIPES));
+        }
+    }
+
+    /**
+     * Take a token from the bucket of a key.
+     *
+     * @return {@code 0} if a token was taken, else the nanoseconds until one is available.
+     */
+    long tryAcquire(String key, long nowNanos) {
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, nowNanos);
+                stripe.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (nowNanos - bucket.updatedNanos) * tokensPerNano);
+                bucket.updatedNanos = nowNanos;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        }
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+
+        private long updatedNanos;
+
+        private Bucket(double tokens, long updatedNanos) {
+            this.tokens = tokens;
+            this.updatedNanos = updatedNanos;
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxKeys;
+
+        private Stripe(int maxKeys) {
+            super(16, 0.75f, true);
+            this.maxKeys = maxKeys;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxKeys;
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.langleague.app.service;
+
+import com.langleague.app.repository.TeacherStatsRepository;
+import com.langleague.app.repository.UserProfileRepository;
+import com.langleague.app.security.SecurityUtils;
+import com.langleague.app.service.dto.BookActivityDTO;
+import com.langleague.app.web.rest.errors.BadRequestAlertException;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service rolling learning activity up into per-book buckets, for analytics that must show history.
+ * <p>
+ * Unit accesses and completions are counted in memory, in one bucket per (book, hour), together with the set of
+ * learners seen and the study time. Buckets are flushed every minute into {@code activity_rollup} rows, merged with
+ * what other flushes or instances already wrote, and every night the hours of past days are compacted into one row
+ * per day. Analytics only read these rows, never the progress table.
+ * <p>
+ * Study time is the time between two consecutive accesses of a learner, counted for the book of the first access,
+ * when they are less than {@link #SESSION_GAP} apart. All buckets are in UTC.
+ * <p>
+ * Activity recorded within a transaction is only counted once that transaction commits, and a bucket whose flush
+ * fails is merged back into memory to be written by the next flush.
+ */
+@Service
+public class ActivityRollupService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ActivityRollupService.class);
+
+    private static final String ENTITY_NAME = "book";
+
+    static final String HOUR = "HOUR";
+
+    static final String DAY = "DAY";
+
+    static final Duration SESSION_GAP = Duration.ofMinutes(30);
+
+    public static final int MAX_DAYS = 366;
+
+    private record BucketKey(long bookId, Instant hour) {}
+
+    /**
+     * The activity of a book during one hour, not flushed yet. Guarded by its own monitor.
+     */
+    private static final class Bucket {
+
+        long accesses;
+
+        long completions;
+
+        long studySeconds;
+
+        final Set<Long> learners = new HashSet<>();
+
+        // Set once taken by a flush, so that late writers start a new bucket
+        boolean closed;
+    }
+
+    private record LastAccess(long bookId, Instant at) {}
+
+    private final Map<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final Map<Long, LastAccess> lastAccesses = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TeacherStatsRepository teacherStatsRepository;
+
+    private final UserProfileRepository userProfileRepository;
+
+    public ActivityRollupService(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        TeacherStatsRepository teacherStatsRepository,
+        UserProfileRepository userProfileRepository
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.teacherStatsRepository = teacherStatsRepository;
+        this.userProfileRepository = userProfileRepository;
+    }
+
+    /**
+     * Count a learner opening a unit of a book.
+     *
+     * @param bookId the book of the unit.
+     * @param userProfileId the learner.
+     */
+    public void recordAccess(Long bookId, Long userProfileId) {
+        Instant at = Instant.now();
+        afterCommit(() -> recordAccess(bookId, userProfileId, at));
+    }
+
+    /**
+     * Count a learner completing a unit of a book.
+     *
+     * @param bookId the book of the unit.
+     * @param userProfileId the learner.
+     */
+    public void recordCompletion(Long bookId, Long userProfileId) {
+        Instant at = Instant.now();
+        afterCommit(() -> recordCompletion(bookId, userProfileId, at));
+    }
+
+    private void afterCommit(Runnable count) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        count.run();
+                    }
+                }
+            );
+        } else {
+            count.run();
+        }
+    }
+
+    void recordAccess(Long bookId, Long userProfileId, Instant at) {
+        if (bookId == null || userProfileId == null) {
+            return;
+        }
+        LastAccess previous = lastAccesses.put(userProfileId, new LastAccess(bookId, at));
+        if (previous != null && previous.at().isBefore(at)) {
+            Duration gap = Duration.between(previous.at(), at);
+            if (gap.compareTo(SESSION_GAP) <= 0) {
+                record(previous.bookId(), userProfileId, previous.at(), 0, 0, gap.toSeconds());
+            }
+        }
+        record(bookId, userProfileId, at, 1, 0, 0);
+    }
+
+    void recordCompletion(Long bookId, Long userProfileId, Instant at) {
+        record(bookId, userProfileId, at, 0, 1, 0);
+    }
+
+    private void record(Long bookId, Long userProfileId, Instant at, long accesses, long completions, long studySeconds) {
+        if (bookId == null || userProfileId == null) {
+            return;
+        }
+        add(new BucketKey(bookId, at.truncatedTo(ChronoUnit.HOURS)), accesses, completions, studySeconds, Set.of(userProfileId));
+    }
+
+    private void add(BucketKey key, long accesses, long completions, long studySeconds, Set<Long> learners) {
+        while (true) {
+            Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+            synchronized (bucket) {
+                if (bucket.closed) {
+                    continue;
+                }
+                bucket.accesses += accesses;
+                bucket.completions += completions;
+                bucket.studySeconds += studySeconds;
+                bucket.learners.addAll(learners);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Write the buckets counted in memory to the rollup table.
+     */
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void flush() {
+        int flushed = 0;
+        // Copied, so that buckets merged back after a failure wait for the next flush
+        for (BucketKey key : List.copyOf(buckets.keySet())) {
+            Bucket bucket = buckets.remove(key);
+            if (bucket == null) {
+                continue;
+            }
+            synchronized (bucket) {
+                bucket.closed = true;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    mergeInto(
+                        key.bookId(),
+                        HOUR,
+                        key.hour(),
+                        bucket.accesses,
+                        bucket.completions,
+                        bucket.studySeconds,
+                        LearnerIdSets.of(bucket.learners)
+                    )
+                );
+                flushed++;
+            } catch (RuntimeException e) {
+                LOG.warn("Could not flush activity of book {} at {}, retrying later: {}", key.bookId(), key.hour(), e.getMessage());
+                add(key, bucket.accesses, bucket.completions, bucket.studySeconds, bucket.learners);
+            }
+        }
+
+        // Forget learners whose next access could no longer count as study time
+        Instant sessionStart = Instant.now().minus(SESSION_GAP);
+        lastAccesses.values().removeIf(lastAccess -> lastAccess.at().isBefore(sessionStart));
+        if (flushed > 0) {
+            LOG.debug("Flushed {} activity buckets", flushed);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Merge the hourly rows of past days into one row per day.
+     * <p>
+     * This is scheduled to run every night, at 00:45 (am) UTC, after the last study time of the previous day was flushed.
+     */
+    @Scheduled(cron = "0 45 0 * * ?", zone = "UTC")
+    public void compact() {
+        Instant today = Instant.now().truncatedTo(ChronoUnit.DAYS);
+        List<Object[]> days = jdbcTemplate.query(
+            "SELECT DISTINCT book_id, DATE(bucket_start) FROM activity_rollup WHERE granularity = ? AND bucket_start < ?",
+            (rs, rowNum) -> new Object[] { rs.getLong(1), rs.getDate(2).toLocalDate() },
+            HOUR,
+            Timestamp.from(today)
+        );
+        for (Object[] day : days) {
+            long bookId = (Long) day[0];
+            Instant dayStart = ((LocalDate) day[1]).atStartOfDay(ZoneOffset.UTC).toInstant();
+            transactionTemplate.executeWithoutResult(status -> compactDay(bookId, dayStart));
+        }
+        if (!days.isEmpty()) {
+            LOG.info("Compacted {} days of hourly activity", days.size());
+        }
+    }
+
+    private void compactDay(long bookId, Instant dayStart) {
+        long[] totals = new long[3];
+        long[][] learners = { LearnerIdSets.EMPTY };
+        List<Long> ids = new ArrayList<>();
+        jdbcTemplate.query(
+            "SELECT id, access_count, completion_count, study_seconds, learner_ids FROM activity_rollup " +
+            "WHERE book_id = ? AND granularity = ? AND bucket_start >= ? AND bucket_start < ? FOR UPDATE",
+            rs -> {
+                ids.add(rs.getLong(1));
+                totals[0] += rs.getLong(2);
+                totals[1] += rs.getLong(3);
+                totals[2] += rs.getLong(4);
+                learners[0] = LearnerIdSets.union(learners[0], LearnerIdSets.decode(rs.getBytes(5)));
+            },
+            bookId,
+            HOUR,
+            Timestamp.from(dayStart),
+            Timestamp.from(dayStart.plus(1, ChronoUnit.DAYS))
+        );
+        if (ids.isEmpty()) {
+            return;
+        }
+        mergeInto(bookId, DAY, dayStart, totals[0], totals[1], totals[2], learners[0]);
+        jdbcTemplate.batchUpdate("DELETE FROM activity_rollup WHERE id = ?", ids.stream().map(id -> new Object[] { id }).toList());
+    }
+
+    /**
+     * Add counts and learners to a rollup row, creating it if needed. Must run in a transaction.
+     */
+    private void mergeInto(
+        long bookId,
+        String granularity,
+        Instant bucketStart,
+        long accesses,
+        long completions,
+        long studySeconds,
+        long[] learners
+    ) {
+        Timestamp start = Timestamp.from(bucketStart);
+        // Ignored if the row exists, or if the book was deleted meanwhile
+        jdbcTemplate.update(
+            "INSERT IGNORE INTO activity_rollup (book_id, granularity, bucket_start, learner_ids) VALUES (?, ?, ?, ?)",
+            bookId,
+            granularity,
+            start,
+            new byte[0]
+        );
+        List<byte[]> existing = jdbcTemplate.query(
+            "SELECT learner_ids FROM activity_rollup WHERE book_id = ? AND granularity = ? AND bucket_start = ? FOR UPDATE",
+            (rs, rowNum) -> rs.getBytes(1),
+            bookId,
+            granularity,
+            start
+        );
+        if (existing.isEmpty()) {
+            return;
+        }
+        long[] merged = LearnerIdSets.union(LearnerIdSets.decode(existing.get(0)), learners);
+        jdbcTemplate.update(
+            "UPDATE activity_rollup SET access_count = access_count + ?, completion_count = completion_count + ?, " +
+            "study_seconds = study_seconds + ?, learner_count = ?, learner_ids = ? " +
+            "WHERE book_id = ? AND granularity = ? AND bucket_start = ?",
+            accesses,
+            completions,
+            studySeconds,
+            merged.length,
+            LearnerIdSets.encode(merged),
+            bookId,
+            granularity,
+            start
+        );
+    }
+
+    /**
+     * Get the activity of a book owned by the current user, read from the rollups.
+     *
+     * @param bookId the id of the book.
+     * @param days the number of days, including today.
+     * @return the activity by day and by week, oldest first.
+     */
+    public BookActivityDTO getBookActivity(Long bookId, int days) {
+        Long ownerId = teacherStatsRepository
+            .findTeacherProfileIdByBookId(bookId)
+            .orElseThrow(() -> new BadRequestAlertException("Book not found", ENTITY_NAME, "idnotfound"));
+        Long currentUserProfileId = SecurityUtils.getCurrentUserLogin().flatMap(userProfileRepository::findIdByUserLogin).orElse(null);
+        if (!Objects.equals(ownerId, currentUserProfileId)) {
+            throw new AccessDeniedException("You are not the owner of this book");
+        }
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate from = today.minusDays(Math.max(1, Math.min(days, MAX_DAYS)) - 1L);
+        Map<LocalDate, Period> byDay = new TreeMap<>();
+        jdbcTemplate.query(
+            "SELECT bucket_start, access_count, completion_count, study_seconds, learner_ids FROM activity_rollup " +
+            "WHERE book_id = ? AND bucket_start >= ? ORDER BY bucket_start",
+            rs -> {
+                LocalDate day = rs.getTimestamp(1).toInstant().atOffset(ZoneOffset.UTC).toLocalDate();
+                byDay
+                    .computeIfAbsent(day, d -> new Period())
+                    .add(rs.getLong(2), rs.getLong(3), rs.getLong(4), LearnerIdSets.decode(rs.getBytes(5)));
+            },
+            bookId,
+            Timestamp.from(from.atStartOfDay(ZoneOffset.UTC).toInstant())
+        );
+
+        Map<LocalDate, Period> byWeek = new TreeMap<>();
+        BookActivityDTO activity = new BookActivityDTO();
+        activity.setBookId(bookId);
+        for (Map.Entry<LocalDate, Period> day : byDay.entrySet()) {
+            activity.getDays().add(day.getValue().toDto(day.getKey()));
+            LocalDate week = day.getKey().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            byWeek.computeIfAbsent(week, w -> new Period()).add(day.getValue());
+        }
+        byWeek.forEach((week, period) -> activity.getWeeks().add(period.toDto(week)));
+        return activity;
+    }
+
+    /**
+     * Activity summed over rollup rows.
+     */
+    private static final class Period {
+
+        long accesses;
+
+        long completions;
+
+        long studySeconds;
+
+        long[] learners = LearnerIdSets.EMPTY;
+
+        void add(long accesses, long completions, long studySeconds, long[] learners) {
+            this.accesses += accesses;
+            this.completions += completions;
+            this.studySeconds += studySeconds;
+            this.learners = LearnerIdSets.union(this.learners, learners);
+        }
+
+        void add(Period other) {
+            add(other.accesses, other.completions, other.studySeconds, other.learners);
+        }
+
+        BookActivityDTO.PeriodDTO toDto(LocalDate start) {
+            return new BookActivityDTO.PeriodDTO(start, learners.length, accesses, completions, studySeconds / 60);
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.langleague.app.service;
 
-import com.langleague.app.repository.BookRepository;
 import com.langleague.app.repository.EnrollmentRepository;
+import com.langleague.app.repository.UserProfileRepository;
 import com.langleague.app.security.SecurityUtils;
 import com.langleague.app.service.dto.StudentDTO;
 import com.langleague.app.service.dto.TeacherDashboardDTO;
@@ -13,32 +13,31 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional(readOnly = true)
 public class AnalyticsService {
 
-    private final BookRepository bookRepository;
     private final EnrollmentRepository enrollmentRepository;
-
-    public AnalyticsService(BookRepository bookRepository, EnrollmentRepository enrollmentRepository) {
-        this.bookRepository = bookRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final TeacherStatsService teacherStatsService;
+
+    public AnalyticsService(
+        EnrollmentRepository enrollmentRepository,
+        UserProfileRepository userProfileRepository,
+        TeacherStatsService teacherStatsService
+    ) {
         this.enrollmentRepository = enrollmentRepository;
+        this.userProfileRepository = userProfileRepository;
+        this.teacherStatsService = teacherStatsService;
     }
 
+    /**
+     * Get the dashboard statistics of the current teacher, read from their maintained counters.
+     *
+     * @return the statistics.
+     */
     public TeacherDashboardDTO getTeacherDashboardStats() {
         String currentUserLogin = SecurityUtils.getCurrentUserLogin().orElseThrow(() -> new IllegalStateException("User not logged in"));
-
-        TeacherDashboardDTO stats = new TeacherDashboardDTO();
-
-        // Total Books
-        stats.setTotalBooks(bookRepository.countByTeacherProfileUserLogin(currentUserLogin));
-
-        // Total Students
-        stats.setTotalStudents(enrollmentRepository.countDistinctStudentByTeacher(currentUserLogin));
-
-        // Average Score (Placeholder for now, can be implemented with UserResult later)
-        stats.setAverageScore(0.0);
-
-        // Book Stats (Enrollments per book)
-        stats.setBookStats(enrollmentRepository.getBookStatsByTeacher(currentUserLogin));
-
-        return stats;
+        Long teacherProfileId = userProfileRepository
+            .findIdByUserLogin(currentUserLogin)
+            .orElseThrow(() -> new IllegalStateException("User profile not found"));
+        return teacherStatsService.getDashboardStats(teacherProfileId);
     }
 
     public List<StudentDTO> getMyStudents() {
@@ -0,0 +1,188 @@
+package com.langleague.app.service;
+
+import com.langleague.app.domain.User;
+import com.langleague.app.repository.UserRepository;
+import com.langleague.app.web.rest.errors.BadRequestAlertException;
+import jakarta.persistence.EntityManagerFactory;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service turning avatar data URIs into small stored images, so that users only carry a short URL.
+ */
+@Service
+public class AvatarService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AvatarService.class);
+
+    private static final String ENTITY_NAME = "user";
+
+    public static final int AVATAR_SIZE = 256;
+
+    public static final int MAX_URL_LENGTH = 256;
+
+    private static final int MIGRATION_BATCH_SIZE = 100;
+
+    private final FileStorageService fileStorageService;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final CacheManager cacheManager;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public AvatarService(
+        FileStorageService fileStorageService,
+        JdbcTemplate jdbcTemplate,
+        CacheManager cacheManager,
+        EntityManagerFactory entityManagerFactory,
+        CacheInvalidationBus cacheInvalidationBus
+    ) {
+        this.fileStorageService = fileStorageService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+    }
+
+    /**
+     * Turn an avatar as sent by the client into the URL to keep on the user.
+     * Data URIs are decoded, resized to {@link #AVATAR_SIZE} pixels and stored; URLs are kept as they are.
+     *
+     * @param imageUrl a {@code data:image/...;base64,} URI or an image URL, may be {@code null}.
+     * @return the URL to store, or {@code null} to remove the avatar.
+     */
+    public String toAvatarUrl(String imageUrl) {
+        if (imageUrl == null || imageUrl.isBlank()) {
+            return null;
+        }
+        if (!imageUrl.regionMatches(true, 0, "data:", 0, 5)) {
+            if (imageUrl.length() > MAX_URL_LENGTH) {
+                throw new BadRequestAlertException("Image URL is too long", ENTITY_NAME, "imageurltoolong");
+            }
+            return imageUrl;
+        }
+        int comma = imageUrl.indexOf(',');
+        if (comma < 0 || !imageUrl.substring(0, comma).toLowerCase(Locale.ROOT).endsWith(";base64")) {
+            throw new BadRequestAlertException("Avatar is not a base64 data URI", ENTITY_NAME, "avatarinvalid");
+        }
+
+        InputStream decoded = Base64.getMimeDecoder().wrap(
+            new ByteArrayInputStream(imageUrl.substring(comma + 1).getBytes(StandardCharsets.US_ASCII))
+        );
+        BufferedImage image;
+        try (ImageInputStream input = ImageIO.createImageInputStream(decoded)) {
+            image = ImageDerivativeService.readImage(input, "avatar");
+        } catch (IOException | IllegalArgumentException e) {
+            image = null;
+        }
+        if (image == null) {
+            throw new BadRequestAlertException("Avatar is not a readable image", ENTITY_NAME, "avatarinvalid");
+        }
+
+        boolean alpha = image.getColorModel().hasAlpha();
+        BufferedImage scaled = ImageDerivativeService.downscale(image, AVATAR_SIZE, alpha);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+        try {
+            if (alpha) {
+                ImageIO.write(scaled, "png", out);
+            } else {
+                ImageDerivativeService.writeJpeg(scaled, out);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not encode avatar", e);
+        }
+        return fileStorageService.storeContent(new ByteArrayInputStream(out.toByteArray()), alpha ? "png" : "jpg");
+    }
+
+    /**
+     * One-off migration of avatars stored inline as data URIs, run in the background at startup.
+     * <p>
+     * Rows are streamed one at a time, so that at most one avatar is in memory, and updated in batches
+     * on a separate connection. Once every row is migrated this is a single query returning nothing.
+     * Avatars that cannot be decoded are removed.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateInlineAvatars() {
+        List<Object[]> updates = new ArrayList<>(MIGRATION_BATCH_SIZE);
+        int[] migrated = { 0 };
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id, image_url FROM jhi_user WHERE image_url LIKE 'data:%'",
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+                );
+                // Row by row streaming with MySQL Connector/J
+                statement.setFetchSize(Integer.MIN_VALUE);
+                return statement;
+            },
+            (RowCallbackHandler) resultSet -> {
+                long id = resultSet.getLong(1);
+                String url;
+                try {
+                    url = toAvatarUrl(resultSet.getString(2));
+                } catch (RuntimeException e) {
+                    LOG.warn("Removing unreadable avatar of user {}: {}", id, e.getMessage());
+                    url = null;
+                }
+                updates.add(new Object[] { url, id });
+                if (updates.size() == MIGRATION_BATCH_SIZE) {
+                    migrated[0] += flushAvatarUpdates(updates);
+                }
+            }
+        );
+        migrated[0] += flushAvatarUpdates(updates);
+
+        if (migrated[0] > 0) {
+            // Rows were updated behind Hibernate's back
+            Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).clear();
+            Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).clear();
+            entityManagerFactory.getCache().evict(User.class);
+            // The other nodes do not see Hibernate events for these updates
+            cacheInvalidationBus.publish(
+                List.of(
+                    CacheInvalidation.region(User.class.getName()),
+                    CacheInvalidation.region(UserRepository.USERS_BY_LOGIN_CACHE),
+                    CacheInvalidation.region(UserRepository.USERS_BY_EMAIL_CACHE)
+                )
+            );
+            LOG.info("Moved {} inline avatars to file storage", migrated[0]);
+        }
+    }
+
+    private int flushAvatarUpdates(List<Object[]> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        int count = updates.size();
+        jdbcTemplate.batchUpdate("UPDATE jhi_user SET image_url = ? WHERE id = ?", updates);
+        updates.clear();
+        return count;
+    }
+}
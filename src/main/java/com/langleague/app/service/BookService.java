@@ -33,10 +33,18 @@ public class BookService {
 
     private final UserProfileRepository userProfileRepository;
 
-    public BookService(BookRepository bookRepository, BookMapper bookMapper, UserProfileRepository userProfileRepository) {
+    private final TeacherStatsService teacherStatsService;
+
+    public BookService(
+        BookRepository bookRepository,
+        BookMapper bookMapper,
+        UserProfileRepository userProfileRepository,
+        TeacherStatsService teacherStatsService
+    ) {
         this.bookRepository = bookRepository;
         this.bookMapper = bookMapper;
         this.userProfileRepository = userProfileRepository;
+        this.teacherStatsService = teacherStatsService;
     }
 
     /**
@@ -59,7 +67,11 @@ public class BookService {
             book.setCreatedAt(Instant.now());
         }
 
+        boolean created = book.getId() == null;
         book = bookRepository.save(book);
+        if (created) {
+            teacherStatsService.bookCreated(book);
+        }
         return bookMapper.toDto(book);
     }
 
@@ -261,5 +273,8 @@ public class BookService {
         }
 
         bookRepository.deleteById(id);
+        // Enrollments, units and progress go with the book
+        bookRepository.flush();
+        teacherStatsService.bookDeleted(existingBook.getTeacherProfile().getId());
     }
 }
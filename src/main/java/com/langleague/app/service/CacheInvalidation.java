@@ -0,0 +1,17 @@
+package com.langleague.app.service;
+
+/**
+ * An eviction to apply on the other nodes.
+ *
+ * @param region the cache name, which for entity and collection regions is the entity name or collection role.
+ * @param key the evicted key, or {@code null} to clear the whole region.
+ */
+public record CacheInvalidation(String region, String key) {
+    public static CacheInvalidation entry(String region, Object key) {
+        return new CacheInvalidation(region, String.valueOf(key));
+    }
+
+    public static CacheInvalidation region(String region) {
+        return new CacheInvalidation(region, null);
+    }
+}
@@ -0,0 +1,407 @@
+package com.langleague.app.service;
+
+import com.langleague.app.config.ApplicationProperties;
+import com.langleague.app.domain.User;
+import com.langleague.app.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.metamodel.MappingMetamodel;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service keeping the local caches of the nodes consistent with each other.
+ * <p>
+ * Hibernate post-commit events are turned into the evictions the other nodes need: the changed entity, the cached
+ * collections it belongs to or owns, and for users the {@code usersByLogin} and {@code usersByEmail} entries. Changes
+ * made behind Hibernate's back are reported through {@link #publish(Collection)}. Evictions are queued and exchanged
+ * with the other nodes through a {@link CacheInvalidationTransport} every {@code application.cache.invalidation.poll-interval}.
+ * <p>
+ * Services keeping state of their own outside of the cache manager register a listener for a region with
+ * {@link #addListener(String, Consumer)}, and are called for every eviction of it received from the other nodes.
+ */
+@Service
+public class CacheInvalidationBus {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    public static final String SENT_COUNTER = "cache.invalidations.sent";
+
+    public static final String RECEIVED_COUNTER = "cache.invalidations.received";
+
+    // Past this, queued evictions are collapsed into evictions of whole regions
+    static final int MAX_PENDING = 50_000;
+
+    // A cached collection, with the property of its elements pointing back to the owner when there is one
+    private record CollectionRegion(String role, Integer ownerPropertyIndex) {}
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CacheManager cacheManager;
+
+    private final CacheInvalidationTransport transport;
+
+    private final ApplicationProperties.Cache.Invalidation properties;
+
+    private final Queue<CacheInvalidation> pending = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    // Not the monitor of exchange(), which committing threads must not wait for
+    private final Object collapseLock = new Object();
+
+    private final Counter sentCounter;
+
+    private final Counter receivedCounter;
+
+    private SessionFactoryImplementor sessionFactory;
+
+    // Cached collections by the entity name of their elements, and by the entity name of their owner
+    private final Map<String, List<CollectionRegion>> collectionsByElement = new HashMap<>();
+
+    private final Map<String, List<String>> collectionsByOwner = new HashMap<>();
+
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+
+    public CacheInvalidationBus(
+        EntityManagerFactory entityManagerFactory,
+        CacheManager cacheManager,
+        CacheInvalidationTransport transport,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheManager = cacheManager;
+        this.transport = transport;
+        this.properties = applicationProperties.getCache().getInvalidation();
+        this.sentCounter = Counter.builder(SENT_COUNTER)
+            .description("Cache evictions published to the other nodes")
+            .register(meterRegistry);
+        this.receivedCounter = Counter.builder(RECEIVED_COUNTER)
+            .description("Cache evictions received from the other nodes")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        if (!properties.isEnabled()) {
+            return;
+        }
+        MappingMetamodel metamodel = sessionFactory.getRuntimeMetamodels().getMappingMetamodel();
+        metamodel.forEachCollectionDescriptor(collection -> {
+            if (!collection.hasCache()) {
+                return;
+            }
+            collectionsByOwner.computeIfAbsent(collection.getOwnerEntityPersister().getEntityName(), name -> new ArrayList<>()).add(
+                collection.getRole()
+            );
+            if (collection.getElementType() instanceof EntityType elementType) {
+                String elementName = elementType.getAssociatedEntityName();
+                String mappedBy = collection.getMappedByProperty();
+                Integer ownerPropertyIndex = collection.isManyToMany() || mappedBy == null || mappedBy.isEmpty()
+                    ? null
+                    : metamodel.getEntityDescriptor(elementName).getEntityMetamodel().getPropertyIndexOrNull(mappedBy);
+                collectionsByElement
+                    .computeIfAbsent(elementName, name -> new ArrayList<>())
+                    .add(new CollectionRegion(collection.getRole(), ownerPropertyIndex));
+            }
+        });
+
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        PostCommitListener listener = new PostCommitListener();
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        LOG.debug("Sharing cache evictions as node {}", nodeId);
+    }
+
+    /**
+     * Share evictions with the other nodes, for changes made without Hibernate, once they are committed.
+     *
+     * @param invalidations the evictions, already applied locally.
+     */
+    public void publish(Collection<CacheInvalidation> invalidations) {
+        if (properties.isEnabled()) {
+            invalidations.forEach(this::enqueue);
+        }
+    }
+
+    /**
+     * Be told of the evictions of a region made by the other nodes, once applied to the local caches.
+     *
+     * @param region the cache name, entity name or collection role.
+     * @param listener called with the evicted key, or {@code null} when the whole region is evicted.
+     */
+    public void addListener(String region, Consumer<String> listener) {
+        listeners.computeIfAbsent(region, r -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Publish the evictions of this node and apply the ones of the other nodes.
+     */
+    @Scheduled(fixedDelayString = "${application.cache.invalidation.poll-interval:PT1S}")
+    public synchronized void exchange() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<CacheInvalidation> outgoing = drainPending();
+        if (!outgoing.isEmpty()) {
+            try {
+                transport.publish(nodeId, outgoing);
+                sentCounter.increment(outgoing.size());
+            } catch (RuntimeException e) {
+                // Published again at the next exchange
+                LOG.warn("Could not publish {} cache invalidations: {}", outgoing.size(), e.getMessage());
+                outgoing.forEach(this::enqueue);
+            }
+        }
+        try {
+            List<CacheInvalidation> incoming = transport.poll(nodeId);
+            for (CacheInvalidation invalidation : incoming) {
+                apply(invalidation);
+                notifyListeners(invalidation);
+            }
+            receivedCounter.increment(incoming.size());
+        } catch (RuntimeException e) {
+            LOG.warn("Could not read cache invalidations: {}", e.getMessage());
+        }
+    }
+
+    private void enqueue(CacheInvalidation invalidation) {
+        pending.add(invalidation);
+        if (pendingCount.incrementAndGet() > MAX_PENDING) {
+            collapsePending();
+        }
+    }
+
+    private void collapsePending() {
+        synchronized (collapseLock) {
+            if (pendingCount.get() <= MAX_PENDING) {
+                return;
+            }
+            Set<String> regions = new LinkedHashSet<>();
+            for (CacheInvalidation invalidation : drainPending()) {
+                regions.add(invalidation.region());
+            }
+            LOG.warn("Too many cache invalidations queued, evicting {} whole regions instead", regions.size());
+            for (String region : regions) {
+                pending.add(CacheInvalidation.region(region));
+                pendingCount.incrementAndGet();
+            }
+        }
+    }
+
+    private List<CacheInvalidation> drainPending() {
+        Set<CacheInvalidation> drained = new LinkedHashSet<>();
+        CacheInvalidation invalidation;
+        while ((invalidation = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            drained.add(invalidation);
+        }
+        return new ArrayList<>(drained);
+    }
+
+    private void apply(CacheInvalidation invalidation) {
+        String region = invalidation.region();
+        String key = invalidation.key();
+        MappingMetamodel metamodel = sessionFactory.getRuntimeMetamodels().getMappingMetamodel();
+        EntityPersister entity = metamodel.findEntityDescriptor(region);
+        if (entity != null) {
+            if (key == null) {
+                sessionFactory.getCache().evictEntityData(region);
+            } else {
+                sessionFactory.getCache().evictEntityData(region, identifier(entity, key));
+            }
+            return;
+        }
+        CollectionPersister collection = metamodel.findCollectionDescriptor(region);
+        if (collection != null) {
+            if (key == null) {
+                sessionFactory.getCache().evictCollectionData(region);
+            } else {
+                sessionFactory.getCache().evictCollectionData(region, identifier(collection.getOwnerEntityPersister(), key));
+            }
+            return;
+        }
+        Cache cache = cacheManager.getCache(region);
+        if (cache == null) {
+            if (listeners.containsKey(region)) {
+                return;
+            }
+            LOG.debug("Ignoring invalidation of unknown cache {}", region);
+        } else if (key == null) {
+            cache.clear();
+        } else {
+            cache.evict(key);
+        }
+    }
+
+    private void notifyListeners(CacheInvalidation invalidation) {
+        for (Consumer<String> listener : listeners.getOrDefault(invalidation.region(), List.of())) {
+            try {
+                listener.accept(invalidation.key());
+            } catch (RuntimeException e) {
+                LOG.warn("Cache invalidation listener of {} failed: {}", invalidation.region(), e.getMessage());
+            }
+        }
+    }
+
+    private static Object identifier(EntityPersister persister, String key) {
+        Class<?> type = persister.getIdentifierType().getReturnedClass();
+        if (type == Long.class) {
+            return Long.valueOf(key);
+        }
+        if (type == Integer.class) {
+            return Integer.valueOf(key);
+        }
+        if (type == UUID.class) {
+            return UUID.fromString(key);
+        }
+        return key;
+    }
+
+    /**
+     * Queues the evictions of committed changes. Runs on the committing thread, so it only records them.
+     */
+    private final class PostCommitListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            evictCollectionsOf(event.getPersister(), false, null, event.getState(), null);
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            EntityPersister persister = event.getPersister();
+            evictEntity(persister, event.getId());
+            evictCollectionsOf(persister, true, event.getOldState(), event.getState(), event.getDirtyProperties());
+            if (event.getEntity() instanceof User user) {
+                evictUser(persister, user, event.getOldState());
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            EntityPersister persister = event.getPersister();
+            evictEntity(persister, event.getId());
+            evictCollectionsOf(persister, false, event.getDeletedState(), null, null);
+            if (event.getEntity() instanceof User user) {
+                evictUser(persister, user, null);
+            }
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+            // Nothing was committed, nothing to evict
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+            // Nothing was committed, nothing to evict
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+            // Nothing was committed, nothing to evict
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return persister.canWriteToCache() || collectionsByElement.containsKey(persister.getEntityName());
+        }
+
+        private void evictEntity(EntityPersister persister, Object id) {
+            if (persister.canWriteToCache()) {
+                enqueue(CacheInvalidation.entry(persister.getEntityName(), id));
+            }
+            for (String role : collectionsByOwner.getOrDefault(persister.getEntityName(), List.of())) {
+                enqueue(CacheInvalidation.entry(role, id));
+            }
+        }
+
+        /**
+         * Evict the collections the changed entity is an element of, by owner when the collection is mapped by a
+         * property of the element, and as a whole otherwise.
+         */
+        private void evictCollectionsOf(EntityPersister persister, boolean update, Object[] oldState, Object[] state, int[] dirty) {
+            for (CollectionRegion collection : collectionsByElement.getOrDefault(persister.getEntityName(), List.of())) {
+                Integer index = collection.ownerPropertyIndex();
+                if (update && (index == null || (dirty != null && !contains(dirty, index)))) {
+                    // Ids are cached, so only a change of owner changes the collection
+                    continue;
+                }
+                if (index == null || (update && oldState == null)) {
+                    enqueue(CacheInvalidation.region(collection.role()));
+                    continue;
+                }
+                evictOwner(collection.role(), oldState, index);
+                evictOwner(collection.role(), state, index);
+            }
+        }
+
+        private void evictOwner(String role, Object[] state, int index) {
+            Object owner = state == null ? null : state[index];
+            if (owner != null) {
+                enqueue(CacheInvalidation.entry(role, sessionFactory.getPersistenceUnitUtil().getIdentifier(owner)));
+            }
+        }
+
+        private void evictUser(EntityPersister persister, User user, Object[] oldState) {
+            enqueue(CacheInvalidation.entry(UserRepository.USERS_BY_LOGIN_CACHE, user.getLogin()));
+            if (user.getEmail() != null) {
+                enqueue(CacheInvalidation.entry(UserRepository.USERS_BY_EMAIL_CACHE, user.getEmail()));
+            }
+            if (oldState != null) {
+                Integer emailIndex = persister.getEntityMetamodel().getPropertyIndexOrNull("email");
+                if (emailIndex != null && oldState[emailIndex] instanceof String oldEmail && !oldEmail.equals(user.getEmail())) {
+                    enqueue(CacheInvalidation.entry(UserRepository.USERS_BY_EMAIL_CACHE, oldEmail));
+                }
+            }
+        }
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
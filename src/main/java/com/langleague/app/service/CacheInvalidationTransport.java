@@ -0,0 +1,24 @@
+package com.langleague.app.service;
+
+import java.util.List;
+
+/**
+ * Carries evictions between the nodes for {@link CacheInvalidationBus}.
+ */
+public interface CacheInvalidationTransport {
+    /**
+     * Make evictions of a node visible to the others.
+     *
+     * @param nodeId the publishing node.
+     * @param invalidations the evictions, in the order they happened.
+     */
+    void publish(String nodeId, List<CacheInvalidation> invalidations);
+
+    /**
+     * Fetch the evictions published by the other nodes since the last call.
+     *
+     * @param nodeId the polling node, whose own evictions are skipped.
+     * @return the evictions, possibly empty.
+     */
+    List<CacheInvalidation> poll(String nodeId);
+}
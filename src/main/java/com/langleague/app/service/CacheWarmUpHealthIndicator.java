@@ -0,0 +1,28 @@
+package com.langleague.app.service;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the application out of service while {@link CacheWarmUpService} is loading the caches.
+ * <p>
+ * Part of the readiness group, so that traffic only comes once the caches are warm.
+ */
+@Component
+public class CacheWarmUpHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmUpService cacheWarmUpService;
+
+    public CacheWarmUpHealthIndicator(CacheWarmUpService cacheWarmUpService) {
+        this.cacheWarmUpService = cacheWarmUpService;
+    }
+
+    @Override
+    public Health health() {
+        if (cacheWarmUpService.isFinished()) {
+            return Health.up().build();
+        }
+        return Health.outOfService().withDetail("reason", "Cache warm-up in progress").build();
+    }
+}
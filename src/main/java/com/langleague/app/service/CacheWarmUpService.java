@@ -0,0 +1,160 @@
+package com.langleague.app.service;
+
+import com.langleague.app.config.ApplicationProperties;
+import com.langleague.app.domain.Exercise;
+import com.langleague.app.domain.Unit;
+import com.langleague.app.repository.BookRepository;
+import com.langleague.app.repository.EnrollmentRepository;
+import com.langleague.app.repository.ProgressRepository;
+import com.langleague.app.repository.UserRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service loading the second-level cache at startup, so that the first learners after a deploy do not all miss it.
+ * <p>
+ * The units of the most enrolled books, with their vocabularies, grammars, exercises and options, are loaded one book
+ * per task, and the most recently active users are loaded into the {@code usersByLogin} cache, on a small pool within
+ * {@code application.cache.warm-up.timeout}. Until the warm-up finishes or times out, {@link CacheWarmUpHealthIndicator}
+ * keeps the application out of the readiness probe.
+ */
+@Service
+public class CacheWarmUpService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheWarmUpService.class);
+
+    private static final int USERS_PER_TASK = 50;
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final ProgressRepository progressRepository;
+
+    private final BookRepository bookRepository;
+
+    private final UserRepository userRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Cache.WarmUp properties;
+
+    private final Executor executor;
+
+    private volatile boolean finished;
+
+    public CacheWarmUpService(
+        EnrollmentRepository enrollmentRepository,
+        ProgressRepository progressRepository,
+        BookRepository bookRepository,
+        UserRepository userRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        @Qualifier("cacheWarmUpExecutor") Executor executor
+    ) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.progressRepository = progressRepository;
+        this.bookRepository = bookRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.properties = applicationProperties.getCache().getWarmUp();
+        this.executor = executor;
+    }
+
+    /**
+     * Whether the warm-up is over, whether it completed, failed or timed out.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!properties.isEnabled()) {
+            finished = true;
+            return;
+        }
+        long started = System.nanoTime();
+        long deadline = started + properties.getTimeout().toNanos();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        try {
+            List<Long> bookIds = enrollmentRepository.findMostEnrolledBookIds(PageRequest.of(0, properties.getBooks()));
+            for (Long bookId : bookIds) {
+                tasks.add(CompletableFuture.runAsync(() -> warmUpBook(bookId, deadline), executor));
+            }
+            Instant activeSince = Instant.now().minus(properties.getActiveWithin());
+            List<String> logins = progressRepository.findRecentlyActiveLogins(activeSince, PageRequest.of(0, properties.getUsers()));
+            for (int from = 0; from < logins.size(); from += USERS_PER_TASK) {
+                List<String> chunk = logins.subList(from, Math.min(from + USERS_PER_TASK, logins.size()));
+                tasks.add(CompletableFuture.runAsync(() -> warmUpUsers(chunk, deadline), executor));
+            }
+
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).get(
+                Math.max(0, deadline - System.nanoTime()),
+                TimeUnit.NANOSECONDS
+            );
+            LOG.info(
+                "Warmed up the caches with {} books and {} users in {} ms",
+                bookIds.size(),
+                logins.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)
+            );
+        } catch (TimeoutException e) {
+            // Tasks still queued are dropped, running ones stop at their next unit or user
+            tasks.forEach(task -> task.cancel(false));
+            LOG.warn("Cache warm-up did not finish within {}, serving with a partly warm cache", properties.getTimeout());
+        } catch (ExecutionException | RuntimeException e) {
+            LOG.warn("Cache warm-up failed: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            finished = true;
+        }
+    }
+
+    private void warmUpBook(long bookId, long deadline) {
+        transactionTemplate.executeWithoutResult(status ->
+            bookRepository
+                .findById(bookId)
+                .ifPresent(book -> {
+                    for (Unit unit : book.getUnits()) {
+                        if (System.nanoTime() > deadline) {
+                            return;
+                        }
+                        Hibernate.initialize(unit.getVocabularies());
+                        Hibernate.initialize(unit.getGrammars());
+                        for (Exercise exercise : unit.getExercises()) {
+                            Hibernate.initialize(exercise.getOptions());
+                        }
+                    }
+                })
+        );
+    }
+
+    private void warmUpUsers(List<String> logins, long deadline) {
+        for (String login : logins) {
+            if (System.nanoTime() > deadline) {
+                return;
+            }
+            // Goes through the cache proxy, so that the user lands in usersByLogin
+            userRepository.findOneWithAuthoritiesByLogin(login);
+        }
+    }
+}
@@ -2,38 +2,153 @@ package com.langleague.app.service;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.langleague.app.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
+import java.time.Clock;
 import java.util.Base64;
+import java.util.Locale;
 import java.util.Random;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
 import javax.imageio.ImageIO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
  * Captcha service: generate and verify simple captcha images
+ * <p>
+ * Images are rendered ahead of time by a low priority background thread, which keeps a pool of
+ * {@code application.captcha.pool-size} captchas ready. Requests only take one from the pool, and render
+ * one themselves when the pool is empty.
+ * <p>
+ * Answers are either kept in a local cache keyed by a random id, or, with {@code application.captcha.stateless},
+ * carried by the id itself as a signed, expiring {@link CaptchaTokens token}. Tokens are signed with a key derived
+ * from the JWT secret, so that any node can verify a captcha issued by another one. A token is only accepted once
+ * per node; a replay on another node within the captcha lifetime is not detected.
  */
 @Service
 public class CaptchaService {
 
-    // Cache for captchaId -> captchaText, expires in 3 minutes
-    private final Cache<String, String> captchaCache = Caffeine.newBuilder()
-        .expireAfterWrite(3, TimeUnit.MINUTES)
-        .maximumSize(1000)
-        .build();
+    private static final Logger LOG = LoggerFactory.getLogger(CaptchaService.class);
+
+    public static final String POOL_DEPTH_GAUGE = "captcha.pool.depth";
+
+    public static final String RENDER_TIMER = "captcha.render";
+
+    public static final String POOL_MISSES_COUNTER = "captcha.pool.misses";
+
+    public static final String REJECTED_TOKENS_COUNTER = "captcha.tokens.rejected";
+
+    // Cache for captchaId -> captchaText, when not stateless
+    private final Cache<String, String> captchaCache;
+
+    // Issues and checks captcha ids, when stateless
+    private final CaptchaTokens captchaTokens;
+
+    private final MeterRegistry meterRegistry;
 
     private static final String CHARS = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
 
+    private static final Font FONT = new Font("Arial", Font.BOLD, 36);
+
+    private static final long REFILL_RETRY_DELAY_MILLIS = 1_000;
+
+    // A captcha rendered but not handed out yet
+    record Rendered(String text, String image) {}
+
+    private final BlockingQueue<Rendered> pool;
+
+    private final Executor refillExecutor;
+
+    private final Timer backgroundRenderTimer;
+
+    private final Timer requestRenderTimer;
+
+    private final Counter poolMisses;
+
+    public CaptchaService(
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        @Value("${jhipster.security.authentication.jwt.base64-secret}") String jwtKey,
+        @Qualifier("captchaRefillExecutor") Executor refillExecutor
+    ) {
+        this.meterRegistry = meterRegistry;
+        ApplicationProperties.Captcha properties = applicationProperties.getCaptcha();
+        if (properties.isStateless()) {
+            captchaCache = null;
+            captchaTokens = new CaptchaTokens(Base64.getDecoder().decode(jwtKey), properties.getTtl(), Clock.systemUTC());
+        } else {
+            captchaCache = Caffeine.newBuilder().expireAfterWrite(properties.getTtl()).maximumSize(1000).build();
+            captchaTokens = null;
+        }
+
+        pool = new LinkedBlockingQueue<>(Math.max(1, properties.getPoolSize()));
+        Gauge.builder(POOL_DEPTH_GAUGE, pool, BlockingQueue::size)
+            .description("Number of pre-rendered captchas ready to be handed out")
+            .register(meterRegistry);
+        backgroundRenderTimer = renderTimer(meterRegistry, "background");
+        requestRenderTimer = renderTimer(meterRegistry, "request");
+        poolMisses = Counter.builder(POOL_MISSES_COUNTER)
+            .description("Captchas rendered on the request thread because the pool was empty")
+            .register(meterRegistry);
+        this.refillExecutor = refillExecutor;
+    }
+
+    private static Timer renderTimer(MeterRegistry meterRegistry, String thread) {
+        return Timer.builder(RENDER_TIMER).description("Time to render a captcha image").tag("thread", thread).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void startRefill() {
+        refillExecutor.execute(this::refill);
+    }
+
+    private void refill() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Rendered rendered = backgroundRenderTimer.record(CaptchaService::renderRandom);
+                // Blocks while the pool is full
+                pool.put(rendered);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException | AWTError | LinkageError e) {
+                // Font or graphics failures included; requests render their own captchas meanwhile
+                LOG.error("Captcha refill failed, retrying in {} ms", REFILL_RETRY_DELAY_MILLIS, e);
+                try {
+                    Thread.sleep(REFILL_RETRY_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
     // Generate new captcha (id + base64 image)
     public Captcha generateCaptcha() {
-        String text = generateRandomText(6);
+        Rendered rendered = pool.poll();
+        if (rendered == null) {
+            poolMisses.increment();
+            rendered = requestRenderTimer.record(CaptchaService::renderRandom);
+        }
+        if (captchaTokens != null) {
+            return new Captcha(captchaTokens.issue(rendered.text()), rendered.image());
+        }
         String id = UUID.randomUUID().toString();
-        captchaCache.put(id, text);
-
-        String image = createImageBase64(text);
-        return new Captcha(id, image);
+        captchaCache.put(id, rendered.text());
+        return new Captcha(id, rendered.image());
     }
 
     // Verify captcha value and invalidate it
@@ -41,6 +156,13 @@ public class CaptchaService {
         if (captchaId == null || answer == null) {
             return false;
         }
+        if (captchaTokens != null) {
+            CaptchaTokens.Result result = captchaTokens.verify(captchaId, answer);
+            if (result != CaptchaTokens.Result.VALID && result != CaptchaTokens.Result.WRONG_ANSWER) {
+                meterRegistry.counter(REJECTED_TOKENS_COUNTER, "reason", result.name().toLowerCase(Locale.ROOT)).increment();
+            }
+            return result == CaptchaTokens.Result.VALID;
+        }
         String real = captchaCache.getIfPresent(captchaId);
         boolean valid = real != null && real.equalsIgnoreCase(answer);
         if (valid) {
@@ -49,9 +171,18 @@ public class CaptchaService {
         return valid;
     }
 
+    int poolDepth() {
+        return pool.size();
+    }
+
+    static Rendered renderRandom() {
+        String text = generateRandomText(6);
+        return new Rendered(text, createImageBase64(text));
+    }
+
     // Generate random text
-    private String generateRandomText(int length) {
-        Random rand = new Random();
+    private static String generateRandomText(int length) {
+        Random rand = ThreadLocalRandom.current();
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < length; i++) {
             sb.append(CHARS.charAt(rand.nextInt(CHARS.length())));
@@ -60,7 +191,7 @@ public class CaptchaService {
     }
 
     // Create Base64 PNG image with improved styling
-    private String createImageBase64(String text) {
+    static String createImageBase64(String text) {
         try {
             int width = 200, height = 60;
             BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
@@ -73,7 +204,7 @@ public class CaptchaService {
             g2.setColor(Color.WHITE);
             g2.fillRect(0, 0, width, height);
 
-            Random rand = new Random();
+            Random rand = ThreadLocalRandom.current();
 
             // Add noise lines
             for (int i = 0; i < 5; i++) {
@@ -82,7 +213,7 @@ public class CaptchaService {
             }
 
             // Draw each character with random rotation and position
-            g2.setFont(new Font("Arial", Font.BOLD, 36));
+            g2.setFont(FONT);
             int charWidth = width / text.length();
 
             for (int i = 0; i < text.length(); i++) {
@@ -104,7 +235,7 @@ public class CaptchaService {
 
             g2.dispose();
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(4096);
             ImageIO.write(image, "png", baos);
             return "data:image/png;base64," + Base64.getEncoder().encodeToString(baos.toByteArray());
         } catch (Exception e) {
@@ -0,0 +1,161 @@
+package com.langleague.app.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Locale;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Self-contained captcha ids, verifiable by any node sharing the key.
+ * <p>
+ * A token is the base64url encoding of:
+ * <pre>
+ * version (1) | expires at, epoch seconds (8) | salt (16) | answer hash (16) | signature (32)
+ * </pre>
+ * The answer hash is an HMAC of the salt and the upper-cased answer, so that the answer cannot be
+ * brute-forced offline from the token, and the signature an HMAC of everything before it. The two use
+ * distinct keys derived from the configured secret.
+ * <p>
+ * A token is accepted once per node: its salt is recorded in a {@link RotatingBloomFilter} covering
+ * the token lifetime.
+ */
+final class CaptchaTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final byte VERSION = 1;
+
+    private static final int SALT_LENGTH = 16;
+
+    private static final int ANSWER_HASH_LENGTH = 16;
+
+    private static final int PAYLOAD_LENGTH = 1 + Long.BYTES + SALT_LENGTH + ANSWER_HASH_LENGTH;
+
+    private static final int TOKEN_LENGTH = PAYLOAD_LENGTH + 32;
+
+    // 512 KiB per generation: below 1e-5 false positives up to 100,000 captchas per lifetime
+    private static final int REPLAY_FILTER_LOG2_BITS = 22;
+
+    private static final int REPLAY_FILTER_HASHES = 7;
+
+    /**
+     * Outcome of a token verification.
+     */
+    enum Result {
+        VALID,
+        WRONG_ANSWER,
+        MALFORMED,
+        EXPIRED,
+        REPLAYED,
+    }
+
+    private final SecretKeySpec answerKey;
+
+    private final SecretKeySpec signingKey;
+
+    private final Duration ttl;
+
+    private final Clock clock;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final RotatingBloomFilter usedTokens;
+
+    CaptchaTokens(byte[] secret, Duration ttl, Clock clock) {
+        SecretKeySpec master = new SecretKeySpec(secret, ALGORITHM);
+        this.answerKey = new SecretKeySpec(hmac(master, "captcha-answer".getBytes(StandardCharsets.US_ASCII)), ALGORITHM);
+        this.signingKey = new SecretKeySpec(hmac(master, "captcha-token".getBytes(StandardCharsets.US_ASCII)), ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+        this.usedTokens = new RotatingBloomFilter(REPLAY_FILTER_LOG2_BITS, REPLAY_FILTER_HASHES, ttl.toMillis());
+    }
+
+    /**
+     * Issue a token for a captcha answer, expiring after the configured lifetime.
+     */
+    String issue(String answer) {
+        byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+        ByteBuffer token = ByteBuffer.allocate(TOKEN_LENGTH);
+        token.put(VERSION);
+        token.putLong(clock.instant().plus(ttl).getEpochSecond());
+        token.put(salt);
+        token.put(answerHash(salt, answer));
+        token.put(sign(token.array()));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.array());
+    }
+
+    /**
+     * Check an answer against a token. Every authentic, unexpired token is spent by this call,
+     * even when the answer is wrong, so that answers cannot be guessed with a single captcha.
+     */
+    Result verify(String token, String answer) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return Result.MALFORMED;
+        }
+        if (bytes.length != TOKEN_LENGTH || bytes[0] != VERSION) {
+            return Result.MALFORMED;
+        }
+        byte[] signature = new byte[TOKEN_LENGTH - PAYLOAD_LENGTH];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.get(PAYLOAD_LENGTH, signature);
+        if (!MessageDigest.isEqual(signature, sign(bytes))) {
+            return Result.MALFORMED;
+        }
+
+        long now = clock.millis();
+        if (Math.floorDiv(now, 1000L) > buffer.getLong(1)) {
+            return Result.EXPIRED;
+        }
+        int saltOffset = 1 + Long.BYTES;
+        // The salt is random, its two halves serve as the filter hashes
+        if (!usedTokens.add(buffer.getLong(saltOffset), buffer.getLong(saltOffset + Long.BYTES), now)) {
+            return Result.REPLAYED;
+        }
+
+        byte[] salt = new byte[SALT_LENGTH];
+        byte[] expected = new byte[ANSWER_HASH_LENGTH];
+        buffer.get(saltOffset, salt);
+        buffer.get(saltOffset + SALT_LENGTH, expected);
+        return MessageDigest.isEqual(expected, answerHash(salt, answer)) ? Result.VALID : Result.WRONG_ANSWER;
+    }
+
+    private byte[] answerHash(byte[] salt, String answer) {
+        Mac mac = mac(answerKey);
+        mac.update(salt);
+        byte[] hash = mac.doFinal(answer.trim().toUpperCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        byte[] truncated = new byte[ANSWER_HASH_LENGTH];
+        System.arraycopy(hash, 0, truncated, 0, ANSWER_HASH_LENGTH);
+        return truncated;
+    }
+
+    private byte[] sign(byte[] token) {
+        Mac mac = mac(signingKey);
+        mac.update(token, 0, PAYLOAD_LENGTH);
+        return mac.doFinal();
+    }
+
+    private static byte[] hmac(SecretKeySpec key, byte[] data) {
+        return mac(key).doFinal(data);
+    }
+
+    private static Mac mac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.langleague.app.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.langleague.app.security.SecurityUtils;
+import com.langleague.app.service.dto.UploadResponseDTO;
+import com.langleague.app.service.dto.UploadSessionDTO;
+import com.langleague.app.web.rest.errors.BadRequestAlertException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service for resumable chunked uploads.
+ * <p>
+ * A session is created with the expected size (and optionally the SHA-256 digest) of the file, then chunks are
+ * appended at the offset the server reports, with positional {@link FileChannel} writes straight from the request
+ * body into a partial file. When every byte has been received, the digest is computed, checked against the
+ * announced one and the file is handed to {@link FileStorageService} like any other upload.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final String ENTITY_NAME = "upload";
+
+    public static final long MAX_UPLOAD_SIZE = 512L * 1024 * 1024;
+
+    private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+
+    private final Path partialLocation;
+
+    // Sessions abandoned for a day are dropped, together with their partial file
+    private final Cache<String, UploadSession> sessions = Caffeine.newBuilder()
+        .expireAfterAccess(24, TimeUnit.HOURS)
+        .maximumSize(10_000)
+        .removalListener((String uploadId, UploadSession session, RemovalCause cause) -> {
+            if (session != null) {
+                deleteQuietly(session.part);
+            }
+        })
+        .build();
+
+    private final FileStorageService fileStorageService;
+
+    public ChunkedUploadService(FileStorageService fileStorageService) {
+        this.fileStorageService = fileStorageService;
+        // Kept outside of the uploads directory, which is served publicly
+        this.partialLocation = Paths.get("storage/partial").toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.partialLocation);
+            // Sessions only live in memory: partial files of a previous run can never be resumed
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(this.partialLocation, "*.part")) {
+                stale.forEach(ChunkedUploadService::deleteQuietly);
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not create the directory where partial uploads will be stored.", ex);
+        }
+    }
+
+    /**
+     * Start a chunked upload.
+     *
+     * @param request the announced file name, size, content type and optional SHA-256 digest.
+     * @return the created session, at offset 0.
+     */
+    public UploadSessionDTO create(UploadSessionDTO request) {
+        LOG.debug("Request to create chunked upload : {}", request);
+        if (request.getSize() > MAX_UPLOAD_SIZE) {
+            throw new BadRequestAlertException("File is too large", ENTITY_NAME, "filetoolarge");
+        }
+        if (request.getFileName().contains("..")) {
+            throw new BadRequestAlertException("Filename contains invalid path sequence", ENTITY_NAME, "invalidname");
+        }
+        String uploadId = UUID.randomUUID().toString();
+        UploadSession session = new UploadSession(
+            uploadId,
+            SecurityUtils.getCurrentUserLogin().orElse(null),
+            request.getFileName(),
+            request.getContentType(),
+            request.getSize(),
+            request.getSha256(),
+            partialLocation.resolve(uploadId + ".part")
+        );
+        try {
+            Files.createFile(session.part);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not create upload " + uploadId, ex);
+        }
+        sessions.put(uploadId, session);
+        return toDto(session, 0);
+    }
+
+    /**
+     * Append a chunk to an upload. The offset must be the number of bytes already received,
+     * as reported by {@link #status(String)}; bytes received before a connection drop are kept.
+     *
+     * @param uploadId the upload.
+     * @param offset the position of the first byte of the chunk.
+     * @param chunk the chunk content.
+     * @return the upload status after the chunk.
+     * @throws IOException if the chunk cannot be read or written.
+     */
+    public UploadSessionDTO append(String uploadId, long offset, InputStream chunk) throws IOException {
+        UploadSession session = getSession(uploadId);
+        synchronized (session) {
+            long received = Files.size(session.part);
+            if (offset != received) {
+                throw new BadRequestAlertException("Chunk offset must be " + received, ENTITY_NAME, "offsetmismatch");
+            }
+            ReadableByteChannel source = Channels.newChannel(chunk);
+            try (FileChannel target = FileChannel.open(session.part, StandardOpenOption.WRITE)) {
+                long position = offset;
+                long transferred;
+                while (position < session.size && (transferred = target.transferFrom(source, position, session.size - position)) > 0) {
+                    position += transferred;
+                }
+                if (position == session.size && chunk.read() != -1) {
+                    target.truncate(offset);
+                    throw new BadRequestAlertException("Chunk goes past the announced size", ENTITY_NAME, "sizeexceeded");
+                }
+                return toDto(session, position);
+            }
+        }
+    }
+
+    /**
+     * Get the status of an upload, in particular the offset to resume from.
+     *
+     * @param uploadId the upload.
+     * @return the upload status.
+     * @throws IOException if the partial file cannot be read.
+     */
+    public UploadSessionDTO status(String uploadId) throws IOException {
+        UploadSession session = getSession(uploadId);
+        return toDto(session, Files.size(session.part));
+    }
+
+    /**
+     * Complete an upload: check that every byte was received and that the content matches the announced digest,
+     * then store the file.
+     *
+     * @param uploadId the upload.
+     * @return the URL of the stored file and, for images, the URLs of its variants.
+     * @throws IOException if the partial file cannot be read.
+     */
+    public UploadResponseDTO complete(String uploadId) throws IOException {
+        UploadSession session = getSession(uploadId);
+        synchronized (session) {
+            if (Files.size(session.part) != session.size) {
+                throw new BadRequestAlertException("Upload is incomplete", ENTITY_NAME, "incomplete");
+            }
+            String sha256 = digest(session.part);
+            if (session.sha256 != null && !session.sha256.equalsIgnoreCase(sha256)) {
+                sessions.invalidate(uploadId);
+                throw new BadRequestAlertException("Uploaded content does not match its checksum", ENTITY_NAME, "checksummismatch");
+            }
+            UploadResponseDTO result = fileStorageService.storeCompleted(session.part, sha256, session.fileName, session.contentType);
+            sessions.invalidate(uploadId);
+            LOG.debug("Completed chunked upload {} as {}", uploadId, result.getFileUrl());
+            return result;
+        }
+    }
+
+    private UploadSession getSession(String uploadId) {
+        UploadSession session = sessions.getIfPresent(uploadId);
+        if (session == null || !Objects.equals(session.owner, SecurityUtils.getCurrentUserLogin().orElse(null))) {
+            throw new BadRequestAlertException("Upload not found", ENTITY_NAME, "uploadnotfound");
+        }
+        return session;
+    }
+
+    private static String digest(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(DIGEST_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static UploadSessionDTO toDto(UploadSession session, long offset) {
+        UploadSessionDTO dto = new UploadSessionDTO();
+        dto.setUploadId(session.uploadId);
+        dto.setFileName(session.fileName);
+        dto.setContentType(session.contentType);
+        dto.setSize(session.size);
+        dto.setSha256(session.sha256);
+        dto.setOffset(offset);
+        return dto;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOG.warn("Could not delete partial upload {}", path.getFileName());
+        }
+    }
+
+    private static final class UploadSession {
+
+        private final String uploadId;
+        private final String owner;
+        private final String fileName;
+        private final String contentType;
+        private final long size;
+        private final String sha256;
+        private final Path part;
+
+        private UploadSession(String uploadId, String owner, String fileName, String contentType, long size, String sha256, Path part) {
+            this.uploadId = uploadId;
+            this.owner = owner;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.size = size;
+            this.sha256 = sha256;
+            this.part = part;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.langleague.app.service;
+
+import com.langleague.app.service.dto.CohortRetentionDTO;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service computing the weekly cohort retention of students, as an offline job.
+ * <p>
+ * A student belongs to the cohort of the week of their first enrollment, and is retained in a later week if they
+ * studied during it: a progress was updated or accessed, or their streak covers a day of that week.
+ * <p>
+ * User profile ids are split into ranges, computed in parallel on a dedicated fork-join pool. Each range streams its
+ * enrollments, progresses and streaks with row by row cursors into a {@link RetentionShard}, so that memory grows with
+ * the number of students of the range only, and the partial triangles are summed as the tasks join. The result
+ * replaces the {@code cohort_retention} table, which is what the admin endpoint reads.
+ */
+@Service
+public class CohortRetentionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CohortRetentionService.class);
+
+    /**
+     * Number of weekly cohorts kept, the current week included.
+     */
+    public static final int MAX_COHORTS = 104;
+
+    // Each task holds a database connection while it streams
+    private static final int PARALLELISM = 4;
+
+    private static final int RANGES_PER_THREAD = 4;
+
+    private static final String ENROLLMENTS_QUERY =
+        "SELECT user_profile_id, MIN(enrolled_at) FROM enrollment WHERE user_profile_id BETWEEN ? AND ? GROUP BY user_profile_id";
+
+    private static final String PROGRESS_QUERY =
+        "SELECT user_profile_id, updated_at, last_accessed_at FROM progress WHERE user_profile_id BETWEEN ? AND ?";
+
+    private static final String STREAKS_QUERY =
+        "SELECT id, streak_count, last_learning_date FROM user_profile " +
+        "WHERE id BETWEEN ? AND ? AND streak_count > 0 AND last_learning_date IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CohortRetentionService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Start computing the retention in the background.
+     *
+     * @return {@code false} if a computation is already running.
+     */
+    public boolean refreshInBackground() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        ForkJoinPool pool = newPool();
+        pool.execute(() -> {
+            try {
+                refresh(pool);
+            } catch (RuntimeException e) {
+                LOG.error("Cohort retention computation failed", e);
+            } finally {
+                pool.shutdown();
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Compute the retention of every cohort.
+     * <p>
+     * This is scheduled to run every Monday, at 03:00 (am), once the previous week is complete.
+     */
+    @Scheduled(cron = "0 0 3 * * MON")
+    public void refresh() {
+        if (!running.compareAndSet(false, true)) {
+            LOG.info("Cohort retention computation already running, skipping");
+            return;
+        }
+        ForkJoinPool pool = newPool();
+        try {
+            refresh(pool);
+        } finally {
+            pool.shutdown();
+            running.set(false);
+        }
+    }
+
+    private static ForkJoinPool newPool() {
+        return new ForkJoinPool(PARALLELISM, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false);
+    }
+
+    private void refresh(ForkJoinPool pool) {
+        long started = System.nanoTime();
+        Instant computedAt = Instant.now();
+        int currentWeek = RetentionShard.weekOfEpochDay(LocalDate.now(ZoneOffset.UTC).toEpochDay());
+        int firstWeek = currentWeek - MAX_COHORTS + 1;
+
+        long[] triangle = new long[MAX_COHORTS * RetentionShard.STRIDE];
+        long[] bounds = jdbcTemplate.queryForObject(
+            "SELECT MIN(user_profile_id), MAX(user_profile_id) FROM enrollment",
+            (rs, rowNum) -> new long[] { rs.getLong(1), rs.getLong(2) }
+        );
+        if (bounds != null && bounds[1] > 0) {
+            long rangeSize = Math.max(1, (bounds[1] - bounds[0] + 1) / (PARALLELISM * RANGES_PER_THREAD) + 1);
+            triangle = pool.invoke(new RangeTask(bounds[0], bounds[1], rangeSize, firstWeek));
+        }
+        int cohorts = store(triangle, firstWeek, currentWeek, computedAt);
+        LOG.info("Computed retention of {} cohorts in {} ms", cohorts, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Computes the triangle of a range of user profile ids, splitting it until ranges are small enough.
+     */
+    private final class RangeTask extends RecursiveTask<long[]> {
+
+        private final long fromId;
+
+        private final long toId;
+
+        private final long rangeSize;
+
+        private final int firstWeek;
+
+        RangeTask(long fromId, long toId, long rangeSize, int firstWeek) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.rangeSize = rangeSize;
+            this.firstWeek = firstWeek;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (toId - fromId < rangeSize) {
+                return computeRange(fromId, toId, firstWeek);
+            }
+            long middle = fromId + (toId - fromId) / 2;
+            RangeTask left = new RangeTask(fromId, middle, rangeSize, firstWeek);
+            left.fork();
+            long[] right = new RangeTask(middle + 1, toId, rangeSize, firstWeek).compute();
+            long[] triangle = left.join();
+            for (int i = 0; i < triangle.length; i++) {
+                triangle[i] += right[i];
+            }
+            return triangle;
+        }
+    }
+
+    private long[] computeRange(long fromId, long toId, int firstWeek) {
+        long[] triangle = new long[MAX_COHORTS * RetentionShard.STRIDE];
+        RetentionShard shard = new RetentionShard();
+        stream(
+            ENROLLMENTS_QUERY,
+            rs -> {
+                int cohortWeek = weekOf(rs.getTimestamp(2));
+                // Students of older cohorts are not followed anymore
+                if (cohortWeek >= firstWeek) {
+                    shard.addStudent(rs.getLong(1), cohortWeek);
+                }
+            },
+            fromId,
+            toId
+        );
+        if (shard.size() == 0) {
+            return triangle;
+        }
+        stream(
+            PROGRESS_QUERY,
+            rs -> {
+                long userProfileId = rs.getLong(1);
+                shard.markActive(userProfileId, weekOf(rs.getTimestamp(2)));
+                Timestamp lastAccessedAt = rs.getTimestamp(3);
+                if (lastAccessedAt != null) {
+                    shard.markActive(userProfileId, weekOf(lastAccessedAt));
+                }
+            },
+            fromId,
+            toId
+        );
+        stream(
+            STREAKS_QUERY,
+            rs -> {
+                long lastDay = epochDayOf(rs.getTimestamp(3));
+                long firstDay = lastDay - rs.getInt(2) + 1;
+                shard.markActive(rs.getLong(1), RetentionShard.weekOfEpochDay(firstDay), RetentionShard.weekOfEpochDay(lastDay));
+            },
+            fromId,
+            toId
+        );
+        shard.accumulate(triangle, firstWeek);
+        return triangle;
+    }
+
+    private void stream(String sql, RowCallbackHandler handler, long fromId, long toId) {
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // Row by row streaming with MySQL Connector/J
+                statement.setFetchSize(Integer.MIN_VALUE);
+                statement.setLong(1, fromId);
+                statement.setLong(2, toId);
+                return statement;
+            },
+            handler
+        );
+    }
+
+    private static long epochDayOf(Timestamp timestamp) {
+        return Math.floorDiv(timestamp.toInstant().getEpochSecond(), 86_400L);
+    }
+
+    private static int weekOf(Timestamp timestamp) throws SQLException {
+        if (timestamp == null) {
+            throw new SQLException("Unexpected null date");
+        }
+        return RetentionShard.weekOfEpochDay(epochDayOf(timestamp));
+    }
+
+    private int store(long[] triangle, int firstWeek, int currentWeek, Instant computedAt) {
+        List<Object[]> rows = new ArrayList<>();
+        int cohorts = 0;
+        for (int cohort = 0; cohort < MAX_COHORTS; cohort++) {
+            int base = cohort * RetentionShard.STRIDE;
+            long size = triangle[base + RetentionShard.MAX_WEEK_OFFSETS];
+            if (size == 0) {
+                continue;
+            }
+            cohorts++;
+            int cohortWeek = firstWeek + cohort;
+            LocalDate weekStart = LocalDate.ofEpochDay(RetentionShard.epochDayOfWeek(cohortWeek));
+            // Only the weeks elapsed so far, current one included
+            int offsets = Math.min(RetentionShard.MAX_WEEK_OFFSETS, currentWeek - cohortWeek + 1);
+            for (int offset = 0; offset < offsets; offset++) {
+                rows.add(new Object[] { weekStart, offset, size, triangle[base + offset], Timestamp.from(computedAt) });
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM cohort_retention");
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO cohort_retention (cohort_start, week_offset, cohort_size, retained_count, computed_at) VALUES (?, ?, ?, ?, ?)",
+                rows
+            );
+        });
+        return cohorts;
+    }
+
+    /**
+     * Get the retention triangle computed by the last run.
+     *
+     * @return the cohorts, oldest first, empty if the job never ran.
+     */
+    public CohortRetentionDTO getRetention() {
+        CohortRetentionDTO retention = new CohortRetentionDTO();
+        jdbcTemplate.query(
+            "SELECT cohort_start, week_offset, cohort_size, retained_count, computed_at FROM cohort_retention " +
+            "ORDER BY cohort_start, week_offset",
+            (RowCallbackHandler) rs -> {
+                LocalDate weekStart = rs.getObject(1, LocalDate.class);
+                List<CohortRetentionDTO.CohortDTO> cohorts = retention.getCohorts();
+                if (cohorts.isEmpty() || !cohorts.get(cohorts.size() - 1).getWeekStart().equals(weekStart)) {
+                    cohorts.add(new CohortRetentionDTO.CohortDTO(weekStart, rs.getInt(3)));
+                    retention.setComputedAt(rs.getTimestamp(5).toInstant());
+                }
+                cohorts.get(cohorts.size() - 1).getRetained().add(rs.getInt(4));
+            }
+        );
+        return retention;
+    }
+}
@@ -0,0 +1,167 @@
+package com.langleague.app.service;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental reader for CSV / TSV text, one record at a time.
+ * <p>
+ * Supports RFC 4180 quoting (quoted fields may contain delimiters, line breaks and doubled quotes),
+ * {@code \n}, {@code \r\n} and lone {@code \r} line endings and a leading UTF-8 byte order mark, as produced by
+ * spreadsheet exports.
+ */
+final class DelimitedRecordReader {
+
+    private static final int BOM = 0xFEFF;
+
+    /**
+     * Characters of the first line looked at to guess the delimiter, plenty for any header.
+     */
+    static final int DETECTION_SAMPLE = 4096;
+
+    private final PushbackReader reader;
+
+    private final char delimiter;
+
+    private int line = 1;
+
+    private int recordLine;
+
+    private boolean started;
+
+    private boolean eof;
+
+    DelimitedRecordReader(Reader reader, char delimiter) {
+        this(new PushbackReader(reader, 1), delimiter);
+    }
+
+    private DelimitedRecordReader(PushbackReader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Create a reader guessing the delimiter from the start of the first line, up to {@link #DETECTION_SAMPLE} characters.
+     * The sample is read once and pushed back, so the reader needs no mark support.
+     *
+     * @param reader the text to read.
+     * @return a reader positioned at the start of the text.
+     * @throws IOException if the underlying reader fails.
+     */
+    static DelimitedRecordReader detect(Reader reader) throws IOException {
+        StringBuilder sample = new StringBuilder();
+        int c;
+        while (sample.length() < DETECTION_SAMPLE && (c = reader.read()) != -1) {
+            sample.append((char) c);
+            if (c == '\n' || c == '\r') {
+                break;
+            }
+        }
+        // One more slot for the single character unread while parsing
+        PushbackReader pushback = new PushbackReader(reader, sample.length() + 1);
+        pushback.unread(sample.toString().toCharArray());
+        return new DelimitedRecordReader(pushback, detectDelimiter(sample.toString()));
+    }
+
+    /**
+     * Guess the delimiter of a sample (typically the first line): tab, then semicolon, then comma.
+     *
+     * @param sample the sample text, may be {@code null}.
+     * @return the guessed delimiter.
+     */
+    static char detectDelimiter(String sample) {
+        if (sample == null) {
+            return ',';
+        }
+        if (sample.indexOf('\t') >= 0) {
+            return '\t';
+        }
+        long semicolons = sample.chars().filter(c -> c == ';').count();
+        long commas = sample.chars().filter(c -> c == ',').count();
+        return semicolons > commas ? ';' : ',';
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return the fields of the record, or {@code null} at end of input.
+     * @throws IOException if the underlying reader fails.
+     */
+    String[] next() throws IOException {
+        if (eof) {
+            return null;
+        }
+        if (!started) {
+            started = true;
+            int first = reader.read();
+            if (first != BOM && first != -1) {
+                reader.unread(first);
+            }
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+        while (true) {
+            int c = reader.read();
+            if (c == -1) {
+                eof = true;
+                if (empty) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields.toArray(new String[0]);
+            }
+            empty = false;
+            if (quoted) {
+                if (c == '"') {
+                    int peek = reader.read();
+                    if (peek == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (peek != -1) {
+                            reader.unread(peek);
+                        }
+                    }
+                } else {
+                    // A quoted \r\n is one line break
+                    if (c == '\r' || (c == '\n' && (field.isEmpty() || field.charAt(field.length() - 1) != '\r'))) {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r') {
+                int peek = reader.read();
+                if (peek != '\n' && peek != -1) {
+                    reader.unread(peek);
+                }
+                line++;
+                fields.add(field.toString());
+                return fields.toArray(new String[0]);
+            } else if (c == '\n') {
+                line++;
+                fields.add(field.toString());
+                return fields.toArray(new String[0]);
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    /**
+     * @return the 1-based line number on which the last record returned by {@link #next()} started.
+     */
+    int recordLine() {
+        return recordLine;
+    }
+}
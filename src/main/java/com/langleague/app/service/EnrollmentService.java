@@ -12,6 +12,7 @@ import com.langleague.app.service.mapper.EnrollmentMapper;
 import java.time.Instant;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -36,16 +37,20 @@ public class EnrollmentService {
 
     private final BookRepository bookRepository;
 
+    private final TeacherStatsService teacherStatsService;
+
     public EnrollmentService(
         EnrollmentRepository enrollmentRepository,
         EnrollmentMapper enrollmentMapper,
         UserProfileRepository userProfileRepository,
-        BookRepository bookRepository
+        BookRepository bookRepository,
+        TeacherStatsService teacherStatsService
     ) {
         this.enrollmentRepository = enrollmentRepository;
         this.enrollmentMapper = enrollmentMapper;
         this.userProfileRepository = userProfileRepository;
         this.bookRepository = bookRepository;
+        this.teacherStatsService = teacherStatsService;
     }
 
     /**
@@ -57,7 +62,7 @@ public class EnrollmentService {
     public EnrollmentDTO save(EnrollmentDTO enrollmentDTO) {
         LOG.debug("Request to save Enrollment : {}", enrollmentDTO);
         Enrollment enrollment = enrollmentMapper.toEntity(enrollmentDTO);
-        enrollment = enrollmentRepository.save(enrollment);
+        enrollment = saveAndCount(enrollment);
         return enrollmentMapper.toDto(enrollment);
     }
 
@@ -92,6 +97,7 @@ public class EnrollmentService {
         enrollment.setStatus(EnrollmentStatus.ACTIVE);
 
         enrollment = enrollmentRepository.save(enrollment);
+        teacherStatsService.enrollmentAdded(enrollment);
         return enrollmentMapper.toDto(enrollment);
     }
 
@@ -104,7 +110,7 @@ public class EnrollmentService {
     public EnrollmentDTO update(EnrollmentDTO enrollmentDTO) {
         LOG.debug("Request to update Enrollment : {}", enrollmentDTO);
         Enrollment enrollment = enrollmentMapper.toEntity(enrollmentDTO);
-        enrollment = enrollmentRepository.save(enrollment);
+        enrollment = saveAndCount(enrollment);
         return enrollmentMapper.toDto(enrollment);
     }
 
@@ -120,14 +126,43 @@ public class EnrollmentService {
         return enrollmentRepository
             .findById(enrollmentDTO.getId())
             .map(existingEnrollment -> {
+                Long previousStudentId = existingEnrollment.getUserProfile().getId();
+                Long previousBookId = existingEnrollment.getBook().getId();
                 enrollmentMapper.partialUpdate(existingEnrollment, enrollmentDTO);
-
-                return existingEnrollment;
+                Enrollment enrollment = enrollmentRepository.save(existingEnrollment);
+                countChange(enrollment, previousStudentId, previousBookId);
+                return enrollment;
             })
-            .map(enrollmentRepository::save)
             .map(enrollmentMapper::toDto);
     }
 
+    /**
+     * Save an enrollment built from a DTO, keeping the teacher statistics current.
+     */
+    private Enrollment saveAndCount(Enrollment enrollment) {
+        Optional<Enrollment> previous = enrollment.getId() != null ? enrollmentRepository.findById(enrollment.getId()) : Optional.empty();
+        if (previous.isEmpty()) {
+            Enrollment saved = enrollmentRepository.save(enrollment);
+            teacherStatsService.enrollmentAdded(saved);
+            return saved;
+        }
+        Long previousStudentId = previous.orElseThrow().getUserProfile().getId();
+        Long previousBookId = previous.orElseThrow().getBook().getId();
+        Enrollment saved = enrollmentRepository.save(enrollment);
+        countChange(saved, previousStudentId, previousBookId);
+        return saved;
+    }
+
+    private void countChange(Enrollment enrollment, Long previousStudentId, Long previousBookId) {
+        if (
+            !Objects.equals(previousStudentId, enrollment.getUserProfile().getId()) ||
+            !Objects.equals(previousBookId, enrollment.getBook().getId())
+        ) {
+            teacherStatsService.enrollmentRemoved(enrollment.getId(), previousStudentId, previousBookId);
+            teacherStatsService.enrollmentAdded(enrollment);
+        }
+    }
+
     /**
      * Get all the enrollments.
      *
@@ -196,6 +231,13 @@ public class EnrollmentService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete Enrollment : {}", id);
-        enrollmentRepository.deleteById(id);
+        enrollmentRepository
+            .findById(id)
+            .ifPresent(enrollment -> {
+                Long studentId = enrollment.getUserProfile().getId();
+                Long bookId = enrollment.getBook().getId();
+                enrollmentRepository.delete(enrollment);
+                teacherStatsService.enrollmentRemoved(id, studentId, bookId);
+            });
     }
 }
@@ -1,13 +1,21 @@
 package com.langleague.app.service;
 
+import com.langleague.app.service.dto.UploadResponseDTO;
 import com.langleague.app.web.rest.errors.BadRequestAlertException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
@@ -21,9 +29,15 @@ public class FileStorageService {
 
     private static final Logger LOG = LoggerFactory.getLogger(FileStorageService.class);
 
+    private static final Pattern EXTENSION_PATTERN = Pattern.compile("\\.[a-z0-9]{1,10}");
+
     private final Path fileStorageLocation;
 
-    public FileStorageService() {
+    private final ImageDerivativeService imageDerivativeService;
+
+    public FileStorageService(ImageDerivativeService imageDerivativeService) {
+        this.imageDerivativeService = imageDerivativeService;
+
         // Define the root storage directory. This should be externalized in application.properties
         String uploadDir = "storage/uploads";
         this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
@@ -36,37 +50,145 @@ public class FileStorageService {
     }
 
     public String storeFile(MultipartFile file) {
+        return "/content/uploads/" + store(file).path().getFileName();
+    }
+
+    /**
+     * Store an uploaded image and queue the generation of its thumbnail and medium variants.
+     *
+     * @param file the uploaded file.
+     * @return the URL of the original and, for images, the URLs of its variants.
+     */
+    public UploadResponseDTO storeImage(MultipartFile file) {
+        return describe(store(file), file.getContentType());
+    }
+
+    /**
+     * Store a file that was fully written elsewhere, typically the result of a chunked upload.
+     * The file is moved, not copied.
+     *
+     * @param completeFile the complete file, on the same file system as the uploads.
+     * @param sha256 the hex SHA-256 digest of its content.
+     * @param originalFileName the client-side file name, used for the extension.
+     * @param contentType the content type, if known.
+     * @return the URL of the stored file and, for images, the URLs of its variants.
+     */
+    public UploadResponseDTO storeCompleted(Path completeFile, String sha256, String originalFileName, String contentType) {
+        try {
+            return describe(commit(completeFile, sha256, extensionOf(StringUtils.cleanPath(originalFileName))), contentType);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
+        }
+    }
+
+    /**
+     * Store content generated server-side, such as a re-encoded image. No variants are generated.
+     *
+     * @param content the content.
+     * @param extension the file extension, without dot.
+     * @return the URL of the stored file.
+     */
+    public String storeContent(InputStream content, String extension) {
+        try {
+            return "/content/uploads/" + store(content, extensionOf("." + extension)).path().getFileName();
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store generated file. Please try again!", ex);
+        }
+    }
+
+    private UploadResponseDTO describe(StoredFile stored, String contentType) {
+        String fileUrl = "/content/uploads/" + stored.path().getFileName();
+        if (contentType == null || !contentType.startsWith("image/")) {
+            return new UploadResponseDTO(fileUrl);
+        }
+        if (stored.created()) {
+            imageDerivativeService.scheduleDerivatives(stored.path());
+        }
+        return new UploadResponseDTO(fileUrl, imageDerivativeService.variantUrls(fileUrl));
+    }
+
+    /**
+     * A stored upload, {@code created} being {@code false} when identical content was already stored.
+     */
+    private record StoredFile(Path path, boolean created) {}
+
+    private StoredFile store(MultipartFile file) {
         // Normalize file name
         String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
 
+        // Check if the file's name contains invalid characters
+        if (originalFileName.contains("..")) {
+            throw new BadRequestAlertException("Sorry! Filename contains invalid path sequence " + originalFileName, "file", "invalidname");
+        }
+
+        try (InputStream input = file.getInputStream()) {
+            return store(input, extensionOf(originalFileName));
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
+        }
+    }
+
+    private StoredFile store(InputStream content, String extension) throws IOException {
+        Path temp = null;
         try {
-            // Check if the file's name contains invalid characters
-            if (originalFileName.contains("..")) {
-                throw new BadRequestAlertException(
-                    "Sorry! Filename contains invalid path sequence " + originalFileName,
-                    "file",
-                    "invalidname"
-                );
+            // Copy to a temporary file, hashing on the way, then name the file after its content
+            temp = Files.createTempFile(this.fileStorageLocation, "upload-", ".tmp");
+            MessageDigest digest = newDigest();
+            try (InputStream input = new DigestInputStream(content, digest)) {
+                Files.copy(input, temp, StandardCopyOption.REPLACE_EXISTING);
             }
+            return commit(temp, HexFormat.of().formatHex(digest.digest()), extension);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
 
-            // Generate a unique file name to avoid conflicts
-            String fileExtension = "";
-            try {
-                fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
-            } catch (Exception e) {
-                // No extension
-            }
-            String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
+    /**
+     * Move a fully written temporary file to its content-addressed location, unless identical content is already there.
+     */
+    private StoredFile commit(Path temp, String sha256, String extension) throws IOException {
+        Path target = this.fileStorageLocation.resolve(sha256 + extension);
+        if (Files.exists(target)) {
+            LOG.debug("Upload {} already stored, skipping duplicate", target.getFileName());
+            return new StoredFile(target, false);
+        }
+        // Same name means same content, so losing a race against a concurrent identical upload is harmless
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return new StoredFile(target, true);
+    }
 
-            // Copy file to the target location (Replacing existing file with the same name)
-            Path targetLocation = this.fileStorageLocation.resolve(uniqueFileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 
-            // Return the path to be saved in the database
-            // This will be served statically later
-            return "/content/uploads/" + uniqueFileName;
-        } catch (IOException ex) {
-            throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
+    /**
+     * Lower-cased extension of a file name, dot included, or an empty string if it has none or an unusual one.
+     */
+    private static String extensionOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0) {
+            return "";
+        }
+        String extension = fileName.substring(dot).toLowerCase(Locale.ROOT);
+        return EXTENSION_PATTERN.matcher(extension).matches() ? extension : "";
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOG.warn("Could not delete temporary upload {}", path.getFileName());
         }
     }
 
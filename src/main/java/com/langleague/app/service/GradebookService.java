@@ -0,0 +1,236 @@
+package com.langleague.app.service;
+
+import com.langleague.app.security.SecurityUtils;
+import com.langleague.app.service.dto.GradebookDTO;
+import com.langleague.app.web.rest.errors.BadRequestAlertException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service building the gradebook of a book: the completion and score of every enrolled student for every unit.
+ * <p>
+ * The whole matrix comes from a single query over {@code enrollment}, {@code progress} and {@code unit}, read with a
+ * streaming JDBC cursor and ordered by student, so that each student row is complete as soon as the next student starts.
+ * No entity is loaded.
+ */
+@Service
+public class GradebookService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GradebookService.class);
+
+    private static final String ENTITY_NAME = "book";
+
+    /**
+     * A unit column of the gradebook.
+     */
+    public record GradebookUnit(long id, String title) {}
+
+    /**
+     * A student row of the gradebook, with one cell per unit.
+     */
+    public record StudentRow(long studentId, String login, String firstName, String lastName, int[] completed, Integer[] scores) {
+        public String name() {
+            return ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+        }
+    }
+
+    private static final String MATRIX_QUERY =
+        "SELECT e.user_profile_id, u.login, u.first_name, u.last_name, p.unit_id, p.is_completed, p.score " +
+        "FROM enrollment e " +
+        "JOIN user_profile up ON up.id = e.user_profile_id " +
+        "JOIN jhi_user u ON u.id = up.user_id " +
+        "LEFT JOIN (progress p JOIN unit pu ON pu.id = p.unit_id AND pu.book_id = ?) ON p.user_profile_id = e.user_profile_id " +
+        "WHERE e.book_id = ? " +
+        "ORDER BY u.last_name, u.first_name, e.user_profile_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GradebookService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Get the units of a book owned by the current user, in book order.
+     *
+     * @param bookId the id of the book.
+     * @return the units.
+     * @throws AccessDeniedException if the current user does not own the book.
+     */
+    public List<GradebookUnit> findUnitsOfOwnBook(Long bookId) {
+        List<String> owners = jdbcTemplate.queryForList(
+            "SELECT u.login FROM book b JOIN user_profile up ON up.id = b.teacher_profile_id JOIN jhi_user u ON u.id = up.user_id " +
+            "WHERE b.id = ?",
+            String.class,
+            bookId
+        );
+        if (owners.isEmpty()) {
+            throw new BadRequestAlertException("Book not found", ENTITY_NAME, "idnotfound");
+        }
+        String currentUserLogin = SecurityUtils.getCurrentUserLogin().orElse(null);
+        if (!Objects.equals(owners.get(0), currentUserLogin)) {
+            throw new AccessDeniedException("You are not the owner of this book");
+        }
+        return jdbcTemplate.query(
+            "SELECT id, title FROM unit WHERE book_id = ? ORDER BY order_index, id",
+            (rs, rowNum) -> new GradebookUnit(rs.getLong(1), rs.getString(2)),
+            bookId
+        );
+    }
+
+    /**
+     * Get the gradebook of a book owned by the current user.
+     *
+     * @param bookId the id of the book.
+     * @return the gradebook.
+     */
+    public GradebookDTO getGradebook(Long bookId) {
+        List<GradebookUnit> units = findUnitsOfOwnBook(bookId);
+        GradebookDTO gradebook = new GradebookDTO();
+        gradebook.setBookId(bookId);
+        for (GradebookUnit unit : units) {
+            gradebook.getUnitIds().add(unit.id());
+            gradebook.getUnitTitles().add(unit.title());
+        }
+        streamStudentRows(bookId, units, row -> {
+            gradebook.getStudentIds().add(row.studentId());
+            gradebook.getStudentLogins().add(row.login());
+            gradebook.getStudentNames().add(row.name());
+            gradebook.getCompleted().add(row.completed());
+            gradebook.getScores().add(row.scores());
+        });
+        return gradebook;
+    }
+
+    /**
+     * Write the gradebook of a book as CSV, a line per student as it is read.
+     * The units must come from {@link #findUnitsOfOwnBook(Long)}, which checks the ownership.
+     *
+     * @param bookId the id of the book.
+     * @param units the units of the book.
+     * @param writer the output.
+     * @throws IOException if the output cannot be written.
+     */
+    public void writeCsv(Long bookId, List<GradebookUnit> units, Writer writer) throws IOException {
+        StringBuilder line = new StringBuilder(256);
+        line.append("student_id,login,first_name,last_name");
+        for (GradebookUnit unit : units) {
+            line.append(',');
+            appendCsvField(line, unit.title() + " - completed");
+            line.append(',');
+            appendCsvField(line, unit.title() + " - score");
+        }
+        writer.write(line.append("\r\n").toString());
+
+        int[] students = { 0 };
+        try {
+            streamStudentRows(bookId, units, row -> {
+                line.setLength(0);
+                line.append(row.studentId()).append(',');
+                appendCsvField(line, row.login());
+                line.append(',');
+                appendCsvField(line, row.firstName());
+                line.append(',');
+                appendCsvField(line, row.lastName());
+                for (int i = 0; i < units.size(); i++) {
+                    line.append(',').append(row.completed()[i]).append(',');
+                    if (row.scores()[i] != null) {
+                        line.append(row.scores()[i]);
+                    }
+                }
+                try {
+                    writer.write(line.append("\r\n").toString());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                students[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        LOG.debug("Exported gradebook of book {}: {} students, {} units", bookId, students[0], units.size());
+    }
+
+    /**
+     * Read the matrix of a book with a streaming cursor, handing each student row over once complete.
+     */
+    void streamStudentRows(Long bookId, List<GradebookUnit> units, Consumer<StudentRow> consumer) {
+        Map<Long, Integer> columns = new HashMap<>();
+        for (int i = 0; i < units.size(); i++) {
+            columns.put(units.get(i).id(), i);
+        }
+        StudentRow[] current = { null };
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                    MATRIX_QUERY,
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+                );
+                // Row by row streaming with MySQL Connector/J
+                statement.setFetchSize(Integer.MIN_VALUE);
+                statement.setLong(1, bookId);
+                statement.setLong(2, bookId);
+                return statement;
+            },
+            (RowCallbackHandler) resultSet -> {
+                long studentId = resultSet.getLong(1);
+                if (current[0] == null || current[0].studentId() != studentId) {
+                    if (current[0] != null) {
+                        consumer.accept(current[0]);
+                    }
+                    current[0] = new StudentRow(
+                        studentId,
+                        resultSet.getString(2),
+                        resultSet.getString(3),
+                        resultSet.getString(4),
+                        new int[units.size()],
+                        new Integer[units.size()]
+                    );
+                }
+                long unitId = resultSet.getLong(5);
+                Integer column = resultSet.wasNull() ? null : columns.get(unitId);
+                if (column != null) {
+                    current[0].completed()[column] = resultSet.getBoolean(6) ? 1 : 0;
+                    int score = resultSet.getInt(7);
+                    current[0].scores()[column] = resultSet.wasNull() ? null : score;
+                }
+            }
+        );
+        if (current[0] != null) {
+            consumer.accept(current[0]);
+        }
+    }
+
+    /**
+     * Append a CSV field, quoted when needed, and neutralized when a spreadsheet would read it as a formula.
+     */
+    static void appendCsvField(StringBuilder line, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            line.append('"').append(value.replace("\"", "\"\"")).append('"');
+        } else {
+            line.append(value);
+        }
+    }
+}
@@ -7,7 +7,9 @@ import com.langleague.app.service.mapper.GrammarMapper;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -126,6 +128,20 @@ public class GrammarService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Stream all the grammars by unitId to the given consumer.
+     *
+     * @param unitId the id of the unit.
+     * @param consumer the consumer receiving each entity.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllByUnitId(Long unitId, Consumer<? super GrammarDTO> consumer) {
+        LOG.debug("Request to stream all Grammars by unitId : {}", unitId);
+        try (Stream<Grammar> grammars = grammarRepository.streamAllByUnitId(unitId)) {
+            grammars.map(grammarMapper::toDto).forEach(consumer);
+        }
+    }
+
     /**
      * Get one grammar by id.
      *
@@ -0,0 +1,245 @@
+package com.langleague.app.service;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service generating downscaled, re-encoded variants of uploaded images in the background.
+ * <p>
+ * Variants are written next to the original, under {@code variants/<size>/}, as JPEG for opaque
+ * images and PNG for images with transparency. Until a variant exists, the original is served instead.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    /**
+     * Name of the request parameter selecting a variant when serving an upload.
+     */
+    public static final String SIZE_PARAMETER = "size";
+
+    // Refuse to decode images larger than this, whatever their file size
+    private static final long MAX_SOURCE_PIXELS = 40_000_000L;
+
+    private static final float JPEG_QUALITY = 0.82f;
+
+    /**
+     * The generated variants, by longest side in pixels.
+     */
+    public enum ImageVariant {
+        THUMB(240),
+        MEDIUM(960);
+
+        private final int maxDimension;
+
+        ImageVariant(int maxDimension) {
+            this.maxDimension = maxDimension;
+        }
+
+        public int getMaxDimension() {
+            return maxDimension;
+        }
+
+        public String paramValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Optional<ImageVariant> fromParam(String value) {
+            for (ImageVariant variant : values()) {
+                if (variant.paramValue().equalsIgnoreCase(value)) {
+                    return Optional.of(variant);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private final Executor executor;
+
+    public ImageDerivativeService(@Qualifier("imageDerivativeExecutor") Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Queue the generation of every variant of an uploaded file. Files that are not decodable images are ignored.
+     *
+     * @param original the stored original.
+     */
+    public void scheduleDerivatives(Path original) {
+        executor.execute(() -> {
+            try {
+                generateDerivatives(original);
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Could not generate image variants of {}: {}", original.getFileName(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Build the public URLs of the variants of an upload.
+     *
+     * @param fileUrl the public URL of the original.
+     * @return the variant URLs, by variant parameter value.
+     */
+    public Map<String, String> variantUrls(String fileUrl) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (ImageVariant variant : ImageVariant.values()) {
+            urls.put(variant.paramValue(), fileUrl + "?" + SIZE_PARAMETER + "=" + variant.paramValue());
+        }
+        return urls;
+    }
+
+    /**
+     * Find the generated variant of an original, if any.
+     *
+     * @param original the stored original.
+     * @param variant the variant wanted.
+     * @return the variant file, if it has been generated.
+     */
+    public static Optional<Path> findVariant(Path original, ImageVariant variant) {
+        for (String extension : new String[] { "jpg", "png" }) {
+            Path candidate = variantPath(original, variant, extension);
+            if (Files.isRegularFile(candidate)) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    void generateDerivatives(Path original) throws IOException {
+        BufferedImage source = readImage(original);
+        if (source == null) {
+            return;
+        }
+        boolean alpha = source.getColorModel().hasAlpha();
+        String extension = alpha ? "png" : "jpg";
+        for (ImageVariant variant : ImageVariant.values()) {
+            BufferedImage scaled = downscale(source, variant.getMaxDimension(), alpha);
+            Path target = variantPath(original, variant, extension);
+            Files.createDirectories(target.getParent());
+            // Write then move, so a half-written variant is never served
+            Path temp = Files.createTempFile(target.getParent(), "variant", ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    if (alpha) {
+                        ImageIO.write(scaled, "png", out);
+                    } else {
+                        writeJpeg(scaled, out);
+                    }
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        LOG.debug("Generated image variants of {}", original.getFileName());
+    }
+
+    private static Path variantPath(Path original, ImageVariant variant, String extension) {
+        String name = original.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        return original.resolveSibling("variants").resolve(variant.paramValue()).resolve(base + "." + extension);
+    }
+
+    private static BufferedImage readImage(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            return readImage(input, file.getFileName().toString());
+        }
+    }
+
+    /**
+     * Decode an image, refusing images whose pixel count is unreasonable.
+     *
+     * @return the image, or {@code null} if the input is not a decodable image or is too large.
+     */
+    static BufferedImage readImage(ImageInputStream input, String name) throws IOException {
+        if (input == null) {
+            return null;
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, true, true);
+            if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_SOURCE_PIXELS) {
+                LOG.warn("Image {} is too large to be resized", name);
+                return null;
+            }
+            return reader.read(0);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    /**
+     * Downscale by successive halving, then a final bilinear step, which is much sharper than a single bilinear pass.
+     */
+    static BufferedImage downscale(BufferedImage source, int maxDimension, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        double ratio = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setComposite(AlphaComposite.Src);
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    static void writeJpeg(BufferedImage image, OutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.langleague.app.service;
+
+import com.langleague.app.config.ApplicationProperties;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carries evictions through the {@code cache_invalidation} table, so that no infrastructure beyond the database is needed.
+ * <p>
+ * Each node reads the rows past its high-water mark. Ids are allocated before commit, so a row may show up after
+ * rows with greater ids: ids skipped below the mark are kept as gaps and looked up again until they appear or are
+ * given up on, as they may belong to a rolled back insert. Rows are deleted after {@code application.cache.invalidation.retention}.
+ */
+@Component
+public class JdbcCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JdbcCacheInvalidationTransport.class);
+
+    // Longer than any transaction publishing evictions should take to commit
+    private static final Duration GAP_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final int MAX_GAPS = 1000;
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private record Row(long id, String nodeId, CacheInvalidation invalidation) {}
+
+    private static final RowMapper<Row> ROW_MAPPER = (resultSet, rowNum) ->
+        new Row(resultSet.getLong(1), resultSet.getString(2), new CacheInvalidation(resultSet.getString(3), resultSet.getString(4)));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ApplicationProperties.Cache.Invalidation properties;
+
+    // Greatest id read so far, -1 until the first poll
+    private long highWaterMark = -1;
+
+    // Ids skipped below the high-water mark, with the nano time they were first missed at
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+
+    public JdbcCacheInvalidationTransport(JdbcTemplate jdbcTemplate, ApplicationProperties applicationProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = applicationProperties.getCache().getInvalidation();
+    }
+
+    @Override
+    public void publish(String nodeId, List<CacheInvalidation> invalidations) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO cache_invalidation (node_id, region, entry_key, created_at) VALUES (?, ?, ?, ?)",
+            invalidations,
+            properties.getBatchSize(),
+            (statement, invalidation) -> {
+                String key = invalidation.key();
+                statement.setString(1, nodeId);
+                statement.setString(2, invalidation.region());
+                // A key too long for the column evicts its whole region instead
+                statement.setString(3, key != null && key.length() > MAX_KEY_LENGTH ? null : key);
+                statement.setTimestamp(4, now);
+            }
+        );
+    }
+
+    @Override
+    public synchronized List<CacheInvalidation> poll(String nodeId) {
+        if (highWaterMark < 0) {
+            // The caches of a starting node are empty, older evictions do not concern it
+            highWaterMark = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cache_invalidation", Long.class);
+            return List.of();
+        }
+        List<CacheInvalidation> invalidations = new ArrayList<>();
+        long now = System.nanoTime();
+        if (!gaps.isEmpty()) {
+            String placeholders = String.join(",", Collections.nCopies(gaps.size(), "?"));
+            List<Row> found = jdbcTemplate.query(
+                "SELECT id, node_id, region, entry_key FROM cache_invalidation WHERE id IN (" + placeholders + ")",
+                ROW_MAPPER,
+                gaps.keySet().toArray()
+            );
+            for (Row row : found) {
+                gaps.remove(row.id());
+                collect(row, nodeId, invalidations);
+            }
+            gaps.values().removeIf(firstMissed -> now - firstMissed > GAP_TIMEOUT.toNanos());
+        }
+
+        List<Row> rows = jdbcTemplate.query(
+            "SELECT id, node_id, region, entry_key FROM cache_invalidation WHERE id > ? ORDER BY id LIMIT ?",
+            ROW_MAPPER,
+            highWaterMark,
+            properties.getBatchSize()
+        );
+        for (Row row : rows) {
+            for (long missing = highWaterMark + 1; missing < row.id(); missing++) {
+                if (gaps.size() >= MAX_GAPS) {
+                    LOG.warn("Too many cache invalidations in flight, skipping {} to {}", missing, row.id() - 1);
+                    break;
+                }
+                gaps.putIfAbsent(missing, now);
+            }
+            highWaterMark = row.id();
+            collect(row, nodeId, invalidations);
+        }
+        return invalidations;
+    }
+
+    private static void collect(Row row, String nodeId, List<CacheInvalidation> invalidations) {
+        if (!nodeId.equals(row.nodeId())) {
+            invalidations.add(row.invalidation());
+        }
+    }
+
+    /**
+     * Delete the evictions older than the retention, which every node has read by then.
+     * <p>
+     * This is scheduled to run every 10 minutes.
+     */
+    @Scheduled(cron = "0 */10 * * * ?")
+    public void prune() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Timestamp before = Timestamp.from(Instant.now().minus(properties.getRetention()));
+        int deleted = jdbcTemplate.update("DELETE FROM cache_invalidation WHERE created_at < ?", before);
+        LOG.debug("Deleted {} expired cache invalidations", deleted);
+    }
+}
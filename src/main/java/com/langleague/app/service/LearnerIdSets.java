@@ -0,0 +1,87 @@
+package com.langleague.app.service;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Compact, mergeable sets of learner ids, stored with the activity rollups so that distinct learners can be counted
+ * over any range of buckets.
+ * <p>
+ * A set is a sorted array of distinct ids, encoded as the variable-length deltas between consecutive ids:
+ * a few hundred learners take well under a kilobyte.
+ */
+final class LearnerIdSets {
+
+    static final long[] EMPTY = new long[0];
+
+    private LearnerIdSets() {}
+
+    static long[] of(Collection<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    static long[] union(long[] a, long[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        if (b.length == 0) {
+            return a;
+        }
+        long[] union = new long[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length || j < b.length) {
+            long next;
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                next = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                next = b[j++];
+            } else {
+                next = a[i++];
+                j++;
+            }
+            union[n++] = next;
+        }
+        return n == union.length ? union : Arrays.copyOf(union, n);
+    }
+
+    static byte[] encode(long[] ids) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(ids.length * 2 + 1);
+        long previous = 0;
+        for (long id : ids) {
+            long delta = id - previous;
+            previous = id;
+            while ((delta & ~0x7FL) != 0) {
+                out.write((int) ((delta & 0x7F) | 0x80));
+                delta >>>= 7;
+            }
+            out.write((int) delta);
+        }
+        return out.toByteArray();
+    }
+
+    static long[] decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return EMPTY;
+        }
+        long[] ids = new long[bytes.length];
+        int n = 0;
+        long previous = 0;
+        long delta = 0;
+        int shift = 0;
+        for (byte b : bytes) {
+            delta |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) != 0) {
+                shift += 7;
+            } else {
+                previous += delta;
+                ids[n++] = previous;
+                delta = 0;
+                shift = 0;
+            }
+        }
+        return Arrays.copyOf(ids, n);
+    }
+}
@@ -0,0 +1,306 @@
+package com.langleague.app.service;
+
+import com.langleague.app.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service sending the messages of the {@code mail_outbox} table.
+ * <p>
+ * Due messages are claimed in batches with {@code SKIP LOCKED}, so that several nodes can drain the outbox, and
+ * hidden from other dispatchers for a lease while they are sent. Each batch goes over a single SMTP connection.
+ * Sent messages are deleted; failed ones are retried with exponential backoff, then given up on and kept with
+ * their last error. A node stopping mid-batch leaves its messages to be sent again once the lease expires.
+ */
+@Service
+public class MailOutboxDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    public static final String SENT_COUNTER = "mail.outbox.sent";
+
+    public static final String FAILED_COUNTER = "mail.outbox.failed";
+
+    public static final String BATCH_TIMER = "mail.outbox.batch";
+
+    public static final String PENDING_GAUGE = "mail.outbox.pending";
+
+    public static final String OLDEST_AGE_GAUGE = "mail.outbox.oldest.age";
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    record OutboxMessage(long id, String recipient, String subject, String content, boolean multipart, boolean html, int attempts) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties.MailOutbox properties;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    // Set when the outbox must be drained again, as messages may have been committed during the current run
+    private final AtomicBoolean wakeUp = new AtomicBoolean();
+
+    private final AtomicLong pending = new AtomicLong();
+
+    // Epoch millis of the oldest message not sent yet, 0 when there is none
+    private final AtomicLong oldestCreatedAt = new AtomicLong();
+
+    private final Counter sentCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter abandonedCounter;
+
+    private final Timer batchTimer;
+
+    public MailOutboxDispatcher(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Also called right after the commit of the transaction that queued the messages
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.properties = applicationProperties.getMailOutbox();
+
+        sentCounter = Counter.builder(SENT_COUNTER).description("Emails sent from the outbox").register(meterRegistry);
+        retriedCounter = failedCounter(meterRegistry, "retry");
+        abandonedCounter = failedCounter(meterRegistry, "abandoned");
+        batchTimer = Timer.builder(BATCH_TIMER).description("Time to send a batch of emails over one connection").register(meterRegistry);
+        Gauge.builder(PENDING_GAUGE, pending, AtomicLong::get).description("Emails waiting to be sent").register(meterRegistry);
+        Gauge.builder(OLDEST_AGE_GAUGE, oldestCreatedAt, MailOutboxDispatcher::ageSeconds)
+            .description("Age in seconds of the oldest email waiting to be sent")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    private static Counter failedCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(FAILED_COUNTER).description("Emails that could not be sent").tag("outcome", outcome).register(meterRegistry);
+    }
+
+    private static double ageSeconds(AtomicLong createdAt) {
+        long millis = createdAt.get();
+        return millis == 0 ? 0 : (System.currentTimeMillis() - millis) / 1000.0;
+    }
+
+    /**
+     * Drain the outbox in the background, once new messages are committed.
+     */
+    @Async
+    public void dispatchSoon() {
+        dispatch();
+    }
+
+    /**
+     * Send every due message. If this node is already draining the outbox, the running dispatch goes over it
+     * once more instead.
+     */
+    @Scheduled(fixedDelayString = "${application.mail-outbox.poll-interval:PT10S}")
+    public void dispatch() {
+        wakeUp.set(true);
+        while (wakeUp.get() && draining.compareAndSet(false, true)) {
+            try {
+                wakeUp.set(false);
+                drain();
+            } catch (RuntimeException e) {
+                LOG.warn("Could not drain the mail outbox: {}", e.getMessage());
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        List<OutboxMessage> batch;
+        do {
+            batch = Objects.requireNonNull(claim());
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        } while (batch.size() == properties.getBatchSize());
+        refreshBacklog();
+    }
+
+    private List<OutboxMessage> claim() {
+        Instant now = Instant.now();
+        return transactionTemplate.execute(status -> {
+            List<OutboxMessage> batch = jdbcTemplate.query(
+                "SELECT id, recipient, subject, content, multipart, html, attempts FROM mail_outbox " +
+                "WHERE next_attempt_at <= ? ORDER BY next_attempt_at, id LIMIT ? FOR UPDATE SKIP LOCKED",
+                (resultSet, rowNum) ->
+                    new OutboxMessage(
+                        resultSet.getLong(1),
+                        resultSet.getString(2),
+                        resultSet.getString(3),
+                        resultSet.getString(4),
+                        resultSet.getBoolean(5),
+                        resultSet.getBoolean(6),
+                        resultSet.getInt(7)
+                    ),
+                Timestamp.from(now),
+                properties.getBatchSize()
+            );
+            if (!batch.isEmpty()) {
+                List<Object[]> leases = new ArrayList<>(batch.size());
+                for (OutboxMessage message : batch) {
+                    leases.add(new Object[] { Timestamp.from(now.plus(LEASE)), message.id() });
+                }
+                jdbcTemplate.batchUpdate("UPDATE mail_outbox SET next_attempt_at = ? WHERE id = ?", leases);
+            }
+            return batch;
+        });
+    }
+
+    private void send(List<OutboxMessage> batch) {
+        Map<OutboxMessage, Exception> failures = new IdentityHashMap<>();
+        List<OutboxMessage> built = new ArrayList<>(batch.size());
+        List<MimeMessage> mimeMessages = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            try {
+                mimeMessages.add(toMimeMessage(message));
+                built.add(message);
+            } catch (MessagingException e) {
+                // Not worth retrying, such as an invalid address
+                failures.put(message, e);
+            }
+        }
+
+        Map<Object, Exception> sendFailures = Collections.emptyMap();
+        long started = System.nanoTime();
+        try {
+            if (!mimeMessages.isEmpty()) {
+                javaMailSender.send(mimeMessages.toArray(new MimeMessage[0]));
+            }
+        } catch (MailSendException e) {
+            sendFailures = e.getFailedMessages().isEmpty() ? allFailed(mimeMessages, e) : e.getFailedMessages();
+        } catch (MailException e) {
+            sendFailures = allFailed(mimeMessages, e);
+        }
+        batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        List<Object[]> sent = new ArrayList<>(batch.size());
+        List<Object[]> retries = new ArrayList<>();
+        Instant now = Instant.now();
+        for (int i = 0; i < built.size(); i++) {
+            Exception failure = sendFailures.get(mimeMessages.get(i));
+            if (failure == null) {
+                sent.add(new Object[] { built.get(i).id() });
+            } else {
+                retries.add(failedUpdate(built.get(i), failure, built.get(i).attempts() + 1, now));
+            }
+        }
+        failures.forEach((message, failure) -> retries.add(failedUpdate(message, failure, properties.getMaxAttempts(), now)));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                jdbcTemplate.batchUpdate("DELETE FROM mail_outbox WHERE id = ?", sent);
+            }
+            if (!retries.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE mail_outbox SET attempts = ?, next_attempt_at = ?, last_error = ? WHERE id = ?", retries);
+            }
+        });
+        sentCounter.increment(sent.size());
+        LOG.debug("Sent {} of {} emails from the outbox", sent.size(), batch.size());
+    }
+
+    private Object[] failedUpdate(OutboxMessage message, Exception failure, int attempts, Instant now) {
+        String error = String.valueOf(failure.getMessage());
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        Timestamp nextAttempt = null;
+        if (attempts < properties.getMaxAttempts()) {
+            retriedCounter.increment();
+            nextAttempt = Timestamp.from(now.plus(backoff(attempts, properties.getInitialBackoff(), properties.getMaxBackoff())));
+            LOG.debug("Email {} to '{}' failed, attempt {}: {}", message.id(), message.recipient(), attempts, error);
+        } else {
+            abandonedCounter.increment();
+            LOG.warn("Giving up on email {} to '{}' after {} attempts: {}", message.id(), message.recipient(), attempts, error);
+        }
+        return new Object[] { attempts, nextAttempt, error, message.id() };
+    }
+
+    private static Map<Object, Exception> allFailed(List<MimeMessage> mimeMessages, Exception failure) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        for (MimeMessage mimeMessage : mimeMessages) {
+            failures.put(mimeMessage, failure);
+        }
+        return failures;
+    }
+
+    /**
+     * Delay before the next attempt, doubling from {@code initial} and capped at {@code max}.
+     *
+     * @param attempts the number of attempts made so far, at least one.
+     */
+    static Duration backoff(int attempts, Duration initial, Duration max) {
+        int doublings = Math.min(attempts - 1, 30);
+        Duration delay = initial.multipliedBy(1L << doublings);
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+
+    private MimeMessage toMimeMessage(OutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, message.multipart(), StandardCharsets.UTF_8.name());
+        helper.setTo(message.recipient());
+        helper.setFrom(jHipsterProperties.getMail().getFrom());
+        helper.setSubject(message.subject());
+        helper.setText(message.content(), message.html());
+        return mimeMessage;
+    }
+
+    private void refreshBacklog() {
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.query("SELECT COUNT(*), MIN(created_at) FROM mail_outbox WHERE next_attempt_at IS NOT NULL", resultSet -> {
+                pending.set(resultSet.getLong(1));
+                Timestamp oldest = resultSet.getTimestamp(2);
+                oldestCreatedAt.set(oldest == null ? 0 : oldest.getTime());
+            })
+        );
+    }
+}
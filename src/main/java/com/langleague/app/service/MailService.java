@@ -1,26 +1,32 @@
 package com.langleague.app.service;
 
 import com.langleague.app.domain.User;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
-import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.MessageSource;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
- * Service for sending emails asynchronously.
+ * Service for sending emails.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * Emails are rendered right away and stored in the {@code mail_outbox} table, within the transaction of the
+ * change that triggered them, so that they are sent if and only if that change commits, even across restarts.
+ * The {@link MailOutboxDispatcher} is woken up after the commit to deliver them.
  */
 @Service
 public class MailService {
@@ -31,76 +37,105 @@ public class MailService {
 
     private static final String BASE_URL = "baseUrl";
 
-    private final JHipsterProperties jHipsterProperties;
+    private static final List<String> TEMPLATES = List.of("mail/activationEmail", "mail/creationEmail", "mail/passwordResetEmail");
+
+    private static final List<String> LANGUAGES = List.of("en", "zh-cn", "zh-tw", "ja", "ko", "vi");
 
-    private final JavaMailSender javaMailSender;
+    private final JHipsterProperties jHipsterProperties;
 
     private final MessageSource messageSource;
 
     private final SpringTemplateEngine templateEngine;
 
+    private final JdbcTemplate jdbcTemplate;
+
+    private final MailOutboxDispatcher mailOutboxDispatcher;
+
     public MailService(
         JHipsterProperties jHipsterProperties,
-        JavaMailSender javaMailSender,
         MessageSource messageSource,
-        SpringTemplateEngine templateEngine
+        SpringTemplateEngine templateEngine,
+        JdbcTemplate jdbcTemplate,
+        MailOutboxDispatcher mailOutboxDispatcher
     ) {
         this.jHipsterProperties = jHipsterProperties;
-        this.javaMailSender = javaMailSender;
         this.messageSource = messageSource;
         this.templateEngine = templateEngine;
+        this.jdbcTemplate = jdbcTemplate;
+        this.mailOutboxDispatcher = mailOutboxDispatcher;
     }
 
+    /**
+     * Parse the email templates and load their messages in every language, so that the first emails sent after
+     * a start are not slowed down. The template engine keeps parsed templates in its own cache.
+     */
     @Async
-    public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
-        sendEmailSync(to, subject, content, isMultipart, isHtml);
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpTemplates() {
+        long started = System.nanoTime();
+        User user = new User();
+        user.setLogin("warm-up");
+        for (String langKey : LANGUAGES) {
+            Context context = templateContext(user, Locale.forLanguageTag(langKey));
+            for (String templateName : TEMPLATES) {
+                templateEngine.process(templateName, context);
+            }
+        }
+        LOG.debug("Warmed up email templates in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
     }
 
-    private void sendEmailSync(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+    @Transactional
+    public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
         LOG.debug(
-            "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
+            "Queue email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
             isMultipart,
             isHtml,
             to,
             subject,
             content
         );
-
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            LOG.debug("Sent email to User '{}'", to);
-        } catch (MailException | MessagingException e) {
-            LOG.warn("Email could not be sent to user '{}'", to, e);
-        }
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.update(
+            "INSERT INTO mail_outbox (recipient, subject, content, multipart, html, created_at, next_attempt_at, attempts) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 0)",
+            to,
+            subject,
+            content,
+            isMultipart,
+            isHtml,
+            now,
+            now
+        );
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    mailOutboxDispatcher.dispatchSoon();
+                }
+            }
+        );
     }
 
-    @Async
+    @Transactional
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
-        sendEmailFromTemplateSync(user, templateName, titleKey);
-    }
-
-    private void sendEmailFromTemplateSync(User user, String templateName, String titleKey) {
         if (user.getEmail() == null) {
             LOG.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
         }
         Locale locale = Locale.forLanguageTag(user.getLangKey());
+        String content = templateEngine.process(templateName, templateContext(user, locale));
+        String subject = messageSource.getMessage(titleKey, null, locale);
+        sendEmail(user.getEmail(), subject, content, false, true);
+    }
+
+    private Context templateContext(User user, Locale locale) {
         Context context = new Context(locale);
         context.setVariable(USER, user);
         context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmailSync(user.getEmail(), subject, content, false, true);
+        return context;
     }
 
-    @Async
+    @Transactional
     public void sendActivationEmail(User user) {
         LOG.debug("Sending activation email to '{}'", user.getEmail());
 
@@ -108,18 +143,18 @@ public class MailService {
         String activationLink = jHipsterProperties.getMail().getBaseUrl() + "/account/activate?key=" + user.getActivationKey();
         LOG.info("ACTIVATION LINK for user '{}': {}", user.getLogin(), activationLink);
 
-        sendEmailFromTemplateSync(user, "mail/activationEmail", "email.activation.title");
+        sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
     }
 
-    @Async
+    @Transactional
     public void sendCreationEmail(User user) {
         LOG.debug("Sending creation email to '{}'", user.getEmail());
-        sendEmailFromTemplateSync(user, "mail/creationEmail", "email.activation.title");
+        sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
     }
 
-    @Async
+    @Transactional
     public void sendPasswordResetMail(User user) {
         LOG.debug("Sending password reset email to '{}'", user.getEmail());
-        sendEmailFromTemplateSync(user, "mail/passwordResetEmail", "email.reset.title");
+        sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
     }
 }
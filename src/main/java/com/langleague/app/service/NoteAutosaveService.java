@@ -0,0 +1,200 @@
+package com.langleague.app.service;
+
+import com.langleague.app.domain.Note;
+import com.langleague.app.repository.NoteRepository;
+import com.langleague.app.repository.UserProfileRepository;
+import com.langleague.app.security.SecurityUtils;
+import com.langleague.app.service.dto.NoteAutosaveDTO;
+import com.langleague.app.service.dto.NoteDTO;
+import com.langleague.app.web.rest.errors.BadRequestAlertException;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service coalescing the rapid autosaves of a note editor.
+ * <p>
+ * Saves are kept in memory per (user, unit) for {@link #DEBOUNCE}, and only the latest content is written, as a single
+ * {@code UPDATE} guarded by the note version. Every accepted save is answered with the version the note will have once
+ * written, which the client sends back with its next save: a tab still holding an older version gets a conflict instead
+ * of overwriting newer content.
+ */
+@Service
+public class NoteAutosaveService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NoteAutosaveService.class);
+
+    private static final String ENTITY_NAME = "note";
+
+    static final Duration DEBOUNCE = Duration.ofSeconds(2);
+
+    private record Key(long userProfileId, long unitId) {}
+
+    /**
+     * The pending save of a note. Guarded by its own monitor.
+     */
+    private static final class Slot {
+
+        Long noteId;
+
+        // Version of the note in the database
+        long version;
+
+        String content;
+
+        boolean scheduled;
+
+        // Set once flushed and out of the map, so that late writers retry with a fresh slot
+        boolean removed;
+    }
+
+    private final Map<Key, Slot> slots = new ConcurrentHashMap<>();
+
+    private final NoteRepository noteRepository;
+
+    private final UserProfileRepository userProfileRepository;
+
+    private final NoteService noteService;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final TaskScheduler scheduler;
+
+    public NoteAutosaveService(
+        NoteRepository noteRepository,
+        UserProfileRepository userProfileRepository,
+        NoteService noteService,
+        CacheInvalidationBus cacheInvalidationBus,
+        @Qualifier("noteAutosaveScheduler") TaskScheduler scheduler
+    ) {
+        this.noteRepository = noteRepository;
+        this.userProfileRepository = userProfileRepository;
+        this.noteService = noteService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Write every pending save before shutting down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        slots.keySet().forEach(this::flush);
+    }
+
+    /**
+     * Accept an autosave of the note of the current user for a unit.
+     *
+     * @param autosave the unit, content and version the client last received; no version when the client has none yet.
+     * @return the note id and the version of the note once the save is written, with {@code pending} set if it is not written yet.
+     * @throws OptimisticLockingFailureException if the note was changed since the version the client holds.
+     */
+    public NoteAutosaveDTO autosave(NoteAutosaveDTO autosave) {
+        LOG.debug("Request to autosave Note : {}", autosave);
+        Long userProfileId = SecurityUtils.getCurrentUserLogin()
+            .flatMap(userProfileRepository::findIdByUserLogin)
+            .orElseThrow(() -> new BadRequestAlertException("User profile not found", ENTITY_NAME, "userprofilenotfound"));
+        Key key = new Key(userProfileId, autosave.getUnitId());
+
+        while (true) {
+            Slot slot = slots.computeIfAbsent(key, k -> new Slot());
+            synchronized (slot) {
+                if (slot.removed) {
+                    continue;
+                }
+                if (slot.noteId == null) {
+                    List<Object[]> rows = noteRepository.findIdAndVersionByUserProfileIdAndUnitId(key.userProfileId(), key.unitId());
+                    if (rows.isEmpty()) {
+                        // First save: create the note right away, so that it has an id
+                        slot.removed = true;
+                        slots.remove(key, slot);
+                        return created(autosave);
+                    }
+                    slot.noteId = (Long) rows.get(0)[0];
+                    slot.version = (Long) rows.get(0)[1];
+                }
+
+                // Version the client must hold: the one of the pending content, if any
+                long current = slot.content != null ? slot.version + 1 : slot.version;
+                if (autosave.getVersion() == null || autosave.getVersion() != current) {
+                    if (slot.content == null) {
+                        // Nothing to flush, forget the slot so that the next save reads the version again
+                        slot.removed = true;
+                        slots.remove(key, slot);
+                    }
+                    throw new OptimisticLockingFailureException("Note " + slot.noteId + " is at version " + current);
+                }
+
+                slot.content = autosave.getContent();
+                if (!slot.scheduled) {
+                    slot.scheduled = true;
+                    scheduler.schedule(() -> flush(key), Instant.now().plus(DEBOUNCE));
+                }
+                return result(autosave.getUnitId(), slot.noteId, slot.version + 1, true);
+            }
+        }
+    }
+
+    private NoteAutosaveDTO created(NoteAutosaveDTO autosave) {
+        NoteDTO note = new NoteDTO();
+        note.setUnitId(autosave.getUnitId());
+        note.setContent(autosave.getContent());
+        note = noteService.save(note);
+        return result(autosave.getUnitId(), note.getId(), note.getVersion(), false);
+    }
+
+    private static NoteAutosaveDTO result(Long unitId, Long noteId, Long version, boolean pending) {
+        NoteAutosaveDTO result = new NoteAutosaveDTO();
+        result.setUnitId(unitId);
+        result.setNoteId(noteId);
+        result.setVersion(version);
+        result.setPending(pending);
+        return result;
+    }
+
+    private void flush(Key key) {
+        Slot slot = slots.get(key);
+        if (slot == null) {
+            return;
+        }
+        synchronized (slot) {
+            if (slot.removed) {
+                return;
+            }
+            try {
+                write(slot);
+            } finally {
+                // Only once the update is committed: saves arriving meanwhile wait, then read the new version
+                slot.removed = true;
+                slots.remove(key, slot);
+            }
+        }
+    }
+
+    private void write(Slot slot) {
+        if (slot.content == null) {
+            return;
+        }
+        try {
+            int updated = noteRepository.updateContentIfVersion(slot.noteId, slot.content, Instant.now(), slot.version);
+            if (updated == 0) {
+                // The note was changed elsewhere: make sure the version handed to the client cannot match anymore
+                noteRepository.incrementVersion(slot.noteId);
+                LOG.warn("Discarded autosave of note {}, changed since version {}", slot.noteId, slot.version);
+            }
+            // Bulk updates only evict the second-level cache of this node
+            cacheInvalidationBus.publish(List.of(CacheInvalidation.entry(Note.class.getName(), slot.noteId)));
+        } catch (RuntimeException e) {
+            LOG.error("Could not autosave note {}", slot.noteId, e);
+        }
+    }
+}
@@ -7,9 +7,14 @@ import com.langleague.app.repository.UserProfileRepository;
 import com.langleague.app.repository.UserRepository;
 import com.langleague.app.security.SecurityUtils;
 import com.langleague.app.service.dto.NoteDTO;
+import com.langleague.app.service.dto.NoteSearchResultDTO;
 import com.langleague.app.service.mapper.NoteMapper;
 import com.langleague.app.web.rest.errors.BadRequestAlertException;
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -30,6 +35,8 @@ public class NoteService {
 
     private final Logger log = LoggerFactory.getLogger(NoteService.class);
 
+    public static final int MAX_SEARCH_RESULTS = 50;
+
     private final NoteRepository noteRepository;
 
     private final NoteMapper noteMapper;
@@ -67,9 +74,10 @@ public class NoteService {
     /**
      * Verify that the current user owns the note.
      * @param noteId the note id
+     * @return the note
      * @throws BadRequestAlertException if user doesn't own the note
      */
-    private void verifyOwnership(Long noteId) {
+    private Note verifyOwnership(Long noteId) {
         UserProfile currentUserProfile = getCurrentUserProfile()
             .orElseThrow(() -> new BadRequestAlertException("User profile not found", "note", "userprofilenotfound"));
 
@@ -80,6 +88,7 @@ public class NoteService {
         if (!note.getUserProfile().getId().equals(currentUserProfile.getId())) {
             throw new BadRequestAlertException("Access denied: You don't own this note", "note", "accessdenied");
         }
+        return note;
     }
 
     /**
@@ -114,24 +123,28 @@ public class NoteService {
                 // Update the existing note with new content
                 existingNote.setContent(noteDTO.getContent());
                 existingNote.setUpdatedAt(Instant.now());
-                existingNote = noteRepository.save(existingNote);
+                // Flushed, so that the returned version is the one written
+                existingNote = noteRepository.saveAndFlush(existingNote);
                 return noteMapper.toDto(existingNote);
             }
 
             // Set creation-specific fields for new note
             noteDTO.setUserProfileId(currentUserProfile.getId());
             noteDTO.setCreatedAt(Instant.now());
-        }
-        // UPDATE logic
-        else {
-            // For updates, we must verify ownership to prevent IDOR attacks
-            verifyOwnership(noteDTO.getId());
-            noteDTO.setUpdatedAt(Instant.now());
+            noteDTO.setVersion(null);
+            Note note = noteMapper.toEntity(noteDTO);
+            note = noteRepository.save(note);
+            return noteMapper.toDto(note);
         }
 
-        Note note = noteMapper.toEntity(noteDTO);
-        note = noteRepository.save(note);
-        return noteMapper.toDto(note);
+        // UPDATE logic
+        // For updates, we must verify ownership to prevent IDOR attacks.
+        // The managed note is updated in place, so that Hibernate bumps its version.
+        Note existingNote = verifyOwnership(noteDTO.getId());
+        existingNote.setContent(noteDTO.getContent());
+        existingNote.setUpdatedAt(Instant.now());
+        existingNote = noteRepository.saveAndFlush(existingNote);
+        return noteMapper.toDto(existingNote);
     }
 
     /**
@@ -282,9 +295,22 @@ public class NoteService {
     public boolean hasNoteForUnit(Long unitId) {
         log.debug("Request to check if current user has note for unit : {}", unitId);
 
+        return getCurrentUserProfile().map(profile -> noteRepository.existsByUserProfileIdAndUnitId(profile.getId(), unitId)).orElse(false);
+    }
+
+    /**
+     * Get the units of a book for which the current user has a note, in a single query.
+     *
+     * @param bookId the book id
+     * @return the unit ids, in ascending order
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findUnitIdsWithNoteByCurrentUserAndBook(Long bookId) {
+        log.debug("Request to get units with a note of current user for book : {}", bookId);
+
         return getCurrentUserProfile()
-            .map(profile -> !noteRepository.findAllByUserProfileIdAndUnitId(profile.getId(), unitId).isEmpty())
-            .orElse(false);
+            .map(profile -> noteRepository.findUnitIdsByUserProfileIdAndBookId(profile.getId(), bookId))
+            .orElse(List.of());
     }
 
     /**
@@ -303,4 +329,54 @@ public class NoteService {
                 return notes.isEmpty() ? Optional.empty() : Optional.of(noteMapper.toDto(notes.get(0)));
             });
     }
+
+    /**
+     * Search the current user's notes, newest first.
+     * The search relies on the full-text index of {@code note.content}, kept up to date by the database on every save and delete.
+     *
+     * @param query the words to look for, all required, each matching as a word prefix.
+     * @param beforeId keyset cursor: only notes with a smaller id are returned, {@code null} for the first page.
+     * @param size the page size, capped at {@link #MAX_SEARCH_RESULTS}.
+     * @return the matching notes with highlighted snippets.
+     */
+    @Transactional(readOnly = true)
+    public List<NoteSearchResultDTO> searchCurrentUserNotes(String query, Long beforeId, int size) {
+        log.debug("Request to search Notes of current user : {}", query);
+        List<String> terms = NoteSnippets.terms(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        Optional<UserProfile> profile = getCurrentUserProfile();
+        if (profile.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> rows = noteRepository.searchByUserProfileId(
+            profile.orElseThrow().getId(),
+            NoteSnippets.booleanQuery(terms),
+            beforeId != null ? beforeId : Long.MAX_VALUE,
+            Math.max(1, Math.min(size, MAX_SEARCH_RESULTS))
+        );
+        List<NoteSearchResultDTO> results = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            NoteSearchResultDTO result = new NoteSearchResultDTO();
+            result.setNoteId(((Number) row[0]).longValue());
+            result.setUnitId(((Number) row[1]).longValue());
+            result.setUnitTitle((String) row[2]);
+            result.setSnippet(NoteSnippets.highlight((String) row[3], terms));
+            Instant updatedAt = toInstant(row[5]);
+            result.setUpdatedAt(updatedAt != null ? updatedAt : toInstant(row[4]));
+            results.add(result);
+        }
+        return results;
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toInstant(ZoneOffset.UTC);
+        }
+        return (Instant) value;
+    }
 }
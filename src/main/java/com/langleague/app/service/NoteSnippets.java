@@ -0,0 +1,182 @@
+package com.langleague.app.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Query parsing and snippet highlighting for the note search.
+ * <p>
+ * Matching is case and accent insensitive, like the {@code utf8mb4_unicode_ci} collation of the full-text index,
+ * and a term matches any word it is a prefix of. Words the full-text index does not hold, shorter than
+ * {@code innodb_ft_min_token_size} or in the default InnoDB stopword list, are left out of the query: required, they
+ * would only match notes having a longer word starting with them.
+ */
+final class NoteSnippets {
+
+    static final int MAX_TERMS = 8;
+
+    static final int SNIPPET_LENGTH = 160;
+
+    // innodb_ft_min_token_size
+    static final int MIN_TERM_LENGTH = 3;
+
+    // INFORMATION_SCHEMA.INNODB_FT_DEFAULT_STOPWORD
+    private static final Set<String> STOPWORDS = Set.of(
+        "a", "about", "an", "are", "as", "at", "be", "by", "com", "de", "en", "for", "from", "how", "i", "in", "is", "it",
+        "la", "of", "on", "or", "that", "the", "this", "to", "was", "what", "when", "where", "who", "will", "with", "und",
+        "www"
+    );
+
+    // Context kept before the first match
+    private static final int LEAD = 40;
+
+    private NoteSnippets() {}
+
+    /**
+     * Split a user query into distinct words, dropping every full-text operator, and the words that are not indexed.
+     */
+    static List<String> terms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (query != null) {
+            for (String word : query.split("[^\\p{L}\\p{N}]+")) {
+                String term = word.toLowerCase(Locale.ROOT);
+                if (isIndexed(term) && terms.size() < MAX_TERMS) {
+                    terms.add(term);
+                }
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private static boolean isIndexed(String term) {
+        return term.codePointCount(0, term.length()) >= MIN_TERM_LENGTH && !STOPWORDS.contains(term);
+    }
+
+    /**
+     * Build a MySQL boolean mode query requiring every term, as a prefix.
+     */
+    static String booleanQuery(List<String> terms) {
+        StringBuilder query = new StringBuilder();
+        for (String term : terms) {
+            if (!query.isEmpty()) {
+                query.append(' ');
+            }
+            query.append('+').append(term).append('*');
+        }
+        return query.toString();
+    }
+
+    /**
+     * Build an HTML-escaped snippet of {@code content} around the first match, with matches wrapped in {@code <mark>}.
+     */
+    static String highlight(String content, List<String> terms) {
+        char[] folded = fold(content);
+        List<String> foldedTerms = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            foldedTerms.add(new String(fold(term)));
+        }
+
+        // Match ranges, as [start, end) pairs, in content order
+        List<int[]> matches = new ArrayList<>();
+        for (int i = 0; i < folded.length; i++) {
+            if (i > 0 && Character.isLetterOrDigit(folded[i - 1])) {
+                continue;
+            }
+            int longest = 0;
+            for (String term : foldedTerms) {
+                if (term.length() > longest && regionMatches(folded, i, term)) {
+                    longest = term.length();
+                }
+            }
+            if (longest > 0) {
+                matches.add(new int[] { i, i + longest });
+                i += longest - 1;
+            }
+        }
+
+        int start = 0;
+        if (!matches.isEmpty() && matches.get(0)[0] > LEAD) {
+            start = matches.get(0)[0] - LEAD;
+            // Do not cut a word in half
+            while (start < matches.get(0)[0] && Character.isLetterOrDigit(content.charAt(start - 1))) {
+                start++;
+            }
+        }
+        int end = Math.min(content.length(), start + SNIPPET_LENGTH);
+
+        StringBuilder snippet = new StringBuilder(SNIPPET_LENGTH + 32);
+        if (start > 0) {
+            snippet.append('…');
+        }
+        int position = start;
+        for (int[] match : matches) {
+            if (match[0] < start) {
+                continue;
+            }
+            if (match[0] >= end) {
+                break;
+            }
+            int matchEnd = Math.min(match[1], end);
+            escape(content, position, match[0], snippet);
+            snippet.append("<mark>");
+            escape(content, match[0], matchEnd, snippet);
+            snippet.append("</mark>");
+            position = matchEnd;
+        }
+        escape(content, position, end, snippet);
+        if (end < content.length()) {
+            snippet.append('…');
+        }
+        return snippet.toString();
+    }
+
+    /**
+     * Lower-case and strip diacritics, one char for one char so that positions are preserved.
+     */
+    static char[] fold(String text) {
+        char[] folded = new char[text.length()];
+        for (int i = 0; i < folded.length; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (c == 'đ') {
+                c = 'd';
+            } else if (c > 0x7F) {
+                String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+                if (!decomposed.isEmpty()) {
+                    c = decomposed.charAt(0);
+                }
+            }
+            folded[i] = c;
+        }
+        return folded;
+    }
+
+    private static boolean regionMatches(char[] text, int offset, String term) {
+        if (offset + term.length() > text.length) {
+            return false;
+        }
+        for (int i = 0; i < term.length(); i++) {
+            if (text[offset + i] != term.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void escape(String text, int from, int to, StringBuilder out) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -6,13 +6,16 @@ import com.langleague.app.domain.UserProfile;
 import com.langleague.app.repository.ProgressRepository;
 import com.langleague.app.repository.UnitRepository;
 import com.langleague.app.repository.UserProfileRepository;
+import com.langleague.app.service.TeacherStatsService.ProgressContribution;
 import com.langleague.app.service.dto.ProgressDTO;
 import com.langleague.app.service.mapper.ProgressMapper;
 import java.time.Instant;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -35,16 +38,24 @@ public class ProgressService {
 
     private final UnitRepository unitRepository;
 
+    private final TeacherStatsService teacherStatsService;
+
+    private final ActivityRollupService activityRollupService;
+
     public ProgressService(
         ProgressRepository progressRepository,
         ProgressMapper progressMapper,
         UserProfileRepository userProfileRepository,
-        UnitRepository unitRepository
+        UnitRepository unitRepository,
+        TeacherStatsService teacherStatsService,
+        ActivityRollupService activityRollupService
     ) {
         this.progressRepository = progressRepository;
         this.progressMapper = progressMapper;
         this.userProfileRepository = userProfileRepository;
         this.unitRepository = unitRepository;
+        this.teacherStatsService = teacherStatsService;
+        this.activityRollupService = activityRollupService;
     }
 
     /**
@@ -56,7 +67,7 @@ public class ProgressService {
     public ProgressDTO save(ProgressDTO progressDTO) {
         LOG.debug("Request to save Progress : {}", progressDTO);
         Progress progress = progressMapper.toEntity(progressDTO);
-        progress = progressRepository.save(progress);
+        progress = saveAndCount(progress);
         return progressMapper.toDto(progress);
     }
 
@@ -69,7 +80,7 @@ public class ProgressService {
     public ProgressDTO update(ProgressDTO progressDTO) {
         LOG.debug("Request to update Progress : {}", progressDTO);
         Progress progress = progressMapper.toEntity(progressDTO);
-        progress = progressRepository.save(progress);
+        progress = saveAndCount(progress);
         return progressMapper.toDto(progress);
     }
 
@@ -85,14 +96,27 @@ public class ProgressService {
         return progressRepository
             .findById(progressDTO.getId())
             .map(existingProgress -> {
+                ProgressContribution before = ProgressContribution.of(existingProgress);
                 progressMapper.partialUpdate(existingProgress, progressDTO);
-
-                return existingProgress;
+                Progress progress = progressRepository.save(existingProgress);
+                teacherStatsService.progressChanged(before, ProgressContribution.of(progress));
+                return progress;
             })
-            .map(progressRepository::save)
             .map(progressMapper::toDto);
     }
 
+    /**
+     * Save a progress built from a DTO, keeping the teacher statistics current.
+     */
+    private Progress saveAndCount(Progress progress) {
+        ProgressContribution before = progress.getId() != null
+            ? progressRepository.findById(progress.getId()).map(ProgressContribution::of).orElse(null)
+            : null;
+        Progress saved = progressRepository.save(progress);
+        teacherStatsService.progressChanged(before, ProgressContribution.of(saved));
+        return saved;
+    }
+
     /**
      * Get all the progresses.
      *
@@ -148,6 +172,20 @@ public class ProgressService {
         return progressRepository.findByUserProfileId(userProfileId).stream().map(progressMapper::toDto).collect(Collectors.toList());
     }
 
+    /**
+     * Stream all the progresses of a user profile to the given consumer.
+     *
+     * @param userProfileId the id of the user profile.
+     * @param consumer the consumer receiving each entity.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllByUserProfileId(Long userProfileId, Consumer<? super ProgressDTO> consumer) {
+        LOG.debug("Request to stream Progresses for user profile : {}", userProfileId);
+        try (Stream<Progress> progresses = progressRepository.streamByUserProfileId(userProfileId)) {
+            progresses.map(progressMapper::toDto).forEach(consumer);
+        }
+    }
+
     @Transactional(readOnly = true)
     public List<ProgressDTO> findAllByUnitId(Long unitId) {
         return progressRepository.findByUnitId(unitId).stream().map(progressMapper::toDto).collect(Collectors.toList());
@@ -163,8 +201,9 @@ public class ProgressService {
             .findOneByUserIsCurrentUser()
             .orElseThrow(() -> new RuntimeException("User profile not found"));
 
-        Progress progress = progressRepository
-            .findByUserIsCurrentUserAndUnitId(unitId)
+        Optional<Progress> existing = progressRepository.findByUserIsCurrentUserAndUnitId(unitId);
+        ProgressContribution before = existing.map(ProgressContribution::of).orElse(null);
+        Progress progress = existing
             .map(existingProgress -> {
                 existingProgress.setIsCompleted(true);
                 existingProgress.setUpdatedAt(Instant.now());
@@ -181,6 +220,11 @@ public class ProgressService {
             });
 
         progress = progressRepository.save(progress);
+        ProgressContribution after = ProgressContribution.of(progress);
+        teacherStatsService.progressChanged(before, after);
+        if (after.completed() && (before == null || !before.completed())) {
+            activityRollupService.recordCompletion(bookIdOf(progress), userProfileEntity.getId());
+        }
         return progressMapper.toDto(progress);
     }
 
@@ -191,7 +235,13 @@ public class ProgressService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete Progress : {}", id);
-        progressRepository.deleteById(id);
+        progressRepository
+            .findById(id)
+            .ifPresent(progress -> {
+                ProgressContribution before = ProgressContribution.of(progress);
+                progressRepository.delete(progress);
+                teacherStatsService.progressChanged(before, null);
+            });
     }
 
     /**
@@ -273,9 +323,15 @@ public class ProgressService {
             });
 
         progress = progressRepository.save(progress);
+        activityRollupService.recordAccess(bookIdOf(progress), userProfileEntity.getId());
         return progressMapper.toDto(progress);
     }
 
+    private static Long bookIdOf(Progress progress) {
+        Unit unit = progress.getUnit();
+        return unit != null && unit.getBook() != null ? unit.getBook().getId() : null;
+    }
+
     /**
      * Get all bookmarked units for the current user.
      * UC-49: Retrieve bookmarked units for review.
@@ -323,24 +379,24 @@ public class ProgressService {
             .findOneByUserIsCurrentUser()
             .orElseThrow(() -> new RuntimeException("User profile not found"));
 
-        Progress progress = progressRepository
-            .findByUserIsCurrentUserAndUnitId(unitId)
-            .orElseGet(() -> {
-                // Create new progress if it doesn't exist
-                Progress newProgress = new Progress();
-                newProgress.setIsCompleted(false);
-                newProgress.setIsBookmarked(false);
-                newProgress.setUpdatedAt(Instant.now());
-                newProgress.setLastAccessedAt(Instant.now());
-                newProgress.setCompletionPercentage(0);
-                newProgress.setIsVocabularyFinished(false);
-                newProgress.setIsGrammarFinished(false);
-                newProgress.setIsExerciseFinished(false);
-                newProgress.setUserProfile(userProfileEntity);
-                Unit unit = unitRepository.findById(unitId).orElseThrow(() -> new RuntimeException("Unit not found"));
-                newProgress.setUnit(unit);
-                return newProgress;
-            });
+        Optional<Progress> existing = progressRepository.findByUserIsCurrentUserAndUnitId(unitId);
+        ProgressContribution before = existing.map(ProgressContribution::of).orElse(null);
+        Progress progress = existing.orElseGet(() -> {
+            // Create new progress if it doesn't exist
+            Progress newProgress = new Progress();
+            newProgress.setIsCompleted(false);
+            newProgress.setIsBookmarked(false);
+            newProgress.setUpdatedAt(Instant.now());
+            newProgress.setLastAccessedAt(Instant.now());
+            newProgress.setCompletionPercentage(0);
+            newProgress.setIsVocabularyFinished(false);
+            newProgress.setIsGrammarFinished(false);
+            newProgress.setIsExerciseFinished(false);
+            newProgress.setUserProfile(userProfileEntity);
+            Unit unit = unitRepository.findById(unitId).orElseThrow(() -> new RuntimeException("Unit not found"));
+            newProgress.setUnit(unit);
+            return newProgress;
+        });
 
         // Update section completion based on type
         switch (sectionType.toUpperCase()) {
@@ -374,6 +430,11 @@ public class ProgressService {
 
         progress.setUpdatedAt(Instant.now());
         progress = progressRepository.save(progress);
+        ProgressContribution after = ProgressContribution.of(progress);
+        teacherStatsService.progressChanged(before, after);
+        if (after.completed() && (before == null || !before.completed())) {
+            activityRollupService.recordCompletion(bookIdOf(progress), userProfileEntity.getId());
+        }
         return progressMapper.toDto(progress);
     }
 
@@ -0,0 +1,152 @@
+package com.langleague.app.service;
+
+/**
+ * The students of one range of user profile ids, with the weeks they were active in, for the cohort retention job.
+ * <p>
+ * Each student takes a slot of an open-addressing table holding their cohort week and a bit mask of the weeks they
+ * were active in, relative to the cohort week: about 40 bytes per student, whatever the number of progress rows.
+ * Weeks are numbered from the Monday 1970-01-05.
+ */
+final class RetentionShard {
+
+    /**
+     * Number of weeks followed after the cohort week, which is week offset 0.
+     */
+    static final int MAX_WEEK_OFFSETS = 53;
+
+    // Row width of a triangle: retained students by week offset, then the cohort size
+    static final int STRIDE = MAX_WEEK_OFFSETS + 1;
+
+    private static final int EMPTY_KEY = 0;
+
+    private long[] keys;
+
+    private int[] cohortWeeks;
+
+    private long[] activeWeeks;
+
+    private int size;
+
+    RetentionShard() {
+        this(1024);
+    }
+
+    RetentionShard(int expectedStudents) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedStudents * 2 - 1)) << 1;
+        keys = new long[capacity];
+        cohortWeeks = new int[capacity];
+        activeWeeks = new long[capacity];
+    }
+
+    static int weekOfEpochDay(long epochDay) {
+        return (int) Math.floorDiv(epochDay - 4, 7);
+    }
+
+    static long epochDayOfWeek(int week) {
+        return week * 7L + 4;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Add a student to the cohort of the week they first enrolled in.
+     *
+     * @param userProfileId the student, strictly positive.
+     * @param cohortWeek the week of their first enrollment.
+     */
+    void addStudent(long userProfileId, int cohortWeek) {
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        int slot = slotOf(userProfileId);
+        if (keys[slot] == EMPTY_KEY) {
+            keys[slot] = userProfileId;
+            cohortWeeks[slot] = cohortWeek;
+            size++;
+        } else if (cohortWeek < cohortWeeks[slot]) {
+            cohortWeeks[slot] = cohortWeek;
+            activeWeeks[slot] = 0;
+        }
+    }
+
+    /**
+     * Mark a student active during a range of weeks. Unknown students and weeks outside of the followed offsets are
+     * ignored.
+     */
+    void markActive(long userProfileId, int fromWeek, int toWeek) {
+        int slot = slotOf(userProfileId);
+        if (keys[slot] == EMPTY_KEY) {
+            return;
+        }
+        int from = Math.max(0, fromWeek - cohortWeeks[slot]);
+        int to = Math.min(MAX_WEEK_OFFSETS - 1, toWeek - cohortWeeks[slot]);
+        if (from > to) {
+            return;
+        }
+        // Bits from..to inclusive
+        activeWeeks[slot] |= (-1L >>> (63 - to + from)) << from;
+    }
+
+    void markActive(long userProfileId, int week) {
+        markActive(userProfileId, week, week);
+    }
+
+    /**
+     * Add the students of this shard to a retention triangle.
+     *
+     * @param triangle {@link #STRIDE} counters per cohort week, from {@code firstWeek} on.
+     * @param firstWeek the cohort week of the first row; students of older cohorts are skipped.
+     */
+    void accumulate(long[] triangle, int firstWeek) {
+        int cohorts = triangle.length / STRIDE;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] == EMPTY_KEY) {
+                continue;
+            }
+            int cohort = cohortWeeks[slot] - firstWeek;
+            if (cohort < 0 || cohort >= cohorts) {
+                continue;
+            }
+            int base = cohort * STRIDE;
+            triangle[base + MAX_WEEK_OFFSETS]++;
+            long mask = activeWeeks[slot];
+            while (mask != 0) {
+                triangle[base + Long.numberOfTrailingZeros(mask)]++;
+                mask &= mask - 1;
+            }
+        }
+    }
+
+    private int slotOf(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) mix(key) & mask;
+        while (keys[slot] != EMPTY_KEY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldCohortWeeks = cohortWeeks;
+        long[] oldActiveWeeks = activeWeeks;
+        keys = new long[oldKeys.length * 2];
+        cohortWeeks = new int[keys.length];
+        activeWeeks = new long[keys.length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                cohortWeeks[slot] = oldCohortWeeks[i];
+                activeWeeks[slot] = oldActiveWeeks[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.langleague.app.service;
+
+import java.util.Arrays;
+
+/**
+ * Approximate set of recently seen keys, forgetting keys after one to two generations.
+ * <p>
+ * Two Bloom filters are kept: the current generation, which receives new keys, and the previous one.
+ * When a new generation starts the previous filter is cleared and becomes the current one. A key added
+ * at time {@code t} is therefore remembered at least until {@code t + generation}, whatever the rotation.
+ * <p>
+ * False positives are possible, false negatives are not: a key reported as new was never added in the
+ * last generation.
+ */
+final class RotatingBloomFilter {
+
+    private final int bitMask;
+
+    private final int hashes;
+
+    private final long generationMillis;
+
+    private long[] current;
+
+    private long[] previous;
+
+    private long currentGeneration = Long.MIN_VALUE;
+
+    /**
+     * @param log2Bits base 2 logarithm of the number of bits of each generation.
+     * @param hashes number of bits set per key.
+     * @param generationMillis length of a generation.
+     */
+    RotatingBloomFilter(int log2Bits, int hashes, long generationMillis) {
+        if (log2Bits < 6 || log2Bits > 30 || hashes < 1 || generationMillis <= 0) {
+            throw new IllegalArgumentException("Invalid Bloom filter parameters");
+        }
+        this.bitMask = (1 << log2Bits) - 1;
+        this.hashes = hashes;
+        this.generationMillis = generationMillis;
+        this.current = new long[1 << (log2Bits - 6)];
+        this.previous = new long[current.length];
+    }
+
+    /**
+     * Add a key, unless it was possibly added before.
+     * <p>
+     * The key is given as two independent, uniformly distributed 64 bit hashes, combined
+     * into the bit positions by double hashing.
+     *
+     * @return {@code true} if the key is new and was added, {@code false} if it was possibly seen already.
+     */
+    synchronized boolean add(long hash1, long hash2, long nowMillis) {
+        rotate(nowMillis);
+        if (contains(current, hash1, hash2) || contains(previous, hash1, hash2)) {
+            return false;
+        }
+        for (int i = 0; i < hashes; i++) {
+            int bit = (int) (hash1 + i * hash2) & bitMask;
+            current[bit >>> 6] |= 1L << bit;
+        }
+        return true;
+    }
+
+    private boolean contains(long[] bits, long hash1, long hash2) {
+        for (int i = 0; i < hashes; i++) {
+            int bit = (int) (hash1 + i * hash2) & bitMask;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rotate(long nowMillis) {
+        long generation = Math.floorDiv(nowMillis, generationMillis);
+        if (generation <= currentGeneration) {
+            return;
+        }
+        long[] recycled = previous;
+        Arrays.fill(recycled, 0L);
+        if (generation == currentGeneration + 1) {
+            previous = current;
+        } else {
+            // Idle for more than a generation, everything is forgotten
+            Arrays.fill(current, 0L);
+            previous = current;
+        }
+        current = recycled;
+        currentGeneration = generation;
+    }
+}
@@ -0,0 +1,159 @@
+package com.langleague.app.service;
+
+import com.langleague.app.service.dto.SystemOverviewDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service computing the admin system overview.
+ * <p>
+ * The overview is a snapshot, recomputed by a single scheduled job every
+ * {@code application.system-overview.refresh-interval} and served from memory, so that the count queries run at
+ * the same pace however many admins are watching the dashboard. The independent queries of a refresh run in parallel.
+ * <p>
+ * Each query is timed under {@value #QUERY_TIMER}, tagged with its name, and the age of the snapshot is exposed
+ * as {@value #SNAPSHOT_AGE_GAUGE}.
+ */
+@Service
+public class SystemOverviewService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SystemOverviewService.class);
+
+    public static final String QUERY_TIMER = "system.overview.query";
+
+    public static final String SNAPSHOT_AGE_GAUGE = "system.overview.snapshot.age";
+
+    private record Snapshot(
+        Instant computedAt,
+        long[] users,
+        Map<String, Long> usersByAuthority,
+        long books,
+        long enrollments,
+        long[] progresses
+    ) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Executor executor;
+
+    private volatile Snapshot snapshot;
+
+    public SystemOverviewService(
+        JdbcTemplate jdbcTemplate,
+        MeterRegistry meterRegistry,
+        @Qualifier("systemOverviewExecutor") Executor executor
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.executor = executor;
+        Gauge.builder(SNAPSHOT_AGE_GAUGE, this, SystemOverviewService::snapshotAgeSeconds)
+            .baseUnit("seconds")
+            .description("Age of the admin system overview snapshot")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Get the last snapshot of the overview, computing it if there is none yet.
+     *
+     * @return the overview, with its age.
+     */
+    public SystemOverviewDTO getOverview() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = compute();
+                }
+                current = snapshot;
+            }
+        }
+
+        SystemOverviewDTO overview = new SystemOverviewDTO();
+        overview.setComputedAt(current.computedAt());
+        overview.setAgeSeconds(Duration.between(current.computedAt(), Instant.now()).toSeconds());
+        overview.setTotalUsers(current.users()[0]);
+        overview.setActivatedUsers(current.users()[1]);
+        overview.setUsersByAuthority(current.usersByAuthority());
+        overview.setTotalBooks(current.books());
+        overview.setTotalEnrollments(current.enrollments());
+        overview.setTotalProgresses(current.progresses()[0]);
+        overview.setCompletedProgresses(current.progresses()[1]);
+        long total = current.progresses()[0];
+        overview.setCompletionRate(total == 0 ? 0 : (int) Math.round(((double) current.progresses()[1] / total) * 100));
+        return overview;
+    }
+
+    /**
+     * Recompute the snapshot. If a query fails, the previous snapshot is kept.
+     */
+    @Scheduled(fixedDelayString = "${application.system-overview.refresh-interval:PT30S}")
+    public void refresh() {
+        try {
+            snapshot = compute();
+        } catch (RuntimeException e) {
+            LOG.warn("Could not refresh the system overview: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot compute() {
+        Instant computedAt = Instant.now();
+        CompletableFuture<long[]> users = timed("users", () ->
+            jdbcTemplate.queryForObject("SELECT COUNT(*), COALESCE(SUM(activated), 0) FROM jhi_user", (rs, rowNum) ->
+                new long[] { rs.getLong(1), rs.getLong(2) }
+            )
+        );
+        CompletableFuture<Map<String, Long>> usersByAuthority = timed("authorities", () ->
+            jdbcTemplate.query(
+                "SELECT authority_name, COUNT(*) FROM jhi_user_authority GROUP BY authority_name",
+                (ResultSetExtractor<Map<String, Long>>) rs -> {
+                    Map<String, Long> counts = new TreeMap<>();
+                    while (rs.next()) {
+                        counts.put(rs.getString(1), rs.getLong(2));
+                    }
+                    return counts;
+                }
+            )
+        );
+        CompletableFuture<Long> books = timed("books", () -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM book", Long.class));
+        CompletableFuture<Long> enrollments = timed("enrollments", () ->
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM enrollment", Long.class)
+        );
+        // Total and completed in a single scan
+        CompletableFuture<long[]> progresses = timed("progresses", () ->
+            jdbcTemplate.queryForObject("SELECT COUNT(*), COALESCE(SUM(is_completed), 0) FROM progress", (rs, rowNum) ->
+                new long[] { rs.getLong(1), rs.getLong(2) }
+            )
+        );
+        return new Snapshot(computedAt, users.join(), usersByAuthority.join(), books.join(), enrollments.join(), progresses.join());
+    }
+
+    private <T> CompletableFuture<T> timed(String query, Supplier<T> supplier) {
+        Timer timer = Timer.builder(QUERY_TIMER)
+            .description("Duration of the queries of the admin system overview")
+            .tag("query", query)
+            .register(meterRegistry);
+        return CompletableFuture.supplyAsync(() -> timer.record(supplier), executor);
+    }
+
+    private double snapshotAgeSeconds() {
+        Snapshot current = snapshot;
+        return current == null ? Double.NaN : Duration.between(current.computedAt(), Instant.now()).toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,229 @@
+package com.langleague.app.service;
+
+import com.langleague.app.domain.Book;
+import com.langleague.app.domain.Enrollment;
+import com.langleague.app.domain.Progress;
+import com.langleague.app.domain.TeacherStats;
+import com.langleague.app.repository.TeacherStatsRepository;
+import com.langleague.app.service.dto.TeacherDashboardDTO;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service maintaining the teacher dashboard counters.
+ * <p>
+ * The enrollment, book and progress services report every change here, and the counters are updated in the same
+ * transaction, so that the dashboard reads one row whatever the number of students. Changes the services do not see,
+ * such as rows removed by a cascading delete of a user, are caught up by a nightly reconciliation.
+ */
+@Service
+@Transactional
+public class TeacherStatsService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TeacherStatsService.class);
+
+    /**
+     * What a progress row adds to the counters of the teacher owning its unit.
+     */
+    public record ProgressContribution(Long unitId, boolean completed, Integer score) {
+        public static ProgressContribution of(Progress progress) {
+            return new ProgressContribution(
+                progress.getUnit() != null ? progress.getUnit().getId() : null,
+                Boolean.TRUE.equals(progress.getIsCompleted()),
+                progress.getScore()
+            );
+        }
+    }
+
+    private final TeacherStatsRepository teacherStatsRepository;
+
+    public TeacherStatsService(TeacherStatsRepository teacherStatsRepository) {
+        this.teacherStatsRepository = teacherStatsRepository;
+    }
+
+    /**
+     * Count a new book.
+     *
+     * @param book the persisted book.
+     */
+    public void bookCreated(Book book) {
+        if (book.getTeacherProfile() == null) {
+            return;
+        }
+        Long teacherProfileId = book.getTeacherProfile().getId();
+        teacherStatsRepository.addToTeacherStats(teacherProfileId, 1, 0, 0, 0, 0, 0, Instant.now());
+        teacherStatsRepository.addToBookStats(book.getId(), teacherProfileId, 0);
+    }
+
+    /**
+     * Recompute the counters of a teacher after one of their books was deleted, with its enrollments, units and progress.
+     * The book must already be deleted in the current transaction.
+     *
+     * @param teacherProfileId the owner of the deleted book.
+     */
+    public void bookDeleted(Long teacherProfileId) {
+        if (teacherProfileId != null) {
+            reconcile(teacherProfileId);
+        }
+    }
+
+    /**
+     * Recompute the counters of a teacher after one of their units was deleted, with its progress.
+     * The unit must already be deleted in the current transaction.
+     *
+     * @param teacherProfileId the owner of the book of the deleted unit.
+     */
+    public void unitDeleted(Long teacherProfileId) {
+        if (teacherProfileId != null) {
+            reconcile(teacherProfileId);
+        }
+    }
+
+    /**
+     * Count a new enrollment.
+     *
+     * @param enrollment the persisted enrollment.
+     */
+    public void enrollmentAdded(Enrollment enrollment) {
+        enrollmentChanged(enrollment.getId(), enrollment.getUserProfile().getId(), enrollment.getBook().getId(), 1);
+    }
+
+    /**
+     * Stop counting an enrollment.
+     *
+     * @param enrollmentId the id of the removed enrollment.
+     * @param studentProfileId the enrolled student.
+     * @param bookId the book the student was enrolled in.
+     */
+    public void enrollmentRemoved(Long enrollmentId, Long studentProfileId, Long bookId) {
+        enrollmentChanged(enrollmentId, studentProfileId, bookId, -1);
+    }
+
+    private void enrollmentChanged(Long enrollmentId, Long studentProfileId, Long bookId, int delta) {
+        Optional<Long> teacherProfileId = teacherStatsRepository.findTeacherProfileIdByBookId(bookId);
+        if (teacherProfileId.isEmpty()) {
+            return;
+        }
+        // The student count only changes with the first and the last enrollment in the books of the teacher
+        boolean otherEnrollments =
+            teacherStatsRepository.countOtherEnrollmentsOfStudentWithTeacher(studentProfileId, teacherProfileId.get(), enrollmentId) > 0;
+        teacherStatsRepository.addToTeacherStats(teacherProfileId.get(), 0, delta, otherEnrollments ? 0 : delta, 0, 0, 0, Instant.now());
+        teacherStatsRepository.addToBookStats(bookId, teacherProfileId.get(), delta);
+    }
+
+    /**
+     * Apply a progress change to the counters.
+     *
+     * @param before the contribution of the progress before the change, {@code null} if it was created.
+     * @param after the contribution of the progress after the change, {@code null} if it was deleted.
+     */
+    public void progressChanged(ProgressContribution before, ProgressContribution after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null && after != null && !Objects.equals(before.unitId(), after.unitId())) {
+            // Moved to another unit, possibly of another teacher
+            progressChanged(before, null);
+            progressChanged(null, after);
+            return;
+        }
+        Long unitId = before != null ? before.unitId() : after.unitId();
+        if (unitId == null) {
+            return;
+        }
+        long completed = completedCount(after) - completedCount(before);
+        long scoreSum = scoreOf(after) - scoreOf(before);
+        long scored = scoredCount(after) - scoredCount(before);
+        if (completed == 0 && scoreSum == 0 && scored == 0) {
+            return;
+        }
+        teacherStatsRepository
+            .findTeacherProfileIdByUnitId(unitId)
+            .ifPresent(teacherProfileId ->
+                teacherStatsRepository.addToTeacherStats(teacherProfileId, 0, 0, 0, completed, scoreSum, scored, Instant.now())
+            );
+    }
+
+    private static long completedCount(ProgressContribution contribution) {
+        return contribution != null && contribution.completed() ? 1 : 0;
+    }
+
+    private static long scoreOf(ProgressContribution contribution) {
+        return contribution != null && contribution.score() != null ? contribution.score() : 0;
+    }
+
+    private static long scoredCount(ProgressContribution contribution) {
+        return contribution != null && contribution.score() != null ? 1 : 0;
+    }
+
+    /**
+     * Get the dashboard statistics of a teacher, from their counters.
+     *
+     * @param teacherProfileId the teacher profile ID.
+     * @return the statistics, all zero if the teacher has no book.
+     */
+    @Transactional(readOnly = true)
+    public TeacherDashboardDTO getDashboardStats(Long teacherProfileId) {
+        TeacherDashboardDTO stats = new TeacherDashboardDTO();
+        Optional<TeacherStats> teacherStats = teacherStatsRepository.findById(teacherProfileId);
+        teacherStats.ifPresent(row -> {
+            stats.setTotalBooks(row.getBookCount());
+            stats.setTotalStudents(row.getStudentCount());
+            stats.setTotalEnrollments(row.getEnrollmentCount());
+            stats.setCompletedUnits(row.getCompletedUnitCount());
+            stats.setAverageScore(row.getScoredProgressCount() > 0 ? (double) row.getScoreSum() / row.getScoredProgressCount() : 0.0);
+        });
+
+        List<TeacherDashboardDTO.BookStatDTO> bookStats = new ArrayList<>();
+        if (teacherStats.isPresent()) {
+            for (Object[] row : teacherStatsRepository.findBookStatsByTeacherProfileId(teacherProfileId)) {
+                bookStats.add(new TeacherDashboardDTO.BookStatDTO((String) row[0], ((Number) row[1]).longValue()));
+            }
+        }
+        stats.setBookStats(bookStats);
+        return stats;
+    }
+
+    /**
+     * Recompute every counter from the source tables, catching up with changes made outside of the services.
+     * <p>
+     * This is scheduled to run every night, at 02:30 (am).
+     */
+    @Scheduled(cron = "0 30 2 * * ?")
+    public void reconcileAll() {
+        reconcile(null);
+    }
+
+    /**
+     * Fill the counters on the first start after they were introduced.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileIfEmpty() {
+        if (teacherStatsRepository.count() == 0) {
+            reconcile(null);
+        }
+    }
+
+    private void reconcile(Long teacherProfileId) {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        teacherStatsRepository.reconcileBookStats(teacherProfileId);
+        int teachers = teacherStatsRepository.reconcileTeacherStats(teacherProfileId, now);
+        teacherStatsRepository.resetTeacherStatsWithoutBooks(teacherProfileId, now);
+        if (teacherProfileId == null) {
+            LOG.info("Reconciled teacher statistics in {} ms ({} rows affected)", (System.nanoTime() - start) / 1_000_000, teachers);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.langleague.app.service;
 
 import com.langleague.app.domain.Book;
 import com.langleague.app.domain.Unit;
+import com.langleague.app.domain.UserProfile;
 import com.langleague.app.repository.BookRepository;
 import com.langleague.app.repository.UnitRepository;
 import com.langleague.app.repository.UserProfileRepository;
@@ -38,16 +39,20 @@ public class UnitService {
 
     private final UserProfileRepository userProfileRepository;
 
+    private final TeacherStatsService teacherStatsService;
+
     public UnitService(
         UnitRepository unitRepository,
         UnitMapper unitMapper,
         BookRepository bookRepository,
-        UserProfileRepository userProfileRepository
+        UserProfileRepository userProfileRepository,
+        TeacherStatsService teacherStatsService
     ) {
         this.unitRepository = unitRepository;
         this.unitMapper = unitMapper;
         this.bookRepository = bookRepository;
         this.userProfileRepository = userProfileRepository;
+        this.teacherStatsService = teacherStatsService;
     }
 
     /**
@@ -200,6 +205,15 @@ public class UnitService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete Unit : {}", id);
+        Long teacherProfileId = unitRepository
+            .findById(id)
+            .map(Unit::getBook)
+            .map(Book::getTeacherProfile)
+            .map(UserProfile::getId)
+            .orElse(null);
         unitRepository.deleteById(id);
+        // Progress goes with the unit
+        unitRepository.flush();
+        teacherStatsService.unitDeleted(teacherProfileId);
     }
 }
@@ -0,0 +1,184 @@
+package com.langleague.app.service;
+
+import com.langleague.app.domain.User;
+import com.langleague.app.domain.UserProfile;
+import com.langleague.app.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service deleting stale, never activated accounts in chunks.
+ * <p>
+ * Candidates are walked by increasing id and each chunk is deleted with a few set-based statements in its own
+ * transaction, so that a spam-registration wave does not turn into one long transaction. Caches are evicted
+ * once per chunk, after it commits, here and on the other nodes.
+ */
+@Service
+public class UserPurgeService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserPurgeService.class);
+
+    public static final String PURGED_COUNTER = "users.purged";
+
+    public static final String PURGE_TIMER = "users.purge";
+
+    static final int CHUNK_SIZE = 500;
+
+    // A deleted account, and what must be evicted for it
+    private record Candidate(long id, String login, String email, Long profileId) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CacheManager cacheManager;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final UserSearchIndex userSearchIndex;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final Counter purgedCounter;
+
+    private final Timer purgeTimer;
+
+    public UserPurgeService(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        CacheManager cacheManager,
+        EntityManagerFactory entityManagerFactory,
+        UserSearchIndex userSearchIndex,
+        CacheInvalidationBus cacheInvalidationBus,
+        MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.userSearchIndex = userSearchIndex;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.purgedCounter = Counter.builder(PURGED_COUNTER)
+            .description("Not activated accounts deleted by the purge job")
+            .register(meterRegistry);
+        this.purgeTimer = Timer.builder(PURGE_TIMER).description("Duration of a purge of not activated accounts").register(meterRegistry);
+    }
+
+    /**
+     * Delete the accounts that were never activated, and still have an activation key, created before a date.
+     *
+     * @param createdBefore the creation date limit.
+     * @return the number of deleted accounts.
+     */
+    public int purgeNotActivatedUsers(Instant createdBefore) {
+        long started = System.nanoTime();
+        int purged = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<Candidate> chunk = Objects.requireNonNull(transactionTemplate.execute(status -> purgeChunk(createdBefore, from)));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            evictCaches(chunk);
+            purged += chunk.size();
+            purgedCounter.increment(chunk.size());
+            if (chunk.size() < CHUNK_SIZE) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1).id();
+        }
+        long elapsed = System.nanoTime() - started;
+        purgeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        if (purged > 0) {
+            LOG.info("Deleted {} not activated users in {} ms", purged, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+        return purged;
+    }
+
+    private List<Candidate> purgeChunk(Instant createdBefore, long afterId) {
+        // Locked, so that an account cannot be activated while its chunk is deleted
+        List<Candidate> chunk = jdbcTemplate.query(
+            "SELECT u.id, u.login, u.email, p.id FROM jhi_user u LEFT JOIN user_profile p ON p.user_id = u.id " +
+            "WHERE u.activated = FALSE AND u.activation_key IS NOT NULL AND u.created_date < ? AND u.id > ? " +
+            "ORDER BY u.id LIMIT ? FOR UPDATE",
+            (resultSet, rowNum) ->
+                new Candidate(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3), resultSet.getObject(4, Long.class)),
+            Timestamp.from(createdBefore),
+            afterId,
+            CHUNK_SIZE
+        );
+        if (chunk.isEmpty()) {
+            return chunk;
+        }
+
+        List<Long> ids = new ArrayList<>(chunk.size());
+        for (Candidate candidate : chunk) {
+            ids.add(candidate.id());
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Object[] args = ids.toArray();
+        jdbcTemplate.update("DELETE FROM jhi_user_authority WHERE user_id IN (" + placeholders + ")", args);
+        // Profiles go with their user, through the foreign key
+        jdbcTemplate.update("DELETE FROM jhi_user WHERE id IN (" + placeholders + ")", args);
+        userSearchIndex.removeAll(ids);
+        LOG.debug("Deleted not activated users {} to {}", ids.get(0), ids.get(ids.size() - 1));
+        return chunk;
+    }
+
+    private void evictCaches(List<Candidate> chunk) {
+        Set<Object> logins = new HashSet<>();
+        Set<Object> emails = new HashSet<>();
+        List<CacheInvalidation> invalidations = new ArrayList<>();
+        jakarta.persistence.Cache secondLevelCache = entityManagerFactory.getCache();
+        for (Candidate candidate : chunk) {
+            logins.add(candidate.login());
+            if (candidate.email() != null) {
+                emails.add(candidate.email());
+            }
+            // Rows were deleted behind Hibernate's back
+            secondLevelCache.evict(User.class, candidate.id());
+            invalidations.add(CacheInvalidation.entry(User.class.getName(), candidate.id()));
+            if (candidate.profileId() != null) {
+                secondLevelCache.evict(UserProfile.class, candidate.profileId());
+                invalidations.add(CacheInvalidation.entry(UserProfile.class.getName(), candidate.profileId()));
+            }
+        }
+        evictAll(UserRepository.USERS_BY_LOGIN_CACHE, logins);
+        evictAll(UserRepository.USERS_BY_EMAIL_CACHE, emails);
+        logins.forEach(login -> invalidations.add(CacheInvalidation.entry(UserRepository.USERS_BY_LOGIN_CACHE, login)));
+        emails.forEach(email -> invalidations.add(CacheInvalidation.entry(UserRepository.USERS_BY_EMAIL_CACHE, email)));
+        // The other nodes do not see Hibernate events for these deletes
+        cacheInvalidationBus.publish(invalidations);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evictAll(String cacheName, Set<Object> keys) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+        if (cache.getNativeCache() instanceof javax.cache.Cache<?, ?> nativeCache) {
+            // A single bulk removal rather than one call per key
+            ((javax.cache.Cache<Object, Object>) nativeCache).removeAll(keys);
+        } else {
+            keys.forEach(cache::evict);
+        }
+    }
+}
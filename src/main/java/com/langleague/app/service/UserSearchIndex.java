@@ -0,0 +1,521 @@
+package com.langleague.app.service;
+
+import com.langleague.app.domain.Authority;
+import com.langleague.app.domain.User;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory search index of users for the admin user list, replacing {@code LIKE '%q%'} scans over four columns.
+ * <p>
+ * Each user is a document holding its login, email, first and last name, folded to lower case without accents like the
+ * {@code utf8mb4_unicode_ci} collation. Documents are listed under every trigram of those fields: a query of three
+ * characters or more only looks at the documents of its rarest trigrams, and checks the substring on them. Shorter
+ * queries scan the documents. Roles and activation are bit sets, intersected with the matches.
+ * <p>
+ * The index is built from the database at startup and kept up to date by {@link UserService}, once transactions commit.
+ * Users changed on the other nodes are read again from the database when their eviction arrives through the
+ * {@link CacheInvalidationBus}, and the whole index is reloaded when every cached user is evicted.
+ * Until it is built, {@link #isReady()} is {@code false} and searches must go to the database.
+ */
+@Service
+public class UserSearchIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final int GRAM = 3;
+
+    // Separates the fields of a document, never part of a query
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    /**
+     * A page of matching user ids, with the number of matches over all pages.
+     */
+    public record SearchPage(List<Long> userIds, long total) {}
+
+    /**
+     * The searchable state of a user, captured when it changes.
+     */
+    private record Document(long userId, String text, boolean activated, Set<String> roles) {
+        static Document of(User user) {
+            Set<String> roles = new HashSet<>();
+            for (Authority authority : user.getAuthorities()) {
+                roles.add(authority.getName());
+            }
+            String text = UserSearchIndex.text(user.getLogin(), user.getEmail(), user.getFirstName(), user.getLastName());
+            return new Document(user.getId(), text, user.isActivated(), roles);
+        }
+    }
+
+    /**
+     * A growable sorted list of document numbers.
+     */
+    private static final class Postings {
+
+        int[] docs = new int[4];
+
+        int size;
+
+        void add(int doc) {
+            int index = Arrays.binarySearch(docs, 0, size, doc);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            System.arraycopy(docs, index, docs, index + 1, size - index);
+            docs[index] = doc;
+            size++;
+        }
+
+        void remove(int doc) {
+            int index = Arrays.binarySearch(docs, 0, size, doc);
+            if (index >= 0) {
+                System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+                size--;
+            }
+        }
+
+        boolean contains(int doc) {
+            return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> docByUserId = new HashMap<>();
+
+    private long[] userIds = new long[1024];
+
+    private String[] texts = new String[1024];
+
+    private int docCount;
+
+    private final BitSet live = new BitSet();
+
+    private final BitSet activated = new BitSet();
+
+    private final Map<String, BitSet> roles = new HashMap<>();
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    // Changes committed while the index is being built, replayed once it is
+    private final List<Runnable> pending = new ArrayList<>();
+
+    private volatile boolean ready;
+
+    // Set if the build failed: changes are dropped and searches keep going to the database
+    private boolean abandoned;
+
+    public UserSearchIndex(JdbcTemplate jdbcTemplate, CacheInvalidationBus cacheInvalidationBus) {
+        this.jdbcTemplate = jdbcTemplate;
+        cacheInvalidationBus.addListener(User.class.getName(), this::refresh);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Build the index from the database, in the background at startup.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.nanoTime();
+        try {
+            load();
+        } catch (RuntimeException e) {
+            LOG.warn("Could not build the user search index, searching the database instead: {}", e.getMessage());
+            lock.writeLock().lock();
+            try {
+                pending.clear();
+                abandoned = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pending.forEach(Runnable::run);
+            pending.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOG.info("Indexed {} users for search in {} ms", docCount, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private void load() {
+        jdbcTemplate.query(
+            connection -> streaming(connection.prepareStatement(
+                "SELECT id, login, email, first_name, last_name, activated FROM jhi_user",
+                ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY
+            )),
+            (RowCallbackHandler) rs ->
+                put(
+                    new Document(
+                        rs.getLong(1),
+                        text(rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5)),
+                        rs.getBoolean(6),
+                        Set.of()
+                    )
+                )
+        );
+        jdbcTemplate.query(
+            connection -> streaming(connection.prepareStatement(
+                "SELECT user_id, authority_name FROM jhi_user_authority",
+                ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY
+            )),
+            (RowCallbackHandler) rs -> {
+                Integer doc = docByUserId.get(rs.getLong(1));
+                if (doc != null) {
+                    roles.computeIfAbsent(rs.getString(2), role -> new BitSet()).set(doc);
+                }
+            }
+        );
+    }
+
+    /**
+     * Read again a user changed on another node, or every user when the key is {@code null}.
+     */
+    private void refresh(String userId) {
+        if (userId == null) {
+            // Searches wait for the reload, which only follows bulk changes
+            afterCommit(() -> {
+                clear();
+                try {
+                    load();
+                } catch (RuntimeException e) {
+                    LOG.warn("Could not reload the user search index, searching the database instead: {}", e.getMessage());
+                    ready = false;
+                    abandoned = true;
+                }
+            });
+            return;
+        }
+        long id = Long.parseLong(userId);
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT login, email, first_name, last_name, activated FROM jhi_user WHERE id = ?",
+            id
+        );
+        if (rows.isEmpty()) {
+            afterCommit(() -> delete(id));
+            return;
+        }
+        Map<String, Object> row = rows.get(0);
+        String text = text(
+            (String) row.get("login"),
+            (String) row.get("email"),
+            (String) row.get("first_name"),
+            (String) row.get("last_name")
+        );
+        Set<String> userRoles = Set.copyOf(
+            jdbcTemplate.queryForList("SELECT authority_name FROM jhi_user_authority WHERE user_id = ?", String.class, id)
+        );
+        Document document = new Document(id, text, Objects.equals(row.get("activated"), Boolean.TRUE), userRoles);
+        afterCommit(() -> put(document));
+    }
+
+    private void clear() {
+        docByUserId.clear();
+        userIds = new long[1024];
+        texts = new String[1024];
+        docCount = 0;
+        live.clear();
+        activated.clear();
+        roles.clear();
+        postings.clear();
+    }
+
+    private static PreparedStatement streaming(PreparedStatement statement) throws SQLException {
+        // Row by row streaming with MySQL Connector/J
+        statement.setFetchSize(Integer.MIN_VALUE);
+        return statement;
+    }
+
+    /**
+     * Index a created or updated user, once the current transaction commits.
+     *
+     * @param user the user, with its authorities.
+     */
+    public void index(User user) {
+        Document document = Document.of(user);
+        afterCommit(() -> put(document));
+    }
+
+    /**
+     * Remove a deleted user from the index, once the current transaction commits.
+     *
+     * @param user the user.
+     */
+    public void remove(User user) {
+        long userId = user.getId();
+        afterCommit(() -> delete(userId));
+    }
+
+    /**
+     * Remove deleted users from the index, once the current transaction commits.
+     *
+     * @param userIds the ids of the users.
+     */
+    public void removeAll(Collection<Long> userIds) {
+        List<Long> ids = List.copyOf(userIds);
+        afterCommit(() -> ids.forEach(this::delete));
+    }
+
+    private void afterCommit(Runnable change) {
+        Runnable apply = () -> {
+            lock.writeLock().lock();
+            try {
+                if (ready) {
+                    change.run();
+                } else if (!abandoned) {
+                    pending.add(change);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        apply.run();
+                    }
+                }
+            );
+        } else {
+            apply.run();
+        }
+    }
+
+    private void put(Document document) {
+        Integer existing = docByUserId.get(document.userId());
+        int doc;
+        Set<Long> previousGrams = Set.of();
+        if (existing != null) {
+            doc = existing;
+            previousGrams = grams(texts[doc]);
+        } else {
+            doc = docCount++;
+            if (doc == userIds.length) {
+                userIds = Arrays.copyOf(userIds, doc * 2);
+                texts = Arrays.copyOf(texts, doc * 2);
+            }
+            userIds[doc] = document.userId();
+            docByUserId.put(document.userId(), doc);
+        }
+
+        // Only the trigrams that changed are touched
+        Set<Long> grams = grams(document.text());
+        for (long gram : previousGrams) {
+            if (!grams.contains(gram)) {
+                Postings list = postings.get(gram);
+                list.remove(doc);
+                if (list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        for (long gram : grams) {
+            if (!previousGrams.contains(gram)) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(doc);
+            }
+        }
+        texts[doc] = document.text();
+        live.set(doc);
+        activated.set(doc, document.activated());
+        if (existing != null || !document.roles().isEmpty()) {
+            for (Map.Entry<String, BitSet> role : roles.entrySet()) {
+                role.getValue().set(doc, document.roles().contains(role.getKey()));
+            }
+            for (String role : document.roles()) {
+                roles.computeIfAbsent(role, r -> new BitSet()).set(doc);
+            }
+        }
+    }
+
+    private void delete(long userId) {
+        Integer doc = docByUserId.remove(userId);
+        if (doc == null) {
+            return;
+        }
+        for (long gram : grams(texts[doc])) {
+            Postings list = postings.get(gram);
+            list.remove(doc);
+            if (list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+        // The document number is not reused
+        texts[doc] = null;
+        live.clear(doc);
+        activated.clear(doc);
+        roles.values().forEach(role -> role.clear(doc));
+    }
+
+    /**
+     * Search users whose login, email, first or last name contains a query, ignoring case and accents.
+     *
+     * @param query the text to look for, {@code null} or blank for every user.
+     * @param role the authority users must have, {@code null} for any.
+     * @param activated the activation users must have, {@code null} for any.
+     * @param afterId keyset cursor: only users after this id, in the requested order, are returned; {@code null} for none.
+     * @param descending whether to order by decreasing id.
+     * @param offset the number of users to skip, after the cursor.
+     * @param limit the number of users to return.
+     * @return the page of user ids, and the number of users matching the query and filters.
+     */
+    public SearchPage search(String query, String role, Boolean activated, Long afterId, boolean descending, long offset, int limit) {
+        String folded = query == null ? "" : new String(NoteSnippets.fold(query.strip())).replace(String.valueOf(FIELD_SEPARATOR), "");
+        int wanted = (int) Math.min(Integer.MAX_VALUE - 1, offset + limit);
+        Comparator<Long> order = descending ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        // Keeps the first "wanted" ids in the requested order, the last one of them at its head
+        PriorityQueue<Long> page = new PriorityQueue<>(Math.max(1, Math.min(wanted, 1024)), order);
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            BitSet filter = (BitSet) live.clone();
+            if (role != null) {
+                BitSet withRole = roles.get(role);
+                if (withRole == null) {
+                    return new SearchPage(List.of(), 0);
+                }
+                filter.and(withRole);
+            }
+            if (activated != null) {
+                if (activated) {
+                    filter.and(this.activated);
+                } else {
+                    filter.andNot(this.activated);
+                }
+            }
+
+            int[] candidates = candidates(folded, filter);
+            for (int doc : candidates) {
+                if (!filter.get(doc) || (!folded.isEmpty() && !texts[doc].contains(folded))) {
+                    continue;
+                }
+                total++;
+                long userId = userIds[doc];
+                if (afterId != null && (descending ? userId >= afterId : userId <= afterId)) {
+                    continue;
+                }
+                if (wanted == 0) {
+                    continue;
+                }
+                if (page.size() < wanted) {
+                    page.add(userId);
+                } else if (order.compare(userId, page.peek()) > 0) {
+                    page.poll();
+                    page.add(userId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> ids = new ArrayList<>(page);
+        ids.sort(order.reversed());
+        return new SearchPage(offset >= ids.size() ? List.of() : List.copyOf(ids.subList((int) offset, ids.size())), total);
+    }
+
+    /**
+     * The documents that may contain the query: those listed under all its trigrams, or every filtered document
+     * for queries too short to have one.
+     */
+    private int[] candidates(String folded, BitSet filter) {
+        if (folded.length() < GRAM) {
+            return filter.stream().toArray();
+        }
+        List<Postings> lists = new ArrayList<>();
+        for (long gram : grams(folded)) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        Postings rarest = lists.get(0);
+        int[] docs = new int[rarest.size];
+        int count = 0;
+        for (int i = 0; i < rarest.size; i++) {
+            int doc = rarest.docs[i];
+            boolean inAll = true;
+            for (int l = 1; l < lists.size() && inAll; l++) {
+                inAll = lists.get(l).contains(doc);
+            }
+            if (inAll) {
+                docs[count++] = doc;
+            }
+        }
+        return Arrays.copyOf(docs, count);
+    }
+
+    static String text(String login, String email, String firstName, String lastName) {
+        StringBuilder text = new StringBuilder();
+        for (String field : new String[] { login, email, firstName, lastName }) {
+            if (!text.isEmpty()) {
+                text.append(FIELD_SEPARATOR);
+            }
+            if (field != null) {
+                text.append(NoteSnippets.fold(field));
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * The trigrams of a folded text, three chars packed in a long, never spanning two fields.
+     */
+    static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            char a = text.charAt(i);
+            char b = text.charAt(i + 1);
+            char c = text.charAt(i + 2);
+            if (a != FIELD_SEPARATOR && b != FIELD_SEPARATOR && c != FIELD_SEPARATOR) {
+                grams.add(((long) a << 32) | ((long) b << 16) | c);
+            }
+        }
+        return grams;
+    }
+}
@@ -20,10 +20,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.security.RandomUtil;
 
@@ -46,18 +50,34 @@ public class UserService {
 
     private final UserProfileRepository userProfileRepository;
 
+    private final AvatarService avatarService;
+
+    private final UserSearchIndex userSearchIndex;
+
+    private final UserPurgeService userPurgeService;
+
+    private final MailService mailService;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
         CacheManager cacheManager,
-        UserProfileRepository userProfileRepository
+        UserProfileRepository userProfileRepository,
+        AvatarService avatarService,
+        UserSearchIndex userSearchIndex,
+        UserPurgeService userPurgeService,
+        MailService mailService
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
         this.userProfileRepository = userProfileRepository;
+        this.avatarService = avatarService;
+        this.userSearchIndex = userSearchIndex;
+        this.userPurgeService = userPurgeService;
+        this.mailService = mailService;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -69,6 +89,7 @@ public class UserService {
                 user.setActivated(true);
                 user.setActivationKey(null);
                 this.clearUserCaches(user);
+                userSearchIndex.index(user);
                 LOG.debug("Activated user: {}", user);
                 return user;
             });
@@ -96,6 +117,7 @@ public class UserService {
                 user.setResetKey(RandomUtil.generateResetKey());
                 user.setResetDate(Instant.now());
                 this.clearUserCaches(user);
+                mailService.sendPasswordResetMail(user);
                 return user;
             });
     }
@@ -138,9 +160,11 @@ public class UserService {
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
         this.clearUserCaches(newUser);
+        userSearchIndex.index(newUser);
 
         // Create UserProfile
         createUserProfile(newUser);
+        mailService.sendActivationEmail(newUser);
 
         LOG.debug("Created Information for User: {}", newUser);
         return newUser;
@@ -153,6 +177,7 @@ public class UserService {
         userRepository.delete(existingUser);
         userRepository.flush();
         this.clearUserCaches(existingUser);
+        userSearchIndex.remove(existingUser);
         return true;
     }
 
@@ -187,9 +212,11 @@ public class UserService {
         }
         userRepository.save(user);
         this.clearUserCaches(user);
+        userSearchIndex.index(user);
 
         // Create UserProfile
         createUserProfile(user);
+        mailService.sendCreationEmail(user);
 
         LOG.debug("Created Information for User: {}", user);
         return user;
@@ -235,6 +262,7 @@ public class UserService {
                     .forEach(managedAuthorities::add);
                 userRepository.save(user);
                 this.clearUserCaches(user);
+                userSearchIndex.index(user);
                 LOG.debug("Changed Information for User: {}", user);
                 return user;
             })
@@ -249,6 +277,7 @@ public class UserService {
                 // Assuming cascade delete is configured in UserProfile entity or DB
                 userRepository.delete(user);
                 this.clearUserCaches(user);
+                userSearchIndex.remove(user);
                 LOG.debug("Deleted User: {}", user);
             });
     }
@@ -275,10 +304,30 @@ public class UserService {
                 user.setImageUrl(imageUrl);
                 userRepository.save(user);
                 this.clearUserCaches(user);
+                userSearchIndex.index(user);
                 LOG.debug("Changed Information for User: {}", user);
             });
     }
 
+    /**
+     * Update the avatar of the current user. Data URIs are resized and stored as files, only their URL is kept.
+     *
+     * @param imageUrl a data URI or an image URL, {@code null} or blank to remove the avatar.
+     * @return the updated user.
+     */
+    public Optional<User> updateAvatar(String imageUrl) {
+        String avatarUrl = avatarService.toAvatarUrl(imageUrl);
+        return SecurityUtils.getCurrentUserLogin()
+            .flatMap(userRepository::findOneByLogin)
+            .map(user -> {
+                user.setImageUrl(avatarUrl);
+                userRepository.save(user);
+                this.clearUserCaches(user);
+                LOG.debug("Changed avatar for User: {}", user.getLogin());
+                return user;
+            });
+    }
+
     @Transactional
     public void changePassword(String currentClearTextPassword, String newPassword) {
         SecurityUtils.getCurrentUserLogin()
@@ -295,9 +344,63 @@ public class UserService {
             });
     }
 
+    /**
+     * Get a page of users for the admin user list, filtered by text, role and activation.
+     * Searches go to the {@link UserSearchIndex} once it is built, when sorted by id only, and to the database otherwise.
+     *
+     * @param login text to look for in the login, email, first and last name, {@code null} for any.
+     * @param role the authority users must have, {@code null} for any.
+     * @param activated the activation users must have, {@code null} for any.
+     * @param pageable the pagination information.
+     * @return the page of users.
+     */
     @Transactional(readOnly = true)
     public Page<AdminUserDTO> getAllManagedUsers(String login, String role, Boolean activated, Pageable pageable) {
-        return userRepository.findAllWithFilters(login, role, activated, pageable).map(AdminUserDTO::new);
+        Sort sort = pageable.getSort();
+        Sort.Order idOrder = sort.getOrderFor("id");
+        boolean sortedByIdOnly = sort.isUnsorted() || (idOrder != null && sort.stream().count() == 1);
+        if (userSearchIndex.isReady() && sortedByIdOnly) {
+            UserSearchIndex.SearchPage page = userSearchIndex.search(
+                login,
+                role,
+                activated,
+                null,
+                idOrder != null && idOrder.isDescending(),
+                pageable.getOffset(),
+                pageable.getPageSize()
+            );
+            return new PageImpl<>(findAllInOrder(page.userIds()), pageable, page.total());
+        }
+        return userRepository.findAllWithFilters(login, role, activated, null, pageable).map(AdminUserDTO::new);
+    }
+
+    /**
+     * Get the users of the admin user list following a given user, by increasing id, for keyset pagination.
+     *
+     * @param login text to look for in the login, email, first and last name, {@code null} for any.
+     * @param role the authority users must have, {@code null} for any.
+     * @param activated the activation users must have, {@code null} for any.
+     * @param afterId the id of the last user of the previous page.
+     * @param size the page size.
+     * @return the users, with the number of users matching the filters on all pages.
+     */
+    @Transactional(readOnly = true)
+    public Page<AdminUserDTO> getManagedUsersAfter(String login, String role, Boolean activated, long afterId, int size) {
+        Pageable pageable = PageRequest.of(0, size, Sort.by("id"));
+        if (userSearchIndex.isReady()) {
+            UserSearchIndex.SearchPage page = userSearchIndex.search(login, role, activated, afterId, false, 0, size);
+            return new PageImpl<>(findAllInOrder(page.userIds()), pageable, page.total());
+        }
+        return userRepository.findAllWithFilters(login, role, activated, afterId, pageable).map(AdminUserDTO::new);
+    }
+
+    private List<AdminUserDTO> findAllInOrder(List<Long> ids) {
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userRepository.findAllWithAuthoritiesByIdIn(ids)) {
+            users.put(user.getId(), user);
+        }
+        // A user deleted since the search is skipped
+        return ids.stream().map(users::get).filter(Objects::nonNull).map(AdminUserDTO::new).toList();
     }
 
     @Transactional(readOnly = true)
@@ -321,14 +424,10 @@ public class UserService {
      * This is scheduled to get fired every day, at 01:00 (am).
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                LOG.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
-            });
+        // Chunked, each chunk in its own transaction unless one is already running
+        userPurgeService.purgeNotActivatedUsers(Instant.now().minus(3, ChronoUnit.DAYS));
     }
 
     /**
@@ -0,0 +1,256 @@
+package com.langleague.app.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.langleague.app.repository.VocabularyRepository;
+import com.langleague.app.service.dto.GameRoundDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service building ready-made multiple-choice game rounds from a cached per-book word pool.
+ * <p>
+ * Instead of shipping every word of several units to the client, each round only carries
+ * the target word and a handful of distractor meanings drawn from the same book.
+ * <p>
+ * Word pools are cached on each node: their evictions are shared with the other nodes through the
+ * {@link CacheInvalidationBus}, as evictions of the {@link #WORD_POOL_REGION} region.
+ */
+@Service
+@Transactional(readOnly = true)
+public class VocabularyGameService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VocabularyGameService.class);
+
+    public static final int MAX_ROUNDS = 50;
+
+    public static final int MIN_CHOICES = 2;
+
+    public static final int MAX_CHOICES = 6;
+
+    public static final String WORD_POOL_REGION = "vocabularyWordPools";
+
+    // Number of random candidates scored when similarity-aware selection is requested
+    private static final int SIMILAR_SAMPLE_SIZE = 32;
+
+    // Cache for bookId -> word pool, rebuilt lazily after vocabulary changes
+    private final Cache<Long, WordPool> wordPoolCache = Caffeine.newBuilder()
+        .expireAfterWrite(30, TimeUnit.MINUTES)
+        .maximumSize(256)
+        .build();
+
+    private final VocabularyRepository vocabularyRepository;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public VocabularyGameService(VocabularyRepository vocabularyRepository, CacheInvalidationBus cacheInvalidationBus) {
+        this.vocabularyRepository = vocabularyRepository;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        cacheInvalidationBus.addListener(WORD_POOL_REGION, key -> wordPoolCache.invalidateAll());
+    }
+
+    /**
+     * Generate game rounds for a book.
+     *
+     * @param bookId the book the words and distractors are drawn from.
+     * @param unitIds optional units restricting the target words, {@code null} or empty for the whole book.
+     * @param rounds the number of rounds wanted, capped at {@link #MAX_ROUNDS} and at the number of target words.
+     * @param choices the number of options per round, correct meaning included.
+     * @param similar whether distractors should be picked among meanings close to the correct one.
+     * @return the list of rounds.
+     */
+    public List<GameRoundDTO> generateRounds(Long bookId, Collection<Long> unitIds, int rounds, int choices, boolean similar) {
+        LOG.debug("Request to generate {} game rounds with {} choices for book : {}", rounds, choices, bookId);
+        WordPool pool = wordPoolCache.get(bookId, this::loadWordPool);
+        int[] targets = pool.targetsFor(unitIds == null ? Set.of() : new HashSet<>(unitIds));
+        int roundCount = Math.min(Math.min(rounds, MAX_ROUNDS), targets.length);
+        int distractorCount = Math.min(choices - 1, pool.meanings.length - 1);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<GameRoundDTO> result = new ArrayList<>(roundCount);
+        for (int i = 0; i < roundCount; i++) {
+            // Partial Fisher-Yates shuffle: every target appears at most once
+            int pick = i + random.nextInt(targets.length - i);
+            int target = targets[pick];
+            targets[pick] = targets[i];
+            targets[i] = target;
+
+            int correctMeaning = pool.meaningIndex[target];
+            int[] distractors = similar
+                ? pool.similarDistractors(correctMeaning, distractorCount, random)
+                : pool.randomDistractors(correctMeaning, distractorCount, random);
+
+            List<String> options = new ArrayList<>(distractors.length + 1);
+            for (int distractor : distractors) {
+                options.add(pool.meanings[distractor]);
+            }
+            int correctIndex = random.nextInt(options.size() + 1);
+            options.add(correctIndex, pool.meanings[correctMeaning]);
+            result.add(new GameRoundDTO(pool.ids[target], pool.words[target], options, correctIndex));
+        }
+        return result;
+    }
+
+    /**
+     * Drop every cached word pool, on this node and on the others. Called whenever vocabularies are created, updated
+     * or deleted.
+     * <p>
+     * Within a transaction the pools are only dropped once it commits: evicting earlier would let a concurrent
+     * round reload the pool from the not yet committed state and cache it again.
+     */
+    public void evictWordPools() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        dropWordPools();
+                    }
+                }
+            );
+        } else {
+            dropWordPools();
+        }
+    }
+
+    private void dropWordPools() {
+        wordPoolCache.invalidateAll();
+        cacheInvalidationBus.publish(List.of(CacheInvalidation.region(WORD_POOL_REGION)));
+    }
+
+    private WordPool loadWordPool(Long bookId) {
+        LOG.debug("Building game word pool for book : {}", bookId);
+        return WordPool.of(vocabularyRepository.findWordPoolRowsByBookId(bookId));
+    }
+
+    /**
+     * Compact, immutable word pool of a book, stored as primitive arrays.
+     * Meanings are de-duplicated (case and surrounding whitespace insensitive) so that two
+     * words sharing the same meaning never end up as each other's distractor.
+     */
+    static final class WordPool {
+
+        final long[] ids;
+        final long[] unitIds;
+        final String[] words;
+        final int[] meaningIndex;
+        final String[] meanings;
+
+        private WordPool(long[] ids, long[] unitIds, String[] words, int[] meaningIndex, String[] meanings) {
+            this.ids = ids;
+            this.unitIds = unitIds;
+            this.words = words;
+            this.meaningIndex = meaningIndex;
+            this.meanings = meanings;
+        }
+
+        static WordPool of(List<Object[]> rows) {
+            int size = rows.size();
+            long[] ids = new long[size];
+            long[] unitIds = new long[size];
+            String[] words = new String[size];
+            int[] meaningIndex = new int[size];
+            Map<String, Integer> distinct = new HashMap<>();
+            List<String> meanings = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                Object[] row = rows.get(i);
+                ids[i] = ((Number) row[0]).longValue();
+                unitIds[i] = ((Number) row[1]).longValue();
+                words[i] = (String) row[2];
+                String meaning = ((String) row[3]).trim();
+                meaningIndex[i] = distinct.computeIfAbsent(meaning.toLowerCase(Locale.ROOT), key -> {
+                    meanings.add(meaning);
+                    return meanings.size() - 1;
+                });
+            }
+            return new WordPool(ids, unitIds, words, meaningIndex, meanings.toArray(new String[0]));
+        }
+
+        int[] targetsFor(Set<Long> units) {
+            if (units.isEmpty()) {
+                int[] all = new int[ids.length];
+                for (int i = 0; i < all.length; i++) {
+                    all[i] = i;
+                }
+                return all;
+            }
+            int[] buffer = new int[ids.length];
+            int count = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (units.contains(unitIds[i])) {
+                    buffer[count++] = i;
+                }
+            }
+            int[] targets = new int[count];
+            System.arraycopy(buffer, 0, targets, 0, count);
+            return targets;
+        }
+
+        int[] randomDistractors(int correct, int count, ThreadLocalRandom random) {
+            int[] picked = new int[Math.max(count, 0)];
+            int found = 0;
+            while (found < picked.length) {
+                int candidate = random.nextInt(meanings.length);
+                if (candidate != correct && !contains(picked, found, candidate)) {
+                    picked[found++] = candidate;
+                }
+            }
+            return picked;
+        }
+
+        int[] similarDistractors(int correct, int count, ThreadLocalRandom random) {
+            if (count <= 0) {
+                return new int[0];
+            }
+            int[] candidates = randomDistractors(correct, Math.min(meanings.length - 1, Math.max(SIMILAR_SAMPLE_SIZE, count)), random);
+            String reference = meanings[correct].toLowerCase(Locale.ROOT);
+            long[] scored = new long[candidates.length];
+            for (int i = 0; i < candidates.length; i++) {
+                // Pack (distance, candidate) so that a plain sort orders by distance
+                scored[i] = ((long) distance(reference, meanings[candidates[i]].toLowerCase(Locale.ROOT)) << 32) | candidates[i];
+            }
+            Arrays.sort(scored);
+            int[] picked = new int[count];
+            for (int i = 0; i < count; i++) {
+                picked[i] = (int) scored[i];
+            }
+            return picked;
+        }
+
+        /**
+         * Cheap similarity distance: length difference, discounted by the shared prefix.
+         */
+        private static int distance(String reference, String candidate) {
+            int prefix = 0;
+            int max = Math.min(reference.length(), candidate.length());
+            while (prefix < max && reference.charAt(prefix) == candidate.charAt(prefix)) {
+                prefix++;
+            }
+            return Math.max(0, Math.abs(reference.length() - candidate.length()) + 64 - 2 * Math.min(prefix, 32));
+        }
+
+        private static boolean contains(int[] values, int length, int value) {
+            for (int i = 0; i < length; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
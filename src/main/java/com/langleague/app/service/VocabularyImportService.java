@@ -0,0 +1,255 @@
+package com.langleague.app.service;
+
+import com.langleague.app.domain.Unit;
+import com.langleague.app.repository.VocabularyRepository;
+import com.langleague.app.service.dto.VocabularyImportResultDTO;
+import com.langleague.app.service.dto.VocabularyImportResultDTO.RowErrorDTO;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service importing vocabularies from CSV / TSV text.
+ * <p>
+ * The input is parsed record by record and inserted with JDBC batches, one transaction per chunk,
+ * so memory stays flat whatever the size of the file. A chunk that fails is saved again row by row,
+ * so that only the failing rows are rejected. Vocabulary ids are {@code IDENTITY}, which
+ * disables Hibernate insert batching, hence the plain JDBC path.
+ * <p>
+ * Columns are {@code word, meaning, phonetic, example, imageUrl} in that order, unless the first
+ * line is a header naming them (any order, unknown columns ignored).
+ */
+@Service
+public class VocabularyImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VocabularyImportService.class);
+
+    public static final int CHUNK_SIZE = 500;
+
+    public static final int MAX_ROWS = 50_000;
+
+    public static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private static final String INSERT_SQL =
+        "INSERT INTO vocabulary (word, phonetic, meaning, example, image_url, order_index, unit_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int WORD = 0;
+    private static final int MEANING = 1;
+    private static final int PHONETIC = 2;
+    private static final int EXAMPLE = 3;
+    private static final int IMAGE_URL = 4;
+
+    private final VocabularyRepository vocabularyRepository;
+
+    private final VocabularyGameService vocabularyGameService;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate chunkTransaction;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public VocabularyImportService(
+        VocabularyRepository vocabularyRepository,
+        VocabularyGameService vocabularyGameService,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        EntityManagerFactory entityManagerFactory,
+        CacheInvalidationBus cacheInvalidationBus
+    ) {
+        this.vocabularyRepository = vocabularyRepository;
+        this.vocabularyGameService = vocabularyGameService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        // Each chunk commits on its own, even when called from a transactional controller
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Import the vocabularies of a CSV / TSV stream into a unit, appending them after the existing ones.
+     * Invalid rows are skipped and reported; valid rows are imported even if others fail.
+     *
+     * @param unitId the unit the vocabularies belong to.
+     * @param input the UTF-8 encoded text, comma, semicolon or tab separated.
+     * @return the import report.
+     * @throws IOException if the input cannot be read.
+     */
+    public VocabularyImportResultDTO importVocabularies(Long unitId, InputStream input) throws IOException {
+        LOG.debug("Request to import Vocabularies into Unit : {}", unitId);
+        VocabularyImportResultDTO result = new VocabularyImportResultDTO();
+        DelimitedRecordReader records = DelimitedRecordReader.detect(
+            new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))
+        );
+
+        int nextOrderIndex = vocabularyRepository.findMaxOrderIndexByUnitId(unitId) + 1;
+        int[] columns = { 0, 1, 2, 3, 4 };
+        List<Object[]> chunk = new ArrayList<>(CHUNK_SIZE);
+        int[] chunkLines = new int[CHUNK_SIZE];
+        int rows = 0;
+        boolean first = true;
+
+        String[] record;
+        while ((record = records.next()) != null) {
+            if (first) {
+                first = false;
+                int[] header = parseHeader(record);
+                if (header != null) {
+                    columns = header;
+                    continue;
+                }
+            }
+            if (isBlank(record)) {
+                continue;
+            }
+            int line = records.recordLine();
+            if (++rows > MAX_ROWS) {
+                reject(result, line, "Too many rows, at most " + MAX_ROWS + " are imported per file");
+                break;
+            }
+
+            String word = field(record, columns[WORD]);
+            String meaning = field(record, columns[MEANING]);
+            String phonetic = field(record, columns[PHONETIC]);
+            String example = field(record, columns[EXAMPLE]);
+            String imageUrl = field(record, columns[IMAGE_URL]);
+            String error = validate(word, meaning, phonetic, imageUrl);
+            if (error != null) {
+                reject(result, line, error);
+                continue;
+            }
+
+            chunkLines[chunk.size()] = line;
+            chunk.add(new Object[] { word, phonetic, meaning, example, imageUrl, nextOrderIndex++, unitId });
+            if (chunk.size() == CHUNK_SIZE) {
+                flush(chunk, chunkLines, result);
+            }
+        }
+        flush(chunk, chunkLines, result);
+
+        if (result.getImported() > 0) {
+            // Rows were written behind Hibernate's back, and the chunks are committed
+            String vocabularies = Unit.class.getName() + ".vocabularies";
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictCollectionData(vocabularies, unitId);
+            cacheInvalidationBus.publish(List.of(CacheInvalidation.entry(vocabularies, unitId)));
+            vocabularyGameService.evictWordPools();
+        }
+        LOG.debug("Imported {} Vocabularies into Unit {}, {} rows rejected", result.getImported(), unitId, result.getRejected());
+        return result;
+    }
+
+    private void flush(List<Object[]> chunk, int[] chunkLines, VocabularyImportResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            chunkTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, chunk));
+            result.setImported(result.getImported() + chunk.size());
+        } catch (DataAccessException e) {
+            // The chunk was rolled back: save its rows one by one to find the failing ones
+            LOG.warn("Vocabulary import chunk starting at line {} failed, retrying row by row: {}", chunkLines[0], e.getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                Object[] row = chunk.get(i);
+                try {
+                    chunkTransaction.executeWithoutResult(status -> jdbcTemplate.update(INSERT_SQL, row));
+                    result.setImported(result.getImported() + 1);
+                } catch (DataIntegrityViolationException rowException) {
+                    LOG.debug("Vocabulary import line {} failed: {}", chunkLines[i], rowException.getMessage());
+                    reject(result, chunkLines[i], "Could not be saved: invalid or duplicate value");
+                } catch (DataAccessException rowException) {
+                    LOG.warn("Vocabulary import line {} failed: {}", chunkLines[i], rowException.getMessage());
+                    reject(result, chunkLines[i], "Could not be saved");
+                }
+            }
+        }
+        chunk.clear();
+    }
+
+    private static void reject(VocabularyImportResultDTO result, int line, String message) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new RowErrorDTO(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private static String validate(String word, String meaning, String phonetic, String imageUrl) {
+        if (word == null) {
+            return "Word is required";
+        }
+        if (word.length() > 200) {
+            return "Word must be at most 200 characters";
+        }
+        if (meaning == null) {
+            return "Meaning is required";
+        }
+        if (phonetic != null && phonetic.length() > 200) {
+            return "Phonetic must be at most 200 characters";
+        }
+        if (imageUrl != null && imageUrl.length() > 500) {
+            return "Image URL must be at most 500 characters";
+        }
+        return null;
+    }
+
+    /**
+     * Map a header record to column positions.
+     *
+     * @return the position of each column, {@code -1} when absent, or {@code null} if the record is not a header.
+     */
+    static int[] parseHeader(String[] record) {
+        int[] columns = new int[5];
+        Arrays.fill(columns, -1);
+        for (int i = 0; i < record.length; i++) {
+            switch (record[i].trim().toLowerCase(Locale.ROOT)) {
+                case "word" -> columns[WORD] = i;
+                case "meaning" -> columns[MEANING] = i;
+                case "phonetic" -> columns[PHONETIC] = i;
+                case "example" -> columns[EXAMPLE] = i;
+                case "imageurl", "image_url", "image" -> columns[IMAGE_URL] = i;
+                default -> {
+                    // Unknown columns are ignored
+                }
+            }
+        }
+        return columns[WORD] >= 0 ? columns : null;
+    }
+
+    private static String field(String[] record, int column) {
+        if (column < 0 || column >= record.length) {
+            return null;
+        }
+        String value = record[column].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static boolean isBlank(String[] record) {
+        for (String value : record) {
+            if (!value.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
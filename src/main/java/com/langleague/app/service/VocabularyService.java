@@ -8,7 +8,9 @@ import com.langleague.app.service.mapper.VocabularyMapper;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -29,9 +31,16 @@ public class VocabularyService {
 
     private final VocabularyMapper vocabularyMapper;
 
-    public VocabularyService(VocabularyRepository vocabularyRepository, VocabularyMapper vocabularyMapper) {
+    private final VocabularyGameService vocabularyGameService;
+
+    public VocabularyService(
+        VocabularyRepository vocabularyRepository,
+        VocabularyMapper vocabularyMapper,
+        VocabularyGameService vocabularyGameService
+    ) {
         this.vocabularyRepository = vocabularyRepository;
         this.vocabularyMapper = vocabularyMapper;
+        this.vocabularyGameService = vocabularyGameService;
     }
 
     /**
@@ -44,6 +53,7 @@ public class VocabularyService {
         LOG.debug("Request to save Vocabulary : {}", vocabularyDTO);
         Vocabulary vocabulary = vocabularyMapper.toEntity(vocabularyDTO);
         vocabulary = vocabularyRepository.save(vocabulary);
+        vocabularyGameService.evictWordPools();
         return vocabularyMapper.toDto(vocabulary);
     }
 
@@ -63,6 +73,7 @@ public class VocabularyService {
         // Since we are using saveAll, it's more efficient
 
         vocabularies = vocabularyRepository.saveAll(vocabularies);
+        vocabularyGameService.evictWordPools();
         return vocabularyMapper.toDto(vocabularies);
     }
 
@@ -76,6 +87,7 @@ public class VocabularyService {
         LOG.debug("Request to update Vocabulary : {}", vocabularyDTO);
         Vocabulary vocabulary = vocabularyMapper.toEntity(vocabularyDTO);
         vocabulary = vocabularyRepository.save(vocabulary);
+        vocabularyGameService.evictWordPools();
         return vocabularyMapper.toDto(vocabulary);
     }
 
@@ -96,7 +108,10 @@ public class VocabularyService {
                 return existingVocabulary;
             })
             .map(vocabularyRepository::save)
-            .map(vocabularyMapper::toDto);
+            .map(saved -> {
+                vocabularyGameService.evictWordPools();
+                return vocabularyMapper.toDto(saved);
+            });
     }
 
     /**
@@ -147,6 +162,7 @@ public class VocabularyService {
     public void delete(Long id) {
         LOG.debug("Request to delete Vocabulary : {}", id);
         vocabularyRepository.deleteById(id);
+        vocabularyGameService.evictWordPools();
     }
 
     /**
@@ -174,4 +190,19 @@ public class VocabularyService {
         LOG.debug("Request to get game vocabularies for units : {}", unitIds);
         return vocabularyRepository.findGameVocabulariesByUnitIds(unitIds);
     }
+
+    /**
+     * Stream lightweight game vocabularies by a list of unit IDs to the given consumer.
+     * Rows are read one at a time from the database, so the memory used does not depend on the number of units.
+     *
+     * @param unitIds the list of unit IDs
+     * @param consumer the consumer receiving each GameVocabularyDTO
+     */
+    @Transactional(readOnly = true)
+    public void streamGameVocabulariesByUnits(List<Long> unitIds, Consumer<? super GameVocabularyDTO> consumer) {
+        LOG.debug("Request to stream game vocabularies for units : {}", unitIds);
+        try (Stream<GameVocabularyDTO> vocabularies = vocabularyRepository.streamGameVocabulariesByUnitIds(unitIds)) {
+            vocabularies.forEach(consumer);
+        }
+    }
 }
@@ -0,0 +1,113 @@
+package com.langleague.app.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The learning activity of a book, by day and by week (UTC, weeks starting on Monday).
+ */
+public class BookActivityDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long bookId;
+
+    private List<PeriodDTO> days = new ArrayList<>();
+
+    private List<PeriodDTO> weeks = new ArrayList<>();
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public List<PeriodDTO> getDays() {
+        return days;
+    }
+
+    public void setDays(List<PeriodDTO> days) {
+        this.days = days;
+    }
+
+    public List<PeriodDTO> getWeeks() {
+        return weeks;
+    }
+
+    public void setWeeks(List<PeriodDTO> weeks) {
+        this.weeks = weeks;
+    }
+
+    /**
+     * The activity of one day or week.
+     */
+    public static class PeriodDTO implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private LocalDate start;
+        private int activeLearners;
+        private long accesses;
+        private long completions;
+        private long studyMinutes;
+
+        public PeriodDTO() {}
+
+        public PeriodDTO(LocalDate start, int activeLearners, long accesses, long completions, long studyMinutes) {
+            this.start = start;
+            this.activeLearners = activeLearners;
+            this.accesses = accesses;
+            this.completions = completions;
+            this.studyMinutes = studyMinutes;
+        }
+
+        public LocalDate getStart() {
+            return start;
+        }
+
+        public void setStart(LocalDate start) {
+            this.start = start;
+        }
+
+        public int getActiveLearners() {
+            return activeLearners;
+        }
+
+        public void setActiveLearners(int activeLearners) {
+            this.activeLearners = activeLearners;
+        }
+
+        public long getAccesses() {
+            return accesses;
+        }
+
+        public void setAccesses(long accesses) {
+            this.accesses = accesses;
+        }
+
+        public long getCompletions() {
+            return completions;
+        }
+
+        public void setCompletions(long completions) {
+            this.completions = completions;
+        }
+
+        public long getStudyMinutes() {
+            return studyMinutes;
+        }
+
+        public void setStudyMinutes(long studyMinutes) {
+            this.studyMinutes = studyMinutes;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BookActivityDTO{" + "bookId=" + bookId + ", days=" + days.size() + ", weeks=" + weeks.size() + '}';
+    }
+}
@@ -0,0 +1,84 @@
+package com.langleague.app.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The weekly retention triangle: for each cohort of students who first enrolled during a week, how many of them
+ * were still studying each following week.
+ */
+public class CohortRetentionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Instant computedAt;
+
+    private List<CohortDTO> cohorts = new ArrayList<>();
+
+    public Instant getComputedAt() {
+        return computedAt;
+    }
+
+    public void setComputedAt(Instant computedAt) {
+        this.computedAt = computedAt;
+    }
+
+    public List<CohortDTO> getCohorts() {
+        return cohorts;
+    }
+
+    public void setCohorts(List<CohortDTO> cohorts) {
+        this.cohorts = cohorts;
+    }
+
+    /**
+     * One cohort: {@code retained.get(n)} students were active during the n-th week after the cohort week.
+     */
+    public static class CohortDTO implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private LocalDate weekStart;
+        private int size;
+        private List<Integer> retained = new ArrayList<>();
+
+        public CohortDTO() {}
+
+        public CohortDTO(LocalDate weekStart, int size) {
+            this.weekStart = weekStart;
+            this.size = size;
+        }
+
+        public LocalDate getWeekStart() {
+            return weekStart;
+        }
+
+        public void setWeekStart(LocalDate weekStart) {
+            this.weekStart = weekStart;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public List<Integer> getRetained() {
+            return retained;
+        }
+
+        public void setRetained(List<Integer> retained) {
+            this.retained = retained;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CohortRetentionDTO{" + "computedAt=" + computedAt + ", cohorts=" + cohorts.size() + '}';
+    }
+}
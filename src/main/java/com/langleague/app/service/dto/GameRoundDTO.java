@@ -0,0 +1,76 @@
+package com.langleague.app.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A single multiple-choice game round: the target word and its candidate meanings.
+ * The correct meaning is one of {@code options}, at position {@code correctIndex}.
+ */
+public class GameRoundDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long vocabularyId;
+    private String word;
+    private List<String> options;
+    private int correctIndex;
+
+    public GameRoundDTO(Long vocabularyId, String word, List<String> options, int correctIndex) {
+        this.vocabularyId = vocabularyId;
+        this.word = word;
+        this.options = options;
+        this.correctIndex = correctIndex;
+    }
+
+    public GameRoundDTO() {}
+
+    public Long getVocabularyId() {
+        return vocabularyId;
+    }
+
+    public void setVocabularyId(Long vocabularyId) {
+        this.vocabularyId = vocabularyId;
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    public void setWord(String word) {
+        this.word = word;
+    }
+
+    public List<String> getOptions() {
+        return options;
+    }
+
+    public void setOptions(List<String> options) {
+        this.options = options;
+    }
+
+    public int getCorrectIndex() {
+        return correctIndex;
+    }
+
+    public void setCorrectIndex(int correctIndex) {
+        this.correctIndex = correctIndex;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "GameRoundDTO{" +
+            "vocabularyId=" +
+            vocabularyId +
+            ", word='" +
+            word +
+            '\'' +
+            ", options=" +
+            options +
+            ", correctIndex=" +
+            correctIndex +
+            '}'
+        );
+    }
+}
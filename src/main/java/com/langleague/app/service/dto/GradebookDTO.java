@@ -0,0 +1,102 @@
+package com.langleague.app.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The progress of every student enrolled in a book, for every unit of the book, in a columnar shape.
+ * <p>
+ * Units are listed once, in book order, and students once, in name order. {@code completed} and {@code scores}
+ * hold one row per student, aligned with {@code studentIds}, each with one cell per unit, aligned with {@code unitIds}:
+ * {@code 1} if the unit is completed, {@code 0} otherwise, and the score or {@code null}.
+ */
+public class GradebookDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long bookId;
+
+    private List<Long> unitIds = new ArrayList<>();
+
+    private List<String> unitTitles = new ArrayList<>();
+
+    private List<Long> studentIds = new ArrayList<>();
+
+    private List<String> studentLogins = new ArrayList<>();
+
+    private List<String> studentNames = new ArrayList<>();
+
+    private List<int[]> completed = new ArrayList<>();
+
+    private List<Integer[]> scores = new ArrayList<>();
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public List<Long> getUnitIds() {
+        return unitIds;
+    }
+
+    public void setUnitIds(List<Long> unitIds) {
+        this.unitIds = unitIds;
+    }
+
+    public List<String> getUnitTitles() {
+        return unitTitles;
+    }
+
+    public void setUnitTitles(List<String> unitTitles) {
+        this.unitTitles = unitTitles;
+    }
+
+    public List<Long> getStudentIds() {
+        return studentIds;
+    }
+
+    public void setStudentIds(List<Long> studentIds) {
+        this.studentIds = studentIds;
+    }
+
+    public List<String> getStudentLogins() {
+        return studentLogins;
+    }
+
+    public void setStudentLogins(List<String> studentLogins) {
+        this.studentLogins = studentLogins;
+    }
+
+    public List<String> getStudentNames() {
+        return studentNames;
+    }
+
+    public void setStudentNames(List<String> studentNames) {
+        this.studentNames = studentNames;
+    }
+
+    public List<int[]> getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(List<int[]> completed) {
+        this.completed = completed;
+    }
+
+    public List<Integer[]> getScores() {
+        return scores;
+    }
+
+    public void setScores(List<Integer[]> scores) {
+        this.scores = scores;
+    }
+
+    @Override
+    public String toString() {
+        return "GradebookDTO{" + "bookId=" + bookId + ", units=" + unitIds.size() + ", students=" + studentIds.size() + '}';
+    }
+}
@@ -0,0 +1,84 @@
+package com.langleague.app.service.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.io.Serializable;
+
+/**
+ * An autosave of the note of the current user for a unit.
+ * <p>
+ * The client sends the {@code version} it last received, and gets back the version its content will have once saved.
+ */
+public class NoteAutosaveDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    private Long unitId;
+
+    @NotNull
+    @Size(max = 5000)
+    private String content;
+
+    private Long version;
+
+    private Long noteId;
+
+    private boolean pending;
+
+    public Long getUnitId() {
+        return unitId;
+    }
+
+    public void setUnitId(Long unitId) {
+        this.unitId = unitId;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+
+    public boolean isPending() {
+        return pending;
+    }
+
+    public void setPending(boolean pending) {
+        this.pending = pending;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "NoteAutosaveDTO{" +
+            "unitId=" +
+            unitId +
+            ", version=" +
+            version +
+            ", noteId=" +
+            noteId +
+            ", pending=" +
+            pending +
+            '}'
+        );
+    }
+}
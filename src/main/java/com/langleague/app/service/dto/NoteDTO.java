@@ -29,6 +29,8 @@ public class NoteDTO implements Serializable {
 
     private Long unitId;
 
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -77,6 +79,14 @@ public class NoteDTO implements Serializable {
         this.unitId = unitId;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -117,6 +127,8 @@ public class NoteDTO implements Serializable {
             getUserProfileId() +
             ", unitId=" +
             getUnitId() +
+            ", version=" +
+            getVersion() +
             "}"
         );
     }
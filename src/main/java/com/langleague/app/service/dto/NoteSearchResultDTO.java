@@ -0,0 +1,75 @@
+package com.langleague.app.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A note matching a search, with an HTML-escaped snippet where matched terms are wrapped in {@code <mark>}.
+ */
+public class NoteSearchResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long noteId;
+    private Long unitId;
+    private String unitTitle;
+    private String snippet;
+    private Instant updatedAt;
+
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+
+    public Long getUnitId() {
+        return unitId;
+    }
+
+    public void setUnitId(Long unitId) {
+        this.unitId = unitId;
+    }
+
+    public String getUnitTitle() {
+        return unitTitle;
+    }
+
+    public void setUnitTitle(String unitTitle) {
+        this.unitTitle = unitTitle;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "NoteSearchResultDTO{" +
+            "noteId=" +
+            noteId +
+            ", unitId=" +
+            unitId +
+            ", unitTitle='" +
+            unitTitle +
+            '\'' +
+            ", updatedAt=" +
+            updatedAt +
+            '}'
+        );
+    }
+}
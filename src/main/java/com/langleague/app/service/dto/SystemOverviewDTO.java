@@ -0,0 +1,122 @@
+package com.langleague.app.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * The platform-wide counts shown on the admin dashboard, as of {@code computedAt}.
+ */
+public class SystemOverviewDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Instant computedAt;
+    private long ageSeconds;
+    private long totalUsers;
+    private long activatedUsers;
+    private Map<String, Long> usersByAuthority;
+    private long totalBooks;
+    private long totalEnrollments;
+    private long totalProgresses;
+    private long completedProgresses;
+    private int completionRate;
+
+    public Instant getComputedAt() {
+        return computedAt;
+    }
+
+    public void setComputedAt(Instant computedAt) {
+        this.computedAt = computedAt;
+    }
+
+    public long getAgeSeconds() {
+        return ageSeconds;
+    }
+
+    public void setAgeSeconds(long ageSeconds) {
+        this.ageSeconds = ageSeconds;
+    }
+
+    public long getTotalUsers() {
+        return totalUsers;
+    }
+
+    public void setTotalUsers(long totalUsers) {
+        this.totalUsers = totalUsers;
+    }
+
+    public long getActivatedUsers() {
+        return activatedUsers;
+    }
+
+    public void setActivatedUsers(long activatedUsers) {
+        this.activatedUsers = activatedUsers;
+    }
+
+    public Map<String, Long> getUsersByAuthority() {
+        return usersByAuthority;
+    }
+
+    public void setUsersByAuthority(Map<String, Long> usersByAuthority) {
+        this.usersByAuthority = usersByAuthority;
+    }
+
+    public long getTotalBooks() {
+        return totalBooks;
+    }
+
+    public void setTotalBooks(long totalBooks) {
+        this.totalBooks = totalBooks;
+    }
+
+    public long getTotalEnrollments() {
+        return totalEnrollments;
+    }
+
+    public void setTotalEnrollments(long totalEnrollments) {
+        this.totalEnrollments = totalEnrollments;
+    }
+
+    public long getTotalProgresses() {
+        return totalProgresses;
+    }
+
+    public void setTotalProgresses(long totalProgresses) {
+        this.totalProgresses = totalProgresses;
+    }
+
+    public long getCompletedProgresses() {
+        return completedProgresses;
+    }
+
+    public void setCompletedProgresses(long completedProgresses) {
+        this.completedProgresses = completedProgresses;
+    }
+
+    public int getCompletionRate() {
+        return completionRate;
+    }
+
+    public void setCompletionRate(int completionRate) {
+        this.completionRate = completionRate;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "SystemOverviewDTO{" +
+            "computedAt=" +
+            computedAt +
+            ", totalUsers=" +
+            totalUsers +
+            ", totalBooks=" +
+            totalBooks +
+            ", totalEnrollments=" +
+            totalEnrollments +
+            ", completionRate=" +
+            completionRate +
+            '}'
+        );
+    }
+}
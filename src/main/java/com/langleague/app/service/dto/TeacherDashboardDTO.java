@@ -7,6 +7,8 @@ public class TeacherDashboardDTO implements Serializable {
 
     private long totalBooks;
     private long totalStudents;
+    private long totalEnrollments;
+    private long completedUnits;
     private double averageScore;
     private List<BookStatDTO> bookStats;
 
@@ -26,6 +28,22 @@ public class TeacherDashboardDTO implements Serializable {
         this.totalStudents = totalStudents;
     }
 
+    public long getTotalEnrollments() {
+        return totalEnrollments;
+    }
+
+    public void setTotalEnrollments(long totalEnrollments) {
+        this.totalEnrollments = totalEnrollments;
+    }
+
+    public long getCompletedUnits() {
+        return completedUnits;
+    }
+
+    public void setCompletedUnits(long completedUnits) {
+        this.completedUnits = completedUnits;
+    }
+
     public double getAverageScore() {
         return averageScore;
     }
@@ -1,15 +1,23 @@
 package com.langleague.app.service.dto;
 
 import java.io.Serializable;
+import java.util.Map;
 
 public class UploadResponseDTO implements Serializable {
 
     private String fileUrl;
 
+    private Map<String, String> variants;
+
     public UploadResponseDTO(String fileUrl) {
         this.fileUrl = fileUrl;
     }
 
+    public UploadResponseDTO(String fileUrl, Map<String, String> variants) {
+        this.fileUrl = fileUrl;
+        this.variants = variants;
+    }
+
     public String getFileUrl() {
         return fileUrl;
     }
@@ -17,4 +25,12 @@ public class UploadResponseDTO implements Serializable {
     public void setFileUrl(String fileUrl) {
         this.fileUrl = fileUrl;
     }
+
+    public Map<String, String> getVariants() {
+        return variants;
+    }
+
+    public void setVariants(Map<String, String> variants) {
+        this.variants = variants;
+    }
 }
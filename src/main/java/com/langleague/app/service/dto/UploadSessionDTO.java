@@ -0,0 +1,103 @@
+package com.langleague.app.service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.io.Serializable;
+
+/**
+ * A resumable chunked upload: what the client announced when creating it and how many bytes were received so far.
+ */
+public class UploadSessionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String uploadId;
+
+    @NotBlank
+    @Size(max = 255)
+    private String fileName;
+
+    @Size(max = 100)
+    private String contentType;
+
+    @NotNull
+    @Positive
+    private Long size;
+
+    @Pattern(regexp = "^[0-9a-fA-F]{64}$")
+    private String sha256;
+
+    private long offset;
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "UploadSessionDTO{" +
+            "uploadId='" +
+            uploadId +
+            '\'' +
+            ", fileName='" +
+            fileName +
+            '\'' +
+            ", contentType='" +
+            contentType +
+            '\'' +
+            ", size=" +
+            size +
+            ", offset=" +
+            offset +
+            '}'
+        );
+    }
+}
@@ -0,0 +1,102 @@
+package com.langleague.app.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a CSV / TSV vocabulary import: how many rows were imported and why the others were rejected.
+ */
+public class VocabularyImportResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int imported;
+    private int rejected;
+    private boolean errorsTruncated;
+    private List<RowErrorDTO> errors = new ArrayList<>();
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public List<RowErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "VocabularyImportResultDTO{" +
+            "imported=" +
+            imported +
+            ", rejected=" +
+            rejected +
+            ", errors=" +
+            errors.size() +
+            ", errorsTruncated=" +
+            errorsTruncated +
+            '}'
+        );
+    }
+
+    public static class RowErrorDTO implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private int line;
+        private String message;
+
+        public RowErrorDTO(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public RowErrorDTO() {}
+
+        public int getLine() {
+            return line;
+        }
+
+        public void setLine(int line) {
+            this.line = line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return "RowErrorDTO{" + "line=" + line + ", message='" + message + '\'' + '}';
+        }
+    }
+}
@@ -21,6 +21,13 @@ public interface NoteMapper extends EntityMapper<NoteDTO, Note> {
     @Mapping(target = "unitId", source = "unit.id")
     NoteDTO toDto(Note s);
 
+    // The version is managed by Hibernate, never copied from a client payload onto a managed entity
+    @Override
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "version", ignore = true)
+    void partialUpdate(@MappingTarget Note entity, NoteDTO dto);
+
     @Named("userProfileId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
@@ -0,0 +1,120 @@
+package com.langleague.app.web.filter;
+
+import com.langleague.app.management.SqlStatementMetersService;
+import com.langleague.app.management.SqlStatementStatistics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+public class SqlStatementAccountingFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String ROWS_HEADER = "X-Sql-Rows";
+    public static final String TIME_HEADER = "X-Sql-Time";
+
+    private final SqlStatementMetersService sqlStatementMetersService;
+
+    private final boolean header;
+
+    public SqlStatementAccountingFilter(SqlStatementMetersService sqlStatementMetersService, boolean header) {
+        this.sqlStatementMetersService = sqlStatementMetersService;
+        this.header = header;
+    }
+
+    /**
+     * Counts the SQL statements of the request, records them against the handler, and, if enabled, reports them in
+     * the {@code X-Sql-*} headers, as they stand when the body starts being written.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        SqlStatementStatistics statistics = SqlStatementStatistics.begin(request.getMethod() + " " + request.getRequestURI());
+        HeaderWritingResponse headerWritingResponse = header ? new HeaderWritingResponse(response, statistics) : null;
+        try {
+            filterChain.doFilter(request, headerWritingResponse != null ? headerWritingResponse : response);
+        } finally {
+            statistics.end(handlerName(request));
+            if (headerWritingResponse != null) {
+                headerWritingResponse.writeHeaders();
+            }
+            sqlStatementMetersService.record(statistics);
+        }
+    }
+
+    private static String handlerName(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return null;
+    }
+
+    /**
+     * Sets the headers just before the body is written, while they can still be sent.
+     */
+    private static final class HeaderWritingResponse extends HttpServletResponseWrapper {
+
+        private final SqlStatementStatistics statistics;
+
+        private boolean written;
+
+        HeaderWritingResponse(HttpServletResponse response, SqlStatementStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(statistics.getStatements()));
+            setHeader(ROWS_HEADER, String.valueOf(statistics.getRows()));
+            setHeader(TIME_HEADER, TimeUnit.NANOSECONDS.toMillis(statistics.getNanos()) + "ms");
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
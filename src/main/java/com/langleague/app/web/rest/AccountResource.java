@@ -3,7 +3,6 @@ package com.langleague.app.web.rest;
 import com.langleague.app.domain.User;
 import com.langleague.app.repository.UserRepository;
 import com.langleague.app.security.SecurityUtils;
-import com.langleague.app.service.MailService;
 import com.langleague.app.service.UserService;
 import com.langleague.app.service.dto.AdminUserDTO;
 import com.langleague.app.service.dto.PasswordChangeDTO;
@@ -39,12 +38,9 @@ public class AccountResource {
 
     private final UserService userService;
 
-    private final MailService mailService;
-
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    public AccountResource(UserRepository userRepository, UserService userService) {
         this.userRepository = userRepository;
         this.userService = userService;
-        this.mailService = mailService;
     }
 
     /**
@@ -61,8 +57,7 @@ public class AccountResource {
         if (isPasswordLengthInvalid(managedUserVM.getPassword())) {
             throw new InvalidPasswordException();
         }
-        User user = userService.registerUser(managedUserVM, managedUserVM.getPassword());
-        mailService.sendActivationEmail(user);
+        userService.registerUser(managedUserVM, managedUserVM.getPassword());
     }
 
     /**
@@ -132,20 +127,14 @@ public class AccountResource {
     public AdminUserDTO updateAvatar(@RequestBody String imageUrl) {
         LOG.debug("Received imageUrl: {}", imageUrl != null ? imageUrl.substring(0, Math.min(100, imageUrl.length())) : "null");
 
-        String userLogin = SecurityUtils.getCurrentUserLogin()
-            .orElseThrow(() -> new AccountResourceException("Current user login not found"));
-
-        User user = userRepository.findOneByLogin(userLogin).orElseThrow(() -> new AccountResourceException("User could not be found"));
-
         // Remove surrounding quotes if present (Spring may include them from JSON string)
         String cleanImageUrl = imageUrl;
         if (cleanImageUrl != null && cleanImageUrl.startsWith("\"") && cleanImageUrl.endsWith("\"")) {
             cleanImageUrl = cleanImageUrl.substring(1, cleanImageUrl.length() - 1);
         }
 
-        // Update only the imageUrl field
-        user.setImageUrl(cleanImageUrl);
-        userRepository.save(user);
+        // Data URIs are resized and moved to file storage, only a short URL is kept on the user
+        User user = userService.updateAvatar(cleanImageUrl).orElseThrow(() -> new AccountResourceException("User could not be found"));
 
         LOG.debug("Updated avatar for User: {}", user);
         return new AdminUserDTO(user);
@@ -172,10 +161,8 @@ public class AccountResource {
      */
     @PostMapping(path = "/account/reset-password/init")
     public void requestPasswordReset(@RequestBody String mail) {
-        Optional<User> user = userService.requestPasswordReset(mail);
-        if (user.isPresent()) {
-            mailService.sendPasswordResetMail(user.orElseThrow());
-        } else {
+        // The reset email is queued with the reset key
+        if (userService.requestPasswordReset(mail).isEmpty()) {
             // Pretend the request has been successful to prevent checking which emails really exist
             // but log that an invalid attempt has been made
             LOG.warn("Password reset requested for non existing mail");
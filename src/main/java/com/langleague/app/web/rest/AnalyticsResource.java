@@ -1,17 +1,31 @@
 package com.langleague.app.web.rest;
 
 import com.langleague.app.security.AuthoritiesConstants;
+import com.langleague.app.service.ActivityRollupService;
 import com.langleague.app.service.AnalyticsService;
+import com.langleague.app.service.GradebookService;
+import com.langleague.app.service.dto.BookActivityDTO;
+import com.langleague.app.service.dto.GradebookDTO;
 import com.langleague.app.service.dto.StudentDTO;
 import com.langleague.app.service.dto.TeacherDashboardDTO;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST controller for Teacher Analytics.
@@ -24,8 +38,18 @@ public class AnalyticsResource {
 
     private final AnalyticsService analyticsService;
 
-    public AnalyticsResource(AnalyticsService analyticsService) {
+    private final GradebookService gradebookService;
+
+    private final ActivityRollupService activityRollupService;
+
+    public AnalyticsResource(
+        AnalyticsService analyticsService,
+        GradebookService gradebookService,
+        ActivityRollupService activityRollupService
+    ) {
         this.analyticsService = analyticsService;
+        this.gradebookService = gradebookService;
+        this.activityRollupService = activityRollupService;
     }
 
     /**
@@ -53,4 +77,62 @@ public class AnalyticsResource {
         List<StudentDTO> students = analyticsService.getMyStudents();
         return ResponseEntity.ok(students);
     }
+
+    /**
+     * {@code GET  /books/:bookId/activity} : get the learning activity of a book by day and by week.
+     *
+     * @param bookId the id of the book, owned by the current teacher.
+     * @param days the number of days to return, including today, at most {@value ActivityRollupService#MAX_DAYS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the activity in body.
+     */
+    @GetMapping("/books/{bookId}/activity")
+    @PreAuthorize("hasAuthority('" + AuthoritiesConstants.TEACHER + "')")
+    public ResponseEntity<BookActivityDTO> getBookActivity(
+        @PathVariable("bookId") Long bookId,
+        @RequestParam(name = "days", defaultValue = "28") int days
+    ) {
+        LOG.debug("REST request to get the Activity of Book : {} over {} days", bookId, days);
+        return ResponseEntity.ok(activityRollupService.getBookActivity(bookId, days));
+    }
+
+    /**
+     * {@code GET  /books/:bookId/gradebook} : get the completion and score of every student enrolled in a book, for every unit.
+     *
+     * @param bookId the id of the book, owned by the current teacher.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the gradebook, in columnar form, in body.
+     */
+    @GetMapping("/books/{bookId}/gradebook")
+    @PreAuthorize("hasAuthority('" + AuthoritiesConstants.TEACHER + "')")
+    public ResponseEntity<GradebookDTO> getGradebook(@PathVariable("bookId") Long bookId) {
+        LOG.debug("REST request to get the Gradebook of Book : {}", bookId);
+        return ResponseEntity.ok(gradebookService.getGradebook(bookId));
+    }
+
+    /**
+     * {@code GET  /books/:bookId/gradebook/csv} : export the gradebook of a book as CSV.
+     * Lines are written as they are read from the database.
+     *
+     * @param bookId the id of the book, owned by the current teacher.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the CSV file in body.
+     */
+    @GetMapping("/books/{bookId}/gradebook/csv")
+    @PreAuthorize("hasAuthority('" + AuthoritiesConstants.TEACHER + "')")
+    public ResponseEntity<StreamingResponseBody> exportGradebook(@PathVariable("bookId") Long bookId) {
+        LOG.debug("REST request to export the Gradebook of Book : {}", bookId);
+        // Checked before the response starts, so that errors still get a proper status
+        List<GradebookService.GradebookUnit> units = gradebookService.findUnitsOfOwnBook(bookId);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            // Byte order mark, so that spreadsheets detect UTF-8
+            writer.write('\uFEFF');
+            gradebookService.writeCsv(bookId, units, writer);
+        };
+        return ResponseEntity.ok()
+            .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+            .header(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("gradebook-book-" + bookId + ".csv").build().toString()
+            )
+            .body(body);
+    }
 }
@@ -5,9 +5,11 @@ import static com.langleague.app.security.SecurityUtils.JWT_ALGORITHM;
 import static com.langleague.app.security.SecurityUtils.USER_ID_CLAIM;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.langleague.app.security.AuthenticationThrottle;
 import com.langleague.app.security.DomainUserDetailsService.UserWithId;
 import com.langleague.app.service.CaptchaService;
 import com.langleague.app.web.rest.vm.LoginVM;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.security.Principal;
 import java.time.Instant;
@@ -52,18 +54,33 @@ public class AuthenticateController {
 
     private final CaptchaService captchaService;
 
+    private final AuthenticationThrottle authenticationThrottle;
+
     public AuthenticateController(
         JwtEncoder jwtEncoder,
         AuthenticationManagerBuilder authenticationManagerBuilder,
-        CaptchaService captchaService
+        CaptchaService captchaService,
+        AuthenticationThrottle authenticationThrottle
     ) {
         this.jwtEncoder = jwtEncoder;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
         this.captchaService = captchaService;
+        this.authenticationThrottle = authenticationThrottle;
     }
 
+    /**
+     * {@code POST /authenticate} : authenticate a user and issue a JWT.
+     *
+     * @param loginVM the credentials and captcha answer.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the token,
+     * or with status {@code 401 (Unauthorized)} if the captcha or the credentials are wrong,
+     * or with status {@code 429 (Too Many Requests)} and a {@code Retry-After} header if the attempt is throttled.
+     */
     @PostMapping("/authenticate")
-    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
+    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM, HttpServletRequest request) {
+        // Behind the load balancer, the address comes from X-Forwarded-For (see server.forward-headers-strategy)
+        authenticationThrottle.checkRate(loginVM.getUsername(), request.getRemoteAddr());
+
         // Verify Captcha
         if (!captchaService.verifyCaptcha(loginVM.getCaptchaId(), loginVM.getCaptchaAnswer())) {
             throw new BadCredentialsException("Invalid Captcha");
@@ -74,7 +91,10 @@ public class AuthenticateController {
             loginVM.getPassword()
         );
 
-        Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
+        // The password check waits for a free slot, then runs on this thread, in its transaction
+        Authentication authentication = authenticationThrottle.authenticate(() ->
+            authenticationManagerBuilder.getObject().authenticate(authenticationToken)
+        );
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = this.createToken(authentication, loginVM.isRememberMe());
         HttpHeaders httpHeaders = new HttpHeaders();
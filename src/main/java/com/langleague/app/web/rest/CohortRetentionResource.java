@@ -0,0 +1,58 @@
+package com.langleague.app.web.rest;
+
+import com.langleague.app.security.AuthoritiesConstants;
+import com.langleague.app.service.CohortRetentionService;
+import com.langleague.app.service.dto.CohortRetentionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the weekly cohort retention of students.
+ */
+@RestController
+@RequestMapping("/api/admin/retention")
+public class CohortRetentionResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CohortRetentionResource.class);
+
+    private final CohortRetentionService cohortRetentionService;
+
+    public CohortRetentionResource(CohortRetentionService cohortRetentionService) {
+        this.cohortRetentionService = cohortRetentionService;
+    }
+
+    /**
+     * {@code GET  /admin/retention} : get the retention triangle computed by the last run of the retention job.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the cohorts in body.
+     */
+    @GetMapping("")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<CohortRetentionDTO> getRetention() {
+        LOG.debug("REST request to get the cohort retention");
+        return ResponseEntity.ok(cohortRetentionService.getRetention());
+    }
+
+    /**
+     * {@code POST  /admin/retention/refresh} : start computing the retention triangle in the background.
+     *
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)}, or with status {@code 409 (Conflict)} if a
+     * computation is already running.
+     */
+    @PostMapping("/refresh")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> refreshRetention() {
+        LOG.debug("REST request to refresh the cohort retention");
+        if (!cohortRetentionService.refreshInBackground()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -1,11 +1,23 @@
 package com.langleague.app.web.rest;
 
+import com.langleague.app.service.ChunkedUploadService;
 import com.langleague.app.service.FileStorageService;
 import com.langleague.app.service.dto.UploadResponseDTO;
+import com.langleague.app.service.dto.UploadSessionDTO;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -19,14 +31,77 @@ public class FileUploadResource {
 
     private final FileStorageService fileStorageService;
 
-    public FileUploadResource(FileStorageService fileStorageService) {
+    private final ChunkedUploadService chunkedUploadService;
+
+    public FileUploadResource(FileStorageService fileStorageService, ChunkedUploadService chunkedUploadService) {
         this.fileStorageService = fileStorageService;
+        this.chunkedUploadService = chunkedUploadService;
     }
 
     @PostMapping("/image")
     public ResponseEntity<UploadResponseDTO> uploadImage(@RequestParam("file") MultipartFile file) {
         LOG.debug("REST request to upload image");
-        String fileUrl = fileStorageService.storeFile(file);
-        return ResponseEntity.ok(new UploadResponseDTO(fileUrl));
+        return ResponseEntity.ok(fileStorageService.storeImage(file));
+    }
+
+    /**
+     * {@code POST  /upload/sessions} : Start a resumable chunked upload.
+     *
+     * @param request the file name, size, content type and optional SHA-256 digest of the file.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the upload session.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/sessions")
+    public ResponseEntity<UploadSessionDTO> createUploadSession(@Valid @RequestBody UploadSessionDTO request) throws URISyntaxException {
+        LOG.debug("REST request to create upload session : {}", request);
+        UploadSessionDTO session = chunkedUploadService.create(request);
+        return ResponseEntity.created(new URI("/api/upload/sessions/" + session.getUploadId())).body(session);
+    }
+
+    /**
+     * {@code PUT  /upload/sessions/:uploadId} : Append a chunk, sent as the raw request body, at the given offset.
+     *
+     * @param uploadId the id of the upload.
+     * @param offset the offset of the chunk, which must be the number of bytes already received.
+     * @param chunk the chunk content.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the upload session,
+     * or with status {@code 400 (Bad Request)} if the offset is not the expected one.
+     * @throws IOException if the chunk cannot be read or written.
+     */
+    @PutMapping(value = "/sessions/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<UploadSessionDTO> appendUploadChunk(
+        @PathVariable("uploadId") String uploadId,
+        @RequestParam("offset") long offset,
+        InputStream chunk
+    ) throws IOException {
+        LOG.debug("REST request to append chunk to upload {} at offset {}", uploadId, offset);
+        return ResponseEntity.ok(chunkedUploadService.append(uploadId, offset, chunk));
+    }
+
+    /**
+     * {@code GET  /upload/sessions/:uploadId} : Get the status of an upload, to know where to resume.
+     *
+     * @param uploadId the id of the upload.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the upload session.
+     * @throws IOException if the partial file cannot be read.
+     */
+    @GetMapping("/sessions/{uploadId}")
+    public ResponseEntity<UploadSessionDTO> getUploadSession(@PathVariable("uploadId") String uploadId) throws IOException {
+        LOG.debug("REST request to get upload session : {}", uploadId);
+        return ResponseEntity.ok(chunkedUploadService.status(uploadId));
+    }
+
+    /**
+     * {@code POST  /upload/sessions/:uploadId/complete} : Verify and store a fully received upload.
+     *
+     * @param uploadId the id of the upload.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the URL of the stored file,
+     * or with status {@code 400 (Bad Request)} if the upload is incomplete or does not match its checksum.
+     * @throws IOException if the partial file cannot be read.
+     */
+    @PostMapping("/sessions/{uploadId}/complete")
+    public ResponseEntity<UploadResponseDTO> completeUploadSession(@PathVariable("uploadId") String uploadId) throws IOException {
+        LOG.debug("REST request to complete upload session : {}", uploadId);
+        return ResponseEntity.ok(chunkedUploadService.complete(uploadId));
     }
 }
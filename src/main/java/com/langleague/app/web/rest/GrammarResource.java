@@ -1,5 +1,6 @@
 package com.langleague.app.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.langleague.app.domain.Book;
 import com.langleague.app.domain.Grammar;
 import com.langleague.app.domain.Unit;
@@ -10,6 +11,7 @@ import com.langleague.app.security.SecurityUtils;
 import com.langleague.app.service.GrammarService;
 import com.langleague.app.service.dto.GrammarDTO;
 import com.langleague.app.web.rest.errors.BadRequestAlertException;
+import com.langleague.app.web.rest.util.StreamingResponseUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -28,6 +30,7 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -54,10 +57,18 @@ public class GrammarResource {
 
     private final UnitRepository unitRepository;
 
-    public GrammarResource(GrammarService grammarService, GrammarRepository grammarRepository, UnitRepository unitRepository) {
+    private final ObjectMapper objectMapper;
+
+    public GrammarResource(
+        GrammarService grammarService,
+        GrammarRepository grammarRepository,
+        UnitRepository unitRepository,
+        ObjectMapper objectMapper
+    ) {
         this.grammarService = grammarService;
         this.grammarRepository = grammarRepository;
         this.unitRepository = unitRepository;
+        this.objectMapper = objectMapper;
     }
 
     private void checkUnitOwnership(Long unitId) {
@@ -216,13 +227,15 @@ public class GrammarResource {
      * {@code GET  /grammars/by-unit/:unitId} : get all the grammars by unitId.
      * Students and Teachers can view grammars.
      *
+     * The list is streamed to the client as it is read from the database.
+     *
      * @param unitId the id of the unit.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of grammars in body.
      */
     @GetMapping("/by-unit/{unitId}")
-    public List<GrammarDTO> getAllGrammarsByUnit(@PathVariable Long unitId) {
+    public ResponseEntity<StreamingResponseBody> getAllGrammarsByUnit(@PathVariable Long unitId) {
         LOG.debug("REST request to get all Grammars by unitId : {}", unitId);
-        return grammarService.findAllByUnitId(unitId);
+        return StreamingResponseUtil.jsonArray(objectMapper, sink -> grammarService.streamAllByUnitId(unitId, sink));
     }
 
     /**
@@ -2,8 +2,11 @@ package com.langleague.app.web.rest;
 
 import com.langleague.app.repository.NoteRepository;
 import com.langleague.app.security.AuthoritiesConstants;
+import com.langleague.app.service.NoteAutosaveService;
 import com.langleague.app.service.NoteService;
+import com.langleague.app.service.dto.NoteAutosaveDTO;
 import com.langleague.app.service.dto.NoteDTO;
+import com.langleague.app.service.dto.NoteSearchResultDTO;
 import com.langleague.app.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -18,6 +21,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -46,9 +50,12 @@ public class NoteResource {
 
     private final NoteRepository noteRepository;
 
-    public NoteResource(NoteService noteService, NoteRepository noteRepository) {
+    private final NoteAutosaveService noteAutosaveService;
+
+    public NoteResource(NoteService noteService, NoteRepository noteRepository, NoteAutosaveService noteAutosaveService) {
         this.noteService = noteService;
         this.noteRepository = noteRepository;
+        this.noteAutosaveService = noteAutosaveService;
     }
 
     /**
@@ -72,6 +79,22 @@ public class NoteResource {
             .body(noteDTO);
     }
 
+    /**
+     * {@code PUT  /notes/autosave} : Autosave the current user's note for a unit.
+     * Rapid saves are coalesced and only the latest content is written, guarded by the version sent by the client.
+     *
+     * @param autosave the unit, content and the version the client last received.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} while the save is pending, or {@code 200 (OK)} once the note is
+     * created, and with body the note id and its version once saved, or with status {@code 409 (Conflict)} if the note was changed since.
+     */
+    @PutMapping("/autosave")
+    @PreAuthorize("hasAuthority('" + AuthoritiesConstants.STUDENT + "')")
+    public ResponseEntity<NoteAutosaveDTO> autosaveNote(@Valid @RequestBody NoteAutosaveDTO autosave) {
+        LOG.debug("REST request to autosave Note : {}", autosave);
+        NoteAutosaveDTO result = noteAutosaveService.autosave(autosave);
+        return ResponseEntity.status(result.isPending() ? HttpStatus.ACCEPTED : HttpStatus.OK).body(result);
+    }
+
     /**
      * {@code PUT  /notes/:id} : Updates an existing note.
      * Only students can update their own notes.
@@ -165,6 +188,34 @@ public class NoteResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /notes/search} : search the current user's notes, newest first.
+     * Uses keyset pagination: a {@code Link} header with {@code rel="next"} points to the next page while there may be one.
+     *
+     * @param query the words to look for.
+     * @param before the id of the last note of the previous page, if any.
+     * @param size the page size.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the matching notes, with highlighted snippets, in body.
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasAuthority('" + AuthoritiesConstants.STUDENT + "')")
+    public ResponseEntity<List<NoteSearchResultDTO>> searchNotes(
+        @RequestParam("q") String query,
+        @RequestParam(name = "before", required = false) Long before,
+        @RequestParam(name = "size", defaultValue = "20") int size
+    ) {
+        LOG.debug("REST request to search Notes of current user : {}", query);
+        List<NoteSearchResultDTO> results = noteService.searchCurrentUserNotes(query, before, size);
+        HttpHeaders headers = new HttpHeaders();
+        if (!results.isEmpty() && results.size() >= Math.min(size, NoteService.MAX_SEARCH_RESULTS)) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("before", results.get(results.size() - 1).getNoteId())
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).body(results);
+    }
+
     /**
      * {@code GET  /notes/:id} : get the "id" note.
      * Students can only view their own notes.
@@ -211,6 +262,20 @@ public class NoteResource {
         return ResponseEntity.ok(hasNote);
     }
 
+    /**
+     * {@code GET  /notes/check-book/:bookId} : Get the ids of the units of a book for which the current user has a note.
+     * Replaces one {@code check-unit} call per unit when listing the units of a book.
+     *
+     * @param bookId the book id.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the unit ids in body.
+     */
+    @GetMapping("/check-book/{bookId}")
+    @PreAuthorize("hasAuthority('" + AuthoritiesConstants.STUDENT + "')")
+    public ResponseEntity<List<Long>> getUnitIdsWithNoteForBook(@PathVariable("bookId") Long bookId) {
+        LOG.debug("REST request to get units with a note of current user for book : {}", bookId);
+        return ResponseEntity.ok(noteService.findUnitIdsWithNoteByCurrentUserAndBook(bookId));
+    }
+
     /**
      * {@code GET  /notes/by-unit/:unitId} : Get the note for current user and unit.
      *
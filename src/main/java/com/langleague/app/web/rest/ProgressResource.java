@@ -1,10 +1,12 @@
 package com.langleague.app.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.langleague.app.repository.ProgressRepository;
 import com.langleague.app.security.AuthoritiesConstants;
 import com.langleague.app.service.ProgressService;
 import com.langleague.app.service.dto.ProgressDTO;
 import com.langleague.app.web.rest.errors.BadRequestAlertException;
+import com.langleague.app.web.rest.util.StreamingResponseUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -19,6 +21,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -40,9 +43,12 @@ public class ProgressResource {
 
     private final ProgressRepository progressRepository;
 
-    public ProgressResource(ProgressService progressService, ProgressRepository progressRepository) {
+    private final ObjectMapper objectMapper;
+
+    public ProgressResource(ProgressService progressService, ProgressRepository progressRepository, ObjectMapper objectMapper) {
         this.progressService = progressService;
         this.progressRepository = progressRepository;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -182,13 +188,15 @@ public class ProgressResource {
      * {@code GET  /progresses/user/:userProfileId} : get all progresses for a specific user.
      * Only students can view their own progress. Teacher không có quyền truy cập progress.
      *
+     * The list is streamed to the client as it is read from the database.
+     *
      * @param userProfileId the id of the user profile.
      * @return the list of progresses.
      */
     @GetMapping("/user/{userProfileId}")
     @PreAuthorize("hasAuthority('" + AuthoritiesConstants.STUDENT + "')")
-    public List<ProgressDTO> getProgressesByUser(@PathVariable Long userProfileId) {
-        return progressService.findAllByUserProfileId(userProfileId);
+    public ResponseEntity<StreamingResponseBody> getProgressesByUser(@PathVariable Long userProfileId) {
+        return StreamingResponseUtil.jsonArray(objectMapper, sink -> progressService.streamAllByUserProfileId(userProfileId, sink));
     }
 
     /**
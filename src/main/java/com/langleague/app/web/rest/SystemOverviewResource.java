@@ -0,0 +1,41 @@
+package com.langleague.app.web.rest;
+
+import com.langleague.app.security.AuthoritiesConstants;
+import com.langleague.app.service.SystemOverviewService;
+import com.langleague.app.service.dto.SystemOverviewDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the admin system overview.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class SystemOverviewResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SystemOverviewResource.class);
+
+    private final SystemOverviewService systemOverviewService;
+
+    public SystemOverviewResource(SystemOverviewService systemOverviewService) {
+        this.systemOverviewService = systemOverviewService;
+    }
+
+    /**
+     * {@code GET  /admin/system-overview} : get the platform-wide counts of the admin dashboard.
+     * The counts come from a periodically refreshed snapshot, whose age is part of the response.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the overview in body.
+     */
+    @GetMapping("/system-overview")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<SystemOverviewDTO> getSystemOverview() {
+        LOG.debug("REST request to get the system overview");
+        return ResponseEntity.ok(systemOverviewService.getOverview());
+    }
+}
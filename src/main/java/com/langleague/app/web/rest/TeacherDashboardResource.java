@@ -1,15 +1,13 @@
 package com.langleague.app.web.rest;
 
-import com.langleague.app.repository.BookRepository;
-import com.langleague.app.repository.EnrollmentRepository;
 import com.langleague.app.security.AuthoritiesConstants;
-import com.langleague.app.security.SecurityUtils;
+import com.langleague.app.service.AnalyticsService;
+import com.langleague.app.service.dto.TeacherDashboardDTO;
 import java.util.HashMap;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -24,12 +22,10 @@ public class TeacherDashboardResource {
 
     private static final Logger LOG = LoggerFactory.getLogger(TeacherDashboardResource.class);
 
-    private final BookRepository bookRepository;
-    private final EnrollmentRepository enrollmentRepository;
+    private final AnalyticsService analyticsService;
 
-    public TeacherDashboardResource(BookRepository bookRepository, EnrollmentRepository enrollmentRepository) {
-        this.bookRepository = bookRepository;
-        this.enrollmentRepository = enrollmentRepository;
+    public TeacherDashboardResource(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
     }
 
     /**
@@ -41,18 +37,12 @@ public class TeacherDashboardResource {
     @PreAuthorize("hasAuthority('" + AuthoritiesConstants.TEACHER + "')")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
         LOG.debug("REST request to get Teacher Dashboard Stats");
-        String currentUserLogin = SecurityUtils.getCurrentUserLogin().orElseThrow(() -> new AccessDeniedException("User not logged in"));
-
-        // Count books owned by current teacher
-        long totalCourses = bookRepository.countByTeacherProfileUserLogin(currentUserLogin);
-
-        // Count total students enrolled in teacher's books
-        // Note: This requires a custom query in EnrollmentRepository
-        long totalStudents = enrollmentRepository.countByBookTeacherProfileUserLogin(currentUserLogin);
+        TeacherDashboardDTO dashboard = analyticsService.getTeacherDashboardStats();
 
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalCourses", totalCourses);
-        stats.put("totalStudents", totalStudents);
+        stats.put("totalCourses", dashboard.getTotalBooks());
+        // Counts enrollments: a student enrolled in two books counts twice
+        stats.put("totalStudents", dashboard.getTotalEnrollments());
         stats.put("pendingAssignments", 0); // Placeholder
         stats.put("averageRating", 0.0); // Placeholder
 
@@ -4,7 +4,6 @@ import com.langleague.app.config.Constants;
 import com.langleague.app.domain.User;
 import com.langleague.app.repository.UserRepository;
 import com.langleague.app.security.AuthoritiesConstants;
-import com.langleague.app.service.MailService;
 import com.langleague.app.service.UserService;
 import com.langleague.app.service.dto.AdminUserDTO;
 import com.langleague.app.web.rest.errors.BadRequestAlertException;
@@ -84,12 +83,9 @@ public class UserResource {
 
     private final UserRepository userRepository;
 
-    private final MailService mailService;
-
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    public UserResource(UserService userService, UserRepository userRepository) {
         this.userService = userService;
         this.userRepository = userRepository;
-        this.mailService = mailService;
     }
 
     /**
@@ -118,7 +114,6 @@ public class UserResource {
             throw new EmailAlreadyUsedException();
         } else {
             User newUser = userService.createUser(userDTO);
-            mailService.sendCreationEmail(newUser);
             return ResponseEntity.created(new URI("/api/admin/users/" + newUser.getLogin()))
                 .headers(HeaderUtil.createAlert(applicationName, "userManagement.created", newUser.getLogin()))
                 .body(newUser);
@@ -158,8 +153,15 @@ public class UserResource {
 
     /**
      * {@code GET /admin/users} : get all users with all the details - calling this are only allowed for the administrators.
+     * <p>
+     * With {@code after}, uses keyset pagination by increasing id instead of pages: a {@code Link} header with
+     * {@code rel="next"} points to the next page while there may be one.
      *
      * @param pageable the pagination information.
+     * @param login text to look for in the login, email, first and last name.
+     * @param role the authority users must have.
+     * @param status {@code active} or {@code inactive}.
+     * @param after the id of the last user of the previous page, for keyset pagination.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users.
      */
     @GetMapping("/users")
@@ -168,7 +170,8 @@ public class UserResource {
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
         @RequestParam(name = "login", required = false) String login,
         @RequestParam(name = "role", required = false) String role,
-        @RequestParam(name = "status", required = false) String status
+        @RequestParam(name = "status", required = false) String status,
+        @RequestParam(name = "after", required = false) Long after
     ) {
         LOG.debug("REST request to get all User for an admin");
         if (!onlyContainsAllowedProperties(pageable)) {
@@ -186,6 +189,21 @@ public class UserResource {
             role = null;
         }
 
+        if (after != null) {
+            final Page<AdminUserDTO> page = userService.getManagedUsersAfter(login, role, activated, after, pageable.getPageSize());
+            HttpHeaders headers = new HttpHeaders();
+            headers.add("X-Total-Count", Long.toString(page.getTotalElements()));
+            List<AdminUserDTO> users = page.getContent();
+            if (!users.isEmpty() && users.size() >= pageable.getPageSize()) {
+                String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", users.get(users.size() - 1).getId())
+                    .replaceQueryParam("page")
+                    .toUriString();
+                headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            }
+            return new ResponseEntity<>(users, headers, HttpStatus.OK);
+        }
+
         final Page<AdminUserDTO> page = userService.getAllManagedUsers(login, role, activated, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
@@ -1,5 +1,6 @@
 package com.langleague.app.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.langleague.app.domain.Book;
 import com.langleague.app.domain.Unit;
 import com.langleague.app.domain.Vocabulary;
@@ -7,12 +8,19 @@ import com.langleague.app.repository.UnitRepository;
 import com.langleague.app.repository.VocabularyRepository;
 import com.langleague.app.security.AuthoritiesConstants;
 import com.langleague.app.security.SecurityUtils;
+import com.langleague.app.service.VocabularyGameService;
+import com.langleague.app.service.VocabularyImportService;
 import com.langleague.app.service.VocabularyService;
+import com.langleague.app.service.dto.GameRoundDTO;
 import com.langleague.app.service.dto.GameVocabularyDTO;
 import com.langleague.app.service.dto.VocabularyDTO;
+import com.langleague.app.service.dto.VocabularyImportResultDTO;
 import com.langleague.app.web.rest.errors.BadRequestAlertException;
+import com.langleague.app.web.rest.util.StreamingResponseUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -28,6 +36,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -45,6 +55,11 @@ public class VocabularyResource {
 
     private static final String ENTITY_NAME = "vocabulary";
 
+    /**
+     * Maximum number of unit IDs accepted by a single {@code /by-units} call.
+     */
+    public static final int MAX_UNIT_IDS_PER_REQUEST = 100;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -54,14 +69,26 @@ public class VocabularyResource {
 
     private final UnitRepository unitRepository;
 
+    private final VocabularyGameService vocabularyGameService;
+
+    private final VocabularyImportService vocabularyImportService;
+
+    private final ObjectMapper objectMapper;
+
     public VocabularyResource(
         VocabularyService vocabularyService,
         VocabularyRepository vocabularyRepository,
-        UnitRepository unitRepository
+        UnitRepository unitRepository,
+        VocabularyGameService vocabularyGameService,
+        VocabularyImportService vocabularyImportService,
+        ObjectMapper objectMapper
     ) {
         this.vocabularyService = vocabularyService;
         this.vocabularyRepository = vocabularyRepository;
         this.unitRepository = unitRepository;
+        this.vocabularyGameService = vocabularyGameService;
+        this.vocabularyImportService = vocabularyImportService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -119,6 +146,40 @@ public class VocabularyResource {
         return ResponseEntity.ok().headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, "bulk")).body(result);
     }
 
+    /**
+     * {@code POST  /vocabularies/import/unit/:unitId} : Import vocabularies from a CSV or TSV file, appended to the unit.
+     * <p>
+     * The file is parsed and inserted incrementally; invalid rows are skipped and reported with their line number.
+     *
+     * @param unitId the id of the unit to import into.
+     * @param file the CSV / TSV file, with columns {@code word, meaning, phonetic, example, imageUrl} or a header naming them.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the import report.
+     * @throws IOException if the file cannot be read.
+     */
+    @PostMapping("/import/unit/{unitId}")
+    @PreAuthorize("hasAuthority('" + AuthoritiesConstants.TEACHER + "')")
+    public ResponseEntity<VocabularyImportResultDTO> importVocabularies(
+        @PathVariable("unitId") Long unitId,
+        @RequestParam("file") MultipartFile file
+    ) throws IOException {
+        LOG.debug("REST request to import Vocabularies into Unit : {}", unitId);
+        if (file.isEmpty()) {
+            throw new BadRequestAlertException("Import file is empty", ENTITY_NAME, "fileempty");
+        }
+        Unit unit = unitRepository
+            .findById(unitId)
+            .orElseThrow(() -> new BadRequestAlertException("Unit not found", ENTITY_NAME, "unitnotfound"));
+        SecurityUtils.checkOwnership(unit.getBook());
+
+        VocabularyImportResultDTO result;
+        try (InputStream input = file.getInputStream()) {
+            result = vocabularyImportService.importVocabularies(unitId, input);
+        }
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, String.valueOf(result.getImported())))
+            .body(result);
+    }
+
     /**
      * {@code PUT  /vocabularies/:id} : Updates an existing vocabulary.
      *
@@ -292,19 +353,64 @@ public class VocabularyResource {
      *
      * This endpoint returns only essential vocabulary fields needed for game play,
      * avoiding heavy entity relationships and improving performance.
+     * The list is streamed to the client as rows are read from the database, and at most
+     * {@link #MAX_UNIT_IDS_PER_REQUEST} unit IDs are accepted per call.
      *
      * @param unitIds the list of unit IDs to fetch vocabularies from
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of game vocabularies in body
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of game vocabularies in body,
+     * or with status {@code 400 (Bad Request)} if too many unit IDs are requested
      */
     @PostMapping("/by-units")
-    public ResponseEntity<List<GameVocabularyDTO>> getGameVocabulariesByUnits(@RequestBody List<Long> unitIds) {
+    public ResponseEntity<StreamingResponseBody> getGameVocabulariesByUnits(@RequestBody List<Long> unitIds) {
         LOG.debug("REST request to get game vocabularies for units : {}", unitIds);
 
         if (unitIds == null || unitIds.isEmpty()) {
-            return ResponseEntity.ok(List.of());
+            return StreamingResponseUtil.jsonArray(objectMapper, sink -> {});
+        }
+        if (unitIds.size() > MAX_UNIT_IDS_PER_REQUEST) {
+            throw new BadRequestAlertException(
+                "At most " + MAX_UNIT_IDS_PER_REQUEST + " units can be requested at once",
+                ENTITY_NAME,
+                "toomanyunits"
+            );
         }
 
-        List<GameVocabularyDTO> gameVocabularies = vocabularyService.getGameVocabulariesByUnits(unitIds);
-        return ResponseEntity.ok().body(gameVocabularies);
+        List<Long> distinctUnitIds = unitIds.stream().distinct().toList();
+        return StreamingResponseUtil.jsonArray(objectMapper, sink ->
+            vocabularyService.streamGameVocabulariesByUnits(distinctUnitIds, sink)
+        );
+    }
+
+    /**
+     * {@code GET  /vocabularies/game-rounds/by-book/:bookId} : get ready-made multiple-choice rounds for a book.
+     *
+     * Each round carries the target word and {@code choices - 1} distractor meanings drawn from the same book,
+     * so the client no longer needs to download every word of the selected units.
+     *
+     * @param bookId the book to draw words and distractors from
+     * @param unitIds optional list of unit IDs restricting the target words
+     * @param rounds the number of rounds to generate
+     * @param choices the number of options per round, correct answer included
+     * @param similar whether to prefer distractors that look like the correct meaning
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of game rounds in body
+     */
+    @GetMapping("/game-rounds/by-book/{bookId}")
+    public ResponseEntity<List<GameRoundDTO>> getGameRounds(
+        @PathVariable("bookId") Long bookId,
+        @RequestParam(name = "unitIds", required = false) List<Long> unitIds,
+        @RequestParam(name = "rounds", defaultValue = "10") int rounds,
+        @RequestParam(name = "choices", defaultValue = "4") int choices,
+        @RequestParam(name = "similar", defaultValue = "false") boolean similar
+    ) {
+        LOG.debug("REST request to get {} game rounds for book : {}, units : {}", rounds, bookId, unitIds);
+        if (rounds < 1) {
+            throw new BadRequestAlertException("At least one round must be requested", ENTITY_NAME, "roundsinvalid");
+        }
+        if (choices < VocabularyGameService.MIN_CHOICES || choices > VocabularyGameService.MAX_CHOICES) {
+            throw new BadRequestAlertException("Invalid number of choices", ENTITY_NAME, "choicesinvalid");
+        }
+
+        List<GameRoundDTO> gameRounds = vocabularyGameService.generateRounds(bookId, unitIds, rounds, choices, similar);
+        return ResponseEntity.ok().body(gameRounds);
     }
 }
@@ -2,6 +2,7 @@ package com.langleague.app.web.rest.errors;
 
 import static org.springframework.core.annotation.AnnotatedElementUtils.findMergedAnnotation;
 
+import com.langleague.app.security.LoginThrottledException;
 import com.langleague.app.security.UserNotActivatedException;
 import jakarta.servlet.http.HttpServletRequest;
 import java.net.URI;
@@ -220,6 +221,7 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
         if (err instanceof AccessDeniedException) return HttpStatus.FORBIDDEN;
         if (err instanceof ConcurrencyFailureException) return HttpStatus.CONFLICT;
         if (err instanceof UserNotActivatedException) return HttpStatus.UNAUTHORIZED;
+        if (err instanceof LoginThrottledException) return HttpStatus.TOO_MANY_REQUESTS;
         if (err instanceof AuthenticationException) return HttpStatus.UNAUTHORIZED;
         return null;
     }
@@ -230,6 +232,11 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
     }
 
     private HttpHeaders buildHeaders(Throwable err) {
+        if (err instanceof LoginThrottledException loginThrottledException) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(loginThrottledException.getRetryAfterSeconds()));
+            return headers;
+        }
         return err instanceof BadRequestAlertException badRequestAlertException
             ? HeaderUtil.createFailureAlert(
                 applicationName,
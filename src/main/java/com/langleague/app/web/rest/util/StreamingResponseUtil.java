@@ -0,0 +1,64 @@
+package com.langleague.app.web.rest.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Utility class for writing large list responses as a JSON array, element by element,
+ * instead of materializing the whole list and letting Jackson buffer it.
+ */
+public final class StreamingResponseUtil {
+
+    private StreamingResponseUtil() {}
+
+    /**
+     * Source of the elements to write. Implementations push each element to the given sink,
+     * typically from inside a read-only service transaction consuming a repository stream.
+     *
+     * @param <T> the element type.
+     */
+    @FunctionalInterface
+    public interface ElementSource<T> {
+        void forEach(Consumer<? super T> sink);
+    }
+
+    /**
+     * Build a {@code 200 (OK)} response streaming the elements of {@code source} as a JSON array.
+     * <p>
+     * The source is only consumed once the response body is written, outside of the controller method,
+     * so it must open its own transaction.
+     *
+     * @param objectMapper the mapper used to serialize each element.
+     * @param source the element source.
+     * @param <T> the element type.
+     * @return the {@link ResponseEntity} with the streaming body.
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> jsonArray(ObjectMapper objectMapper, ElementSource<T> source) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                // The servlet container owns the response stream
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                try {
+                    source.forEach(element -> {
+                        try {
+                            generator.writeObject(element);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Rest layer utilities.
+ */
+package com.langleague.app.web.rest.util;
@@ -1,10 +1,24 @@
 import axios from 'axios';
-import { createAsyncThunk, createSlice, isFulfilled, isPending, isRejected } from '@reduxjs/toolkit';
+import { createAsyncThunk, createSlice, isPending, isRejected } from '@reduxjs/toolkit';
 import { serializeAxiosError } from 'app/shared/reducers/reducer.utils';
 
+export interface ISystemOverview {
+  computedAt: string;
+  ageSeconds: number;
+  totalUsers: number;
+  activatedUsers: number;
+  usersByAuthority: Record<string, number>;
+  totalBooks: number;
+  totalEnrollments: number;
+  totalProgresses: number;
+  completedProgresses: number;
+  completionRate: number;
+}
+
 const initialState = {
   loading: false,
   errorMessage: null as string | null,
+  totalUsers: 0,
   totalBooks: 0,
   totalEnrollments: 0,
   completionRate: 0,
@@ -14,29 +28,11 @@ export type AdminDashboardState = Readonly<typeof initialState>;
 
 // Actions
 
-export const countAllBooks = createAsyncThunk(
-  'adminDashboard/count_all_books',
-  async () => {
-    const requestUrl = 'api/books/count';
-    return axios.get<number>(requestUrl);
-  },
-  { serializeError: serializeAxiosError },
-);
-
-export const countAllEnrollments = createAsyncThunk(
-  'adminDashboard/count_all_enrollments',
+export const getSystemOverview = createAsyncThunk(
+  'adminDashboard/get_system_overview',
   async () => {
-    const requestUrl = 'api/enrollments/count';
-    return axios.get<number>(requestUrl);
-  },
-  { serializeError: serializeAxiosError },
-);
-
-export const getSystemCompletionRate = createAsyncThunk(
-  'adminDashboard/get_system_completion_rate',
-  async () => {
-    const requestUrl = 'api/progresses/stats/completion-rate';
-    return axios.get<number>(requestUrl);
+    const requestUrl = 'api/admin/system-overview';
+    return axios.get<ISystemOverview>(requestUrl);
   },
   { serializeError: serializeAxiosError },
 );
@@ -51,23 +47,18 @@ export const AdminDashboardSlice = createSlice({
   },
   extraReducers(builder) {
     builder
-      .addCase(countAllBooks.fulfilled, (state, action) => {
-        state.loading = false;
-        state.totalBooks = action.payload.data;
-      })
-      .addCase(countAllEnrollments.fulfilled, (state, action) => {
-        state.loading = false;
-        state.totalEnrollments = action.payload.data;
-      })
-      .addCase(getSystemCompletionRate.fulfilled, (state, action) => {
+      .addCase(getSystemOverview.fulfilled, (state, action) => {
         state.loading = false;
-        state.completionRate = action.payload.data;
+        state.totalUsers = action.payload.data.totalUsers;
+        state.totalBooks = action.payload.data.totalBooks;
+        state.totalEnrollments = action.payload.data.totalEnrollments;
+        state.completionRate = action.payload.data.completionRate;
       })
-      .addMatcher(isPending(countAllBooks, countAllEnrollments, getSystemCompletionRate), state => {
+      .addMatcher(isPending(getSystemOverview), state => {
         state.errorMessage = null;
         state.loading = true;
       })
-      .addMatcher(isRejected(countAllBooks, countAllEnrollments, getSystemCompletionRate), (state, action) => {
+      .addMatcher(isRejected(getSystemOverview), (state, action) => {
         state.loading = false;
         state.errorMessage = action.error.message;
       });
@@ -3,23 +3,16 @@ import { Translate } from 'react-jhipster';
 import { Container, Row, Col, Card, CardBody, Button } from 'reactstrap';
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 import { useAppSelector, useAppDispatch } from 'app/config/store';
-import { getUsersAsAdmin } from 'app/modules/admin/user-management/user-management.reducer';
-import { countAllBooks, countAllEnrollments, getSystemCompletionRate } from './admin-dashboard.reducer';
+import { getSystemOverview } from './admin-dashboard.reducer';
 import '../admin.scss';
 
 export const AdminDashboard = () => {
   const dispatch = useAppDispatch();
-  const { totalItems: totalUsers } = useAppSelector(state => state.userManagement);
-  const { totalBooks, totalEnrollments, completionRate } = useAppSelector(state => state.adminDashboard);
+  const { totalUsers, totalBooks, totalEnrollments, completionRate } = useAppSelector(state => state.adminDashboard);
 
   useEffect(() => {
-    // Load users count (page 0, size 1 just to get total count in header)
-    dispatch(getUsersAsAdmin({ page: 0, size: 1, sort: 'id,asc' }));
-
-    // Load dashboard stats
-    dispatch(countAllBooks());
-    dispatch(countAllEnrollments());
-    dispatch(getSystemCompletionRate());
+    // All dashboard stats come from one server-side snapshot
+    dispatch(getSystemOverview());
   }, [dispatch]);
 
   // Calculate statistics (growth is mocked for now)
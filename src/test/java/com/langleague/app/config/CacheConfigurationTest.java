@@ -0,0 +1,93 @@
+package com.langleague.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.app.domain.Authority;
+import com.langleague.app.domain.Unit;
+import com.langleague.app.domain.Vocabulary;
+import java.net.URI;
+import java.time.Duration;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for the {@link CacheConfiguration} class.
+ */
+class CacheConfigurationTest {
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setup() throws Exception {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getCache().getEhcache().setMaxEntries(100);
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Cache.Region vocabulary = new ApplicationProperties.Cache.Region();
+        vocabulary.setHeapEntries(50L);
+        vocabulary.setOffHeapMb(4L);
+        vocabulary.setTimeToLive(Duration.ofHours(6));
+        applicationProperties.getCache().getRegions().put("Vocabulary", vocabulary);
+
+        cacheManager = new EhcacheCachingProvider().getCacheManager(new URI("cache-configuration-test"), getClass().getClassLoader());
+        new CacheConfiguration(jHipsterProperties, applicationProperties).cacheManagerCustomizer().customize(cacheManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void shouldSizeConfiguredRegions() {
+        ResourcePools resourcePools = resourcePools(Vocabulary.class.getName());
+
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(50);
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.OFFHEAP).getSize()).isEqualTo(4);
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.OFFHEAP).getUnit()).isEqualTo(MemoryUnit.MB);
+    }
+
+    @Test
+    void shouldUseDefaultsForOtherRegions() {
+        ResourcePools resourcePools = resourcePools(Authority.class.getName());
+
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(100);
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.HEAP).getUnit()).isEqualTo(EntryUnit.ENTRIES);
+        assertThat(resourcePools.getResourceTypeSet()).doesNotContain(ResourceType.Core.OFFHEAP);
+    }
+
+    @Test
+    void shouldKeepEntriesBeyondHeapOffHeap() {
+        Cache<Object, Object> cache = cacheManager.getCache(Vocabulary.class.getName());
+        for (long id = 0; id < 200; id++) {
+            cache.put(id, "word " + id);
+        }
+
+        for (long id = 0; id < 200; id++) {
+            assertThat(cache.get(id)).isEqualTo("word " + id);
+        }
+    }
+
+    @Test
+    void shouldNameEntityRegionsRelativeToDomainPackage() {
+        assertThat(CacheConfiguration.regionName(Unit.class.getName() + ".vocabularies")).isEqualTo("Unit.vocabularies");
+        assertThat(CacheConfiguration.regionName("usersByLogin")).isEqualTo("usersByLogin");
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResourcePools resourcePools(String cacheName) {
+        Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+        return cache.getConfiguration(Eh107Configuration.class).unwrap(CacheRuntimeConfiguration.class).getResourcePools();
+    }
+}
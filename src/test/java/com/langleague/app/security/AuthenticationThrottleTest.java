@@ -0,0 +1,128 @@
+package com.langleague.app.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.langleague.app.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Unit tests for {@link AuthenticationThrottle} and its {@link TokenBuckets}.
+ */
+class AuthenticationThrottleTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AuthenticationThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.LoginThrottle properties = applicationProperties.getLoginThrottle();
+        properties.setThreads(1);
+        properties.setQueueCapacity(1);
+        properties.setQueueTimeout(Duration.ofSeconds(1));
+        properties.setLoginBurst(3);
+        properties.setIpBurst(5);
+        meterRegistry = new SimpleMeterRegistry();
+        throttle = new AuthenticationThrottle(applicationProperties, meterRegistry);
+    }
+
+    @Test
+    void shouldRefillBucketsOverTime() {
+        TokenBuckets buckets = new TokenBuckets(2, 60, 100);
+        long second = TimeUnit.SECONDS.toNanos(1);
+
+        assertThat(buckets.tryAcquire("a", 0)).isZero();
+        assertThat(buckets.tryAcquire("a", 0)).isZero();
+        assertThat(buckets.tryAcquire("a", 0)).isEqualTo(second);
+        assertThat(buckets.tryAcquire("b", 0)).isZero();
+        assertThat(buckets.tryAcquire("a", second / 2)).isEqualTo(second / 2);
+        assertThat(buckets.tryAcquire("a", second)).isZero();
+        assertThat(buckets.tryAcquire("a", 10 * second)).isZero();
+        assertThat(buckets.tryAcquire("a", 10 * second)).isZero();
+        assertThat(buckets.tryAcquire("a", 10 * second)).isPositive();
+    }
+
+    @Test
+    void shouldLimitAttemptsPerLoginIgnoringCase() {
+        throttle.checkRate("student", "10.0.0.1");
+        throttle.checkRate("Student", "10.0.0.2");
+        throttle.checkRate("STUDENT", "10.0.0.3");
+
+        assertThatThrownBy(() -> throttle.checkRate("student", "10.0.0.4"))
+            .isInstanceOfSatisfying(LoginThrottledException.class, e -> assertThat(e.getRetryAfterSeconds()).isPositive());
+        throttle.checkRate("teacher", "10.0.0.4");
+        assertThat(meterRegistry.get(AuthenticationThrottle.REJECTED_COUNTER).tag("reason", "login").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLimitAttemptsPerAddress() {
+        for (int i = 0; i < 5; i++) {
+            throttle.checkRate("student" + i, "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> throttle.checkRate("other", "10.0.0.1")).isInstanceOf(LoginThrottledException.class);
+        assertThat(meterRegistry.get(AuthenticationThrottle.REJECTED_COUNTER).tag("reason", "ip").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRunChecksOnCallingThreadAndPropagateFailures() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("student", "secret"));
+        try {
+            assertThat(throttle.authenticate(Thread::currentThread)).isSameAs(Thread.currentThread());
+            assertThat(throttle.authenticate(() -> SecurityContextHolder.getContext().getAuthentication().getName())).isEqualTo("student");
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        assertThatThrownBy(() ->
+            throttle.authenticate(() -> {
+                throw new BadCredentialsException("Bad credentials");
+            })
+        ).isInstanceOf(BadCredentialsException.class);
+        assertThat(meterRegistry.get(AuthenticationThrottle.QUEUE_WAIT_TIMER).timer().count()).isEqualTo(3);
+        assertThat(throttle.authenticate(() -> true)).isTrue();
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFullOrTooSlow() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Object> running = CompletableFuture.supplyAsync(() ->
+            throttle.authenticate(() -> {
+                started.countDown();
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            })
+        );
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> throttle.authenticate(() -> true));
+        while (throttle.queueDepth() == 0 && !queued.isDone()) {
+            Thread.sleep(5);
+        }
+
+        assertThat(meterRegistry.get(AuthenticationThrottle.QUEUE_DEPTH_GAUGE).gauge().value()).isEqualTo(1);
+        assertThatThrownBy(() -> throttle.authenticate(() -> true)).isInstanceOf(LoginThrottledException.class);
+        assertThat(meterRegistry.get(AuthenticationThrottle.REJECTED_COUNTER).tag("reason", "queue-full").counter().count()).isEqualTo(1);
+
+        // The queued attempt gives up and leaves the queue, the running one is not interrupted
+        assertThat(queued).failsWithin(5, TimeUnit.SECONDS);
+        assertThat(throttle.queueDepth()).isZero();
+        assertThat(meterRegistry.get(AuthenticationThrottle.REJECTED_COUNTER).tag("reason", "timeout").counter().count()).isEqualTo(1);
+        release.countDown();
+        assertThat(running).succeedsWithin(5, TimeUnit.SECONDS).isEqualTo(true);
+        assertThat(throttle.authenticate(() -> true)).isTrue();
+    }
+}
@@ -0,0 +1,133 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.langleague.app.repository.TeacherStatsRepository;
+import com.langleague.app.repository.UserProfileRepository;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit tests for the in-memory buckets of {@link ActivityRollupService}.
+ */
+class ActivityRollupServiceTest {
+
+    private static final Instant HOUR = Instant.parse("2026-10-19T09:00:00Z");
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ActivityRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.query(startsWith("SELECT learner_ids"), any(RowMapper.class), any(Object[].class))).thenReturn(
+            List.of(LearnerIdSets.encode(new long[] { 1L }))
+        );
+        service = new ActivityRollupService(
+            jdbcTemplate,
+            mock(PlatformTransactionManager.class),
+            mock(TeacherStatsRepository.class),
+            mock(UserProfileRepository.class)
+        );
+    }
+
+    @Test
+    void shouldMergeHourBucketIntoExistingRow() {
+        service.recordAccess(10L, 2L, HOUR.plusSeconds(60));
+        service.recordAccess(10L, 2L, HOUR.plusSeconds(660));
+        service.recordAccess(10L, 3L, HOUR.plusSeconds(1200));
+        service.recordCompletion(10L, 3L, HOUR.plusSeconds(1800));
+
+        service.flush();
+
+        Object[] update = captureUpdate();
+        // access_count, completion_count, study_seconds, learner_count, learner_ids, book_id, granularity, bucket_start
+        assertThat(update[0]).isEqualTo(3L);
+        assertThat(update[1]).isEqualTo(1L);
+        assertThat(update[2]).isEqualTo(600L);
+        assertThat(update[3]).isEqualTo(3);
+        assertThat(LearnerIdSets.decode((byte[]) update[4])).containsExactly(1L, 2L, 3L);
+        assertThat(update[5]).isEqualTo(10L);
+        assertThat(update[6]).isEqualTo(ActivityRollupService.HOUR);
+        assertThat(update[7]).isEqualTo(Timestamp.from(HOUR));
+    }
+
+    @Test
+    void shouldNotCountLongGapsAsStudyTime() {
+        service.recordAccess(10L, 2L, HOUR);
+        service.recordAccess(10L, 2L, HOUR.plus(ActivityRollupService.SESSION_GAP).plusSeconds(1));
+
+        service.flush();
+
+        Object[] update = captureUpdate();
+        assertThat(update[0]).isEqualTo(2L);
+        assertThat(update[2]).isEqualTo(0L);
+    }
+
+    @Test
+    void shouldCountActivityOnlyOnceTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.recordCompletion(10L, 2L);
+            service.recordCompletion(10L, 3L);
+            service.flush();
+            verify(jdbcTemplate, never()).update(startsWith("UPDATE activity_rollup"), any(Object[].class));
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.get(0).afterCommit();
+            synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        service.flush();
+
+        Object[] update = captureUpdate();
+        assertThat(update[1]).isEqualTo(1L);
+        assertThat(LearnerIdSets.decode((byte[]) update[4])).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void shouldMergeFailedBucketIntoTheNextFlush() {
+        when(jdbcTemplate.update(startsWith("UPDATE activity_rollup"), any(Object[].class)))
+            .thenThrow(new QueryTimeoutException("Lock wait timeout exceeded"))
+            .thenReturn(1);
+        service.recordAccess(10L, 2L, HOUR.plusSeconds(60));
+        service.flush();
+
+        service.recordAccess(10L, 3L, HOUR.plusSeconds(120));
+        service.flush();
+
+        ArgumentCaptor<Object[]> arguments = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(2)).update(startsWith("UPDATE activity_rollup"), arguments.capture());
+        Object[] update = arguments.getValue();
+        assertThat(update[0]).isEqualTo(2L);
+        assertThat(LearnerIdSets.decode((byte[]) update[4])).containsExactly(1L, 2L, 3L);
+        assertThat(update[7]).isEqualTo(Timestamp.from(HOUR));
+    }
+
+    private Object[] captureUpdate() {
+        ArgumentCaptor<Object[]> arguments = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(startsWith("UPDATE activity_rollup"), arguments.capture());
+        return arguments.getValue();
+    }
+}
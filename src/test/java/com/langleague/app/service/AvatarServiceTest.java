@@ -0,0 +1,149 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.langleague.app.domain.User;
+import com.langleague.app.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * Unit tests for the inline avatar migration of {@link AvatarService}.
+ */
+class AvatarServiceTest {
+
+    private static final String STORED_URL = "/content/uploads/0123abcd.jpg";
+
+    private FileStorageService fileStorageService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private Cache usersByLogin;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private AvatarService avatarService;
+
+    // Rows returned by the migration query, as [id, image_url]
+    private final List<Object[]> inlineAvatars = new ArrayList<>();
+
+    private final List<Object[]> updates = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = mock(FileStorageService.class);
+        when(fileStorageService.storeContent(any(InputStream.class), anyString())).thenReturn(STORED_URL);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Object[] row : inlineAvatars) {
+                ResultSet resultSet = mock(ResultSet.class);
+                when(resultSet.getLong(1)).thenReturn((Long) row[0]);
+                when(resultSet.getString(2)).thenReturn((String) row[1]);
+                handler.processRow(resultSet);
+            }
+            return null;
+        })
+            .when(jdbcTemplate)
+            .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            updates.addAll(invocation.<List<Object[]>>getArgument(1));
+            return new int[0];
+        });
+        CacheManager cacheManager = mock(CacheManager.class);
+        usersByLogin = mock(Cache.class);
+        when(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).thenReturn(usersByLogin);
+        when(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).thenReturn(mock(Cache.class));
+        entityManagerFactory = mock(EntityManagerFactory.class, RETURNS_DEEP_STUBS);
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        avatarService = new AvatarService(fileStorageService, jdbcTemplate, cacheManager, entityManagerFactory, cacheInvalidationBus);
+    }
+
+    @Test
+    void shouldMoveInlineAvatarToStorage() throws IOException {
+        inlineAvatars.add(new Object[] { 1L, dataUri(new BufferedImage(600, 400, BufferedImage.TYPE_INT_RGB)) });
+
+        avatarService.migrateInlineAvatars();
+
+        assertThat(updates).containsExactly(new Object[] { STORED_URL, 1L });
+        verify(fileStorageService).storeContent(any(InputStream.class), eq("jpg"));
+        verify(usersByLogin).clear();
+        verify(entityManagerFactory.getCache()).evict(User.class);
+        verify(cacheInvalidationBus).publish(
+            List.of(
+                CacheInvalidation.region(User.class.getName()),
+                CacheInvalidation.region(UserRepository.USERS_BY_LOGIN_CACHE),
+                CacheInvalidation.region(UserRepository.USERS_BY_EMAIL_CACHE)
+            )
+        );
+    }
+
+    @Test
+    void shouldOnlySelectAvatarsNotMigratedYet() throws Exception {
+        avatarService.migrateInlineAvatars();
+
+        ArgumentCaptor<PreparedStatementCreator> query = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).query(query.capture(), any(RowCallbackHandler.class));
+        Connection connection = mock(Connection.class, RETURNS_DEEP_STUBS);
+        query.getValue().createPreparedStatement(connection);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(connection).prepareStatement(sql.capture(), anyInt(), anyInt());
+        assertThat(sql.getValue()).contains("image_url LIKE 'data:%'");
+
+        // Stored avatars are plain URLs, left as they are
+        assertThat(avatarService.toAvatarUrl(STORED_URL)).isEqualTo(STORED_URL);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(usersByLogin, never()).clear();
+        verify(cacheInvalidationBus, never()).publish(anyList());
+        verify(fileStorageService, never()).storeContent(any(InputStream.class), anyString());
+    }
+
+    @Test
+    void shouldRemoveAvatarWithoutReadableImage() throws IOException {
+        inlineAvatars.add(new Object[] { 1L, "data:image/png;base64," + Base64.getEncoder().encodeToString("not an image".getBytes()) });
+        inlineAvatars.add(new Object[] { 2L, "data:image/png," });
+        inlineAvatars.add(new Object[] { 3L, dataUri(new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB)) });
+
+        avatarService.migrateInlineAvatars();
+
+        assertThat(updates).containsExactly(new Object[] { null, 1L }, new Object[] { null, 2L }, new Object[] { STORED_URL, 3L });
+        verify(fileStorageService).storeContent(any(InputStream.class), eq("png"));
+        verify(usersByLogin).clear();
+    }
+
+    private static String dataUri(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+}
@@ -0,0 +1,151 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.app.IntegrationTest;
+import com.langleague.app.LangleagueApp;
+import com.langleague.app.config.ApplicationProperties;
+import com.langleague.app.config.AsyncSyncConfiguration;
+import com.langleague.app.config.JacksonConfiguration;
+import com.langleague.app.domain.Authority;
+import com.langleague.app.repository.AuthorityRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link CacheInvalidationBus} and {@link JdbcCacheInvalidationTransport}.
+ * <p>
+ * A second node is started in the same JVM, on the same database, with its own JCache cache manager, hence its own
+ * second-level cache, and its own node id.
+ */
+@IntegrationTest
+@TestPropertySource(properties = CacheInvalidationBusIT.SECOND_LEVEL_CACHE)
+class CacheInvalidationBusIT {
+
+    static final String SECOND_LEVEL_CACHE = "spring.jpa.properties.hibernate.cache.use_second_level_cache=true";
+
+    private static final String AUTHORITY = "ROLE_CACHE_INVALIDATION";
+
+    private static ConfigurableApplicationContext otherNode;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private Environment environment;
+
+    @BeforeEach
+    void startOtherNode() {
+        if (otherNode != null) {
+            return;
+        }
+        otherNode = new SpringApplicationBuilder(LangleagueApp.class, JacksonConfiguration.class, AsyncSyncConfiguration.class)
+            .profiles(environment.getActiveProfiles())
+            .run(
+                "--spring.datasource.url=" + environment.getProperty("spring.datasource.url"),
+                "--spring.datasource.username=" + environment.getProperty("spring.datasource.username"),
+                "--spring.datasource.password=" + environment.getProperty("spring.datasource.password"),
+                "--" + SECOND_LEVEL_CACHE,
+                "--spring.cache.jcache.config=classpath:config/ehcache-other-node.xml",
+                "--spring.liquibase.enabled=false",
+                "--server.port=0"
+            );
+    }
+
+    @AfterAll
+    static void stopOtherNode() {
+        if (otherNode != null) {
+            otherNode.close();
+            otherNode = null;
+        }
+    }
+
+    @AfterEach
+    void cleanup() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            authorityRepository.findById(AUTHORITY).ifPresent(authorityRepository::delete)
+        );
+    }
+
+    @Test
+    void shouldDeliverEvictionsToOtherNodesOnly() {
+        JdbcCacheInvalidationTransport nodeA = new JdbcCacheInvalidationTransport(jdbcTemplate, applicationProperties);
+        JdbcCacheInvalidationTransport nodeB = new JdbcCacheInvalidationTransport(jdbcTemplate, applicationProperties);
+        nodeA.poll("node-a");
+        nodeB.poll("node-b");
+
+        CacheInvalidation alice = CacheInvalidation.entry("usersByLogin", "alice");
+        CacheInvalidation bob = CacheInvalidation.entry("usersByEmail", "bob@localhost");
+        nodeA.publish("node-a", List.of(alice, CacheInvalidation.region("Book")));
+        nodeB.publish("node-b", List.of(bob));
+
+        assertThat(nodeB.poll("node-b")).containsSubsequence(alice, CacheInvalidation.region("Book")).doesNotContain(bob);
+        assertThat(nodeA.poll("node-a")).contains(bob).doesNotContain(alice);
+        assertThat(nodeB.poll("node-b")).doesNotContain(alice);
+    }
+
+    @Test
+    void shouldEvictChangesCommittedOnOneNodeFromTheOtherNode() {
+        AuthorityRepository otherAuthorityRepository = otherNode.getBean(AuthorityRepository.class);
+        TransactionTemplate otherTransactionTemplate = new TransactionTemplate(otherNode.getBean(PlatformTransactionManager.class));
+        Cache otherSecondLevelCache = otherNode.getBean(EntityManagerFactory.class).getCache();
+        CacheInvalidationBus otherBus = otherNode.getBean(CacheInvalidationBus.class);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            authorityRepository.save(new Authority().name(AUTHORITY))
+        );
+        otherTransactionTemplate.executeWithoutResult(status -> otherAuthorityRepository.findById(AUTHORITY));
+        assertThat(otherSecondLevelCache.contains(Authority.class, AUTHORITY)).isTrue();
+        otherBus.exchange();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> authorityRepository.deleteById(AUTHORITY));
+        cacheInvalidationBus.exchange();
+        otherBus.exchange();
+
+        assertThat(otherSecondLevelCache.contains(Authority.class, AUTHORITY)).isFalse();
+        assertThat(otherTransactionTemplate.execute(status -> otherAuthorityRepository.findById(AUTHORITY))).isEmpty();
+    }
+
+    @Test
+    void shouldNotifyListenersOfEvictionsFromOtherNodes() {
+        CacheInvalidationBus otherBus = otherNode.getBean(CacheInvalidationBus.class);
+        List<String> otherKeys = new CopyOnWriteArrayList<>();
+        List<String> ownKeys = new CopyOnWriteArrayList<>();
+        otherBus.addListener(VocabularyGameService.WORD_POOL_REGION, otherKeys::add);
+        cacheInvalidationBus.addListener(VocabularyGameService.WORD_POOL_REGION, ownKeys::add);
+        otherBus.exchange();
+
+        cacheInvalidationBus.publish(List.of(CacheInvalidation.region(VocabularyGameService.WORD_POOL_REGION)));
+        cacheInvalidationBus.exchange();
+        otherBus.exchange();
+
+        assertThat(otherKeys).containsExactly((String) null);
+        assertThat(ownKeys).isEmpty();
+    }
+}
@@ -0,0 +1,133 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.langleague.app.config.ApplicationProperties;
+import com.langleague.app.config.ExecutorConfiguration;
+import com.langleague.app.domain.Book;
+import com.langleague.app.domain.Exercise;
+import com.langleague.app.domain.ExerciseOption;
+import com.langleague.app.domain.Unit;
+import com.langleague.app.domain.Vocabulary;
+import com.langleague.app.repository.BookRepository;
+import com.langleague.app.repository.EnrollmentRepository;
+import com.langleague.app.repository.ProgressRepository;
+import com.langleague.app.repository.UserRepository;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Unit tests for {@link CacheWarmUpService} and {@link CacheWarmUpHealthIndicator}.
+ */
+class CacheWarmUpServiceTest {
+
+    private EnrollmentRepository enrollmentRepository;
+
+    private ProgressRepository progressRepository;
+
+    private BookRepository bookRepository;
+
+    private UserRepository userRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private CacheWarmUpService service;
+
+    @BeforeEach
+    void setUp() {
+        enrollmentRepository = mock(EnrollmentRepository.class);
+        progressRepository = mock(ProgressRepository.class);
+        bookRepository = mock(BookRepository.class);
+        userRepository = mock(UserRepository.class);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().getWarmUp().setTimeout(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private CacheWarmUpService newService() {
+        executor = new ExecutorConfiguration().cacheWarmUpExecutor(applicationProperties);
+        executor.initialize();
+        return new CacheWarmUpService(
+            enrollmentRepository,
+            progressRepository,
+            bookRepository,
+            userRepository,
+            mock(PlatformTransactionManager.class),
+            applicationProperties,
+            executor
+        );
+    }
+
+    @Test
+    void shouldLoadBooksAndUsersThenReportReady() {
+        Exercise exercise = new Exercise().addOptions(new ExerciseOption());
+        Book book = new Book().addUnits(new Unit().addVocabularies(new Vocabulary()).addExercises(exercise));
+        when(enrollmentRepository.findMostEnrolledBookIds(any())).thenReturn(List.of(1L, 2L));
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.findById(2L)).thenReturn(Optional.empty());
+        when(progressRepository.findRecentlyActiveLogins(any(), any())).thenReturn(List.of("student", "teacher"));
+        service = newService();
+        CacheWarmUpHealthIndicator healthIndicator = new CacheWarmUpHealthIndicator(service);
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        service.warmUp();
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+        verify(bookRepository).findById(1L);
+        verify(bookRepository).findById(2L);
+        verify(userRepository).findOneWithAuthoritiesByLogin("student");
+        verify(userRepository).findOneWithAuthoritiesByLogin("teacher");
+    }
+
+    @Test
+    void shouldReportReadyOnceTimedOut() throws Exception {
+        applicationProperties.getCache().getWarmUp().setTimeout(Duration.ofMillis(200));
+        CountDownLatch release = new CountDownLatch(1);
+        when(enrollmentRepository.findMostEnrolledBookIds(any())).thenReturn(List.of(1L));
+        when(bookRepository.findById(1L)).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        service = newService();
+
+        long started = System.nanoTime();
+        service.warmUp();
+
+        assertThat(service.isFinished()).isTrue();
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+        release.countDown();
+    }
+
+    @Test
+    void shouldReportReadyWhenDisabled() {
+        applicationProperties.getCache().getWarmUp().setEnabled(false);
+        service = newService();
+
+        service.warmUp();
+
+        assertThat(service.isFinished()).isTrue();
+        verify(enrollmentRepository, never()).findMostEnrolledBookIds(any());
+    }
+}
@@ -0,0 +1,43 @@
+package com.langleague.app.service;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of the captcha rendering done by {@link CaptchaService}, by the refill thread or by a request finding
+ * the pool empty. Run with {@code ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=CaptchaService}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class CaptchaServiceBenchmark {
+
+    @Benchmark
+    public String createImageBase64() {
+        return CaptchaService.createImageBase64("A7K2XQ");
+    }
+
+    @Benchmark
+    public Object renderRandom() {
+        return CaptchaService.renderRandom();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object renderRandomConcurrently() {
+        // As requests do when the pool runs dry
+        return CaptchaService.renderRandom();
+    }
+}
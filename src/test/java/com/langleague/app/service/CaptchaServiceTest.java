@@ -0,0 +1,110 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.app.config.ApplicationProperties;
+import com.langleague.app.config.ExecutorConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Unit tests for the captcha pool of {@link CaptchaService}.
+ */
+class CaptchaServiceTest {
+
+    private static final int POOL_SIZE = 3;
+
+    private static final String JWT_KEY = Base64.getEncoder().encodeToString("a test secret of at least thirty-two bytes".getBytes());
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ThreadPoolTaskExecutor refillExecutor;
+
+    private CaptchaService captchaService;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCaptcha().setPoolSize(POOL_SIZE);
+        meterRegistry = new SimpleMeterRegistry();
+        refillExecutor = new ExecutorConfiguration().captchaRefillExecutor();
+        refillExecutor.initialize();
+        captchaService = new CaptchaService(applicationProperties, meterRegistry, JWT_KEY, refillExecutor);
+        captchaService.startRefill();
+    }
+
+    @AfterEach
+    void tearDown() {
+        refillExecutor.shutdown();
+    }
+
+    @Test
+    void shouldFillPoolUpToWatermark() throws InterruptedException {
+        awaitFullPool();
+
+        assertThat(meterRegistry.get(CaptchaService.POOL_DEPTH_GAUGE).gauge().value()).isEqualTo(POOL_SIZE);
+        assertThat(meterRegistry.get(CaptchaService.RENDER_TIMER).tag("thread", "background").timer().count()).isGreaterThanOrEqualTo(
+            POOL_SIZE
+        );
+    }
+
+    @Test
+    void shouldServeFromPoolAndRefillIt() throws InterruptedException {
+        awaitFullPool();
+
+        CaptchaService.Captcha captcha = captchaService.generateCaptcha();
+
+        assertThat(captcha.captchaImage()).startsWith("data:image/png;base64,");
+        assertThat(meterRegistry.get(CaptchaService.POOL_MISSES_COUNTER).counter().count()).isZero();
+        assertThat(captchaService.verifyCaptcha(captcha.captchaId(), "wrong!")).isFalse();
+        awaitFullPool();
+    }
+
+    @Test
+    void shouldRenderOnRequestWhenPoolIsDry() {
+        refillExecutor.shutdown();
+        for (int i = 0; i <= POOL_SIZE; i++) {
+            captchaService.generateCaptcha();
+        }
+
+        assertThat(meterRegistry.get(CaptchaService.POOL_MISSES_COUNTER).counter().count()).isPositive();
+        assertThat(meterRegistry.get(CaptchaService.RENDER_TIMER).tag("thread", "request").timer().count()).isPositive();
+    }
+
+    @Test
+    void shouldSpendStatelessTokenOnFirstAttempt() {
+        refillExecutor.shutdown();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCaptcha().setStateless(true);
+        captchaService = new CaptchaService(applicationProperties, meterRegistry, JWT_KEY, refillExecutor);
+
+        CaptchaService.Captcha captcha = captchaService.generateCaptcha();
+
+        assertThat(captchaService.verifyCaptcha(captcha.captchaId(), "wrong!")).isFalse();
+        assertThat(captchaService.verifyCaptcha(captcha.captchaId(), "wrong!")).isFalse();
+        assertThat(captchaService.verifyCaptcha("not-a-token", "ABCDEF")).isFalse();
+        assertThat(meterRegistry.get(CaptchaService.REJECTED_TOKENS_COUNTER).tag("reason", "replayed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CaptchaService.REJECTED_TOKENS_COUNTER).tag("reason", "malformed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRenderSixCharacterText() {
+        CaptchaService.Rendered rendered = CaptchaService.renderRandom();
+
+        assertThat(rendered.text()).hasSize(6).matches("[A-Z2-9]+");
+        assertThat(rendered.image()).startsWith("data:image/png;base64,");
+    }
+
+    private void awaitFullPool() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (captchaService.poolDepth() < POOL_SIZE && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(captchaService.poolDepth()).isEqualTo(POOL_SIZE);
+    }
+}
@@ -0,0 +1,117 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link CaptchaTokens} and its {@link RotatingBloomFilter}.
+ */
+class CaptchaTokensTest {
+
+    private static final byte[] SECRET = "a test secret of at least thirty-two bytes".getBytes(StandardCharsets.US_ASCII);
+
+    private static final Duration TTL = Duration.ofMinutes(3);
+
+    private MutableClock clock;
+
+    private CaptchaTokens tokens;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-10-19T10:00:00Z"));
+        tokens = new CaptchaTokens(SECRET, TTL, clock);
+    }
+
+    @Test
+    void shouldAcceptAnswerIgnoringCaseOnAnyNodeSharingTheSecret() {
+        String token = tokens.issue("ABC234");
+        CaptchaTokens otherNode = new CaptchaTokens(SECRET, TTL, clock);
+
+        assertThat(token).matches("[A-Za-z0-9_-]+").doesNotContain("ABC234");
+        assertThat(otherNode.verify(token, "abc234")).isEqualTo(CaptchaTokens.Result.VALID);
+    }
+
+    @Test
+    void shouldSpendTokenOnFirstAttempt() {
+        String token = tokens.issue("ABC234");
+
+        assertThat(tokens.verify(token, "ABC235")).isEqualTo(CaptchaTokens.Result.WRONG_ANSWER);
+        assertThat(tokens.verify(token, "ABC234")).isEqualTo(CaptchaTokens.Result.REPLAYED);
+    }
+
+    @Test
+    void shouldRejectReplayUntilExpiry() {
+        String token = tokens.issue("ABC234");
+        clock.advance(TTL.minusSeconds(1));
+
+        assertThat(tokens.verify(token, "ABC234")).isEqualTo(CaptchaTokens.Result.VALID);
+        // Crosses a filter generation, the token must still be remembered
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(tokens.verify(token, "ABC234")).isEqualTo(CaptchaTokens.Result.REPLAYED);
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(tokens.verify(token, "ABC234")).isEqualTo(CaptchaTokens.Result.EXPIRED);
+    }
+
+    @Test
+    void shouldRejectTamperedOrForeignTokens() {
+        byte[] token = Base64.getUrlDecoder().decode(tokens.issue("ABC234"));
+        // Push the expiry back
+        token[8]++;
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+        CaptchaTokens otherSecret = new CaptchaTokens("another secret".getBytes(StandardCharsets.US_ASCII), TTL, clock);
+
+        assertThat(tokens.verify(tampered, "ABC234")).isEqualTo(CaptchaTokens.Result.MALFORMED);
+        assertThat(otherSecret.verify(tokens.issue("ABC234"), "ABC234")).isEqualTo(CaptchaTokens.Result.MALFORMED);
+        assertThat(tokens.verify("not a token", "ABC234")).isEqualTo(CaptchaTokens.Result.MALFORMED);
+        assertThat(tokens.verify(UUID.randomUUID().toString(), "ABC234")).isEqualTo(CaptchaTokens.Result.MALFORMED);
+    }
+
+    @Test
+    void shouldForgetKeysAfterTwoGenerations() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(10, 3, 1000);
+
+        assertThat(filter.add(1, 7, 500)).isTrue();
+        assertThat(filter.add(1, 7, 1500)).isFalse();
+        assertThat(filter.add(2, 9, 1500)).isTrue();
+        assertThat(filter.add(1, 7, 2500)).isTrue();
+        assertThat(filter.add(2, 9, 5000)).isTrue();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.langleague.app.service.dto.UploadResponseDTO;
+import com.langleague.app.service.dto.UploadSessionDTO;
+import com.langleague.app.web.rest.errors.BadRequestAlertException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Unit tests for {@link ChunkedUploadService}.
+ */
+class ChunkedUploadServiceTest {
+
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+
+    private FileStorageService fileStorageService;
+
+    private ChunkedUploadService chunkedUploadService;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = mock(FileStorageService.class);
+        chunkedUploadService = new ChunkedUploadService(fileStorageService);
+        login("student");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldResumeFromReportedOffsetAndAssemble() throws Exception {
+        UploadSessionDTO session = chunkedUploadService.create(request(CONTENT.length, sha256(CONTENT)));
+        assertThat(session.getOffset()).isZero();
+
+        assertThat(append(session, 0, 0, 8).getOffset()).isEqualTo(8);
+        // The connection dropped: the client asks where to resume, then sends the rest
+        assertThat(chunkedUploadService.status(session.getUploadId()).getOffset()).isEqualTo(8);
+        assertThat(append(session, 8, 8, 15).getOffset()).isEqualTo(15);
+        assertThat(append(session, 15, 15, 20).getOffset()).isEqualTo(20);
+
+        UploadResponseDTO stored = new UploadResponseDTO("/content/uploads/" + sha256(CONTENT) + ".txt");
+        when(fileStorageService.storeCompleted(any(), eq(sha256(CONTENT)), eq("notes.txt"), eq("text/plain"))).thenAnswer(invocation -> {
+            assertThat(Files.readAllBytes(invocation.<Path>getArgument(0))).isEqualTo(CONTENT);
+            return stored;
+        });
+        assertThat(chunkedUploadService.complete(session.getUploadId())).isSameAs(stored);
+        assertRejected(() -> chunkedUploadService.status(session.getUploadId()), "uploadnotfound");
+    }
+
+    @Test
+    void shouldRejectChunksOutOfOrder() throws Exception {
+        UploadSessionDTO session = chunkedUploadService.create(request(CONTENT.length, null));
+        append(session, 0, 0, 5);
+
+        assertRejected(() -> append(session, 10, 10, 15), "offsetmismatch");
+        assertRejected(() -> append(session, 0, 0, 5), "offsetmismatch");
+        assertThat(chunkedUploadService.status(session.getUploadId()).getOffset()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldRejectChunkPastAnnouncedSize() throws Exception {
+        UploadSessionDTO session = chunkedUploadService.create(request(10, null));
+        append(session, 0, 0, 4);
+
+        assertRejected(() -> append(session, 4, 4, 12), "sizeexceeded");
+        // The partial chunk is discarded, so the client can send it again
+        assertThat(chunkedUploadService.status(session.getUploadId()).getOffset()).isEqualTo(4);
+        assertRejected(() -> chunkedUploadService.create(request(ChunkedUploadService.MAX_UPLOAD_SIZE + 1, null)), "filetoolarge");
+    }
+
+    @Test
+    void shouldRejectIncompleteOrCorruptedUploads() throws Exception {
+        UploadSessionDTO session = chunkedUploadService.create(request(CONTENT.length, sha256("something else".getBytes())));
+        append(session, 0, 0, 10);
+
+        assertRejected(() -> chunkedUploadService.complete(session.getUploadId()), "incomplete");
+        append(session, 10, 10, 20);
+        assertRejected(() -> chunkedUploadService.complete(session.getUploadId()), "checksummismatch");
+        assertRejected(() -> chunkedUploadService.status(session.getUploadId()), "uploadnotfound");
+        verify(fileStorageService, never()).storeCompleted(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldHideUploadsOfOtherUsers() {
+        UploadSessionDTO session = chunkedUploadService.create(request(CONTENT.length, null));
+
+        login("other");
+
+        assertRejected(() -> append(session, 0, 0, 5), "uploadnotfound");
+    }
+
+    private UploadSessionDTO append(UploadSessionDTO session, long offset, int from, int to) throws IOException {
+        // Zero padded past the end of the content
+        byte[] chunk = Arrays.copyOfRange(CONTENT, from, to);
+        return chunkedUploadService.append(session.getUploadId(), offset, new ByteArrayInputStream(chunk));
+    }
+
+    private static UploadSessionDTO request(long size, String sha256) {
+        UploadSessionDTO request = new UploadSessionDTO();
+        request.setFileName("notes.txt");
+        request.setContentType("text/plain");
+        request.setSize(size);
+        request.setSha256(sha256);
+        return request;
+    }
+
+    private static void assertRejected(ThrowingCallable call, String errorKey) {
+        assertThatThrownBy(call).isInstanceOfSatisfying(BadRequestAlertException.class, e ->
+            assertThat(e.getErrorKey()).isEqualTo(errorKey)
+        );
+    }
+
+    private static String sha256(byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    private static void login(String login) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(login, login));
+    }
+}
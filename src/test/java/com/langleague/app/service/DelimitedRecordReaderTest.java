@@ -0,0 +1,90 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link DelimitedRecordReader}.
+ */
+class DelimitedRecordReaderTest {
+
+    @Test
+    void shouldReadQuotedFieldsSpanningLines() throws IOException {
+        String text = "\uFEFFword,meaning\r\n\"hello, world\",\"xin \"\"chao\"\"\nthe gioi\"\r\napple,qua tao";
+        DelimitedRecordReader reader = new DelimitedRecordReader(new StringReader(text), ',');
+
+        assertThat(reader.next()).containsExactly("word", "meaning");
+        assertThat(reader.recordLine()).isEqualTo(1);
+        assertThat(reader.next()).containsExactly("hello, world", "xin \"chao\"\nthe gioi");
+        assertThat(reader.recordLine()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("apple", "qua tao");
+        assertThat(reader.recordLine()).isEqualTo(4);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void shouldKeepEmptyFields() throws IOException {
+        DelimitedRecordReader reader = new DelimitedRecordReader(new StringReader("a\t\tc\n\n"), '\t');
+
+        assertThat(reader.next()).containsExactly("a", "", "c");
+        assertThat(reader.next()).containsExactly("");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void shouldDetectDelimiter() {
+        assertThat(DelimitedRecordReader.detectDelimiter("word\tmeaning")).isEqualTo('\t');
+        assertThat(DelimitedRecordReader.detectDelimiter("word;meaning;a,b")).isEqualTo(';');
+        assertThat(DelimitedRecordReader.detectDelimiter("word,meaning")).isEqualTo(',');
+        assertThat(DelimitedRecordReader.detectDelimiter(null)).isEqualTo(',');
+    }
+
+    @Test
+    void shouldDetectDelimiterAndReplayFirstLine() throws IOException {
+        String longField = "x".repeat(100_000);
+        DelimitedRecordReader reader = DelimitedRecordReader.detect(new StringReader("\uFEFFword;" + longField + "\r\napple;qua tao"));
+
+        assertThat(reader.next()).containsExactly("word", longField);
+        assertThat(reader.next()).containsExactly("apple", "qua tao");
+        assertThat(reader.next()).isNull();
+        assertThat(DelimitedRecordReader.detect(new StringReader("")).next()).isNull();
+    }
+
+    @Test
+    void shouldDetectDelimiterFromTheStartOfALongFirstLine() throws IOException {
+        // Past the sample, commas would outnumber the semicolons
+        String notes = "x".repeat(DelimitedRecordReader.DETECTION_SAMPLE) + ",".repeat(10);
+        DelimitedRecordReader reader = DelimitedRecordReader.detect(new StringReader("word;meaning;" + notes + "\napple;qua tao"));
+
+        assertThat(reader.next()).containsExactly("word", "meaning", notes);
+        assertThat(reader.next()).containsExactly("apple", "qua tao");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void shouldEndLinesOnLoneCarriageReturns() throws IOException {
+        DelimitedRecordReader reader = DelimitedRecordReader.detect(new StringReader("word;meaning\r\"x\ry\";z\rapple;qua tao"));
+
+        assertThat(reader.next()).containsExactly("word", "meaning");
+        assertThat(reader.next()).containsExactly("x\ry", "z");
+        assertThat(reader.recordLine()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("apple", "qua tao");
+        assertThat(reader.recordLine()).isEqualTo(4);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void shouldMapHeaderColumns() {
+        assertThat(VocabularyImportService.parseHeader(new String[] { "Meaning", " word ", "notes", "image_url" })).containsExactly(
+            1,
+            0,
+            -1,
+            -1,
+            3
+        );
+        assertThat(VocabularyImportService.parseHeader(new String[] { "apple", "qua tao" })).isNull();
+    }
+}
@@ -0,0 +1,104 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.langleague.app.service.dto.UploadResponseDTO;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+/**
+ * Unit tests for {@link FileStorageService}.
+ */
+class FileStorageServiceTest {
+
+    private static final Path UPLOADS = Paths.get("storage/uploads").toAbsolutePath().normalize();
+
+    private static final byte[] CONTENT = "FileStorageServiceTest content".getBytes(StandardCharsets.UTF_8);
+
+    private ImageDerivativeService imageDerivativeService;
+
+    private FileStorageService fileStorageService;
+
+    private final List<Path> stored = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        imageDerivativeService = mock(ImageDerivativeService.class);
+        when(imageDerivativeService.variantUrls(anyString())).thenAnswer(invocation ->
+            Map.of("thumb", invocation.getArgument(0) + "?size=thumb")
+        );
+        fileStorageService = new FileStorageService(imageDerivativeService);
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        for (Path path : stored) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void shouldNameFilesAfterTheirContent() throws Exception {
+        String url = fileStorageService.storeFile(new MockMultipartFile("file", "Lesson Notes.TXT", "text/plain", CONTENT));
+
+        assertThat(url).isEqualTo("/content/uploads/" + sha256(CONTENT) + ".txt");
+        assertThat(storedFile(url)).hasBinaryContent(CONTENT);
+        assertThat(fileStorageService.storeFile(new MockMultipartFile("file", "notes.t*t", "text/plain", CONTENT))).isEqualTo(
+            "/content/uploads/" + sha256(CONTENT)
+        );
+        storedFile("/content/uploads/" + sha256(CONTENT));
+    }
+
+    @Test
+    void shouldStoreIdenticalUploadsOnce() throws Exception {
+        UploadResponseDTO first = fileStorageService.storeImage(new MockMultipartFile("file", "cat.png", "image/png", CONTENT));
+        UploadResponseDTO second = fileStorageService.storeImage(new MockMultipartFile("file", "same-cat.png", "image/png", CONTENT));
+
+        assertThat(second.getFileUrl()).isEqualTo(first.getFileUrl()).endsWith(sha256(CONTENT) + ".png");
+        assertThat(second.getVariants()).containsEntry("thumb", first.getFileUrl() + "?size=thumb");
+        // Variants are only generated for the first copy
+        verify(imageDerivativeService, times(1)).scheduleDerivatives(storedFile(first.getFileUrl()));
+        try (DirectoryStream<Path> temporary = Files.newDirectoryStream(UPLOADS, "upload-*.tmp")) {
+            assertThat(temporary).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldNotGenerateVariantsOfOtherFiles() throws Exception {
+        UploadResponseDTO response = fileStorageService.storeImage(new MockMultipartFile("file", "notes.txt", "text/plain", CONTENT));
+
+        assertThat(response.getVariants()).isNullOrEmpty();
+        storedFile(response.getFileUrl());
+        verify(imageDerivativeService, never()).scheduleDerivatives(any());
+    }
+
+    private Path storedFile(String url) {
+        Path path = UPLOADS.resolve(url.substring("/content/uploads/".length()));
+        stored.add(path);
+        return path;
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
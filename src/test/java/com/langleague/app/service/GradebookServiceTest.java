@@ -0,0 +1,169 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.langleague.app.service.GradebookService.GradebookUnit;
+import com.langleague.app.service.dto.GradebookDTO;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Unit tests for {@link GradebookService}: the student x unit matrix, assembled from fixture rows of the matrix query,
+ * and its CSV output.
+ */
+class GradebookServiceTest {
+
+    private static final Long BOOK_ID = 5L;
+
+    private static final List<GradebookUnit> UNITS = List.of(
+        new GradebookUnit(10, "Greetings"),
+        new GradebookUnit(20, "Numbers"),
+        new GradebookUnit(30, "Colors")
+    );
+
+    private JdbcTemplate jdbcTemplate;
+
+    private GradebookService gradebookService;
+
+    // Rows of the matrix query: student id, login, first name, last name, unit id, completed, score
+    private final List<Object[]> matrix = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq(BOOK_ID))).thenReturn(List.of("teacher"));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(BOOK_ID))).thenReturn(UNITS);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Object[] row : matrix) {
+                handler.processRow(resultSet(row));
+            }
+            return null;
+        })
+            .when(jdbcTemplate)
+            .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        gradebookService = new GradebookService(jdbcTemplate);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("teacher", "teacher"));
+
+        // Alice completed the first unit, started the last one and has no progress on the second
+        matrix.add(new Object[] { 1L, "alice", "Alice", "Nguyen", 10L, true, 90 });
+        matrix.add(new Object[] { 1L, "alice", "Alice", "Nguyen", 30L, false, null });
+        // Bob has no progress at all: a single row, without unit
+        matrix.add(new Object[] { 2L, "bob", null, "Tran", null, null, null });
+        // Carol completed the second unit, and a unit that has been moved to another book since
+        matrix.add(new Object[] { 3L, "carol", "Carol", "Le", 20L, true, 75 });
+        matrix.add(new Object[] { 3L, "carol", "Carol", "Le", 99L, true, 100 });
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAssembleStudentByUnitMatrix() {
+        GradebookDTO gradebook = gradebookService.getGradebook(BOOK_ID);
+
+        assertThat(gradebook.getUnitIds()).containsExactly(10L, 20L, 30L);
+        assertThat(gradebook.getStudentIds()).containsExactly(1L, 2L, 3L);
+        assertThat(gradebook.getStudentNames()).containsExactly("Alice Nguyen", "Tran", "Carol Le");
+        assertThat(gradebook.getCompleted()).containsExactly(new int[] { 1, 0, 0 }, new int[] { 0, 0, 0 }, new int[] { 0, 1, 0 });
+        assertThat(gradebook.getScores()).containsExactly(
+            new Integer[] { 90, null, null },
+            new Integer[] { null, null, null },
+            new Integer[] { null, 75, null }
+        );
+    }
+
+    @Test
+    void shouldWriteMissingCellsAsEmptyScores() throws IOException {
+        StringWriter csv = new StringWriter();
+
+        gradebookService.writeCsv(BOOK_ID, UNITS, csv);
+
+        assertThat(csv.toString().split("\r\n")).containsExactly(
+            "student_id,login,first_name,last_name,Greetings - completed,Greetings - score,Numbers - completed,Numbers - score," +
+            "Colors - completed,Colors - score",
+            "1,alice,Alice,Nguyen,1,90,0,,0,",
+            "2,bob,,Tran,0,,0,,0,",
+            "3,carol,Carol,Le,0,,1,75,0,"
+        );
+    }
+
+    @Test
+    void shouldRefuseBooksOfOtherTeachers() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("other", "other"));
+
+        assertThatThrownBy(() -> gradebookService.getGradebook(BOOK_ID)).isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void shouldQuoteFieldsWithSeparatorsQuotesOrLineBreaks() {
+        assertThat(field("Nguyen")).isEqualTo("Nguyen");
+        assertThat(field("Unit 1, Greetings")).isEqualTo("\"Unit 1, Greetings\"");
+        assertThat(field("The \"best\" unit")).isEqualTo("\"The \"\"best\"\" unit\"");
+        assertThat(field("two\nlines")).isEqualTo("\"two\nlines\"");
+        assertThat(field(null)).isEmpty();
+    }
+
+    @Test
+    void shouldNeutralizeSpreadsheetFormulas() {
+        assertThat(field("=HYPERLINK(\"http://example.com\")")).isEqualTo("\"'=HYPERLINK(\"\"http://example.com\"\")\"");
+        assertThat(field("+84 123")).isEqualTo("'+84 123");
+        assertThat(field("@login")).isEqualTo("'@login");
+    }
+
+    private static String field(String value) {
+        StringBuilder line = new StringBuilder();
+        GradebookService.appendCsvField(line, value);
+        return line.toString();
+    }
+
+    // A result set positioned on one row, with JDBC null semantics
+    private static ResultSet resultSet(Object[] row) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        boolean[] lastNull = { false };
+        when(resultSet.getString(anyInt())).thenAnswer(invocation -> (String) column(row, invocation.getArgument(0), lastNull));
+        when(resultSet.getLong(anyInt())).thenAnswer(invocation -> {
+            Object value = column(row, invocation.getArgument(0), lastNull);
+            return value == null ? 0L : ((Number) value).longValue();
+        });
+        when(resultSet.getInt(anyInt())).thenAnswer(invocation -> {
+            Object value = column(row, invocation.getArgument(0), lastNull);
+            return value == null ? 0 : ((Number) value).intValue();
+        });
+        when(resultSet.getBoolean(anyInt())).thenAnswer(invocation ->
+            Boolean.TRUE.equals(column(row, invocation.getArgument(0), lastNull))
+        );
+        when(resultSet.wasNull()).thenAnswer(invocation -> lastNull[0]);
+        return resultSet;
+    }
+
+    private static Object column(Object[] row, int index, boolean[] lastNull) {
+        Object value = row[index - 1];
+        lastNull[0] = value == null;
+        return value;
+    }
+}
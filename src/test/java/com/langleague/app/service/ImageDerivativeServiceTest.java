@@ -0,0 +1,73 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.langleague.app.service.ImageDerivativeService.ImageVariant;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SyncTaskExecutor;
+
+/**
+ * Unit tests for {@link ImageDerivativeService}.
+ */
+class ImageDerivativeServiceTest {
+
+    @TempDir
+    Path uploads;
+
+    private final ImageDerivativeService imageDerivativeService = new ImageDerivativeService(new SyncTaskExecutor());
+
+    @Test
+    void shouldGenerateDownscaledJpegVariantsOfOpaqueImages() throws IOException {
+        Path original = uploads.resolve("photo.png");
+        ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB), "png", original.toFile());
+
+        imageDerivativeService.generateDerivatives(original);
+
+        Path thumb = ImageDerivativeService.findVariant(original, ImageVariant.THUMB).orElseThrow();
+        assertThat(thumb.getFileName()).hasToString("photo.jpg");
+        BufferedImage thumbImage = ImageIO.read(thumb.toFile());
+        assertThat(thumbImage.getWidth()).isEqualTo(240);
+        assertThat(thumbImage.getHeight()).isEqualTo(120);
+
+        BufferedImage medium = ImageIO.read(ImageDerivativeService.findVariant(original, ImageVariant.MEDIUM).orElseThrow().toFile());
+        assertThat(medium.getWidth()).isEqualTo(960);
+    }
+
+    @Test
+    void shouldKeepTransparencyAndNeverUpscale() throws IOException {
+        Path original = uploads.resolve("icon.png");
+        ImageIO.write(new BufferedImage(100, 50, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+
+        imageDerivativeService.generateDerivatives(original);
+
+        Path medium = ImageDerivativeService.findVariant(original, ImageVariant.MEDIUM).orElseThrow();
+        assertThat(medium.getFileName()).hasToString("icon.png");
+        BufferedImage image = ImageIO.read(medium.toFile());
+        assertThat(image.getWidth()).isEqualTo(100);
+        assertThat(image.getColorModel().hasAlpha()).isTrue();
+    }
+
+    @Test
+    void shouldIgnoreFilesThatAreNotImages() throws IOException {
+        Path original = uploads.resolve("notes.txt");
+        Files.writeString(original, "not an image");
+
+        imageDerivativeService.generateDerivatives(original);
+
+        assertThat(ImageDerivativeService.findVariant(original, ImageVariant.THUMB)).isEmpty();
+    }
+
+    @Test
+    void shouldBuildVariantUrls() {
+        assertThat(imageDerivativeService.variantUrls("/content/uploads/a.png")).containsEntry(
+            "thumb",
+            "/content/uploads/a.png?size=thumb"
+        ).containsEntry("medium", "/content/uploads/a.png?size=medium");
+    }
+}
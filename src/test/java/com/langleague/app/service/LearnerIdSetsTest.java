@@ -0,0 +1,38 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link LearnerIdSets}.
+ */
+class LearnerIdSetsTest {
+
+    @Test
+    void shouldSortAndDeduplicate() {
+        assertThat(LearnerIdSets.of(List.of(42L, 7L, 42L, 1L))).containsExactly(1L, 7L, 42L);
+    }
+
+    @Test
+    void shouldUnionSortedSets() {
+        long[] union = LearnerIdSets.union(new long[] { 1L, 5L, 9L }, new long[] { 2L, 5L, 10L });
+
+        assertThat(union).containsExactly(1L, 2L, 5L, 9L, 10L);
+        assertThat(LearnerIdSets.union(LearnerIdSets.EMPTY, new long[] { 3L })).containsExactly(3L);
+    }
+
+    @Test
+    void shouldRoundTripThroughCompactEncoding() {
+        long[] ids = { 1L, 2L, 130L, 70_000L, 5_000_000_000L };
+
+        byte[] encoded = LearnerIdSets.encode(ids);
+
+        assertThat(LearnerIdSets.decode(encoded)).containsExactly(ids);
+        // Small gaps take a single byte each
+        assertThat(LearnerIdSets.encode(new long[] { 100L, 101L, 102L })).hasSize(3);
+        assertThat(LearnerIdSets.decode(new byte[0])).isEmpty();
+        assertThat(LearnerIdSets.decode(null)).isEmpty();
+    }
+}
@@ -0,0 +1,136 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.langleague.app.IntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.Message;
+import jakarta.mail.internet.MimeMessage;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link MailOutboxDispatcher}, against a local SMTP server.
+ */
+@IntegrationTest
+class MailOutboxDispatcherIT {
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+        .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication())
+        .withPerMethodLifecycle(false);
+
+    @DynamicPropertySource
+    static void mailProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.port", ServerSetupTest.SMTP::getPort);
+    }
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private MailOutboxDispatcher mailOutboxDispatcher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldSendQueuedEmailsOnceCommitted() {
+        double sent = meterRegistry.get(MailOutboxDispatcher.SENT_COUNTER).counter().count();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < 3; i++) {
+                mailService.sendEmail("batch" + i + "@outbox.example.com", "subject " + i, "content " + i, false, false);
+            }
+            assertThat(receivedBy("batch0@outbox.example.com")).isEmpty();
+        });
+
+        greenMail.waitForIncomingEmail(5000, 3);
+        for (int i = 0; i < 3; i++) {
+            List<MimeMessage> received = receivedBy("batch" + i + "@outbox.example.com");
+            assertThat(received).hasSize(1);
+            assertThat(GreenMailUtil.getBody(received.get(0))).contains("content " + i);
+        }
+        assertThat(queued("batch%@outbox.example.com")).isZero();
+        assertThat(meterRegistry.get(MailOutboxDispatcher.SENT_COUNTER).counter().count()).isGreaterThanOrEqualTo(sent + 3);
+    }
+
+    @Test
+    void shouldDropEmailsOfRolledBackTransactions() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            mailService.sendEmail("rollback@outbox.example.com", "subject", "content", false, false);
+            status.setRollbackOnly();
+        });
+
+        mailOutboxDispatcher.dispatch();
+        assertThat(queued("rollback@outbox.example.com")).isZero();
+        assertThat(receivedBy("rollback@outbox.example.com")).isEmpty();
+    }
+
+    @Test
+    void shouldRetryEmailsOnceDue() {
+        Timestamp past = Timestamp.from(Instant.now().minusSeconds(60));
+        jdbcTemplate.update(
+            "INSERT INTO mail_outbox (recipient, subject, content, multipart, html, created_at, next_attempt_at, attempts, last_error) " +
+            "VALUES (?, ?, ?, FALSE, FALSE, ?, ?, 2, ?)",
+            "retry@outbox.example.com",
+            "subject",
+            "content",
+            past,
+            past,
+            "Connection refused"
+        );
+
+        mailOutboxDispatcher.dispatch();
+        greenMail.waitForIncomingEmail(5000, 1);
+        assertThat(receivedBy("retry@outbox.example.com")).hasSize(1);
+        assertThat(queued("retry@outbox.example.com")).isZero();
+    }
+
+    @Test
+    void shouldBackOffExponentially() {
+        Duration initial = Duration.ofSeconds(30);
+        Duration max = Duration.ofHours(1);
+        assertThat(MailOutboxDispatcher.backoff(1, initial, max)).isEqualTo(initial);
+        assertThat(MailOutboxDispatcher.backoff(3, initial, max)).isEqualTo(Duration.ofMinutes(2));
+        assertThat(MailOutboxDispatcher.backoff(8, initial, max)).isEqualTo(max);
+        assertThat(MailOutboxDispatcher.backoff(100, initial, max)).isEqualTo(max);
+    }
+
+    private List<MimeMessage> receivedBy(String recipient) {
+        return Arrays.stream(greenMail.getReceivedMessages())
+            .filter(message -> {
+                try {
+                    return recipient.equals(message.getRecipients(Message.RecipientType.TO)[0].toString());
+                } catch (Exception e) {
+                    return false;
+                }
+            })
+            .toList();
+    }
+
+    private int queued(String recipientPattern) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM mail_outbox WHERE recipient LIKE ?", Integer.class, recipientPattern);
+    }
+}
@@ -0,0 +1,176 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.langleague.app.domain.Note;
+import com.langleague.app.repository.NoteRepository;
+import com.langleague.app.repository.UserProfileRepository;
+import com.langleague.app.service.dto.NoteAutosaveDTO;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Unit tests for {@link NoteAutosaveService}.
+ */
+class NoteAutosaveServiceTest {
+
+    private static final Long PROFILE_ID = 3L;
+    private static final Long UNIT_ID = 7L;
+    private static final Long NOTE_ID = 42L;
+
+    private NoteRepository noteRepository;
+
+    private TaskScheduler scheduler;
+
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private NoteAutosaveService noteAutosaveService;
+
+    @BeforeEach
+    void setUp() {
+        noteRepository = mock(NoteRepository.class);
+        UserProfileRepository userProfileRepository = mock(UserProfileRepository.class);
+        when(userProfileRepository.findIdByUserLogin("student")).thenReturn(Optional.of(PROFILE_ID));
+        List<Object[]> rows = List.<Object[]>of(new Object[] { NOTE_ID, 5L });
+        when(noteRepository.findIdAndVersionByUserProfileIdAndUnitId(PROFILE_ID, UNIT_ID)).thenReturn(rows);
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        // Never runs the debounced flush by itself: the tests flush through shutdown or run the scheduled task
+        scheduler = mock(TaskScheduler.class);
+        noteAutosaveService = new NoteAutosaveService(
+            noteRepository,
+            userProfileRepository,
+            mock(NoteService.class),
+            cacheInvalidationBus,
+            scheduler
+        );
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("student", "student"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        noteAutosaveService.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldCoalesceSavesIntoASingleGuardedUpdate() {
+        NoteAutosaveDTO first = noteAutosaveService.autosave(autosave("a", 5L));
+        NoteAutosaveDTO second = noteAutosaveService.autosave(autosave("ab", first.getVersion()));
+        NoteAutosaveDTO third = noteAutosaveService.autosave(autosave("abc", second.getVersion()));
+
+        assertThat(first.isPending()).isTrue();
+        assertThat(first.getNoteId()).isEqualTo(NOTE_ID);
+        assertThat(third.getVersion()).isEqualTo(6L);
+
+        when(noteRepository.updateContentIfVersion(eq(NOTE_ID), anyString(), any(Instant.class), eq(5L))).thenReturn(1);
+        noteAutosaveService.shutdown();
+
+        verify(noteRepository, times(1)).updateContentIfVersion(anyLong(), anyString(), any(Instant.class), anyLong());
+        verify(noteRepository).updateContentIfVersion(eq(NOTE_ID), eq("abc"), any(Instant.class), eq(5L));
+        verify(noteRepository, never()).incrementVersion(anyLong());
+        verify(cacheInvalidationBus).publish(List.of(CacheInvalidation.entry(Note.class.getName(), NOTE_ID)));
+    }
+
+    @Test
+    void shouldRejectAStaleVersion() {
+        noteAutosaveService.autosave(autosave("from the first tab", 5L));
+
+        assertThatThrownBy(() -> noteAutosaveService.autosave(autosave("from a stale tab", 5L))).isInstanceOf(
+            OptimisticLockingFailureException.class
+        );
+        assertThatThrownBy(() -> noteAutosaveService.autosave(autosave("without a version", null))).isInstanceOf(
+            OptimisticLockingFailureException.class
+        );
+    }
+
+    @Test
+    void shouldInvalidateTheReturnedVersionWhenTheNoteChangedMeanwhile() {
+        noteAutosaveService.autosave(autosave("late", 5L));
+
+        when(noteRepository.updateContentIfVersion(eq(NOTE_ID), anyString(), any(Instant.class), eq(5L))).thenReturn(0);
+        noteAutosaveService.shutdown();
+
+        verify(noteRepository).incrementVersion(NOTE_ID);
+        verify(cacheInvalidationBus).publish(List.of(CacheInvalidation.entry(Note.class.getName(), NOTE_ID)));
+    }
+
+    @Test
+    void shouldMakeSavesWaitForTheRunningFlush() throws Exception {
+        // Version of the note in the database, bumped once the guarded update returns
+        AtomicLong version = new AtomicLong(5L);
+        when(noteRepository.findIdAndVersionByUserProfileIdAndUnitId(PROFILE_ID, UNIT_ID)).thenAnswer(invocation ->
+            List.<Object[]>of(new Object[] { NOTE_ID, version.get() })
+        );
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(noteRepository.updateContentIfVersion(eq(NOTE_ID), eq("a"), any(Instant.class), eq(5L))).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            version.incrementAndGet();
+            return 1;
+        });
+        NoteAutosaveDTO first = noteAutosaveService.autosave(autosave("a", 5L));
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(flush.capture(), any(Instant.class));
+
+        CompletableFuture<Void> flushing = CompletableFuture.runAsync(flush.getValue());
+        assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+        AtomicReference<Thread> saver = new AtomicReference<>();
+        CompletableFuture<NoteAutosaveDTO> second = CompletableFuture.supplyAsync(() -> {
+            saver.set(Thread.currentThread());
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("student", "student"));
+            try {
+                return noteAutosaveService.autosave(autosave("ab", first.getVersion()));
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        // Until the save waits for the flush, or fails without waiting
+        while (!second.isDone() && !isBlocked(saver.get()) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        flushing.get(10, TimeUnit.SECONDS);
+
+        NoteAutosaveDTO saved = second.get(10, TimeUnit.SECONDS);
+        assertThat(saved.isPending()).isTrue();
+        assertThat(saved.getVersion()).isEqualTo(7L);
+    }
+
+    private static boolean isBlocked(Thread thread) {
+        return thread != null && thread.getState() == Thread.State.BLOCKED;
+    }
+
+    private static NoteAutosaveDTO autosave(String content, Long version) {
+        NoteAutosaveDTO autosave = new NoteAutosaveDTO();
+        autosave.setUnitId(UNIT_ID);
+        autosave.setContent(content);
+        autosave.setVersion(version);
+        return autosave;
+    }
+}
@@ -0,0 +1,53 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link NoteSnippets}.
+ */
+class NoteSnippetsTest {
+
+    @Test
+    void shouldStripFullTextOperatorsFromQuery() {
+        List<String> terms = NoteSnippets.terms("  +Present -perfect* \"tense\" present ");
+
+        assertThat(terms).containsExactly("present", "perfect", "tense");
+        assertThat(NoteSnippets.booleanQuery(terms)).isEqualTo("+present* +perfect* +tense*");
+        assertThat(NoteSnippets.terms("*** ()")).isEmpty();
+    }
+
+    @Test
+    void shouldDropWordsMissingFromFullTextIndex() {
+        List<String> terms = NoteSnippets.terms("What is the past of go? Ăn cơm");
+
+        assertThat(terms).containsExactly("past", "cơm");
+        assertThat(NoteSnippets.booleanQuery(terms)).isEqualTo("+past* +cơm*");
+        assertThat(NoteSnippets.terms("to be or not")).containsExactly("not");
+        assertThat(NoteSnippets.terms("it is a")).isEmpty();
+    }
+
+    @Test
+    void shouldHighlightWordPrefixesIgnoringCaseAndAccents() {
+        String snippet = NoteSnippets.highlight("Thì hiện tại hoàn thành: I have <b>eaten</b>.", List.of("hien", "eat"));
+
+        assertThat(snippet).isEqualTo("Thì <mark>hiện</mark> tại hoàn thành: I have &lt;b&gt;<mark>eat</mark>en&lt;/b&gt;.");
+    }
+
+    @Test
+    void shouldNotMatchInsideWords() {
+        assertThat(NoteSnippets.highlight("repeat the beat", List.of("eat"))).isEqualTo("repeat the beat");
+    }
+
+    @Test
+    void shouldCenterSnippetOnFirstMatch() {
+        String content = "word ".repeat(60) + "target " + "tail ".repeat(60);
+
+        String snippet = NoteSnippets.highlight(content, List.of("target"));
+
+        assertThat(snippet).startsWith("…word").contains("<mark>target</mark>").endsWith("…");
+        assertThat(snippet.replace("<mark>", "").replace("</mark>", "")).hasSize(NoteSnippets.SNIPPET_LENGTH + 2);
+    }
+}
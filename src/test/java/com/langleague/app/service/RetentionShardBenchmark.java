@@ -0,0 +1,84 @@
+package com.langleague.app.service;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of {@link RetentionShard}, the aggregation kernel of the cohort retention job, on one shard of
+ * students spread over two years of cohorts. Run with {@code ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark=RetentionShard}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RetentionShardBenchmark {
+
+    private static final int FIRST_WEEK = 2800;
+
+    @Param({ "10000", "100000" })
+    public int students;
+
+    private int[] cohortWeeks;
+
+    private int[] activeFrom;
+
+    private int[] activeTo;
+
+    private RetentionShard shard;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        cohortWeeks = new int[students];
+        activeFrom = new int[students];
+        activeTo = new int[students];
+        for (int i = 0; i < students; i++) {
+            cohortWeeks[i] = FIRST_WEEK + random.nextInt(CohortRetentionService.MAX_COHORTS);
+            activeFrom[i] = cohortWeeks[i] + random.nextInt(RetentionShard.MAX_WEEK_OFFSETS);
+            activeTo[i] = activeFrom[i] + random.nextInt(4);
+        }
+        shard = addStudents(new RetentionShard());
+        markActive();
+    }
+
+    @Benchmark
+    public RetentionShard addStudent() {
+        // From the default capacity, as the job does
+        return addStudents(new RetentionShard());
+    }
+
+    @Benchmark
+    public RetentionShard markActive() {
+        for (int i = 0; i < students; i++) {
+            shard.markActive(i + 1L, activeFrom[i], activeTo[i]);
+        }
+        return shard;
+    }
+
+    @Benchmark
+    public long[] accumulate() {
+        long[] triangle = new long[CohortRetentionService.MAX_COHORTS * RetentionShard.STRIDE];
+        shard.accumulate(triangle, FIRST_WEEK);
+        return triangle;
+    }
+
+    private RetentionShard addStudents(RetentionShard target) {
+        for (int i = 0; i < students; i++) {
+            target.addStudent(i + 1L, cohortWeeks[i]);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,66 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link RetentionShard}, the aggregation kernel of the cohort retention job.
+ */
+class RetentionShardTest {
+
+    private static final int FIRST_WEEK = 2800;
+
+    @Test
+    void shouldNumberWeeksFromMonday() {
+        // 1970-01-05 was a Monday
+        assertThat(RetentionShard.weekOfEpochDay(4)).isZero();
+        assertThat(RetentionShard.weekOfEpochDay(10)).isZero();
+        assertThat(RetentionShard.weekOfEpochDay(11)).isEqualTo(1);
+        assertThat(RetentionShard.weekOfEpochDay(3)).isEqualTo(-1);
+        assertThat(RetentionShard.epochDayOfWeek(RetentionShard.weekOfEpochDay(20_000))).isEqualTo(19_996);
+    }
+
+    @Test
+    void shouldCountRetainedStudentsByWeekOffset() {
+        RetentionShard shard = new RetentionShard(2);
+        shard.addStudent(1L, FIRST_WEEK);
+        shard.addStudent(2L, FIRST_WEEK);
+        shard.addStudent(3L, FIRST_WEEK + 1);
+        // Older cohort, not followed
+        shard.addStudent(4L, FIRST_WEEK - 1);
+
+        shard.markActive(1L, FIRST_WEEK);
+        shard.markActive(1L, FIRST_WEEK);
+        shard.markActive(1L, FIRST_WEEK + 2);
+        shard.markActive(2L, FIRST_WEEK + 1, FIRST_WEEK + 3);
+        shard.markActive(3L, FIRST_WEEK - 5, FIRST_WEEK + 1);
+        shard.markActive(4L, FIRST_WEEK);
+        // Not a student of any cohort
+        shard.markActive(5L, FIRST_WEEK);
+
+        long[] triangle = new long[2 * RetentionShard.STRIDE];
+        shard.accumulate(triangle, FIRST_WEEK);
+
+        assertThat(shard.size()).isEqualTo(4);
+        assertThat(triangle[RetentionShard.MAX_WEEK_OFFSETS]).isEqualTo(2);
+        assertThat(triangle).startsWith(1, 1, 2, 1, 0);
+        int second = RetentionShard.STRIDE;
+        assertThat(triangle[second + RetentionShard.MAX_WEEK_OFFSETS]).isEqualTo(1);
+        assertThat(triangle[second]).isEqualTo(1);
+        assertThat(triangle[second + 1]).isZero();
+    }
+
+    @Test
+    void shouldIgnoreWeeksBeyondLastOffset() {
+        RetentionShard shard = new RetentionShard();
+        shard.addStudent(1L, FIRST_WEEK);
+        shard.markActive(1L, FIRST_WEEK + RetentionShard.MAX_WEEK_OFFSETS - 1, FIRST_WEEK + 500);
+
+        long[] triangle = new long[RetentionShard.STRIDE];
+        shard.accumulate(triangle, FIRST_WEEK);
+
+        assertThat(triangle[RetentionShard.MAX_WEEK_OFFSETS - 1]).isEqualTo(1);
+        assertThat(triangle[RetentionShard.MAX_WEEK_OFFSETS]).isEqualTo(1);
+    }
+}
@@ -0,0 +1,87 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.langleague.app.service.dto.SystemOverviewDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * Unit tests for {@link SystemOverviewService}.
+ */
+class SystemOverviewServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SystemOverviewService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*), COALESCE(SUM(activated)"), any(RowMapper.class))).thenReturn(
+            new long[] { 12L, 10L }
+        );
+        when(jdbcTemplate.query(startsWith("SELECT authority_name"), any(ResultSetExtractor.class))).thenReturn(
+            Map.of("ROLE_USER", 12L, "ROLE_ADMIN", 1L)
+        );
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM book", Long.class)).thenReturn(4L);
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM enrollment", Long.class)).thenReturn(30L);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*), COALESCE(SUM(is_completed)"), any(RowMapper.class))).thenReturn(
+            new long[] { 8L, 3L }
+        );
+        meterRegistry = new SimpleMeterRegistry();
+        service = new SystemOverviewService(jdbcTemplate, meterRegistry, new SyncTaskExecutor());
+    }
+
+    @Test
+    void shouldComputeSnapshotOnFirstRequestAndServeItFromMemory() {
+        SystemOverviewDTO overview = service.getOverview();
+        service.getOverview();
+
+        assertThat(overview.getTotalUsers()).isEqualTo(12L);
+        assertThat(overview.getActivatedUsers()).isEqualTo(10L);
+        assertThat(overview.getUsersByAuthority()).containsEntry("ROLE_ADMIN", 1L);
+        assertThat(overview.getTotalBooks()).isEqualTo(4L);
+        assertThat(overview.getTotalEnrollments()).isEqualTo(30L);
+        assertThat(overview.getCompletionRate()).isEqualTo(38);
+        assertThat(overview.getAgeSeconds()).isLessThan(5);
+        verify(jdbcTemplate, times(1)).queryForObject("SELECT COUNT(*) FROM book", Long.class);
+    }
+
+    @Test
+    void shouldTimeEveryQueryAndExposeSnapshotAge() {
+        assertThat(meterRegistry.get(SystemOverviewService.SNAPSHOT_AGE_GAUGE).gauge().value()).isNaN();
+
+        service.refresh();
+
+        for (String query : new String[] { "users", "authorities", "books", "enrollments", "progresses" }) {
+            assertThat(meterRegistry.get(SystemOverviewService.QUERY_TIMER).tag("query", query).timer().count()).isEqualTo(1);
+        }
+        assertThat(meterRegistry.get(SystemOverviewService.SNAPSHOT_AGE_GAUGE).gauge().value()).isBetween(0.0, 5.0);
+    }
+
+    @Test
+    void shouldKeepPreviousSnapshotWhenRefreshFails() {
+        service.refresh();
+        when(jdbcTemplate.queryForObject(eq("SELECT COUNT(*) FROM book"), eq(Long.class))).thenThrow(new IllegalStateException("down"));
+
+        service.refresh();
+
+        assertThat(service.getOverview().getTotalBooks()).isEqualTo(4L);
+    }
+}
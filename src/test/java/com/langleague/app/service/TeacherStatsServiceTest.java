@@ -0,0 +1,124 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.langleague.app.domain.Book;
+import com.langleague.app.domain.Enrollment;
+import com.langleague.app.domain.UserProfile;
+import com.langleague.app.repository.TeacherStatsRepository;
+import com.langleague.app.service.TeacherStatsService.ProgressContribution;
+import java.time.Instant;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link TeacherStatsService}.
+ */
+class TeacherStatsServiceTest {
+
+    private static final Long TEACHER_ID = 1L;
+    private static final Long OTHER_TEACHER_ID = 2L;
+    private static final Long UNIT_ID = 10L;
+    private static final Long OTHER_UNIT_ID = 20L;
+    private static final Long BOOK_ID = 100L;
+    private static final Long STUDENT_ID = 7L;
+
+    private TeacherStatsRepository teacherStatsRepository;
+
+    private TeacherStatsService teacherStatsService;
+
+    @BeforeEach
+    void setUp() {
+        teacherStatsRepository = mock(TeacherStatsRepository.class);
+        when(teacherStatsRepository.findTeacherProfileIdByUnitId(UNIT_ID)).thenReturn(Optional.of(TEACHER_ID));
+        when(teacherStatsRepository.findTeacherProfileIdByUnitId(OTHER_UNIT_ID)).thenReturn(Optional.of(OTHER_TEACHER_ID));
+        when(teacherStatsRepository.findTeacherProfileIdByBookId(BOOK_ID)).thenReturn(Optional.of(TEACHER_ID));
+        teacherStatsService = new TeacherStatsService(teacherStatsRepository);
+    }
+
+    @Test
+    void shouldAddTheDifferenceOfAProgressChange() {
+        teacherStatsService.progressChanged(new ProgressContribution(UNIT_ID, false, 40), new ProgressContribution(UNIT_ID, true, 90));
+
+        verifyDelta(TEACHER_ID, 0, 0, 0, 1, 50, 0);
+    }
+
+    @Test
+    void shouldNotWriteWhenTheProgressChangeDoesNotCount() {
+        teacherStatsService.progressChanged(null, new ProgressContribution(UNIT_ID, false, null));
+        teacherStatsService.progressChanged(new ProgressContribution(UNIT_ID, true, 70), new ProgressContribution(UNIT_ID, true, 70));
+
+        verify(teacherStatsRepository, never()).addToTeacherStats(
+            anyLong(),
+            anyLong(),
+            anyLong(),
+            anyLong(),
+            anyLong(),
+            anyLong(),
+            anyLong(),
+            any(Instant.class)
+        );
+    }
+
+    @Test
+    void shouldMoveAProgressBetweenTeachers() {
+        teacherStatsService.progressChanged(new ProgressContribution(UNIT_ID, true, 80), new ProgressContribution(OTHER_UNIT_ID, true, 80));
+
+        verifyDelta(TEACHER_ID, 0, 0, 0, -1, -80, -1);
+        verifyDelta(OTHER_TEACHER_ID, 0, 0, 0, 1, 80, 1);
+    }
+
+    @Test
+    void shouldCountAStudentOnlyOnTheirFirstEnrollmentWithATeacher() {
+        Enrollment enrollment = enrollment(5L);
+        when(teacherStatsRepository.countOtherEnrollmentsOfStudentWithTeacher(STUDENT_ID, TEACHER_ID, 5L)).thenReturn(0L);
+        teacherStatsService.enrollmentAdded(enrollment);
+        verifyDelta(TEACHER_ID, 0, 1, 1, 0, 0, 0);
+
+        Enrollment second = enrollment(6L);
+        when(teacherStatsRepository.countOtherEnrollmentsOfStudentWithTeacher(STUDENT_ID, TEACHER_ID, 6L)).thenReturn(1L);
+        teacherStatsService.enrollmentAdded(second);
+        verifyDelta(TEACHER_ID, 0, 1, 0, 0, 0, 0);
+    }
+
+    @Test
+    void shouldReturnZerosForATeacherWithoutStats() {
+        when(teacherStatsRepository.findById(TEACHER_ID)).thenReturn(Optional.empty());
+
+        assertThat(teacherStatsService.getDashboardStats(TEACHER_ID).getAverageScore()).isZero();
+        assertThat(teacherStatsService.getDashboardStats(TEACHER_ID).getBookStats()).isEmpty();
+    }
+
+    private void verifyDelta(
+        Long teacherProfileId,
+        long books,
+        long enrollments,
+        long students,
+        long completed,
+        long scoreSum,
+        long scored
+    ) {
+        verify(teacherStatsRepository).addToTeacherStats(
+            eq(teacherProfileId),
+            eq(books),
+            eq(enrollments),
+            eq(students),
+            eq(completed),
+            eq(scoreSum),
+            eq(scored),
+            any(Instant.class)
+        );
+    }
+
+    private static Enrollment enrollment(Long id) {
+        return new Enrollment().id(id).userProfile(new UserProfile().id(STUDENT_ID)).book(new Book().id(BOOK_ID));
+    }
+}
@@ -0,0 +1,137 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.langleague.app.domain.Authority;
+import com.langleague.app.domain.User;
+import com.langleague.app.security.AuthoritiesConstants;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Unit tests for {@link UserSearchIndex}.
+ */
+class UserSearchIndexTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        index = new UserSearchIndex(jdbcTemplate, cacheInvalidationBus);
+        index.index(user(1L, "admin", "admin@localhost", "Administrator", null, true, AuthoritiesConstants.ADMIN));
+        index.build();
+        index.index(user(2L, "nguyenvana", "vana@gmail.com", "Văn A", "Nguyễn", true, AuthoritiesConstants.STUDENT));
+        index.index(user(3L, "tranbinh", "binh@gmail.com", "Bình", "Trần", false, AuthoritiesConstants.STUDENT));
+        index.index(user(4L, "lethu", "thu@school.edu", "Thu", "Lê", true, AuthoritiesConstants.TEACHER));
+    }
+
+    @Test
+    void shouldReplayChangesMadeBeforeBuild() {
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("admin", null, null, null, false, 0, 10).userIds()).containsExactly(1L);
+    }
+
+    @Test
+    void shouldMatchSubstringsIgnoringCaseAndAccents() {
+        assertThat(index.search("NGUYEN", null, null, null, false, 0, 10).userIds()).containsExactly(2L);
+        assertThat(index.search("gmail", null, null, null, false, 0, 10).userIds()).containsExactly(2L, 3L);
+        assertThat(index.search("hu", null, null, null, false, 0, 10).userIds()).containsExactly(4L);
+        // Matches never span two fields
+        assertThat(index.search("inhbinh", null, null, null, false, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void shouldCombineRoleAndActivationFilters() {
+        assertThat(index.search("gmail", AuthoritiesConstants.STUDENT, true, null, false, 0, 10).userIds()).containsExactly(2L);
+        assertThat(index.search(null, null, false, null, false, 0, 10).userIds()).containsExactly(3L);
+        assertThat(index.search(null, "ROLE_UNKNOWN", null, null, false, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void shouldPageByOffsetOrKeyset() {
+        UserSearchIndex.SearchPage second = index.search("", null, null, null, false, 2, 2);
+        assertThat(second.userIds()).containsExactly(3L, 4L);
+        assertThat(second.total()).isEqualTo(4);
+
+        assertThat(index.search("", null, null, 2L, false, 0, 10).userIds()).containsExactly(3L, 4L);
+        assertThat(index.search("", null, null, 3L, true, 0, 10).userIds()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void shouldReindexUpdatedAndRemovedUsers() {
+        index.index(user(2L, "nguyenvana", "vana@yahoo.com", "Văn A", "Nguyễn", true, AuthoritiesConstants.TEACHER));
+        User removed = user(3L, "tranbinh", "binh@gmail.com", "Bình", "Trần", false);
+        index.remove(removed);
+
+        assertThat(index.search("gmail", null, null, null, false, 0, 10).total()).isZero();
+        assertThat(index.search("yahoo", AuthoritiesConstants.TEACHER, null, null, false, 0, 10).userIds()).containsExactly(2L);
+        assertThat(index.search(null, AuthoritiesConstants.STUDENT, null, null, false, 0, 10).total()).isZero();
+    }
+
+    @Test
+    void shouldReadAgainUsersChangedOnAnotherNode() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT login"), eq(2L))).thenReturn(
+            List.of(Map.of("login", "nguyenvana", "email", "vana@yahoo.com", "first_name", "Văn A", "activated", true))
+        );
+        when(jdbcTemplate.queryForList(startsWith("SELECT authority_name"), eq(String.class), eq(2L))).thenReturn(
+            List.of(AuthoritiesConstants.TEACHER)
+        );
+        Consumer<String> userEvictions = userEvictionListener();
+
+        userEvictions.accept("2");
+        // Deleted on the other node: no row left
+        userEvictions.accept("3");
+
+        assertThat(index.search("gmail", null, null, null, false, 0, 10).total()).isZero();
+        assertThat(index.search("yahoo", AuthoritiesConstants.TEACHER, true, null, false, 0, 10).userIds()).containsExactly(2L);
+        assertThat(index.search("nguyen", null, null, null, false, 0, 10).userIds()).containsExactly(2L);
+    }
+
+    @Test
+    void shouldReloadEveryUserWhenTheWholeRegionIsEvicted() {
+        userEvictionListener().accept(null);
+
+        // Reloaded from the mocked database, which has no users
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search(null, null, null, null, false, 0, 10).total()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Consumer<String> userEvictionListener() {
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(cacheInvalidationBus).addListener(eq(User.class.getName()), listener.capture());
+        return listener.getValue();
+    }
+
+    private static User user(Long id, String login, String email, String firstName, String lastName, boolean activated, String... roles) {
+        User user = new User();
+        user.setId(id);
+        user.setLogin(login);
+        user.setEmail(email);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setActivated(activated);
+        for (String role : roles) {
+            Authority authority = new Authority();
+            authority.setName(role);
+            user.getAuthorities().add(authority);
+        }
+        return user;
+    }
+}
@@ -5,10 +5,13 @@ import static org.mockito.Mockito.when;
 
 import com.langleague.app.IntegrationTest;
 import com.langleague.app.domain.User;
+import com.langleague.app.repository.AuthorityRepository;
 import com.langleague.app.repository.UserRepository;
+import com.langleague.app.security.AuthoritiesConstants;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -21,6 +24,7 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.security.RandomUtil;
@@ -53,6 +57,12 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Autowired
     private AuditingHandler auditingHandler;
 
@@ -189,6 +199,29 @@ class UserServiceIT {
         assertThat(users).isEmpty();
     }
 
+    @Test
+    @Transactional
+    void assertThatPurgedUsersLoseTheirAuthoritiesAndCacheEntries() {
+        Instant now = Instant.now();
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
+        user.setActivated(false);
+        user.setActivationKey(RandomStringUtils.insecure().next(20));
+        user.setAuthorities(new HashSet<>(authorityRepository.findAllById(List.of(AuthoritiesConstants.USER))));
+        User dbUser = userRepository.saveAndFlush(user);
+        dbUser.setCreatedDate(now.minus(4, ChronoUnit.DAYS));
+        userRepository.saveAndFlush(user);
+        assertThat(userRepository.findOneWithAuthoritiesByLogin(DEFAULT_LOGIN)).isPresent();
+        assertThat(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get(DEFAULT_LOGIN)).isNotNull();
+
+        userService.removeNotActivatedUsers();
+
+        assertThat(
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM jhi_user_authority WHERE user_id = ?", Integer.class, dbUser.getId())
+        ).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM jhi_user WHERE id = ?", Integer.class, dbUser.getId())).isZero();
+        assertThat(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get(DEFAULT_LOGIN)).isNull();
+    }
+
     @Test
     @Transactional
     void assertThatNotActivatedUsersWithNullActivationKeyCreatedBefore3DaysAreNotDeleted() {
@@ -0,0 +1,145 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.langleague.app.repository.VocabularyRepository;
+import com.langleague.app.service.dto.GameRoundDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit tests for {@link VocabularyGameService}.
+ */
+class VocabularyGameServiceTest {
+
+    private static final Long BOOK_ID = 1L;
+
+    private VocabularyRepository vocabularyRepository;
+
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private VocabularyGameService vocabularyGameService;
+
+    @BeforeEach
+    void setUp() {
+        vocabularyRepository = mock(VocabularyRepository.class);
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        vocabularyGameService = new VocabularyGameService(vocabularyRepository, cacheInvalidationBus);
+
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { 1L, 10L, "apple", "qua tao" });
+        rows.add(new Object[] { 2L, 10L, "banana", "qua chuoi" });
+        rows.add(new Object[] { 3L, 10L, "orange", "qua cam" });
+        rows.add(new Object[] { 4L, 20L, "tangerine", "Qua cam " });
+        rows.add(new Object[] { 5L, 20L, "grape", "qua nho" });
+        rows.add(new Object[] { 6L, 20L, "lemon", "qua chanh" });
+        when(vocabularyRepository.findWordPoolRowsByBookId(BOOK_ID)).thenReturn(rows);
+    }
+
+    @Test
+    void shouldGenerateRoundsWithDistinctOptionsContainingTheAnswer() {
+        List<GameRoundDTO> rounds = vocabularyGameService.generateRounds(BOOK_ID, null, 6, 4, false);
+
+        assertThat(rounds).hasSize(6);
+        assertThat(rounds).extracting(GameRoundDTO::getVocabularyId).doesNotHaveDuplicates();
+        for (GameRoundDTO round : rounds) {
+            assertThat(round.getOptions()).hasSize(4).doesNotHaveDuplicates();
+            assertThat(round.getCorrectIndex()).isBetween(0, 3);
+        }
+    }
+
+    @Test
+    void shouldNotUseASharedMeaningAsDistractor() {
+        for (int i = 0; i < 50; i++) {
+            GameRoundDTO round = vocabularyGameService.generateRounds(BOOK_ID, List.of(20L), 1, 5, i % 2 == 0).get(0);
+            List<String> normalized = round.getOptions().stream().map(option -> option.trim().toLowerCase()).toList();
+            assertThat(normalized).doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    void shouldRestrictTargetsToRequestedUnits() {
+        List<GameRoundDTO> rounds = vocabularyGameService.generateRounds(BOOK_ID, List.of(10L), 10, 3, true);
+
+        assertThat(rounds).extracting(GameRoundDTO::getVocabularyId).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    void shouldCacheWordPoolUntilEvicted() {
+        vocabularyGameService.generateRounds(BOOK_ID, null, 1, 2, false);
+        vocabularyGameService.generateRounds(BOOK_ID, null, 1, 2, false);
+        verify(vocabularyRepository, times(1)).findWordPoolRowsByBookId(BOOK_ID);
+
+        vocabularyGameService.evictWordPools();
+        vocabularyGameService.generateRounds(BOOK_ID, null, 1, 2, false);
+        verify(vocabularyRepository, times(2)).findWordPoolRowsByBookId(BOOK_ID);
+    }
+
+    @Test
+    void shouldEvictWordPoolOnlyOnceTheTransactionCommits() {
+        vocabularyGameService.generateRounds(BOOK_ID, null, 1, 2, false);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            vocabularyGameService.evictWordPools();
+            vocabularyGameService.generateRounds(BOOK_ID, null, 1, 2, false);
+            verify(vocabularyRepository, times(1)).findWordPoolRowsByBookId(BOOK_ID);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        vocabularyGameService.generateRounds(BOOK_ID, null, 1, 2, false);
+        verify(vocabularyRepository, times(2)).findWordPoolRowsByBookId(BOOK_ID);
+    }
+
+    @Test
+    void shouldKeepWordPoolWhenTheTransactionRollsBack() {
+        vocabularyGameService.generateRounds(BOOK_ID, null, 1, 2, false);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            vocabularyGameService.evictWordPools();
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        vocabularyGameService.generateRounds(BOOK_ID, null, 1, 2, false);
+        verify(vocabularyRepository, times(1)).findWordPoolRowsByBookId(BOOK_ID);
+    }
+
+    @Test
+    void shouldShareWordPoolEvictionsWithTheOtherNodes() {
+        vocabularyGameService.evictWordPools();
+
+        verify(cacheInvalidationBus).publish(List.of(CacheInvalidation.region(VocabularyGameService.WORD_POOL_REGION)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldDropWordPoolsEvictedByAnotherNode() {
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(cacheInvalidationBus).addListener(eq(VocabularyGameService.WORD_POOL_REGION), listener.capture());
+        vocabularyGameService.generateRounds(BOOK_ID, null, 1, 2, false);
+
+        listener.getValue().accept(null);
+        vocabularyGameService.generateRounds(BOOK_ID, null, 1, 2, false);
+
+        verify(vocabularyRepository, times(2)).findWordPoolRowsByBookId(BOOK_ID);
+        verify(cacheInvalidationBus, never()).publish(any());
+    }
+}
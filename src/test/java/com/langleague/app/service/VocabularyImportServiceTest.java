@@ -0,0 +1,146 @@
+package com.langleague.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.langleague.app.domain.Unit;
+import com.langleague.app.repository.VocabularyRepository;
+import com.langleague.app.service.dto.VocabularyImportResultDTO;
+import com.langleague.app.service.dto.VocabularyImportResultDTO.RowErrorDTO;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Unit tests for {@link VocabularyImportService}.
+ */
+class VocabularyImportServiceTest {
+
+    private static final Long UNIT_ID = 7L;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private VocabularyGameService vocabularyGameService;
+
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private VocabularyImportService vocabularyImportService;
+
+    private final List<List<Object[]>> batches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        VocabularyRepository vocabularyRepository = mock(VocabularyRepository.class);
+        when(vocabularyRepository.findMaxOrderIndexByUnitId(UNIT_ID)).thenReturn(9);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        // The service reuses its chunk list, so each batch is copied
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            batches.add(new ArrayList<>(invocation.<List<Object[]>>getArgument(1)));
+            return new int[0];
+        });
+        vocabularyGameService = mock(VocabularyGameService.class);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(mock(SessionFactory.class, RETURNS_DEEP_STUBS));
+        cacheInvalidationBus = mock(CacheInvalidationBus.class);
+        vocabularyImportService = new VocabularyImportService(
+            vocabularyRepository,
+            vocabularyGameService,
+            jdbcTemplate,
+            mock(PlatformTransactionManager.class),
+            entityManagerFactory,
+            cacheInvalidationBus
+        );
+    }
+
+    @Test
+    void shouldInsertInChunksAfterExistingVocabularies() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        int rows = 2 * VocabularyImportService.CHUNK_SIZE + 1;
+        for (int i = 0; i < rows; i++) {
+            csv.append("word").append(i).append(",meaning").append(i).append('\n');
+        }
+
+        VocabularyImportResultDTO result = importText(csv.toString());
+
+        assertThat(result.getImported()).isEqualTo(rows);
+        assertThat(result.getRejected()).isZero();
+        assertThat(batches)
+            .extracting(List::size)
+            .containsExactly(VocabularyImportService.CHUNK_SIZE, VocabularyImportService.CHUNK_SIZE, 1);
+        // word, phonetic, meaning, example, image_url, order_index, unit_id
+        assertThat(batches.get(0).get(0)).containsExactly("word0", null, "meaning0", null, null, 10, UNIT_ID);
+        assertThat(batches.get(2).get(0)).containsExactly("word1000", null, "meaning1000", null, null, 1010, UNIT_ID);
+        verify(vocabularyGameService).evictWordPools();
+        verify(cacheInvalidationBus).publish(List.of(CacheInvalidation.entry(Unit.class.getName() + ".vocabularies", UNIT_ID)));
+    }
+
+    @Test
+    void shouldDetectHeaderLongerThanAnyBuffer() throws IOException {
+        String longColumn = "comment".repeat(20_000);
+        String tsv = "meaning\tword\t" + longColumn + "\nquả táo\tapple\t" + "x".repeat(100) + "\n";
+
+        VocabularyImportResultDTO result = importText(tsv);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(batches.get(0).get(0)).startsWith("apple", null, "quả táo");
+    }
+
+    @Test
+    void shouldDetectSemicolonsWithoutHeader() throws IOException {
+        VocabularyImportResultDTO result = importText("apple;quả táo;/ˈæp.əl/\n");
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(batches.get(0).get(0)).startsWith("apple", "/ˈæp.əl/", "quả táo");
+    }
+
+    @Test
+    void shouldRejectOnlyFailingRowsOfChunk() throws IOException {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            if ("pear".equals(invocation.getArgument(1))) {
+                throw new DataIntegrityViolationException("Duplicate entry");
+            }
+            return 1;
+        });
+
+        VocabularyImportResultDTO result = importText("word,meaning\napple,quả táo\npear,quả lê\n,no word\nplum,quả mận\n");
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(RowErrorDTO::getLine).containsExactly(4, 3);
+        assertThat(result.getErrors().get(1).getMessage()).startsWith("Could not be saved");
+        verify(jdbcTemplate, times(3)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void shouldNotEvictWhenNothingWasImported() throws IOException {
+        VocabularyImportResultDTO result = importText("word,meaning\n,missing word\n");
+
+        assertThat(result.getImported()).isZero();
+        assertThat(result.getErrors()).extracting(RowErrorDTO::getMessage).containsExactly("Word is required");
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(vocabularyGameService, never()).evictWordPools();
+        verify(cacheInvalidationBus, never()).publish(anyList());
+    }
+
+    private VocabularyImportResultDTO importText(String text) throws IOException {
+        return vocabularyImportService.importVocabularies(UNIT_ID, new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+}
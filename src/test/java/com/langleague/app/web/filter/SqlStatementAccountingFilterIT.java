@@ -0,0 +1,74 @@
+package com.langleague.app.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.langleague.app.IntegrationTest;
+import com.langleague.app.management.SqlStatementInspector;
+import com.langleague.app.management.SqlStatementMetersService;
+import com.langleague.app.management.SqlStatementStatistics;
+import com.langleague.app.web.rest.QueryBudget;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+@AutoConfigureMockMvc
+@WithMockUser
+@IntegrationTest
+class SqlStatementAccountingFilterIT {
+
+    private static final String HANDLER = "UnitResource.getAllUnitsByBook";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SqlStatementMetersService sqlStatementMetersService;
+
+    @Test
+    @QueryBudget(2)
+    void testFilterRecordsStatementsPerHandler() throws Exception {
+        long before = statementsSummaryCount();
+
+        mockMvc
+            .perform(get("/api/units/by-book/{bookId}", Long.MAX_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(SqlStatementAccountingFilter.STATEMENTS_HEADER))
+            .andExpect(header().exists(SqlStatementAccountingFilter.ROWS_HEADER))
+            .andExpect(header().exists(SqlStatementAccountingFilter.TIME_HEADER));
+
+        assertThat(statementsSummaryCount()).isEqualTo(before + 1);
+        assertThat(meterRegistry.get(SqlStatementMetersService.STATEMENTS_METER_NAME).tag("handler", HANDLER).summary().max())
+            .isPositive();
+    }
+
+    @Test
+    void testRepeatedStatementIsReported() {
+        SqlStatementInspector inspector = new SqlStatementInspector();
+        SqlStatementStatistics statistics = SqlStatementStatistics.begin("GET /api/test");
+        for (int i = 0; i < 10; i++) {
+            inspector.inspect("select v1_0.id from vocabulary v1_0 where v1_0.unit_id=?");
+        }
+        statistics.end("TestResource.getAll");
+
+        sqlStatementMetersService.record(statistics);
+
+        assertThat(statistics.getMostRepeatedStatement().getValue()).isEqualTo(10);
+        assertThat(meterRegistry.get(SqlStatementMetersService.REPEATED_METER_NAME).tag("handler", "TestResource.getAll").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    private long statementsSummaryCount() {
+        DistributionSummary summary = meterRegistry.find(SqlStatementMetersService.STATEMENTS_METER_NAME).tag("handler", HANDLER).summary();
+        return summary == null ? 0 : summary.count();
+    }
+}
@@ -0,0 +1,147 @@
+package com.langleague.app.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.langleague.app.IntegrationTest;
+import com.langleague.app.service.dto.UploadSessionDTO;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Integration tests for the {@link FileUploadResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class FileUploadResourceIT {
+
+    private static final Path UPLOADS = Paths.get("storage/uploads").toAbsolutePath().normalize();
+
+    private static final byte[] CONTENT = "Chunked upload content, sent in three parts.".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void cleanup() throws Exception {
+        Files.deleteIfExists(UPLOADS.resolve(sha256(CONTENT) + ".txt"));
+    }
+
+    @Test
+    void uploadInChunksAndResume() throws Exception {
+        String uploadId = createSession(CONTENT.length, sha256(CONTENT));
+
+        appendChunk(uploadId, 0, 0, 10).andExpect(status().isOk()).andExpect(jsonPath("$.offset").value(10));
+        // A chunk sent ahead of a lost one is refused, the client resumes from the reported offset
+        appendChunk(uploadId, 20, 20, CONTENT.length).andExpect(status().isBadRequest());
+        mockMvc
+            .perform(get("/api/upload/sessions/{uploadId}", uploadId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.offset").value(10));
+        appendChunk(uploadId, 10, 10, 20).andExpect(status().isOk()).andExpect(jsonPath("$.offset").value(20));
+        appendChunk(uploadId, 20, 20, CONTENT.length).andExpect(status().isOk()).andExpect(jsonPath("$.offset").value(CONTENT.length));
+
+        mockMvc
+            .perform(post("/api/upload/sessions/{uploadId}/complete", uploadId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.fileUrl").value("/content/uploads/" + sha256(CONTENT) + ".txt"));
+        assertThat(UPLOADS.resolve(sha256(CONTENT) + ".txt")).hasBinaryContent(CONTENT);
+        mockMvc.perform(get("/api/upload/sessions/{uploadId}", uploadId)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void serveUploadsAsImmutable() throws Exception {
+        String uploadId = createSession(CONTENT.length, null);
+        appendChunk(uploadId, 0, 0, CONTENT.length).andExpect(status().isOk());
+        mockMvc.perform(post("/api/upload/sessions/{uploadId}/complete", uploadId)).andExpect(status().isOk());
+
+        mockMvc
+            .perform(get("/content/uploads/{fileName}", sha256(CONTENT) + ".txt"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+            .andExpect(header().string("ETag", containsString(sha256(CONTENT))));
+        // No variant of this file will ever be generated: the original is served, to be revalidated
+        mockMvc
+            .perform(get("/content/uploads/{fileName}", sha256(CONTENT) + ".txt").param("size", "thumb"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void rejectChunkPastAnnouncedSize() throws Exception {
+        String uploadId = createSession(10, null);
+
+        appendChunk(uploadId, 0, 0, 12)
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.sizeexceeded"));
+        mockMvc.perform(get("/api/upload/sessions/{uploadId}", uploadId)).andExpect(jsonPath("$.offset").value(0));
+        mockMvc.perform(post("/api/upload/sessions/{uploadId}/complete", uploadId)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectInvalidSession() throws Exception {
+        UploadSessionDTO request = new UploadSessionDTO();
+        request.setFileName("notes.txt");
+        request.setSize(-1L);
+
+        mockMvc
+            .perform(post("/api/upload/sessions").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(request)))
+            .andExpect(status().isBadRequest());
+    }
+
+    private String createSession(long size, String sha256) throws Exception {
+        UploadSessionDTO request = new UploadSessionDTO();
+        request.setFileName("notes.txt");
+        request.setContentType("text/plain");
+        request.setSize(size);
+        request.setSha256(sha256);
+        String body = mockMvc
+            .perform(post("/api/upload/sessions").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(request)))
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Location", startsWith("/api/upload/sessions/")))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return om.readValue(body, UploadSessionDTO.class).getUploadId();
+    }
+
+    private ResultActions appendChunk(String uploadId, long offset, int from, int to) throws Exception {
+        // Zero padded past the end of the content
+        byte[] chunk = Arrays.copyOfRange(CONTENT, from, to);
+        return mockMvc.perform(
+            put("/api/upload/sessions/{uploadId}", uploadId)
+                .param("offset", String.valueOf(offset))
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(chunk)
+        );
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
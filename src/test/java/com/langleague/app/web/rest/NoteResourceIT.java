@@ -0,0 +1,212 @@
+package com.langleague.app.web.rest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.langleague.app.IntegrationTest;
+import com.langleague.app.domain.Book;
+import com.langleague.app.domain.Note;
+import com.langleague.app.domain.Unit;
+import com.langleague.app.domain.User;
+import com.langleague.app.domain.UserProfile;
+import com.langleague.app.security.AuthoritiesConstants;
+import com.langleague.app.service.dto.NoteDTO;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link NoteResource} REST controller.
+ * <p>
+ * Rows are committed, because InnoDB only adds them to the full-text index on commit.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(value = NoteResourceIT.LOGIN, authorities = AuthoritiesConstants.STUDENT)
+class NoteResourceIT {
+
+    static final String LOGIN = "note-resource-it";
+
+    private static final String OTHER_LOGIN = "note-resource-it-other";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Object> created = new ArrayList<>();
+
+    private Note presentPerfect;
+
+    private Note presentContinuous;
+
+    private Book book;
+
+    private List<Unit> unitsWithNote;
+
+    private Book otherBook;
+
+    @BeforeEach
+    void initTest() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            UserProfile userProfile = createUserProfile(LOGIN);
+            UserProfile otherUserProfile = createUserProfile(OTHER_LOGIN);
+            book = new Book().title("Note book").isPublic(true).createdAt(Instant.now()).teacherProfile(otherUserProfile);
+            Unit perfectUnit = new Unit().title("Present perfect").orderIndex(1).book(book);
+            Unit continuousUnit = new Unit().title("Present continuous").orderIndex(2).book(book);
+            Unit pastUnit = new Unit().title("Past simple").orderIndex(3).book(book);
+            Unit unitWithoutNote = new Unit().title("Articles").orderIndex(4).book(book);
+            otherBook = new Book().title("Other book").isPublic(true).createdAt(Instant.now()).teacherProfile(otherUserProfile);
+            Unit otherUnit = new Unit().title("Plurals").orderIndex(1).book(otherBook);
+            persist(book, perfectUnit, continuousUnit, pastUnit, unitWithoutNote, otherBook, otherUnit);
+            unitsWithNote = List.of(perfectUnit, continuousUnit, pastUnit);
+            presentPerfect = createNote("The present perfect links the past to now: I have eaten.", userProfile, perfectUnit);
+            presentContinuous = createNote("The present continuous is for actions in progress.", userProfile, continuousUnit);
+            createNote("Past simple: I ate.", userProfile, pastUnit);
+            createNote("The present perfect of another student.", otherUserProfile, perfectUnit);
+            createNote("Plurals of another student.", otherUserProfile, otherUnit);
+        });
+    }
+
+    @AfterEach
+    void cleanup() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = created.size() - 1; i >= 0; i--) {
+                // By reference, as notes may have been updated since
+                Object entity = created.get(i);
+                em.remove(em.getReference(entity.getClass(), em.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity)));
+            }
+        });
+        created.clear();
+    }
+
+    @Test
+    void getUnitIdsWithNoteForBook() throws Exception {
+        // Every unit but the last has a note of the current user
+        mockMvc
+            .perform(get("/api/notes/check-book/{bookId}", book.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(contains(unitsWithNote.stream().map(unit -> unit.getId().intValue()).toArray())));
+    }
+
+    @Test
+    void getUnitIdsWithNoteForBookIgnoresNotesOfOtherUsers() throws Exception {
+        // Book of another user, where only that user has notes
+        mockMvc
+            .perform(get("/api/notes/check-book/{bookId}", otherBook.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void searchNotesRequiresEveryIndexedWordAsPrefix() throws Exception {
+        // "the" is an InnoDB stopword, required it would match no note
+        mockMvc
+            .perform(get("/api/notes/search").param("q", "the present perf"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].noteId").value(contains(presentPerfect.getId().intValue())))
+            .andExpect(jsonPath("$.[0].unitTitle").value("Present perfect"))
+            .andExpect(jsonPath("$.[0].snippet").value(containsString("<mark>present</mark> <mark>perf</mark>ect")));
+    }
+
+    @Test
+    void searchNotesNewestFirstWithNextLink() throws Exception {
+        mockMvc
+            .perform(get("/api/notes/search").param("q", "present").param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].noteId").value(contains(presentContinuous.getId().intValue())))
+            .andExpect(header().string("Link", containsString("before=" + presentContinuous.getId())));
+
+        mockMvc
+            .perform(get("/api/notes/search").param("q", "present").param("before", presentContinuous.getId().toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].noteId").value(contains(presentPerfect.getId().intValue())))
+            .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    void updateNoteReturnsTheWrittenVersion() throws Exception {
+        NoteDTO note = new NoteDTO();
+        note.setId(presentPerfect.getId());
+        note.setUnitId(presentPerfect.getUnit().getId());
+        note.setContent("The present perfect: I have eaten.");
+        note.setCreatedAt(presentPerfect.getCreatedAt());
+
+        mockMvc
+            .perform(put("/api/notes/{id}", note.getId()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(note)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(writtenVersion(note.getId()).intValue()));
+
+        // Creating a note the user already has for the unit updates it
+        note.setId(null);
+        note.setContent("The present perfect: I have already eaten.");
+        mockMvc
+            .perform(post("/api/notes").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(note)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").value(presentPerfect.getId().intValue()))
+            .andExpect(jsonPath("$.version").value(writtenVersion(presentPerfect.getId()).intValue()));
+    }
+
+    @Test
+    void searchNotesWithoutIndexedWordsFindsNothing() throws Exception {
+        mockMvc
+            .perform(get("/api/notes/search").param("q", "to be or I"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    private Long writtenVersion(Long noteId) {
+        return jdbcTemplate.queryForObject("SELECT version FROM note WHERE id = ?", Long.class, noteId);
+    }
+
+    private UserProfile createUserProfile(String login) {
+        User user = UserResourceIT.createEntity();
+        user.setLogin(login);
+        UserProfile userProfile = new UserProfile().user(user);
+        persist(user, userProfile);
+        return userProfile;
+    }
+
+    private Note createNote(String content, UserProfile userProfile, Unit unit) {
+        Note note = new Note().content(content).createdAt(Instant.now()).userProfile(userProfile).unit(unit);
+        persist(note);
+        return note;
+    }
+
+    private void persist(Object... entities) {
+        for (Object entity : entities) {
+            em.persist(entity);
+            created.add(entity);
+        }
+        em.flush();
+    }
+}
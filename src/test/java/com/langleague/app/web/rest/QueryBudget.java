@@ -0,0 +1,72 @@
+package com.langleague.app.web.rest;
+
+import com.langleague.app.management.SqlStatementStatistics;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/**
+ * Fails a test if one of the requests it performs executes more SQL statements than the budget.
+ * <p>
+ * Requests are followed on the test thread, which is where {@code MockMvc} serves them. On a class, the budget applies
+ * to each of its tests, unless a test declares its own.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudget.Extension.class)
+public @interface QueryBudget {
+    /**
+     * Most SQL statements a request may execute.
+     */
+    int value();
+
+    class Extension implements BeforeEachCallback, AfterEachCallback {
+
+        private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudget.class);
+
+        @Override
+        public void beforeEach(ExtensionContext context) {
+            int budget = AnnotationSupport.findAnnotation(context.getTestMethod(), QueryBudget.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getTestClass(), QueryBudget.class))
+                .map(QueryBudget::value)
+                .orElseThrow();
+            List<String> overruns = new ArrayList<>();
+            context.getStore(NAMESPACE).put(Extension.class, overruns);
+            SqlStatementStatistics.observe(statistics -> {
+                if (statistics.getStatements() > budget) {
+                    Map.Entry<String, Integer> mostRepeated = statistics.getMostRepeatedStatement();
+                    overruns.add(
+                        String.format(
+                            "%s (%s): %d statements over a budget of %d%s",
+                            statistics.getRequest(),
+                            statistics.getHandler(),
+                            statistics.getStatements(),
+                            budget,
+                            mostRepeated == null ? "" : ", " + mostRepeated.getValue() + " times " + mostRepeated.getKey()
+                        )
+                    );
+                }
+            });
+        }
+
+        @Override
+        public void afterEach(ExtensionContext context) {
+            SqlStatementStatistics.stopObserving();
+            List<?> overruns = context.getStore(NAMESPACE).remove(Extension.class, List.class);
+            if (overruns != null && !overruns.isEmpty()) {
+                StringBuilder message = new StringBuilder("Query budget exceeded by:");
+                overruns.forEach(overrun -> message.append(System.lineSeparator()).append("  ").append(overrun));
+                throw new AssertionError(message);
+            }
+        }
+    }
+}
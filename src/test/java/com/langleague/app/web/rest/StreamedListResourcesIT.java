@@ -0,0 +1,127 @@
+package com.langleague.app.web.rest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.langleague.app.IntegrationTest;
+import com.langleague.app.domain.Book;
+import com.langleague.app.domain.Grammar;
+import com.langleague.app.domain.Progress;
+import com.langleague.app.domain.Unit;
+import com.langleague.app.domain.User;
+import com.langleague.app.domain.UserProfile;
+import com.langleague.app.security.AuthoritiesConstants;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the list endpoints streamed from the database.
+ * <p>
+ * Rows are committed and the second-level cache is emptied, so that every association has to come from the streamed
+ * query: MySQL rejects any other statement on the connection while the result set is open.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.STUDENT)
+class StreamedListResourcesIT {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final List<Object> created = new ArrayList<>();
+
+    private UserProfile userProfile;
+
+    private Unit firstUnit;
+
+    @BeforeEach
+    void initTest() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User user = UserResourceIT.createEntity();
+            userProfile = new UserProfile().user(user);
+            Book book = new Book().title("Streamed book").isPublic(true).createdAt(Instant.now()).teacherProfile(userProfile);
+            firstUnit = new Unit().title("Streamed unit 1").orderIndex(1).book(book);
+            Unit secondUnit = new Unit().title("Streamed unit 2").orderIndex(2).book(book);
+            persist(user, userProfile, book, firstUnit, secondUnit);
+            persist(
+                new Grammar().title("Streamed grammar 1").contentMarkdown("First").orderIndex(1).unit(firstUnit),
+                new Grammar().title("Streamed grammar 2").contentMarkdown("Second").orderIndex(2).unit(firstUnit),
+                new Progress().isCompleted(false).updatedAt(Instant.now()).userProfile(userProfile).unit(firstUnit),
+                new Progress().isCompleted(true).updatedAt(Instant.now()).userProfile(userProfile).unit(secondUnit)
+            );
+        });
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void cleanup() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = created.size() - 1; i >= 0; i--) {
+                em.remove(em.merge(created.get(i)));
+            }
+        });
+        created.clear();
+    }
+
+    @Test
+    void streamGrammarsByUnit() throws Exception {
+        MvcResult result = mockMvc
+            .perform(get("/api/grammars/by-unit/{unitId}", firstUnit.getId()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].title").value(contains("Streamed grammar 1", "Streamed grammar 2")))
+            .andExpect(jsonPath("$.[*].unitTitle").value(contains("Streamed unit 1", "Streamed unit 1")));
+    }
+
+    @Test
+    void streamProgressesByUserProfile() throws Exception {
+        MvcResult result = mockMvc
+            .perform(get("/api/progresses/user/{userProfileId}", userProfile.getId()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[*].unit.bookTitle").value(contains("Streamed book", "Streamed book")));
+    }
+
+    private void persist(Object... entities) {
+        for (Object entity : entities) {
+            em.persist(entity);
+            created.add(entity);
+        }
+        em.flush();
+    }
+}